@@ -0,0 +1,19 @@
+-- Schema of a grade shard database, used with ShardedGradeDAO.
+-- Users and courses stay in the main database, so the foreign keys of the
+-- main grades table cannot be declared here; the application checks them.
+-- Grade IDs are allocated per connection with auto_increment_increment = 64
+-- and auto_increment_offset = shard number + 1, which keeps them unique
+-- across shards.
+CREATE DATABASE IF NOT EXISTS educagestor360_grades_0;
+USE educagestor360_grades_0;
+
+CREATE TABLE IF NOT EXISTS grades (
+    grade_id INT PRIMARY KEY AUTO_INCREMENT,
+    student_id INT NOT NULL,
+    course_id INT NOT NULL,
+    score DECIMAL(5,2),
+    comments TEXT,
+    version INT NOT NULL DEFAULT 0, -- Carried along when a grade moves between shards
+    INDEX idx_grades_course (course_id),
+    INDEX idx_grades_student (student_id)
+);
@@ -0,0 +1,28 @@
+-- Converts users.role of a main database created before it was an ENUM.
+-- New databases get the ENUM from schema.sql.
+-- Stops without changing anything if a role is not one of the three known
+-- names; fix or remove those rows first. Run with the mysql client, which
+-- understands DELIMITER.
+USE educagestor360;
+
+DROP PROCEDURE IF EXISTS check_046_roles;
+
+DELIMITER $$
+CREATE PROCEDURE check_046_roles()
+BEGIN
+    DECLARE unknown INT;
+    SELECT COUNT(*) INTO unknown FROM users
+        WHERE role IS NULL OR UPPER(TRIM(role)) NOT IN ('STUDENT', 'TEACHER', 'ADMIN');
+    IF unknown > 0 THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'users.role holds values other than STUDENT, TEACHER and ADMIN; migration 046 not applied';
+    END IF;
+END$$
+DELIMITER ;
+
+CALL check_046_roles();
+DROP PROCEDURE check_046_roles;
+
+-- Role.fromName accepted any case and surrounding blanks; the ENUM stores the member name.
+UPDATE users SET role = UPPER(TRIM(role));
+ALTER TABLE users MODIFY role ENUM('STUDENT', 'TEACHER', 'ADMIN') NOT NULL;
@@ -0,0 +1,8 @@
+-- Adds the row versions used for optimistic concurrency to a main database
+-- created before they were introduced. New databases get them from schema.sql.
+-- Existing rows start at version 0, like newly inserted ones.
+USE educagestor360;
+
+ALTER TABLE users ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE courses ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE grades ADD COLUMN version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Adds the row version to the grades table of a grade shard database created
+-- before it was introduced. Run it against every shard, changing the database
+-- name as in grade_shard_schema.sql. New shards get it from that file.
+USE educagestor360_grades_0;
+
+ALTER TABLE grades ADD COLUMN version INT NOT NULL DEFAULT 0;
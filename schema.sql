@@ -7,7 +7,8 @@ CREATE TABLE IF NOT EXISTS users (
     last_name VARCHAR(100) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
-    role VARCHAR(50) NOT NULL -- Consider ENUM('STUDENT', 'TEACHER', 'ADMIN')
+    role ENUM('STUDENT', 'TEACHER', 'ADMIN') NOT NULL, -- One byte per row; the member index is Role.getCode()
+    version INT NOT NULL DEFAULT 0 -- Bumped by every update; updates are conditional on the version read
 );
 
 CREATE TABLE IF NOT EXISTS courses (
@@ -17,7 +18,11 @@ CREATE TABLE IF NOT EXISTS courses (
     teacher_id INT,
     start_date DATE,
     end_date DATE,
-    FOREIGN KEY (teacher_id) REFERENCES users(user_id)
+    version INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (teacher_id) REFERENCES users(user_id),
+    -- Serve date-window and per-teacher schedule queries before the in-memory schedule is loaded.
+    INDEX idx_courses_dates (start_date, end_date),
+    INDEX idx_courses_teacher_dates (teacher_id, start_date, end_date)
 );
 
 CREATE TABLE IF NOT EXISTS grades (
@@ -26,6 +31,82 @@ CREATE TABLE IF NOT EXISTS grades (
     course_id INT NOT NULL,
     score DECIMAL(5,2),
     comments TEXT,
+    version INT NOT NULL DEFAULT 0,
     FOREIGN KEY (student_id) REFERENCES users(user_id),
-    FOREIGN KEY (course_id) REFERENCES courses(course_id)
-);
\ No newline at end of file
+    FOREIGN KEY (course_id) REFERENCES courses(course_id),
+    -- Covering indexes for the transcript and teacher workload reports (grade_id is implicit in both).
+    INDEX idx_grades_student_course_score (student_id, course_id, score),
+    INDEX idx_grades_course_student_score (course_id, student_id, score)
+);
+-- Transactional outbox: one row per committed DAO write, appended in the write's own transaction.
+CREATE TABLE IF NOT EXISTS change_outbox (
+    outbox_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type VARCHAR(16) NOT NULL,
+    mutation_kind VARCHAR(16) NOT NULL,
+    entity_id INT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+-- Last outbox_id processed by each change-event consumer.
+CREATE TABLE IF NOT EXISTS change_consumer_offsets (
+    consumer_name VARCHAR(100) PRIMARY KEY,
+    last_outbox_id BIGINT NOT NULL
+);
+
+-- Audit trail of DAO mutations, bulk-loaded from the local audit segments.
+CREATE TABLE IF NOT EXISTS audit_log (
+    audit_seq BIGINT PRIMARY KEY,
+    recorded_at TIMESTAMP(3) NOT NULL,
+    actor VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    mutation_kind VARCHAR(16) NOT NULL,
+    entity_id INT NOT NULL,
+    before_image TEXT,
+    after_image TEXT,
+    INDEX idx_audit_entity (entity_type, entity_id, audit_seq)
+);
+
+-- Results of the term-close recomputation jobs, replaced one ID range at a time.
+CREATE TABLE IF NOT EXISTS student_gpa (
+    student_id INT PRIMARY KEY,
+    gpa DECIMAL(5,2) NOT NULL, -- Mean of the student's per-course average scores
+    graded_courses INT NOT NULL,
+    grade_count INT NOT NULL,
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS course_statistics (
+    course_id INT PRIMARY KEY,
+    grade_count INT NOT NULL,
+    student_count INT NOT NULL,
+    mean_score DECIMAL(5,2) NOT NULL,
+    stddev_score DECIMAL(5,2) NOT NULL,
+    min_score DECIMAL(5,2) NOT NULL,
+    max_score DECIMAL(5,2) NOT NULL,
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (course_id) REFERENCES courses(course_id) ON DELETE CASCADE
+);
+
+-- Batch job runs and the partitions each has committed, so a failed run resumes where it stopped.
+CREATE TABLE IF NOT EXISTS batch_job_runs (
+    run_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    job_name VARCHAR(100) NOT NULL,
+    range_start INT NOT NULL,
+    range_end INT NOT NULL,
+    partition_size INT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    started_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    finished_at TIMESTAMP(3) NULL,
+    INDEX idx_batch_job_runs_name (job_name, status, run_id)
+);
+
+CREATE TABLE IF NOT EXISTS batch_job_checkpoints (
+    run_id BIGINT NOT NULL,
+    partition_start INT NOT NULL,
+    partition_end INT NOT NULL,
+    rows_written INT NOT NULL,
+    completed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (run_id, partition_start),
+    FOREIGN KEY (run_id) REFERENCES batch_job_runs(run_id)
+);
@@ -0,0 +1,50 @@
+package com.educagestor360.audit;
+
+/**
+ * The user on whose behalf the current thread is changing data, recorded as the
+ * actor of every audit record. Request handlers enter the authenticated user
+ * before calling audited DAOs; work done outside any context is attributed to
+ * {@link #SYSTEM}.
+ */
+public final class AuditContext {
+
+    public static final String SYSTEM = "system";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private AuditContext() {
+    }
+
+    /**
+     * Makes an actor current for this thread.
+     *
+     * @param actor The actor, such as a user's email.
+     * @return The previous actor, to hand to {@link #restore(String)}.
+     */
+    public static String enter(String actor) {
+        String previous = CURRENT.get();
+        CURRENT.set(actor);
+        return previous;
+    }
+
+    /**
+     * Reinstates the actor that was current before {@link #enter(String)}.
+     *
+     * @param previous The value returned by {@code enter}, possibly null.
+     */
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return The actor of the current thread, or {@link #SYSTEM} if none was entered.
+     */
+    public static String currentActor() {
+        String actor = CURRENT.get();
+        return actor != null ? actor : SYSTEM;
+    }
+}
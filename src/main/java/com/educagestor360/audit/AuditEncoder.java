@@ -0,0 +1,185 @@
+package com.educagestor360.audit;
+
+import com.educagestor360.auth.PasswordHasher;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+import java.util.Objects;
+
+/**
+ * Encodes audit records as lines of the segment files: tab-separated fields
+ * {@code seq, timestamp, actor, entity, kind, id, before, after}, with tabs,
+ * newlines and backslashes escaped and {@code \N} for NULL, the format MySQL
+ * reads natively. Entity images are JSON objects of their fields; passwords are
+ * never written, only whether they changed when the before image is known, and
+ * otherwise a stamp of the stored hash that differs once the password changes.
+ * The stamp is only written for salted slow hashes; a digest of a legacy
+ * plain-text password could be brute-forced from the log.
+ */
+final class AuditEncoder {
+
+    static final String NULL = "\\N";
+
+    private AuditEncoder() {
+    }
+
+    static void encode(StringBuilder line, long sequence, AuditRecord record) {
+        line.append(sequence).append('\t')
+                .append(record.timestamp).append('\t');
+        escape(line, record.actor);
+        line.append('\t').append(record.entityType.name())
+                .append('\t').append(record.kind.name())
+                .append('\t').append(record.entityId).append('\t');
+        image(line, record.before, null);
+        line.append('\t');
+        image(line, record.after, record.before);
+        line.append('\n');
+    }
+
+    /**
+     * Reverses the field escaping of {@link #encode(StringBuilder, long, AuditRecord)}.
+     *
+     * @return The field value, or null for {@code \N}.
+     */
+    static String unescape(String field) {
+        if (NULL.equals(field)) {
+            return null;
+        }
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder value = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char next = field.charAt(++i);
+                value.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * Returns a private copy of an entity, so the caller may keep modifying its own.
+     */
+    static Object snapshot(Object entity) {
+        if (entity instanceof User) {
+            return new User((User) entity);
+        }
+        if (entity instanceof Course) {
+            return new Course((Course) entity);
+        }
+        if (entity instanceof Grade) {
+            return new Grade((Grade) entity);
+        }
+        return entity;
+    }
+
+    private static void image(StringBuilder line, Object entity, Object before) {
+        if (entity == null) {
+            line.append(NULL);
+            return;
+        }
+        StringBuilder json = new StringBuilder(128).append('{');
+        if (entity instanceof User) {
+            User user = (User) entity;
+            field(json, "firstName", user.getFirstName());
+            field(json, "lastName", user.getLastName());
+            field(json, "email", user.getEmail());
+            field(json, "role", user.getRole());
+            if (before instanceof User) {
+                json.append(",\"passwordChanged\":")
+                        .append(!Objects.equals(((User) before).getPassword(), user.getPassword()));
+            } else if (PasswordHasher.isHashed(user.getPassword())) {
+                field(json, "passwordStamp", Integer.toHexString(user.getPassword().hashCode()));
+            }
+            json.append(",\"version\":").append(user.getVersion());
+        } else if (entity instanceof Course) {
+            Course course = (Course) entity;
+            field(json, "courseName", course.getCourseName());
+            field(json, "description", course.getDescription());
+            json.append(",\"teacherId\":").append(course.getTeacherId());
+            field(json, "startDate", course.getStartDate() != null ? course.getStartDate().toString() : null);
+            field(json, "endDate", course.getEndDate() != null ? course.getEndDate().toString() : null);
+            json.append(",\"version\":").append(course.getVersion());
+        } else if (entity instanceof Grade) {
+            Grade grade = (Grade) entity;
+            json.append("\"studentId\":").append(grade.getStudentId())
+                    .append(",\"courseId\":").append(grade.getCourseId())
+                    .append(",\"score\":").append(grade.getScore());
+            field(json, "comments", grade.getComments());
+            json.append(",\"version\":").append(grade.getVersion());
+        } else {
+            field(json, "value", String.valueOf(entity));
+        }
+        escape(line, json.append('}').toString());
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        json.append('"').append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static void escape(StringBuilder line, String value) {
+        if (value == null) {
+            line.append(NULL);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.educagestor360.audit;
+
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An append-only audit trail written asynchronously to local segment files.
+ *
+ * {@link #record} is the only work done on the request path: it copies the
+ * entity images and adds the record to a lock-free queue. A single writer
+ * thread drains the queue and group-commits each batch with one write and,
+ * optionally, one {@code force} on a {@link FileChannel}, so the cost of
+ * syncing is shared by every record in the batch.
+ *
+ * Records go to files named {@code audit-<first sequence>.log} in the audit
+ * directory. A new segment is started once the current one reaches the
+ * segment size and at every start, continuing the sequence of the last
+ * segment. Closed segments can be bulk-loaded into a table by an
+ * {@link AuditTableLoader}.
+ *
+ * The queue is bounded. When it is full a record is dropped rather than
+ * blocking the caller; drops are counted and reported on standard error.
+ */
+public final class AuditLog implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 65_536;
+    public static final int DEFAULT_BATCH_SIZE = 1_024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long segmentBytes;
+    private final boolean sync;
+
+    private final ConcurrentLinkedQueue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private long nextSequence;
+    private FileChannel channel;
+    private volatile Path activeSegment;
+    private long reportedDrops;
+
+    /**
+     * Opens an audit log with the default settings, syncing every batch.
+     *
+     * @param directory The directory holding the segment files; created if missing.
+     * @throws IOException if the directory or the first segment cannot be created.
+     */
+    public AuditLog(Path directory) throws IOException {
+        this(directory, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_SEGMENT_BYTES, true);
+    }
+
+    /**
+     * Opens an audit log.
+     *
+     * @param directory           The directory holding the segment files; created if missing.
+     * @param capacity            The most records waiting to be written before new ones are dropped.
+     * @param batchSize           The most records written per group commit.
+     * @param flushIntervalMillis The longest a record waits before its batch is written.
+     * @param segmentBytes        The size at which a segment is closed and the next one started.
+     * @param sync                Whether each batch is forced to disk before the next one is written.
+     * @throws IOException if the directory or the first segment cannot be created.
+     */
+    public AuditLog(Path directory, int capacity, int batchSize, long flushIntervalMillis, long segmentBytes, boolean sync)
+            throws IOException {
+        if (capacity <= 0 || batchSize <= 0 || flushIntervalMillis <= 0 || segmentBytes <= 0) {
+            throw new IllegalArgumentException("capacity, batchSize, flushIntervalMillis and segmentBytes must be positive");
+        }
+        this.directory = directory;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments(directory);
+        nextSequence = segments.isEmpty() ? 1 : lastSequenceIn(segments.get(segments.size() - 1)) + 1;
+        openSegment();
+        this.writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a mutation for the audit trail, attributed to the current {@link AuditContext} actor.
+     *
+     * @param entityType The kind of entity changed.
+     * @param kind       The kind of mutation.
+     * @param entityId   The ID of the entity.
+     * @param before     The entity before the change, or null for an insert or when it is not known.
+     * @param after      The entity after the change, or null for a delete.
+     * @return Whether the record was queued; false if the queue was full or the log is closed.
+     */
+    public boolean record(EntityType entityType, MutationKind kind, int entityId, Object before, Object after) {
+        if (!running) {
+            return false;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        queue.offer(new AuditRecord(System.currentTimeMillis(), AuditContext.currentActor(), entityType, kind, entityId,
+                AuditEncoder.snapshot(before), AuditEncoder.snapshot(after)));
+        return true;
+    }
+
+    /**
+     * @return The number of records written to segment files.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * @return The number of records dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of records waiting to be written.
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * @return The directory holding the segment files.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The segment currently being written, which must not be loaded or moved.
+     */
+    public Path getActiveSegment() {
+        return activeSegment;
+    }
+
+    /**
+     * Writes every queued record, stops the writer and closes the current segment.
+     *
+     * @throws IOException if the last batch cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the audit log", e);
+        }
+    }
+
+    private void run() {
+        StringBuilder batch = new StringBuilder(64 * 1024);
+        try {
+            while (running || !queue.isEmpty()) {
+                int count = drain(batch);
+                if (count == 0) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                    continue;
+                }
+                writeBatch(batch, count);
+                if (count < batchSize && running) {
+                    // Let the next batch accumulate instead of writing records one by one.
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Audit log writer stopped: " + e.getMessage());
+            running = false;
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing audit segment: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Helper method that encodes up to one batch of queued records.
+     * @return The number of records encoded.
+     */
+    private int drain(StringBuilder batch) {
+        batch.setLength(0);
+        int count = 0;
+        AuditRecord record;
+        while (count < batchSize && (record = queue.poll()) != null) {
+            queued.decrementAndGet();
+            AuditEncoder.encode(batch, nextSequence++, record);
+            count++;
+        }
+        return count;
+    }
+
+    private void writeBatch(StringBuilder batch, int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+        written.addAndGet(count);
+        long drops = dropped.get();
+        if (drops > reportedDrops) {
+            System.err.println("Audit log queue full: " + (drops - reportedDrops) + " records dropped");
+            reportedDrops = drops;
+        }
+        if (channel.size() >= segmentBytes) {
+            channel.force(true);
+            channel.close();
+            openSegment();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSegment = segment;
+    }
+
+    /**
+     * Lists the segment files of a directory in sequence order.
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Helper method that finds the sequence of the last complete record of a segment,
+     * from its file name if it holds none.
+     */
+    private static long lastSequenceIn(Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        long first = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = file.size();
+            int tail = (int) Math.min(size, 64 * 1024);
+            ByteBuffer buffer = ByteBuffer.allocate(tail);
+            file.read(buffer, size - tail);
+            String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            // A torn record after a crash has no final newline and is ignored.
+            int end = text.lastIndexOf('\n');
+            if (end < 0) {
+                return first - 1;
+            }
+            int start = text.lastIndexOf('\n', end - 1) + 1;
+            return Long.parseLong(text.substring(start, text.indexOf('\t', start)));
+        }
+    }
+}
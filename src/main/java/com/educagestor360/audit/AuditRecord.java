@@ -0,0 +1,30 @@
+package com.educagestor360.audit;
+
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+
+/**
+ * One audited mutation as queued on the request path. The before and after
+ * images are private copies of the entity, encoded only by the writer thread.
+ */
+final class AuditRecord {
+
+    final long timestamp;
+    final String actor;
+    final EntityType entityType;
+    final MutationKind kind;
+    final int entityId;
+    final Object before;
+    final Object after;
+
+    AuditRecord(long timestamp, String actor, EntityType entityType, MutationKind kind, int entityId,
+                Object before, Object after) {
+        this.timestamp = timestamp;
+        this.actor = actor;
+        this.entityType = entityType;
+        this.kind = kind;
+        this.entityId = entityId;
+        this.before = before;
+        this.after = after;
+    }
+}
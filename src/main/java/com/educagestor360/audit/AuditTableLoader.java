@@ -0,0 +1,177 @@
+package com.educagestor360.audit;
+
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically bulk-loads closed audit segments into the {@code audit_log} table.
+ *
+ * Each closed segment is inserted with batched statements in transactions of
+ * {@link #ROWS_PER_TRANSACTION} rows and renamed to {@code .loaded} once done.
+ * Rows are keyed by their audit sequence and inserted with INSERT IGNORE, so a
+ * segment interrupted half-way is simply loaded again. The segment being
+ * written is never touched.
+ */
+public class AuditTableLoader implements Closeable {
+
+    public static final int ROWS_PER_TRANSACTION = 1_000;
+    static final String LOADED_SUFFIX = ".loaded";
+
+    private static final String INSERT_AUDIT_SQL = "INSERT IGNORE INTO audit_log (audit_seq, recorded_at, actor, entity_type, "
+            + "mutation_kind, entity_id, before_image, after_image) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AuditLog log;
+    private final ConnectionProvider connections;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a loader into the main database of {@link DatabaseConnector}.
+     *
+     * @param log The audit log whose closed segments are loaded.
+     */
+    public AuditTableLoader(AuditLog log) {
+        this(log, DatabaseConnector::getConnection);
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param log         The audit log whose closed segments are loaded.
+     * @param connections Where connections to the audit database come from.
+     */
+    public AuditTableLoader(AuditLog log, ConnectionProvider connections) {
+        this.log = log;
+        this.connections = connections;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "audit-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads closed segments at a fixed interval until the loader is closed.
+     *
+     * @param intervalMillis The time between two runs.
+     */
+    public void start(long intervalMillis) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                loadClosedSegments();
+            } catch (SQLException | IOException e) {
+                System.err.println("Error loading audit segments: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads every closed segment not loaded yet.
+     *
+     * @return The number of rows sent to the table.
+     * @throws SQLException if a database access error occurs; the segment is retried on the next run.
+     * @throws IOException  if a segment cannot be read or renamed.
+     */
+    public long loadClosedSegments() throws SQLException, IOException {
+        long rows = 0;
+        Path active = log.getActiveSegment();
+        for (Path segment : AuditLog.listSegments(log.getDirectory())) {
+            if (segment.equals(active)) {
+                continue;
+            }
+            rows += load(segment);
+            Files.move(segment, segment.resolveSibling(segment.getFileName() + LOADED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        }
+        return rows;
+    }
+
+    /**
+     * Stops the periodic loading.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Helper method that inserts the complete records of one segment.
+     */
+    private long load(Path segment) throws SQLException, IOException {
+        long rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8);
+             Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(INSERT_AUDIT_SQL)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // A crash can leave a torn record without its newline at the very end; it is skipped.
+                boolean complete = endsWithNewline(segment);
+                int pending = 0;
+                String line = reader.readLine();
+                while (line != null) {
+                    String next = reader.readLine();
+                    String[] fields = line.split("\t", -1);
+                    if ((next == null && !complete) || fields.length != 8) {
+                        System.err.println("Skipping incomplete audit record in " + segment.getFileName());
+                        line = next;
+                        continue;
+                    }
+                    preparedStatement.setLong(1, Long.parseLong(fields[0]));
+                    preparedStatement.setTimestamp(2, new Timestamp(Long.parseLong(fields[1])));
+                    preparedStatement.setString(3, AuditEncoder.unescape(fields[2]));
+                    preparedStatement.setString(4, fields[3]);
+                    preparedStatement.setString(5, fields[4]);
+                    preparedStatement.setInt(6, Integer.parseInt(fields[5]));
+                    preparedStatement.setString(7, AuditEncoder.unescape(fields[6]));
+                    preparedStatement.setString(8, AuditEncoder.unescape(fields[7]));
+                    preparedStatement.addBatch();
+                    rows++;
+                    if (++pending == ROWS_PER_TRANSACTION) {
+                        preparedStatement.executeBatch();
+                        connection.commit();
+                        pending = 0;
+                    }
+                    line = next;
+                }
+                if (pending > 0) {
+                    preparedStatement.executeBatch();
+                    connection.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        return rows;
+    }
+
+    private static boolean endsWithNewline(Path segment) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (file.size() == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            file.read(last, file.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.educagestor360.audit;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Course;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Wraps a UserDAO, CourseDAO or GradeDAO so that every mutation is recorded in
+ * an {@link AuditLog}, without touching the implementation.
+ *
+ * Methods starting with {@code add}, {@code update} and {@code delete} are
+ * audited, whether they take one entity or a collection of them, which are
+ * recorded one by one. An update by ID alone, such as
+ * {@code UserDAO.updatePassword}, is recorded without an image when it wrote.
+ * The cascading deletes are recorded row by row from their progress
+ * callbacks: every grade deleted, every course detached from a deleted
+ * teacher and the parent row itself.
+ *
+ * Only after images are recorded, so auditing adds no query to a mutation.
+ * Records are queued after commit by many threads, so their sequence order
+ * can differ from commit order; the before image of an update is the record
+ * of the same entity whose version is one below that of its after image,
+ * and that of a delete the record with the highest version. An update is
+ * recorded only when it advanced the entity's version, and a delete only
+ * when it removed a row.
+ */
+public final class AuditedDAO {
+
+    private AuditedDAO() {
+    }
+
+    /**
+     * Wraps a DAO.
+     *
+     * @param type     The DAO interface: {@code UserDAO.class}, {@code CourseDAO.class} or {@code GradeDAO.class}.
+     * @param delegate The implementation to audit.
+     * @param log      The audit log to record to.
+     * @param <T>      The DAO interface type.
+     * @return A proxy implementing {@code type} that audits each mutation.
+     * @throws IllegalArgumentException if the interface does not manage an entity the audit log knows.
+     */
+    public static <T> T wrap(Class<T> type, T delegate, AuditLog log) {
+        String entity = type.getSimpleName().replace("DAO", "");
+        EntityType entityType = EntityType.valueOf(entity.toUpperCase(Locale.ROOT));
+        Method idOf;
+        Method versionOf;
+        try {
+            Class<?> entityClass = type.getMethod("get" + entity + "ById", int.class).getReturnType();
+            idOf = entityClass.getMethod("get" + entity + "Id");
+            versionOf = entityClass.getMethod("getVersion");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " does not manage a versioned " + entity, e);
+        }
+        Class<?> entityClass = idOf.getDeclaringClass();
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return p == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    default:
+                        return "Audited" + delegate;
+                }
+            }
+            String name = method.getName();
+            Object argument = args != null && args.length > 0 ? args[0] : null;
+            List<Object> entities = entitiesOf(entityClass, argument);
+            if (name.startsWith("add") && !entities.isEmpty()) {
+                Object result = invoke(delegate, method, args);
+                for (Object added : entities) {
+                    log.record(entityType, MutationKind.INSERT, (Integer) idOf.invoke(added), null, added);
+                }
+                return result;
+            }
+            if (name.startsWith("update") && !entities.isEmpty()) {
+                int[] versions = new int[entities.size()];
+                for (int i = 0; i < versions.length; i++) {
+                    versions[i] = (Integer) versionOf.invoke(entities.get(i));
+                }
+                Object result = invoke(delegate, method, args);
+                for (int i = 0; i < versions.length; i++) {
+                    Object updated = entities.get(i);
+                    if ((Integer) versionOf.invoke(updated) != versions[i]) {
+                        log.record(entityType, MutationKind.UPDATE, (Integer) idOf.invoke(updated), null, updated);
+                    }
+                }
+                return result;
+            }
+            if (name.startsWith("update") && argument instanceof Integer) {
+                // A partial update by ID, such as updatePassword, which reports whether it wrote.
+                Object result = invoke(delegate, method, args);
+                if (Boolean.TRUE.equals(result)) {
+                    log.record(entityType, MutationKind.UPDATE, (Integer) argument, null, null);
+                }
+                return result;
+            }
+            if (name.startsWith("delete") && argument instanceof Integer) {
+                if (args.length == 2 && args[1] instanceof CascadeDeleteProgress) {
+                    Object[] audited = {argument, auditing(entityType, (CascadeDeleteProgress) args[1], log)};
+                    return invoke(delegate, method, audited);
+                }
+                Object result = invoke(delegate, method, args);
+                if (Boolean.TRUE.equals(result)) {
+                    log.record(entityType, MutationKind.DELETE, (Integer) argument, null, null);
+                }
+                return result;
+            }
+            return invoke(delegate, method, args);
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Helper method that returns the entities a mutation was called with: the argument
+     * itself, or the entities of a collection argument. Empty if there are none.
+     */
+    private static List<Object> entitiesOf(Class<?> entityClass, Object argument) {
+        List<Object> entities = new ArrayList<>();
+        if (entityClass.isInstance(argument)) {
+            entities.add(argument);
+        } else if (argument instanceof Collection) {
+            for (Object element : (Collection<?>) argument) {
+                if (entityClass.isInstance(element)) {
+                    entities.add(element);
+                }
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Helper method that wraps the progress of a cascading delete so that each row it
+     * reports is recorded, then passed on to the caller's progress.
+     */
+    private static CascadeDeleteProgress auditing(EntityType parentType, CascadeDeleteProgress progress, AuditLog log) {
+        CascadeDeleteProgress target = progress != null ? progress : CascadeDeleteProgress.NONE;
+        return new CascadeDeleteProgress() {
+            @Override
+            public void onChunkDeleted(String table, int parentId, int chunkRows, long totalRows) {
+                if (!"grades".equals(table) && chunkRows > 0) {
+                    log.record(parentType, MutationKind.DELETE, parentId, null, null);
+                }
+                target.onChunkDeleted(table, parentId, chunkRows, totalRows);
+            }
+
+            @Override
+            public void onGradesDeleted(int parentId, int[] gradeIds) {
+                for (int gradeId : gradeIds) {
+                    log.record(EntityType.GRADE, MutationKind.DELETE, gradeId, null, null);
+                }
+                target.onGradesDeleted(parentId, gradeIds);
+            }
+
+            @Override
+            public void onCoursesDetached(int teacherId, List<Course> courses) {
+                for (Course course : courses) {
+                    log.record(EntityType.COURSE, MutationKind.UPDATE, course.getCourseId(), null, course);
+                }
+                target.onCoursesDetached(teacherId, courses);
+            }
+        };
+    }
+
+    private static Object invoke(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.educagestor360.auth;
+
+/**
+ * The outcome of a login attempt.
+ */
+public final class AuthenticationResult {
+
+    /**
+     * The possible outcomes of a login attempt.
+     */
+    public enum Status {
+        /** The credentials are valid. */
+        SUCCESS,
+        /** The email is unknown or the password does not match. */
+        INVALID_CREDENTIALS,
+        /** The attempt was shed because the hashing pool is saturated; the client should retry later. */
+        OVERLOADED
+    }
+
+    private static final AuthenticationResult INVALID = new AuthenticationResult(Status.INVALID_CREDENTIALS, 0, null);
+    private static final AuthenticationResult OVERLOADED = new AuthenticationResult(Status.OVERLOADED, 0, null);
+
+    private final Status status;
+    private final int userId;
+    private final String role;
+
+    private AuthenticationResult(Status status, int userId, String role) {
+        this.status = status;
+        this.userId = userId;
+        this.role = role;
+    }
+
+    static AuthenticationResult success(int userId, String role) {
+        return new AuthenticationResult(Status.SUCCESS, userId, role);
+    }
+
+    static AuthenticationResult invalid() {
+        return INVALID;
+    }
+
+    static AuthenticationResult overloaded() {
+        return OVERLOADED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    /**
+     * @return The ID of the authenticated user, or 0 if the attempt did not succeed.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return The role of the authenticated user, or null if the attempt did not succeed.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticationResult{" +
+               "status=" + status +
+               ", userId=" + userId +
+               ", role='" + role + '\'' +
+               '}';
+    }
+}
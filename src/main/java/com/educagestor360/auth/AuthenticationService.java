@@ -0,0 +1,244 @@
+package com.educagestor360.auth;
+
+import com.educagestor360.dao.UserDAO;
+import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login and registration on top of {@link UserDAO}, with salted slow hashes.
+ *
+ * Password verification is CPU-bound, so it runs on a dedicated pool sized to
+ * the number of cores with a bounded queue. When the queue is full a login is
+ * shed immediately with {@link AuthenticationResult.Status#OVERLOADED} instead
+ * of waiting, and a login that cannot be verified before its deadline is shed
+ * as well. This keeps the latency of accepted logins predictable during a
+ * burst. The credential lookup runs on the caller's thread and only fetches
+ * the ID, hash and role.
+ *
+ * Users still holding a legacy plain-text password have it replaced by a hash
+ * on their first successful login, before the login returns, so that the
+ * plain text does not outlive it. Hashes with fewer iterations than the
+ * hasher's are upgraded in the background instead: only the hashing runs on
+ * the hashing pool, and the new hash is stored from a small separate pool, so
+ * that database round trips never hold a hashing thread.
+ */
+public class AuthenticationService implements Closeable {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+
+    private static final int REHASH_WRITER_THREADS = 2;
+    private static final int REHASH_WRITE_QUEUE_CAPACITY = 1_024;
+
+    private final UserDAO userDAO;
+    private final PasswordHasher hasher;
+    private final ThreadPoolExecutor hashingPool;
+    private final ThreadPoolExecutor rehashWriter;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final String dummyHash;
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * Creates a service with a pool sized to the available cores, a queue of
+     * eight pending verifications per core and the default timeout.
+     *
+     * @param userDAO The DAO used to look up and store users.
+     */
+    public AuthenticationService(UserDAO userDAO) {
+        this(userDAO, new PasswordHasher(), Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * 8, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param userDAO       The DAO used to look up and store users.
+     * @param hasher        The password hasher.
+     * @param threads       The number of hashing threads.
+     * @param queueCapacity The maximum number of verifications waiting for a thread.
+     * @param timeoutMillis The maximum time a login waits for its verification.
+     */
+    public AuthenticationService(UserDAO userDAO, PasswordHasher hasher, int threads, int queueCapacity, long timeoutMillis) {
+        this.userDAO = userDAO;
+        this.hasher = hasher;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.hashingPool.prestartAllCoreThreads();
+        AtomicInteger writerCounter = new AtomicInteger();
+        this.rehashWriter = new ThreadPoolExecutor(REHASH_WRITER_THREADS, REHASH_WRITER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REHASH_WRITE_QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "password-rehash-writer-" + writerCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = hasher.hash("not-a-real-password".toCharArray());
+    }
+
+    /**
+     * Registers a new user, storing a hash of the given password.
+     * Hashing runs on the calling thread; registration is not part of the login burst.
+     *
+     * @param user     The user to add; its password field is overwritten with the hash.
+     * @param password The plain-text password, cleared once hashed.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void register(User user, char[] password) throws SQLException {
+        try {
+            user.setPassword(hasher.hash(password));
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+        userDAO.addUser(user);
+    }
+
+    /**
+     * Checks a user's credentials.
+     *
+     * @param email    The email address entered by the user.
+     * @param password The password entered by the user. The array is not modified.
+     * @return The result of the attempt.
+     * @throws SQLException if a database access error occurs.
+     */
+    public AuthenticationResult authenticate(String email, char[] password) throws SQLException {
+        // Shed before touching the database when verification could not start anyway.
+        if (hashingPool.getQueue().size() >= queueCapacity) {
+            shed.increment();
+            return AuthenticationResult.overloaded();
+        }
+        UserCredentials credentials = userDAO.getCredentialsByEmail(email);
+        char[] copy = Arrays.copyOf(password, password.length);
+        Future<Boolean> verification;
+        try {
+            verification = hashingPool.submit(() -> {
+                try {
+                    return verify(copy, credentials);
+                } finally {
+                    Arrays.fill(copy, '\0');
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(copy, '\0');
+            shed.increment();
+            return AuthenticationResult.overloaded();
+        }
+        try {
+            if (!verification.get(timeoutMillis, TimeUnit.MILLISECONDS) || credentials == null) {
+                return AuthenticationResult.invalid();
+            }
+        } catch (TimeoutException e) {
+            verification.cancel(false);
+            shed.increment();
+            return AuthenticationResult.overloaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Password verification failed", e.getCause());
+        }
+        if (!PasswordHasher.isHashed(credentials.getPasswordHash())) {
+            storeRehash(credentials.getUserId(), credentials.getPasswordHash(), hasher.hash(password));
+        } else if (hasher.needsRehash(credentials.getPasswordHash())) {
+            scheduleRehash(credentials.getUserId(), credentials.getPasswordHash(), password);
+        }
+        return AuthenticationResult.success(credentials.getUserId(), credentials.getRole());
+    }
+
+    /**
+     * @return The number of verifications currently waiting for a hashing thread.
+     */
+    public int getQueueDepth() {
+        return hashingPool.getQueue().size();
+    }
+
+    /**
+     * @return The number of logins shed because the pool was saturated.
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * Stops the hashing pool and the re-hash writer. Pending verifications and writes are allowed to finish.
+     */
+    @Override
+    public void close() {
+        hashingPool.shutdown();
+        rehashWriter.shutdown();
+    }
+
+    /**
+     * Helper method that verifies a password on a hashing thread. Unknown users are
+     * checked against a dummy hash so that response time does not reveal which
+     * email addresses exist.
+     */
+    private boolean verify(char[] password, UserCredentials credentials) {
+        if (credentials == null) {
+            hasher.verify(password, dummyHash);
+            return false;
+        }
+        String stored = credentials.getPasswordHash();
+        if (PasswordHasher.isHashed(stored)) {
+            return hasher.verify(password, stored);
+        }
+        return PasswordHasher.verifyPlainText(password, stored);
+    }
+
+    /**
+     * Helper method that upgrades a weaker hash in the background: the
+     * hashing pool computes the new hash, then the re-hash writer stores it only if
+     * the stored one is still the hash that was verified, so a password changed in
+     * the meantime is kept. Skipped silently when either pool is busy; it will be
+     * retried on a later login.
+     */
+    private void scheduleRehash(int userId, String verifiedHash, char[] password) {
+        char[] copy = Arrays.copyOf(password, password.length);
+        try {
+            hashingPool.execute(() -> {
+                String hash;
+                try {
+                    hash = hasher.hash(copy);
+                } finally {
+                    Arrays.fill(copy, '\0');
+                }
+                try {
+                    rehashWriter.execute(() -> storeRehash(userId, verifiedHash, hash));
+                } catch (RejectedExecutionException e) {
+                    // Dropped; the next login re-hashes again.
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(copy, '\0');
+        }
+    }
+
+    /**
+     * Helper method that stores a re-hashed password on the re-hash writer.
+     */
+    private void storeRehash(int userId, String verifiedHash, String hash) {
+        try {
+            userDAO.updatePassword(userId, verifiedHash, hash);
+        } catch (SQLException e) {
+            System.err.println("Error re-hashing password for user " + userId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.educagestor360.auth;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Produces and verifies salted, deliberately slow password hashes using
+ * PBKDF2 with HMAC-SHA256. Hashes are stored as
+ * {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} so the iteration count can
+ * be raised later without invalidating existing passwords.
+ */
+public class PasswordHasher {
+
+    public static final int DEFAULT_ITERATIONS = 100_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates a hasher with the default iteration count.
+     */
+    public PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Creates a hasher.
+     *
+     * @param iterations The PBKDF2 iteration count used for new hashes.
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password The password to hash.
+     * @return The encoded hash.
+     */
+    public String hash(char[] password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Checks a password against a stored hash in constant time.
+     *
+     * @param password The password to check.
+     * @param stored   The encoded hash produced by {@link #hash(char[])}.
+     * @return true if the password matches.
+     */
+    public boolean verify(char[] password, String stored) {
+        String[] parts = stored != null ? stored.split("\\$") : new String[0];
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks a password against a legacy plain-text stored value in constant
+     * time for a given length. The password is encoded straight from the char
+     * array, never through a String, and every byte copy is cleared afterwards.
+     *
+     * @param password The password to check.
+     * @param stored   The plain-text value stored before passwords were hashed.
+     * @return true if the password matches.
+     */
+    public static boolean verifyPlainText(char[] password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+        byte[] given = new byte[encoded.remaining()];
+        encoded.get(given);
+        byte[] expected = stored.getBytes(StandardCharsets.UTF_8);
+        try {
+            return MessageDigest.isEqual(given, expected);
+        } finally {
+            Arrays.fill(encoded.array(), (byte) 0);
+            Arrays.fill(given, (byte) 0);
+            Arrays.fill(expected, (byte) 0);
+        }
+    }
+
+    /**
+     * Tells whether a stored value was produced by this hasher.
+     * Anything else is a legacy plain-text password.
+     *
+     * @param stored The stored password value.
+     * @return true if the value is an encoded hash.
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * Tells whether a stored hash uses fewer iterations than this hasher.
+     *
+     * @param stored The encoded hash.
+     * @return true if the password should be re-hashed on the next successful login.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
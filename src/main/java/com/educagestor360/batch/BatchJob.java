@@ -0,0 +1,36 @@
+package com.educagestor360.batch;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A recomputation that can be split into ranges of IDs and run by a {@link BatchJobRunner}.
+ */
+public interface BatchJob {
+
+    /**
+     * @return The name under which runs and checkpoints of the job are recorded.
+     */
+    String getName();
+
+    /**
+     * @return A query returning the smallest and largest ID to process, as a single row of two columns.
+     */
+    String getBoundsSql();
+
+    /**
+     * Recomputes the results of one partition.
+     *
+     * The connection is inside a transaction that the runner commits, together
+     * with the checkpoint of the partition, once this method returns. An
+     * implementation reads its range with a single streaming query, closes it,
+     * and then replaces the stored results of the whole range, so processing a
+     * partition again gives the same outcome.
+     *
+     * @param connection The connection of the partition, with auto-commit off.
+     * @param partition  The range of IDs to process.
+     * @return The number of result rows written.
+     * @throws SQLException if a database access error occurs; the partition is then rolled back.
+     */
+    int process(Connection connection, JobPartition partition) throws SQLException;
+}
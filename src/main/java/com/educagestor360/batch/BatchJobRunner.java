@@ -0,0 +1,174 @@
+package com.educagestor360.batch;
+
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a {@link BatchJob} over its whole ID range, one partition per transaction.
+ *
+ * Every partition runs on its own virtual thread, but at most
+ * {@code parallelism} of them hold a database connection at any time, which
+ * caps the load the job puts on the primary. Each completed partition is
+ * checkpointed together with its results; when a partition fails no new ones
+ * are started, the run is marked failed, and the next call to
+ * {@link #run(BatchJob, int)} for the same job resumes it, skipping the
+ * partitions already done.
+ *
+ * Only one runner may execute a given job at a time.
+ */
+public class BatchJobRunner {
+
+    public static final int DEFAULT_PARTITION_SIZE = 1000;
+
+    private final ConnectionProvider connections;
+    private final int parallelism;
+    private final CheckpointStore checkpoints;
+
+    /**
+     * Creates a runner on the main database of {@link DatabaseConnector}.
+     *
+     * @param parallelism The maximum number of partitions processed concurrently,
+     *                    and therefore of database connections in use.
+     */
+    public BatchJobRunner(int parallelism) {
+        this(DatabaseConnector::getConnection, parallelism);
+    }
+
+    /**
+     * Creates a runner.
+     *
+     * @param connections Where connections come from.
+     * @param parallelism The maximum number of partitions processed concurrently.
+     */
+    public BatchJobRunner(ConnectionProvider connections, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.connections = connections;
+        this.parallelism = parallelism;
+        this.checkpoints = new CheckpointStore(connections);
+    }
+
+    /**
+     * Runs a job with the default partition size.
+     *
+     * @param job The job to run.
+     * @return The totals for the run.
+     * @throws SQLException if a partition fails; the run can then be resumed.
+     */
+    public JobReport run(BatchJob job) throws SQLException {
+        return run(job, DEFAULT_PARTITION_SIZE);
+    }
+
+    /**
+     * Runs a job, or resumes its last unfinished run.
+     *
+     * @param job           The job to run.
+     * @param partitionSize The number of IDs per partition; ignored when resuming,
+     *                      since a run keeps its partitions.
+     * @return The totals for the run.
+     * @throws SQLException if a partition fails; the run can then be resumed.
+     */
+    public JobReport run(BatchJob job, int partitionSize) throws SQLException {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("partitionSize must be positive: " + partitionSize);
+        }
+        long start = System.nanoTime();
+        CheckpointStore.JobRun run = checkpoints.begin(job, partitionSize);
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicLong rowsWritten = new AtomicLong();
+        List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("batch-" + job.getName() + "-", 0).factory())) {
+            for (JobPartition partition : run.pending) {
+                workers.execute(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        failures.add(new SQLException("Interrupted before partition " + partition + " of " + job.getName(), e));
+                        return;
+                    }
+                    try {
+                        if (failures.isEmpty()) {
+                            rowsWritten.addAndGet(processPartition(job, run.runId, partition));
+                        }
+                    } catch (SQLException | RuntimeException e) {
+                        failures.add(e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (!failures.isEmpty()) {
+            SQLException failure = failureOf(job, failures);
+            try {
+                checkpoints.finish(run.runId, CheckpointStore.FAILED);
+            } catch (SQLException e) {
+                failure.addSuppressed(e);
+            }
+            throw failure;
+        }
+        checkpoints.finish(run.runId, CheckpointStore.COMPLETED);
+        return new JobReport(job.getName(), run.runId, run.resumed, run.partitions.size(),
+                run.partitions.size() - run.pending.size(), rowsWritten.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Helper method that processes one partition and checkpoints it in a single transaction.
+     * @return The number of result rows written.
+     */
+    private int processPartition(BatchJob job, long runId, JobPartition partition) throws SQLException {
+        try (Connection connection = connections.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int rows = job.process(connection, partition);
+                checkpoints.recordPartition(connection, runId, partition, rows);
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Helper method that turns the failures of a run into one exception, the first
+     * failure carrying the others as suppressed exceptions.
+     */
+    private static SQLException failureOf(BatchJob job, List<Exception> failures) {
+        Exception first = failures.get(0);
+        SQLException failure = first instanceof SQLException
+                ? (SQLException) first
+                : new SQLException("Batch job " + job.getName() + " failed", first);
+        for (int i = 1; i < failures.size(); i++) {
+            failure.addSuppressed(failures.get(i));
+        }
+        return failure;
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back batch partition: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.educagestor360.batch;
+
+import com.educagestor360.util.ConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records batch job runs in {@code batch_job_runs} and their completed
+ * partitions in {@code batch_job_checkpoints}, so that a run that failed or
+ * was interrupted resumes where it stopped instead of starting over.
+ *
+ * A checkpoint is written in the transaction of the partition it describes,
+ * so a partition is recorded as complete if and only if its results committed.
+ */
+final class CheckpointStore {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private static final String SELECT_UNFINISHED_RUN_SQL = "SELECT run_id, range_start, range_end, partition_size "
+            + "FROM batch_job_runs WHERE job_name = ? AND status <> 'COMPLETED' ORDER BY run_id DESC LIMIT 1";
+    private static final String INSERT_RUN_SQL = "INSERT INTO batch_job_runs (job_name, range_start, range_end, partition_size, status) "
+            + "VALUES (?, ?, ?, ?, 'RUNNING')";
+    private static final String RESUME_RUN_SQL = "UPDATE batch_job_runs SET range_end = ?, status = 'RUNNING', finished_at = NULL WHERE run_id = ?";
+    private static final String FINISH_RUN_SQL = "UPDATE batch_job_runs SET status = ?, finished_at = CURRENT_TIMESTAMP(3) WHERE run_id = ?";
+    private static final String SELECT_CHECKPOINTS_SQL = "SELECT partition_start FROM batch_job_checkpoints WHERE run_id = ?";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO batch_job_checkpoints (run_id, partition_start, partition_end, rows_written) "
+            + "VALUES (?, ?, ?, ?)";
+
+    /**
+     * A run being executed: its fixed partitioning and the partitions still to do.
+     */
+    static final class JobRun {
+        final long runId;
+        final boolean resumed;
+        final List<JobPartition> partitions;
+        final List<JobPartition> pending;
+
+        JobRun(long runId, boolean resumed, List<JobPartition> partitions, List<JobPartition> pending) {
+            this.runId = runId;
+            this.resumed = resumed;
+            this.partitions = partitions;
+            this.pending = pending;
+        }
+    }
+
+    private final ConnectionProvider connections;
+
+    CheckpointStore(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Resumes the last unfinished run of a job, or starts a new one. A resumed
+     * run keeps its partition boundaries; its range is only extended when IDs
+     * were added past its end in the meantime.
+     *
+     * @param job           The job to run.
+     * @param partitionSize The number of IDs per partition of a new run.
+     * @return The run, with the partitions still to process.
+     * @throws SQLException if a database access error occurs.
+     */
+    JobRun begin(BatchJob job, int partitionSize) throws SQLException {
+        try (Connection connection = connections.getConnection()) {
+            long[] bounds = readBounds(connection, job.getBoundsSql());
+            try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_UNFINISHED_RUN_SQL)) {
+                preparedStatement.setString(1, job.getName());
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    if (rs.next()) {
+                        long runId = rs.getLong(1);
+                        int rangeStart = rs.getInt(2);
+                        int rangeEnd = (int) Math.max(rs.getInt(3), bounds == null ? 0 : bounds[1] + 1);
+                        return resume(connection, runId, rangeStart, rangeEnd, rs.getInt(4));
+                    }
+                }
+            }
+            int rangeStart = bounds == null ? 0 : (int) bounds[0];
+            int rangeEnd = bounds == null ? 0 : (int) (bounds[1] + 1);
+            long runId;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_RUN_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                preparedStatement.setString(1, job.getName());
+                preparedStatement.setInt(2, rangeStart);
+                preparedStatement.setInt(3, rangeEnd);
+                preparedStatement.setInt(4, partitionSize);
+                preparedStatement.executeUpdate();
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    generatedKeys.next();
+                    runId = generatedKeys.getLong(1);
+                }
+            }
+            List<JobPartition> partitions = partition(rangeStart, rangeEnd, partitionSize);
+            return new JobRun(runId, false, partitions, partitions);
+        }
+    }
+
+    /**
+     * Records a partition as complete, inside the transaction that wrote its results.
+     *
+     * @param connection  The connection of the partition, with auto-commit off.
+     * @param runId       The ID of the run.
+     * @param partition   The partition.
+     * @param rowsWritten The number of result rows written.
+     * @throws SQLException if a database access error occurs.
+     */
+    void recordPartition(Connection connection, long runId, JobPartition partition, int rowsWritten) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_CHECKPOINT_SQL)) {
+            preparedStatement.setLong(1, runId);
+            preparedStatement.setInt(2, partition.getStart());
+            preparedStatement.setInt(3, partition.getEnd());
+            preparedStatement.setInt(4, rowsWritten);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Marks a run as completed or failed.
+     *
+     * @param runId  The ID of the run.
+     * @param status {@link #COMPLETED} or {@link #FAILED}.
+     * @throws SQLException if a database access error occurs.
+     */
+    void finish(long runId, String status) throws SQLException {
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(FINISH_RUN_SQL)) {
+            preparedStatement.setString(1, status);
+            preparedStatement.setLong(2, runId);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Helper method that reopens an unfinished run and drops its completed partitions.
+     */
+    private JobRun resume(Connection connection, long runId, int rangeStart, int rangeEnd, int partitionSize) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(RESUME_RUN_SQL)) {
+            preparedStatement.setInt(1, rangeEnd);
+            preparedStatement.setLong(2, runId);
+            preparedStatement.executeUpdate();
+        }
+        Set<Integer> completed = new HashSet<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_CHECKPOINTS_SQL)) {
+            preparedStatement.setLong(1, runId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    completed.add(rs.getInt(1));
+                }
+            }
+        }
+        List<JobPartition> partitions = partition(rangeStart, rangeEnd, partitionSize);
+        List<JobPartition> pending = new ArrayList<>();
+        for (JobPartition partition : partitions) {
+            if (!completed.contains(partition.getStart())) {
+                pending.add(partition);
+            }
+        }
+        return new JobRun(runId, true, partitions, pending);
+    }
+
+    /**
+     * Helper method that reads the smallest and largest ID to process.
+     * @return The two bounds, or null when there is nothing to process.
+     */
+    private static long[] readBounds(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql);
+             ResultSet rs = preparedStatement.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            long min = rs.getLong(1);
+            if (rs.wasNull()) {
+                return null;
+            }
+            return new long[] {min, rs.getLong(2)};
+        }
+    }
+
+    private static List<JobPartition> partition(int rangeStart, int rangeEnd, int partitionSize) {
+        List<JobPartition> partitions = new ArrayList<>();
+        for (long start = rangeStart; start < rangeEnd; start += partitionSize) {
+            partitions.add(new JobPartition((int) start, (int) Math.min(start + partitionSize, rangeEnd)));
+        }
+        return partitions;
+    }
+}
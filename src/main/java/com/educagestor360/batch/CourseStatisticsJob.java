@@ -0,0 +1,156 @@
+package com.educagestor360.batch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Recomputes the score statistics of every course into {@code course_statistics}:
+ * the number of grades and of graded students, and the mean, standard
+ * deviation, minimum and maximum score.
+ *
+ * Partitions are ranges of course IDs; each is read with one query ordered
+ * along the {@code (course_id, student_id, score)} index, so distinct students
+ * are counted without a sort and only one course is held at a time.
+ *
+ * Scores are read from the grades table of the main database only; courses
+ * whose grades live on shards of
+ * {@link com.educagestor360.dao.shard.ShardedGradeDAO} get no statistics.
+ */
+public class CourseStatisticsJob implements BatchJob {
+
+    public static final String NAME = "course-statistics";
+    public static final int WRITE_BATCH_SIZE = 500;
+
+    private static final String SELECT_BOUNDS_SQL = "SELECT MIN(course_id), MAX(course_id) FROM courses";
+    private static final String SELECT_SCORES_SQL = "SELECT course_id, student_id, score FROM grades "
+            + "WHERE course_id >= ? AND course_id < ? AND score IS NOT NULL ORDER BY course_id, student_id";
+    private static final String DELETE_STATISTICS_RANGE_SQL = "DELETE FROM course_statistics WHERE course_id >= ? AND course_id < ?";
+    private static final String INSERT_STATISTICS_SQL = "INSERT INTO course_statistics (course_id, grade_count, student_count, "
+            + "mean_score, stddev_score, min_score, max_score) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getBoundsSql() {
+        return SELECT_BOUNDS_SQL;
+    }
+
+    @Override
+    public int process(Connection connection, JobPartition partition) throws SQLException {
+        Results results = new Results();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_SCORES_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole range.
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            preparedStatement.setInt(1, partition.getStart());
+            preparedStatement.setInt(2, partition.getEnd());
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    results.accept(rs.getInt(1), rs.getInt(2), rs.getDouble(3));
+                }
+            }
+        }
+        results.finish();
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(DELETE_STATISTICS_RANGE_SQL)) {
+            preparedStatement.setInt(1, partition.getStart());
+            preparedStatement.setInt(2, partition.getEnd());
+            preparedStatement.executeUpdate();
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_STATISTICS_SQL)) {
+            for (int i = 0; i < results.size; i++) {
+                preparedStatement.setInt(1, results.courseIds[i]);
+                preparedStatement.setInt(2, results.gradeCounts[i]);
+                preparedStatement.setInt(3, results.studentCounts[i]);
+                preparedStatement.setDouble(4, results.means[i]);
+                preparedStatement.setDouble(5, results.stddevs[i]);
+                preparedStatement.setDouble(6, results.mins[i]);
+                preparedStatement.setDouble(7, results.maxes[i]);
+                preparedStatement.addBatch();
+                if ((i + 1) % WRITE_BATCH_SIZE == 0) {
+                    preparedStatement.executeBatch();
+                }
+            }
+            if (results.size % WRITE_BATCH_SIZE != 0) {
+                preparedStatement.executeBatch();
+            }
+        }
+        return results.size;
+    }
+
+    /**
+     * Folds scores ordered by course and student into one row of statistics per
+     * course, kept in columns until they are written. The mean and variance are
+     * accumulated with Welford's method, which stays accurate in one pass.
+     */
+    private static final class Results {
+        int[] courseIds = new int[64];
+        int[] gradeCounts = new int[64];
+        int[] studentCounts = new int[64];
+        double[] means = new double[64];
+        double[] stddevs = new double[64];
+        double[] mins = new double[64];
+        double[] maxes = new double[64];
+        int size;
+
+        private int course;
+        private int student;
+        private int grades;
+        private int students;
+        private double mean;
+        private double squaredDeviations;
+        private double min;
+        private double max;
+
+        void accept(int nextCourse, int nextStudent, double score) {
+            if (grades > 0 && nextCourse != course) {
+                finish();
+            }
+            if (grades == 0 || nextStudent != student) {
+                students++;
+            }
+            course = nextCourse;
+            student = nextStudent;
+            grades++;
+            double delta = score - mean;
+            mean += delta / grades;
+            squaredDeviations += delta * (score - mean);
+            min = grades == 1 ? score : Math.min(min, score);
+            max = grades == 1 ? score : Math.max(max, score);
+        }
+
+        void finish() {
+            if (grades == 0) {
+                return;
+            }
+            if (size == courseIds.length) {
+                int capacity = size * 2;
+                courseIds = Arrays.copyOf(courseIds, capacity);
+                gradeCounts = Arrays.copyOf(gradeCounts, capacity);
+                studentCounts = Arrays.copyOf(studentCounts, capacity);
+                means = Arrays.copyOf(means, capacity);
+                stddevs = Arrays.copyOf(stddevs, capacity);
+                mins = Arrays.copyOf(mins, capacity);
+                maxes = Arrays.copyOf(maxes, capacity);
+            }
+            courseIds[size] = course;
+            gradeCounts[size] = grades;
+            studentCounts[size] = students;
+            means[size] = mean;
+            stddevs[size] = Math.sqrt(squaredDeviations / grades);
+            mins[size] = min;
+            maxes[size] = max;
+            size++;
+            grades = 0;
+            students = 0;
+            mean = 0;
+            squaredDeviations = 0;
+        }
+    }
+}
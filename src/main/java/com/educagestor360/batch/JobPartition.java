@@ -0,0 +1,37 @@
+package com.educagestor360.batch;
+
+/**
+ * A half-open range of IDs processed by a {@link BatchJob} in one transaction.
+ */
+public final class JobPartition {
+
+    private final int start;
+    private final int end;
+
+    /**
+     * Creates a partition.
+     *
+     * @param start The first ID of the range.
+     * @param end   The ID just past the range.
+     */
+    public JobPartition(int start, int end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Empty partition: [" + start + ", " + end + ")");
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + ")";
+    }
+}
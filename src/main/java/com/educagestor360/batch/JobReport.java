@@ -0,0 +1,85 @@
+package com.educagestor360.batch;
+
+/**
+ * Totals for a completed batch job run.
+ */
+public final class JobReport {
+
+    private final String jobName;
+    private final long runId;
+    private final boolean resumed;
+    private final int partitions;
+    private final int skippedPartitions;
+    private final long rowsWritten;
+    private final long elapsedMillis;
+
+    /**
+     * Creates a report.
+     *
+     * @param jobName           The name of the job.
+     * @param runId             The ID of the run in {@code batch_job_runs}.
+     * @param resumed           Whether the run continued a failed or interrupted one.
+     * @param partitions        The total number of partitions of the run.
+     * @param skippedPartitions The partitions already completed by an earlier attempt.
+     * @param rowsWritten       The result rows written by this attempt.
+     * @param elapsedMillis     The wall-clock duration of this attempt.
+     */
+    public JobReport(String jobName, long runId, boolean resumed, int partitions, int skippedPartitions,
+                     long rowsWritten, long elapsedMillis) {
+        this.jobName = jobName;
+        this.runId = runId;
+        this.resumed = resumed;
+        this.partitions = partitions;
+        this.skippedPartitions = skippedPartitions;
+        this.rowsWritten = rowsWritten;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getSkippedPartitions() {
+        return skippedPartitions;
+    }
+
+    /**
+     * @return The number of partitions processed by this attempt.
+     */
+    public int getProcessedPartitions() {
+        return partitions - skippedPartitions;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "JobReport{" +
+               "jobName='" + jobName + '\'' +
+               ", runId=" + runId +
+               ", resumed=" + resumed +
+               ", partitions=" + partitions +
+               ", skippedPartitions=" + skippedPartitions +
+               ", rowsWritten=" + rowsWritten +
+               ", elapsedMillis=" + elapsedMillis +
+               '}';
+    }
+}
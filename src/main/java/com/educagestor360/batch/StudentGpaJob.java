@@ -0,0 +1,144 @@
+package com.educagestor360.batch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Recomputes the GPA of every student into {@code student_gpa}.
+ *
+ * A student's GPA is the mean of their average score in each graded course,
+ * so every course weighs the same however many grades it has, as on the
+ * transcript. Partitions are ranges of user IDs; each is read with one query
+ * ordered along the {@code (student_id, course_id, score)} index, so the
+ * aggregation needs no sort and only holds one student at a time.
+ *
+ * Scores are read from the grades table of the main database only; grades
+ * kept on shards by {@link com.educagestor360.dao.shard.ShardedGradeDAO} are
+ * not counted.
+ */
+public class StudentGpaJob implements BatchJob {
+
+    public static final String NAME = "student-gpa";
+    public static final int WRITE_BATCH_SIZE = 500;
+
+    private static final String SELECT_BOUNDS_SQL = "SELECT MIN(user_id), MAX(user_id) FROM users";
+    private static final String SELECT_SCORES_SQL = "SELECT student_id, course_id, score FROM grades "
+            + "WHERE student_id >= ? AND student_id < ? AND score IS NOT NULL ORDER BY student_id, course_id";
+    private static final String DELETE_GPA_RANGE_SQL = "DELETE FROM student_gpa WHERE student_id >= ? AND student_id < ?";
+    private static final String INSERT_GPA_SQL = "INSERT INTO student_gpa (student_id, gpa, graded_courses, grade_count) VALUES (?, ?, ?, ?)";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getBoundsSql() {
+        return SELECT_BOUNDS_SQL;
+    }
+
+    @Override
+    public int process(Connection connection, JobPartition partition) throws SQLException {
+        Results results = new Results();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_SCORES_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole range.
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            preparedStatement.setInt(1, partition.getStart());
+            preparedStatement.setInt(2, partition.getEnd());
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    results.accept(rs.getInt(1), rs.getInt(2), rs.getDouble(3));
+                }
+            }
+        }
+        results.finish();
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(DELETE_GPA_RANGE_SQL)) {
+            preparedStatement.setInt(1, partition.getStart());
+            preparedStatement.setInt(2, partition.getEnd());
+            preparedStatement.executeUpdate();
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_GPA_SQL)) {
+            for (int i = 0; i < results.size; i++) {
+                preparedStatement.setInt(1, results.studentIds[i]);
+                preparedStatement.setDouble(2, results.gpas[i]);
+                preparedStatement.setInt(3, results.courseCounts[i]);
+                preparedStatement.setInt(4, results.gradeCounts[i]);
+                preparedStatement.addBatch();
+                if ((i + 1) % WRITE_BATCH_SIZE == 0) {
+                    preparedStatement.executeBatch();
+                }
+            }
+            if (results.size % WRITE_BATCH_SIZE != 0) {
+                preparedStatement.executeBatch();
+            }
+        }
+        return results.size;
+    }
+
+    /**
+     * Folds scores ordered by student and course into one GPA per student,
+     * kept in columns until they are written.
+     */
+    private static final class Results {
+        int[] studentIds = new int[64];
+        double[] gpas = new double[64];
+        int[] courseCounts = new int[64];
+        int[] gradeCounts = new int[64];
+        int size;
+
+        private int student;
+        private int course;
+        private double courseSum;
+        private int courseGrades;
+        private double averagesSum;
+        private int courses;
+        private int grades;
+
+        void accept(int nextStudent, int nextCourse, double score) {
+            if (courseGrades > 0 && nextStudent != student) {
+                finish();
+            } else if (courseGrades > 0 && nextCourse != course) {
+                closeCourse();
+            }
+            student = nextStudent;
+            course = nextCourse;
+            courseSum += score;
+            courseGrades++;
+            grades++;
+        }
+
+        void finish() {
+            if (courseGrades == 0) {
+                return;
+            }
+            closeCourse();
+            if (size == studentIds.length) {
+                int capacity = size * 2;
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                gpas = Arrays.copyOf(gpas, capacity);
+                courseCounts = Arrays.copyOf(courseCounts, capacity);
+                gradeCounts = Arrays.copyOf(gradeCounts, capacity);
+            }
+            studentIds[size] = student;
+            gpas[size] = averagesSum / courses;
+            courseCounts[size] = courses;
+            gradeCounts[size] = grades;
+            size++;
+            averagesSum = 0;
+            courses = 0;
+            grades = 0;
+        }
+
+        private void closeCourse() {
+            averagesSum += courseSum / courseGrades;
+            courses++;
+            courseSum = 0;
+            courseGrades = 0;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.educagestor360.cache;
+
+import java.sql.SQLException;
+
+/**
+ * Loads a single value from the underlying store on a cache miss.
+ *
+ * @param <V> The type of the cached value.
+ */
+@FunctionalInterface
+public interface CacheLoader<V> {
+
+    /**
+     * Loads the value for the given ID.
+     *
+     * @param id The ID of the value to load.
+     * @return The loaded value, or null if it does not exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    V load(int id) throws SQLException;
+}
@@ -0,0 +1,116 @@
+package com.educagestor360.cache;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.CourseDAO;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.model.Course;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A {@link CourseDAO} decorator that serves lookups by ID from a {@link NearCache}.
+ * Mutations go straight to the delegate and invalidate the local entry; when an
+ * {@link InvalidationBus} is supplied the cache is also kept consistent with
+ * changes made on other nodes. Callers always receive their own copy of a
+ * cached course, so modifying it never affects the cache.
+ */
+public class CachingCourseDAO implements CourseDAO {
+
+    private final CourseDAO delegate;
+    private final NearCache<Course> cache;
+
+    /**
+     * Creates a caching DAO.
+     *
+     * @param delegate   The DAO that reads from and writes to the database.
+     * @param bus        The bus keeping the cache consistent across nodes, or null.
+     * @param maxEntries The maximum number of cached courses.
+     */
+    public CachingCourseDAO(CourseDAO delegate, InvalidationBus bus, int maxEntries) {
+        this.delegate = delegate;
+        this.cache = new NearCache<>("courses", maxEntries);
+        if (bus != null) {
+            bus.register(EntityType.COURSE, cache);
+        }
+    }
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        delegate.addCourse(course);
+    }
+
+    @Override
+    public Course getCourseById(int courseId) throws SQLException {
+        return copyOf(cache.get(courseId, delegate::getCourseById));
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        return delegate.getAllCourses();
+    }
+
+    @Override
+    public List<Course> getCoursesByTeacherId(int teacherId) throws SQLException {
+        return delegate.getCoursesByTeacherId(teacherId);
+    }
+
+    @Override
+    public void updateCourse(Course course) throws SQLException {
+        try {
+            delegate.updateCourse(course);
+        } finally {
+            cache.invalidate(course.getCourseId());
+        }
+    }
+
+    @Override
+    public boolean deleteCourse(int courseId) throws SQLException {
+        try {
+            return delegate.deleteCourse(courseId);
+        } finally {
+            cache.invalidate(courseId);
+        }
+    }
+
+    @Override
+    public long deleteCourseCascade(int courseId, CascadeDeleteProgress progress) throws SQLException {
+        try {
+            return delegate.deleteCourseCascade(courseId, progress);
+        } finally {
+            cache.invalidate(courseId);
+        }
+    }
+
+    /**
+     * Loads the given courses into the cache without counting them as misses.
+     *
+     * @param ids The IDs to load; those already cached are skipped.
+     * @return The number of courses loaded.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int prime(int[] ids) throws SQLException {
+        int loaded = 0;
+        for (int id : ids) {
+            if (cache.containsKey(id)) {
+                continue;
+            }
+            long stamp = cache.beginLoad(id);
+            if (cache.completeLoad(id, stamp, delegate.getCourseById(id))) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    public NearCache<Course> getCache() {
+        return cache;
+    }
+
+    private static Course copyOf(Course course) {
+        if (course == null) {
+            return null;
+        }
+        return new Course(course);
+    }
+}
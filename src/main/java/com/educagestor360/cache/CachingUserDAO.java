@@ -0,0 +1,137 @@
+package com.educagestor360.cache;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.UserDAO;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+import com.educagestor360.model.UserSummary;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A {@link UserDAO} decorator that serves lookups by ID from a {@link NearCache}.
+ * Mutations go straight to the delegate and invalidate the local entry; when an
+ * {@link InvalidationBus} is supplied the cache is also kept consistent with
+ * changes made on other nodes. Callers always receive their own copy of a
+ * cached user, so modifying it never affects the cache.
+ */
+public class CachingUserDAO implements UserDAO {
+
+    private final UserDAO delegate;
+    private final NearCache<User> cache;
+
+    /**
+     * Creates a caching DAO.
+     *
+     * @param delegate   The DAO that reads from and writes to the database.
+     * @param bus        The bus keeping the cache consistent across nodes, or null.
+     * @param maxEntries The maximum number of cached users.
+     */
+    public CachingUserDAO(UserDAO delegate, InvalidationBus bus, int maxEntries) {
+        this.delegate = delegate;
+        this.cache = new NearCache<>("users", maxEntries);
+        if (bus != null) {
+            bus.register(EntityType.USER, cache);
+        }
+    }
+
+    @Override
+    public void addUser(User user) throws SQLException {
+        delegate.addUser(user);
+    }
+
+    @Override
+    public User getUserById(int userId) throws SQLException {
+        return copyOf(cache.get(userId, delegate::getUserById));
+    }
+
+    @Override
+    public User getUserByEmail(String email) throws SQLException {
+        return delegate.getUserByEmail(email);
+    }
+
+    @Override
+    public UserCredentials getCredentialsByEmail(String email) throws SQLException {
+        return delegate.getCredentialsByEmail(email);
+    }
+
+    @Override
+    public List<User> getAllUsers() throws SQLException {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public List<UserSummary> getAllUserSummaries() throws SQLException {
+        return delegate.getAllUserSummaries();
+    }
+
+    @Override
+    public void updateUser(User user) throws SQLException {
+        try {
+            delegate.updateUser(user);
+        } finally {
+            cache.invalidate(user.getUserId());
+        }
+    }
+
+    @Override
+    public boolean updatePassword(int userId, String expectedPassword, String newPassword) throws SQLException {
+        try {
+            return delegate.updatePassword(userId, expectedPassword, newPassword);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int userId) throws SQLException {
+        try {
+            return delegate.deleteUser(userId);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+
+    @Override
+    public long deleteUserCascade(int userId, CascadeDeleteProgress progress) throws SQLException {
+        try {
+            return delegate.deleteUserCascade(userId, progress);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Loads the given users into the cache without counting them as misses.
+     *
+     * @param ids The IDs to load; those already cached are skipped.
+     * @return The number of users loaded.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int prime(int[] ids) throws SQLException {
+        int loaded = 0;
+        for (int id : ids) {
+            if (cache.containsKey(id)) {
+                continue;
+            }
+            long stamp = cache.beginLoad(id);
+            if (cache.completeLoad(id, stamp, delegate.getUserById(id))) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    public NearCache<User> getCache() {
+        return cache;
+    }
+
+    private static User copyOf(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new User(user);
+    }
+}
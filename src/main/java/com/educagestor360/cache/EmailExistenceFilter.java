@@ -0,0 +1,372 @@
+package com.educagestor360.cache;
+
+import com.educagestor360.event.ChangeConsumer;
+import com.educagestor360.event.ChangeEvent;
+import com.educagestor360.event.ChangeEventStream;
+import com.educagestor360.event.ChangeSubscription;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.MutationListener;
+import com.educagestor360.model.User;
+import com.educagestor360.search.TextNormalizer;
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+import com.educagestor360.util.ScalableBloomFilter;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Knows, without asking the database, which email addresses are certainly not
+ * registered.
+ *
+ * The addresses of the users table are kept in a {@link ScalableBloomFilter},
+ * built by a streaming scan and then fed every address written. Since a Bloom
+ * filter cannot forget, addresses of deleted or renamed users stay in it until
+ * the next rebuild, which {@link #start(long)} schedules periodically; they only
+ * cost a database lookup, like any other false positive.
+ *
+ * Writes made through this process reach the filter as a
+ * {@link MutationListener}. {@link #start(long, ChangeEventStream)} also
+ * subscribes it to the change stream, which, fed by the outbox relay, carries
+ * the users registered on the other nodes; without it those users are unknown
+ * here until the next rebuild.
+ *
+ * Addresses are compared by {@link TextNormalizer#collationKey(String)}, which
+ * folds case, accents, compatibility forms and the Latin letters the case- and
+ * accent-insensitive collation of the email column equates with ASCII ones, so
+ * a registered address and an ASCII spelling of it get the same key. A lookup
+ * whose key still contains non-ASCII characters is always reported as possibly
+ * registered.
+ */
+public class EmailExistenceFilter implements MutationListener, ChangeConsumer, Closeable {
+
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    public static final String SUBSCRIPTION_NAME = "email-existence-filter";
+
+    private static final int SUBSCRIPTION_BATCH_SIZE = 256;
+
+    private static final String SELECT_EMAILS_SQL = "SELECT email FROM users";
+    private static final String SELECT_EMAIL_BY_ID_SQL = "SELECT email FROM users WHERE user_id = ?";
+
+    private final ConnectionProvider connections;
+    private final double falsePositiveRate;
+    private final long minimumCapacity;
+    private final ScheduledExecutorService scheduler;
+    private final Object rebuildLock = new Object();
+    private volatile ScalableBloomFilter filter;
+    private List<String> addedDuringBuild;
+    private ChangeEventStream changeStream;
+    private ChangeSubscription subscription;
+
+    private final LongAdder definiteNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * Creates a filter over the users of the main database of {@link DatabaseConnector}.
+     *
+     * @param expectedUsers The number of users to size the filter for; it grows past it if needed.
+     */
+    public EmailExistenceFilter(long expectedUsers) {
+        this(DatabaseConnector::getConnection, expectedUsers, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Creates a filter. It answers "possibly registered" for every address until
+     * {@link #rebuild()} has completed once.
+     *
+     * @param connections       Where connections come from.
+     * @param expectedUsers     The number of users to size the filter for; it grows past it if needed.
+     * @param falsePositiveRate The share of unregistered addresses that may still reach the database.
+     */
+    public EmailExistenceFilter(ConnectionProvider connections, long expectedUsers, double falsePositiveRate) {
+        this.connections = connections;
+        this.minimumCapacity = Math.max(1, expectedUsers);
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "email-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Rebuilds the filter from the users table. Addresses written while the scan
+     * runs are added on top of it, so none is lost whichever side of the scan
+     * they commit on. Lookups keep using the previous filter until the new one
+     * is complete.
+     *
+     * @return The number of addresses scanned.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long rebuild() throws SQLException {
+        synchronized (rebuildLock) {
+            return build();
+        }
+    }
+
+    /**
+     * Helper method that scans the users table into a new filter and swaps it in.
+     * @return The number of addresses scanned.
+     * @throws SQLException if a database access error occurs.
+     */
+    private long build() throws SQLException {
+        synchronized (this) {
+            addedDuringBuild = new ArrayList<>();
+        }
+        ScalableBloomFilter current = filter;
+        long capacity = Math.max(minimumCapacity, current == null ? 0 : current.getApproximateCount() * 5 / 4);
+        ScalableBloomFilter built = new ScalableBloomFilter(capacity, falsePositiveRate);
+        long scanned = 0;
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_EMAILS_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole table.
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    built.put(TextNormalizer.collationKey(rs.getString(1)));
+                    scanned++;
+                }
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                addedDuringBuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (String key : addedDuringBuild) {
+                built.put(key);
+            }
+            addedDuringBuild = null;
+            filter = built;
+        }
+        return scanned;
+    }
+
+    /**
+     * Subscribes the filter to the change stream, so that addresses registered
+     * on any node are added, then rebuilds it at a fixed interval until it is
+     * closed, dropping the addresses of deleted users. The first rebuild runs
+     * immediately.
+     *
+     * @param intervalMillis The time between two rebuilds.
+     * @param changes        The change stream fed by the outbox relay, or null on a single node,
+     *                       where the {@link MutationListener} callbacks already see every write.
+     * @throws SQLException if the saved position of the subscription cannot be read.
+     */
+    public void start(long intervalMillis, ChangeEventStream changes) throws SQLException {
+        if (changes != null) {
+            synchronized (this) {
+                changeStream = changes;
+                subscription = changes.subscribe(SUBSCRIPTION_NAME, SUBSCRIPTION_BATCH_SIZE, this);
+            }
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (SQLException e) {
+                System.err.println("Error rebuilding the email filter: " + e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tells whether an address may belong to a user. A false answer is final;
+     * a true one must be confirmed against the database.
+     *
+     * @param email The address to check.
+     * @return false if no user has the address, true if one possibly does.
+     */
+    public boolean mightExist(String email) {
+        ScalableBloomFilter current = filter;
+        String key = email == null ? null : TextNormalizer.collationKey(email);
+        if (current == null || key == null || !isAscii(key)) {
+            bypassed.increment();
+            return true;
+        }
+        if (current.mightContain(key)) {
+            positives.increment();
+            return true;
+        }
+        definiteNegatives.increment();
+        return false;
+    }
+
+    /**
+     * Adds an address, usually just before the user holding it is written.
+     *
+     * @param email The address; null is ignored.
+     */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = TextNormalizer.collationKey(email);
+        ScalableBloomFilter current;
+        synchronized (this) {
+            if (addedDuringBuild != null) {
+                addedDuringBuild.add(key);
+            }
+            current = filter;
+        }
+        if (current != null) {
+            current.put(key);
+        }
+    }
+
+    /**
+     * Records that an address the filter let through was not found in the database.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @Override
+    public void userChanged(MutationKind kind, int userId, User user) {
+        if (kind != MutationKind.DELETE && user != null) {
+            add(user.getEmail());
+        }
+    }
+
+    /**
+     * Adds the addresses of users written on any node, as read back from the outbox.
+     *
+     * @param events The next change events.
+     * @throws SQLException if the address of a user cannot be read; the batch is then redelivered.
+     */
+    @Override
+    public void onEvents(List<ChangeEvent> events) throws SQLException {
+        for (ChangeEvent event : events) {
+            if (event.getEntityType() != EntityType.USER || event.getKind() == MutationKind.DELETE) {
+                continue;
+            }
+            if (event.getUser() != null) {
+                add(event.getUser().getEmail());
+            } else {
+                add(readEmail(event.getEntityId()));
+            }
+        }
+    }
+
+    /**
+     * @return Whether the first build has completed and lookups can be answered.
+     */
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    /**
+     * @return The number of lookups answered without the database.
+     */
+    public long getDefiniteNegatives() {
+        return definiteNegatives.sum();
+    }
+
+    /**
+     * @return The number of lookups the filter let through that found no user.
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * @return The number of lookups the filter let through.
+     */
+    public long getPositives() {
+        return positives.sum();
+    }
+
+    /**
+     * @return The number of lookups sent to the database without consulting the filter.
+     */
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    /**
+     * Returns the false-positive rate observed so far: among lookups of
+     * unregistered addresses, the share the filter did not stop.
+     *
+     * @return The observed rate, or 0 before any unregistered address was looked up.
+     */
+    public double getObservedFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long unregistered = fp + definiteNegatives.sum();
+        return unregistered == 0 ? 0.0 : (double) fp / unregistered;
+    }
+
+    /**
+     * @return The false-positive rate the current filter is expected to have given its contents.
+     */
+    public double getEstimatedFalsePositiveRate() {
+        ScalableBloomFilter current = filter;
+        return current == null ? 1.0 : current.getEstimatedFalsePositiveRate();
+    }
+
+    /**
+     * @return The memory held by the current filter, in bytes.
+     */
+    public long getSizeInBytes() {
+        ScalableBloomFilter current = filter;
+        return current == null ? 0 : current.getSizeInBytes();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            if (subscription != null) {
+                changeStream.unsubscribe(subscription);
+                subscription = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EmailExistenceFilter{negatives=%d, positives=%d, falsePositives=%d, observedFpp=%.4f, estimatedFpp=%.4f, bytes=%d}",
+                getDefiniteNegatives(), getPositives(), getFalsePositives(), getObservedFalsePositiveRate(),
+                getEstimatedFalsePositiveRate(), getSizeInBytes());
+    }
+
+    /**
+     * Helper method that reads the current address of a user.
+     * @param userId The ID of the user.
+     * @return The address, or null if the user no longer exists.
+     * @throws SQLException if a database access error occurs.
+     */
+    private String readEmail(int userId) throws SQLException {
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_EMAIL_BY_ID_SQL)) {
+            preparedStatement.setInt(1, userId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static boolean isAscii(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
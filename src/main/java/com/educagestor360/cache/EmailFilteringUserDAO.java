@@ -0,0 +1,109 @@
+package com.educagestor360.cache;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.UserDAO;
+import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+import com.educagestor360.model.UserSummary;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A {@link UserDAO} decorator that answers lookups by email from an
+ * {@link EmailExistenceFilter} when the address is certainly not registered,
+ * so duplicate checks on registration and logins with unknown addresses do
+ * not reach the database.
+ *
+ * Written addresses are added to the filter before the write, so no lookup
+ * can miss a user while it commits, and again after it, so a rebuild that
+ * started in between still sees the address.
+ */
+public class EmailFilteringUserDAO implements UserDAO {
+
+    private final UserDAO delegate;
+    private final EmailExistenceFilter filter;
+
+    /**
+     * Creates a filtering DAO.
+     *
+     * @param delegate The DAO that reads from and writes to the database.
+     * @param filter   The filter to consult and keep up to date.
+     */
+    public EmailFilteringUserDAO(UserDAO delegate, EmailExistenceFilter filter) {
+        this.delegate = delegate;
+        this.filter = filter;
+    }
+
+    @Override
+    public void addUser(User user) throws SQLException {
+        filter.add(user.getEmail());
+        delegate.addUser(user);
+        filter.add(user.getEmail());
+    }
+
+    @Override
+    public User getUserById(int userId) throws SQLException {
+        return delegate.getUserById(userId);
+    }
+
+    @Override
+    public User getUserByEmail(String email) throws SQLException {
+        if (!filter.mightExist(email)) {
+            return null;
+        }
+        User user = delegate.getUserByEmail(email);
+        if (user == null) {
+            filter.recordFalsePositive();
+        }
+        return user;
+    }
+
+    @Override
+    public UserCredentials getCredentialsByEmail(String email) throws SQLException {
+        if (!filter.mightExist(email)) {
+            return null;
+        }
+        UserCredentials credentials = delegate.getCredentialsByEmail(email);
+        if (credentials == null) {
+            filter.recordFalsePositive();
+        }
+        return credentials;
+    }
+
+    @Override
+    public List<User> getAllUsers() throws SQLException {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public List<UserSummary> getAllUserSummaries() throws SQLException {
+        return delegate.getAllUserSummaries();
+    }
+
+    @Override
+    public void updateUser(User user) throws SQLException {
+        filter.add(user.getEmail());
+        delegate.updateUser(user);
+        filter.add(user.getEmail());
+    }
+
+    @Override
+    public boolean updatePassword(int userId, String expectedPassword, String newPassword) throws SQLException {
+        return delegate.updatePassword(userId, expectedPassword, newPassword);
+    }
+
+    @Override
+    public boolean deleteUser(int userId) throws SQLException {
+        return delegate.deleteUser(userId);
+    }
+
+    @Override
+    public long deleteUserCascade(int userId, CascadeDeleteProgress progress) throws SQLException {
+        return delegate.deleteUserCascade(userId, progress);
+    }
+
+    public EmailExistenceFilter getFilter() {
+        return filter;
+    }
+}
@@ -0,0 +1,148 @@
+package com.educagestor360.cache;
+
+import com.educagestor360.event.EntityType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A batch of coalesced invalidation keys sent by one node.
+ * Each key packs an {@link EntityType} and an entity ID into a single long.
+ * Batches carry a per-origin sequence number so that receivers can detect
+ * lost batches on unreliable transports. A batch without keys is a heartbeat:
+ * it repeats the sequence number of the last batch its origin sent, so that
+ * the loss of that batch is noticed even if no other batch follows.
+ */
+public final class InvalidationBatch {
+
+    private static final int MAGIC = 0xE6360001;
+    private static final int HEADER_BYTES = 4 + 8 + 8 + 4;
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final long originNodeId;
+    private final long sequence;
+    private final long[] keys;
+
+    /**
+     * Creates a batch.
+     *
+     * @param originNodeId The ID of the node that produced the batch.
+     * @param sequence     The sequence number of the batch for its origin.
+     * @param keys         The packed invalidation keys.
+     */
+    public InvalidationBatch(long originNodeId, long sequence, long[] keys) {
+        this.originNodeId = originNodeId;
+        this.sequence = sequence;
+        this.keys = keys;
+    }
+
+    /**
+     * Creates a heartbeat.
+     *
+     * @param originNodeId The ID of the node sending the heartbeat.
+     * @param sequence     The sequence number of the last batch the node sent.
+     * @return A batch without keys.
+     */
+    public static InvalidationBatch heartbeat(long originNodeId, long sequence) {
+        return new InvalidationBatch(originNodeId, sequence, new long[0]);
+    }
+
+    /**
+     * Packs an entity type and ID into a key.
+     *
+     * @param type The entity type.
+     * @param id   The entity ID.
+     * @return The packed key.
+     */
+    public static long key(EntityType type, int id) {
+        return ((long) type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Extracts the entity type from a packed key.
+     *
+     * @param key The packed key.
+     * @return The entity type.
+     */
+    public static EntityType typeOf(long key) {
+        return TYPES[(int) (key >>> 32)];
+    }
+
+    /**
+     * Extracts the entity ID from a packed key.
+     *
+     * @param key The packed key.
+     * @return The entity ID.
+     */
+    public static int idOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(ByteBuffer)} writes for a batch of the given size.
+     *
+     * @param keyCount The number of keys.
+     * @return The encoded size in bytes.
+     */
+    public static int encodedSize(int keyCount) {
+        return HEADER_BYTES + keyCount * 8;
+    }
+
+    /**
+     * Writes this batch to a buffer.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void encode(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putLong(originNodeId);
+        buffer.putLong(sequence);
+        buffer.putInt(keys.length);
+        for (long key : keys) {
+            buffer.putLong(key);
+        }
+    }
+
+    /**
+     * Reads a batch from a buffer.
+     *
+     * @param buffer The buffer to read from, positioned at the start of a batch.
+     * @return The decoded batch.
+     * @throws IllegalArgumentException if the buffer does not hold a valid batch.
+     */
+    public static InvalidationBatch decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an invalidation batch");
+        }
+        long origin = buffer.getLong();
+        long sequence = buffer.getLong();
+        int count = buffer.getInt();
+        if (count < 0 || buffer.remaining() < count * 8L) {
+            throw new IllegalArgumentException("Truncated invalidation batch");
+        }
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            long key = buffer.getLong();
+            if ((key >>> 32) >= TYPES.length) {
+                throw new IllegalArgumentException("Unknown entity type in invalidation batch");
+            }
+            keys[i] = key;
+        }
+        return new InvalidationBatch(origin, sequence, keys);
+    }
+
+    public long getOriginNodeId() {
+        return originNodeId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long[] getKeys() {
+        return keys;
+    }
+
+    public boolean isHeartbeat() {
+        return keys.length == 0;
+    }
+}
@@ -0,0 +1,258 @@
+package com.educagestor360.cache;
+
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.MutationListener;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@link NearCache}s consistent across application nodes.
+ *
+ * The bus listens to every DAO mutation made on this node, invalidates the
+ * matching local cache entries immediately and queues the key for broadcast.
+ * Queued keys are coalesced and sent in batches, either every flush interval
+ * or as soon as a full batch has accumulated. Batches received from other
+ * nodes are applied to the local caches. If a gap in a peer's sequence numbers
+ * shows that a batch was lost, every local cache is cleared.
+ *
+ * Each node also sends a heartbeat every heartbeat interval carrying the
+ * sequence number of its last batch, so a lost batch is detected within that
+ * interval even when its origin sends nothing more. The first batch or
+ * heartbeat seen from a node also clears every local cache, since the batches
+ * it sent before could not be checked.
+ */
+public class InvalidationBus implements MutationListener, Closeable {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 20;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+    public static final long DEFAULT_HEARTBEAT_INTERVAL_MILLIS = 1000;
+
+    private final long nodeId = UUID.randomUUID().getMostSignificantBits();
+    private final InvalidationTransport transport;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final long heartbeatIntervalMillis;
+    private final Map<EntityType, List<NearCache<?>>> caches = new EnumMap<>(EntityType.class);
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> lastSequenceByOrigin = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Creates a bus with the default flush interval and batch size.
+     *
+     * @param transport The transport used to reach the other nodes.
+     */
+    public InvalidationBus(InvalidationTransport transport) {
+        this(transport, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a bus with the default heartbeat interval.
+     *
+     * @param transport           The transport used to reach the other nodes.
+     * @param flushIntervalMillis The maximum time a key waits before being broadcast.
+     * @param maxBatchSize        The maximum number of keys per batch.
+     */
+    public InvalidationBus(InvalidationTransport transport, long flushIntervalMillis, int maxBatchSize) {
+        this(transport, flushIntervalMillis, maxBatchSize, DEFAULT_HEARTBEAT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a bus.
+     *
+     * @param transport               The transport used to reach the other nodes.
+     * @param flushIntervalMillis     The maximum time a key waits before being broadcast.
+     * @param maxBatchSize            The maximum number of keys per batch.
+     * @param heartbeatIntervalMillis The time between two heartbeats, which bounds how long a lost
+     *                                batch can leave stale entries in the other nodes' caches.
+     */
+    public InvalidationBus(InvalidationTransport transport, long flushIntervalMillis, int maxBatchSize,
+                           long heartbeatIntervalMillis) {
+        if (flushIntervalMillis <= 0 || maxBatchSize <= 0 || heartbeatIntervalMillis <= 0) {
+            throw new IllegalArgumentException(
+                    "flushIntervalMillis, maxBatchSize and heartbeatIntervalMillis must be positive");
+        }
+        this.transport = transport;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        for (EntityType type : EntityType.values()) {
+            caches.put(type, new CopyOnWriteArrayList<>());
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "invalidation-bus-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the transport, subscribes to DAO mutations and starts the periodic flush and heartbeat.
+     *
+     * @throws IOException if the transport cannot be started.
+     */
+    public void start() throws IOException {
+        transport.start(this::apply);
+        DaoMutations.addListener(this);
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a cache to be invalidated for the given entity type.
+     *
+     * @param type  The entity type the cache holds.
+     * @param cache The cache to keep consistent.
+     */
+    public void register(EntityType type, NearCache<?> cache) {
+        caches.get(type).add(cache);
+    }
+
+    /**
+     * Invalidates an entity locally and queues the invalidation for the other nodes.
+     *
+     * @param type The entity type.
+     * @param id   The entity ID.
+     */
+    public void invalidate(EntityType type, int id) {
+        invalidateLocal(type, id);
+        pending.add(InvalidationBatch.key(type, id));
+        if (pending.size() >= maxBatchSize) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    @Override
+    public void userChanged(MutationKind kind, int userId, User user) {
+        invalidate(EntityType.USER, userId);
+    }
+
+    @Override
+    public void courseChanged(MutationKind kind, int courseId, Course course) {
+        invalidate(EntityType.COURSE, courseId);
+    }
+
+    @Override
+    public void gradeChanged(MutationKind kind, int gradeId, Grade grade) {
+        invalidate(EntityType.GRADE, gradeId);
+    }
+
+    /**
+     * Sends every queued key, in batches of at most the maximum batch size.
+     */
+    public synchronized void flush() {
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            long[] keys = new long[Math.min(maxBatchSize, Math.max(1, pending.size()))];
+            int count = 0;
+            while (count < keys.length && iterator.hasNext()) {
+                keys[count++] = iterator.next();
+                iterator.remove();
+            }
+            if (count < keys.length) {
+                long[] trimmed = new long[count];
+                System.arraycopy(keys, 0, trimmed, 0, count);
+                keys = trimmed;
+            }
+            try {
+                transport.publish(new InvalidationBatch(nodeId, sequence.incrementAndGet(), keys));
+            } catch (IOException | RuntimeException e) {
+                // Peers will see the sequence gap and clear their caches.
+                System.err.println("Error publishing invalidation batch: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends the sequence number of the last batch sent, so that peers which lost it notice.
+     */
+    public synchronized void heartbeat() {
+        try {
+            transport.publish(InvalidationBatch.heartbeat(nodeId, sequence.get()));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error publishing invalidation heartbeat: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the bus, publishing any keys still queued.
+     *
+     * @throws IOException if the transport cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        DaoMutations.removeListener(this);
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        transport.close();
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Helper method that applies a batch or heartbeat received from another node.
+     * Batches from one origin arrive one at a time, in the order it sent them.
+     */
+    private void apply(InvalidationBatch batch) {
+        if (batch.getOriginNodeId() == nodeId) {
+            return;
+        }
+        Long previous = lastSequenceByOrigin.get(batch.getOriginNodeId());
+        if (batch.isHeartbeat()) {
+            // A heartbeat may trail the batch it reports; only a newer sequence means a loss.
+            if (previous == null || batch.getSequence() > previous) {
+                lastSequenceByOrigin.put(batch.getOriginNodeId(), batch.getSequence());
+                invalidateAllLocal();
+            }
+            return;
+        }
+        lastSequenceByOrigin.put(batch.getOriginNodeId(), batch.getSequence());
+        if (previous == null || batch.getSequence() != previous + 1) {
+            invalidateAllLocal();
+            return;
+        }
+        for (long key : batch.getKeys()) {
+            invalidateLocal(InvalidationBatch.typeOf(key), InvalidationBatch.idOf(key));
+        }
+    }
+
+    private void invalidateLocal(EntityType type, int id) {
+        for (NearCache<?> cache : caches.get(type)) {
+            cache.invalidate(id);
+        }
+    }
+
+    private void invalidateAllLocal() {
+        for (List<NearCache<?>> list : caches.values()) {
+            for (NearCache<?> cache : list) {
+                cache.invalidateAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.educagestor360.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link InvalidationBatch}es between application nodes.
+ * Implementations are not required to be reliable or ordered; the
+ * {@link InvalidationBus} detects gaps through the batch sequence numbers.
+ */
+public interface InvalidationTransport extends Closeable {
+
+    /**
+     * Starts delivering batches received from other nodes.
+     *
+     * @param receiver The callback invoked for every received batch.
+     * @throws IOException if the transport cannot be opened.
+     */
+    void start(Consumer<InvalidationBatch> receiver) throws IOException;
+
+    /**
+     * Sends a batch to every other node.
+     *
+     * @param batch The batch to send.
+     * @throws IOException if the batch cannot be sent.
+     */
+    void publish(InvalidationBatch batch) throws IOException;
+}
@@ -0,0 +1,66 @@
+package com.educagestor360.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An in-JVM transport. Every transport connected to the same {@link Hub}
+ * receives the batches published by the others, which makes it possible to
+ * run several simulated nodes inside one process.
+ */
+public class LoopbackTransport implements InvalidationTransport {
+
+    /**
+     * A group of loopback transports that see each other's batches.
+     */
+    public static class Hub {
+
+        private final List<LoopbackTransport> members = new CopyOnWriteArrayList<>();
+
+        /**
+         * Creates a new transport attached to this hub.
+         *
+         * @return The new transport.
+         */
+        public LoopbackTransport connect() {
+            return new LoopbackTransport(this);
+        }
+    }
+
+    private final Hub hub;
+    private volatile Consumer<InvalidationBatch> receiver;
+
+    /**
+     * Creates a transport on its own private hub, for a single-node setup.
+     */
+    public LoopbackTransport() {
+        this(new Hub());
+    }
+
+    private LoopbackTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(Consumer<InvalidationBatch> receiver) {
+        this.receiver = receiver;
+        hub.members.add(this);
+    }
+
+    @Override
+    public void publish(InvalidationBatch batch) {
+        for (LoopbackTransport member : hub.members) {
+            Consumer<InvalidationBatch> target = member.receiver;
+            if (member != this && target != null) {
+                target.accept(batch);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        hub.members.remove(this);
+        receiver = null;
+    }
+}
@@ -0,0 +1,223 @@
+package com.educagestor360.cache;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, process-local cache of entities keyed by their integer ID.
+ *
+ * Every invalidation bumps a version counter for the stripe the key falls in.
+ * A load records the stripe version before reading from the database and only
+ * keeps its result if the version is unchanged afterwards, so a value read
+ * before a concurrent invalidation can never be left behind in the cache.
+ *
+ * @param <V> The type of the cached value.
+ */
+public class NearCache<V> {
+
+    private static final int STRIPES = 1024;
+    private static final int RECENT_CAPACITY = 4096;
+
+    private final String name;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Integer, V> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Ring of recently requested IDs, used to prime a fresh cache after a restart.
+    private final AtomicIntegerArray recent = new AtomicIntegerArray(RECENT_CAPACITY);
+    private final AtomicLong recentCursor = new AtomicLong();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name       A name used for reporting.
+     * @param maxEntries The maximum number of entries kept.
+     */
+    public NearCache(String name, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached value, loading and caching it on a miss.
+     *
+     * @param id     The ID of the value.
+     * @param loader The loader used on a miss.
+     * @return The value, or null if the loader found nothing.
+     * @throws SQLException if the loader fails.
+     */
+    public V get(int id, CacheLoader<V> loader) throws SQLException {
+        recordAccess(id);
+        V value = entries.get(id);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        long stamp = beginLoad(id);
+        value = loader.load(id);
+        completeLoad(id, stamp, value);
+        return value;
+    }
+
+    /**
+     * Returns the cached value without loading it.
+     *
+     * @param id The ID of the value.
+     * @return The cached value, or null if absent.
+     */
+    public V getIfPresent(int id) {
+        V value = entries.get(id);
+        if (value != null) {
+            hits.increment();
+            recordAccess(id);
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Tells whether a value is cached, without affecting the statistics.
+     *
+     * @param id The ID of the value.
+     * @return true if the value is cached.
+     */
+    public boolean containsKey(int id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Records the version of the key's stripe before a load starts.
+     *
+     * @param id The ID about to be loaded.
+     * @return The stamp to hand to {@link #completeLoad(int, long, Object)}.
+     */
+    public long beginLoad(int id) {
+        return stripeVersions.get(stripe(id));
+    }
+
+    /**
+     * Stores a loaded value unless the key was invalidated since the load began.
+     *
+     * @param id    The ID of the value.
+     * @param stamp The stamp returned by {@link #beginLoad(int)}.
+     * @param value The loaded value; null values are not cached.
+     * @return true if the value was cached.
+     */
+    public boolean completeLoad(int id, long stamp, V value) {
+        if (value == null) {
+            return false;
+        }
+        if (entries.size() >= maxEntries) {
+            evictOne();
+        }
+        entries.put(id, value);
+        // An invalidation always bumps the version before removing the entry, so
+        // re-checking after the put catches every invalidation that raced the load.
+        if (stripeVersions.get(stripe(id)) != stamp) {
+            entries.remove(id, value);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @param id The ID to invalidate.
+     */
+    public void invalidate(int id) {
+        stripeVersions.incrementAndGet(stripe(id));
+        entries.remove(id);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripeVersions.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    /**
+     * Returns the most recently requested IDs, newest first and without duplicates.
+     *
+     * @param limit The maximum number of IDs returned.
+     * @return Up to {@code limit} IDs.
+     */
+    public int[] getRecentIds(int limit) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        long end = recentCursor.get();
+        long start = Math.max(0, end - RECENT_CAPACITY);
+        for (long i = end - 1; i >= start && ids.size() < limit; i--) {
+            int id = recent.get((int) (i % RECENT_CAPACITY));
+            if (id != 0) {
+                ids.add(id);
+            }
+        }
+        int[] result = new int[ids.size()];
+        int n = 0;
+        for (int id : ids) {
+            result[n++] = id;
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private void recordAccess(int id) {
+        recent.set((int) (recentCursor.getAndIncrement() % RECENT_CAPACITY), id);
+    }
+
+    private void evictOne() {
+        Iterator<Integer> iterator = entries.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static int stripe(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
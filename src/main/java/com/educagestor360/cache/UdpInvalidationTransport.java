@@ -0,0 +1,100 @@
+package com.educagestor360.cache;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A transport sending each batch as one UDP datagram to a fixed list of peers.
+ * Several nodes can be run on a single machine by binding each one to its own
+ * port on the loopback address. Datagrams may be lost; the {@link InvalidationBus}
+ * falls back to clearing its caches when it notices a gap.
+ */
+public class UdpInvalidationTransport implements InvalidationTransport {
+
+    /** The largest payload that fits in a single UDP datagram. */
+    public static final int MAX_DATAGRAM_BYTES = 65507;
+
+    private final InetSocketAddress bindAddress;
+    private final List<InetSocketAddress> peers;
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES);
+    private DatagramChannel channel;
+    private Thread receiverThread;
+
+    /**
+     * Creates a transport.
+     *
+     * @param bindAddress The local address to receive batches on.
+     * @param peers       The addresses of the other nodes.
+     */
+    public UdpInvalidationTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+        this.bindAddress = bindAddress;
+        this.peers = new ArrayList<>(peers);
+    }
+
+    @Override
+    public void start(Consumer<InvalidationBatch> receiver) throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(bindAddress);
+        receiverThread = new Thread(() -> receiveLoop(receiver), "invalidation-udp-" + bindAddress.getPort());
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+    }
+
+    @Override
+    public synchronized void publish(InvalidationBatch batch) throws IOException {
+        if (InvalidationBatch.encodedSize(batch.getKeys().length) > MAX_DATAGRAM_BYTES) {
+            throw new IllegalArgumentException("Invalidation batch too large for one datagram: " + batch.getKeys().length + " keys");
+        }
+        sendBuffer.clear();
+        batch.encode(sendBuffer);
+        sendBuffer.flip();
+        for (InetSocketAddress peer : peers) {
+            sendBuffer.rewind();
+            channel.send(sendBuffer, peer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+        }
+    }
+
+    /**
+     * Returns the local address the transport is bound to.
+     * Useful when binding to port 0 and letting the system pick a port.
+     *
+     * @return The bound address.
+     * @throws IOException if the channel is not open.
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    private void receiveLoop(Consumer<InvalidationBatch> receiver) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                receiver.accept(InvalidationBatch.decode(buffer));
+            } catch (AsynchronousCloseException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error receiving invalidation batch: " + e.getMessage());
+            }
+        }
+    }
+}
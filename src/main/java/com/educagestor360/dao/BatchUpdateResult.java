@@ -0,0 +1,84 @@
+package com.educagestor360.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome, row by row, of a batch of conditional updates such as
+ * {@link GradeDAO#updateGrades(List)}.
+ *
+ * Every entity of the batch ends up in exactly one of three lists: updated,
+ * in conflict because its version was stale, or missing because its row no
+ * longer exists. Rows in conflict or missing were left untouched.
+ */
+public final class BatchUpdateResult {
+
+    private final List<Integer> updatedIds = new ArrayList<>();
+    private final List<OptimisticLockException> conflicts = new ArrayList<>();
+    private final List<Integer> missingIds = new ArrayList<>();
+
+    /**
+     * Records an updated row.
+     *
+     * @param id The ID of the entity.
+     */
+    public void updated(int id) {
+        updatedIds.add(id);
+    }
+
+    /**
+     * Records a row whose version did not match.
+     *
+     * @param conflict The conflict, describing the row and both versions.
+     */
+    public void conflict(OptimisticLockException conflict) {
+        conflicts.add(conflict);
+    }
+
+    /**
+     * Records a row that no longer exists.
+     *
+     * @param id The ID of the entity.
+     */
+    public void missing(int id) {
+        missingIds.add(id);
+    }
+
+    /**
+     * @return The IDs of the updated entities, in batch order.
+     */
+    public List<Integer> getUpdatedIds() {
+        return Collections.unmodifiableList(updatedIds);
+    }
+
+    /**
+     * @return One exception per entity whose version was stale, in batch order.
+     */
+    public List<OptimisticLockException> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * @return The IDs of the entities whose rows no longer exist, in batch order.
+     */
+    public List<Integer> getMissingIds() {
+        return Collections.unmodifiableList(missingIds);
+    }
+
+    /**
+     * @return True if every entity of the batch was updated.
+     */
+    public boolean isComplete() {
+        return conflicts.isEmpty() && missingIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchUpdateResult{" +
+               "updated=" + updatedIds.size() +
+               ", conflicts=" + conflicts.size() +
+               ", missing=" + missingIds.size() +
+               '}';
+    }
+}
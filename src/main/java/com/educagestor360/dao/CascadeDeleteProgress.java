@@ -0,0 +1,49 @@
+package com.educagestor360.dao;
+
+import com.educagestor360.model.Course;
+
+import java.util.List;
+
+/**
+ * Callback used by the cascading delete operations to report progress.
+ * Invoked once per committed chunk of dependent rows, and once more when the
+ * parent row itself has been removed.
+ */
+@FunctionalInterface
+public interface CascadeDeleteProgress {
+
+    /**
+     * A progress instance that ignores every notification.
+     */
+    CascadeDeleteProgress NONE = (table, parentId, chunkRows, totalRows) -> { };
+
+    /**
+     * Called after a chunk of rows has been deleted and committed.
+     *
+     * @param table     The table the rows were deleted from.
+     * @param parentId  The ID of the parent row being deleted.
+     * @param chunkRows The number of rows removed by this chunk.
+     * @param totalRows The number of rows removed from this table so far.
+     */
+    void onChunkDeleted(String table, int parentId, int chunkRows, long totalRows);
+
+    /**
+     * Called after a committed chunk with the IDs of the grades it deleted,
+     * before {@link #onChunkDeleted} for the same chunk. Does nothing by default.
+     *
+     * @param parentId The ID of the parent row being deleted.
+     * @param gradeIds The IDs of the deleted grades.
+     */
+    default void onGradesDeleted(int parentId, int[] gradeIds) {
+    }
+
+    /**
+     * Called after the commit that detached the courses of a deleted teacher,
+     * with the courses as they now are. Does nothing by default.
+     *
+     * @param teacherId The ID of the teacher being deleted.
+     * @param courses   The detached courses, with no teacher and their new version.
+     */
+    default void onCoursesDetached(int teacherId, List<Course> courses) {
+    }
+}
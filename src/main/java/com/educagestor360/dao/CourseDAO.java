@@ -45,9 +45,12 @@ public interface CourseDAO {
     List<Course> getCoursesByTeacherId(int teacherId) throws SQLException;
 
     /**
-     * Updates an existing course in the database.
+     * Updates an existing course in the database, provided it still has the
+     * version carried by the Course object; the version is then incremented in
+     * both. Nothing happens if the course no longer exists.
      *
      * @param course The Course object with updated information.
+     * @throws OptimisticLockException if the course was changed since it was read.
      * @throws SQLException if a database access error occurs.
      */
     void updateCourse(Course course) throws SQLException;
@@ -56,7 +59,20 @@ public interface CourseDAO {
      * Deletes a course from the database by its ID.
      *
      * @param courseId The ID of the course to delete.
+     * @return True if a row was deleted, false if there was no such course.
      * @throws SQLException if a database access error occurs.
      */
-    void deleteCourse(int courseId) throws SQLException;
+    boolean deleteCourse(int courseId) throws SQLException;
+
+    /**
+     * Deletes a course together with all of its grades.
+     * Grades are removed in bounded chunks, each in its own short transaction,
+     * and the course row itself is removed last.
+     *
+     * @param courseId The ID of the course to delete.
+     * @param progress The callback notified after every committed chunk.
+     * @return The total number of rows deleted.
+     * @throws SQLException if a database access error occurs.
+     */
+    long deleteCourseCascade(int courseId, CascadeDeleteProgress progress) throws SQLException;
 }
\ No newline at end of file
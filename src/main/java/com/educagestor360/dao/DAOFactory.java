@@ -0,0 +1,128 @@
+package com.educagestor360.dao;
+
+import com.educagestor360.dao.embedded.EmbeddedCourseDAO;
+import com.educagestor360.dao.embedded.EmbeddedGradeDAO;
+import com.educagestor360.dao.embedded.EmbeddedStore;
+import com.educagestor360.dao.embedded.EmbeddedUserDAO;
+import com.educagestor360.dao.impl.CourseDAOImpl;
+import com.educagestor360.dao.impl.GradeDAOImpl;
+import com.educagestor360.dao.impl.UserDAOImpl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Creates the user, course and grade DAOs on the storage chosen at startup:
+ * the MySQL database of {@link com.educagestor360.util.DatabaseConnector}, or
+ * an {@link EmbeddedStore} in a local directory for deployments without a
+ * database server.
+ *
+ * {@link #fromSystemProperties()} reads the choice from
+ * {@code educagestor360.storage} ({@code mysql}, the default, or
+ * {@code embedded}) and the embedded store's directory from
+ * {@code educagestor360.embedded.dir}.
+ */
+public final class DAOFactory implements Closeable {
+
+    /**
+     * The storage engines the DAOs can run on.
+     */
+    public enum Storage {
+        MYSQL, EMBEDDED
+    }
+
+    public static final String DEFAULT_EMBEDDED_DIRECTORY = "educagestor360-data";
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 10 * 60 * 1000;
+
+    private final Storage storage;
+    private final EmbeddedStore store;
+    private final UserDAO userDAO;
+    private final CourseDAO courseDAO;
+    private final GradeDAO gradeDAO;
+
+    private DAOFactory(Storage storage, EmbeddedStore store, UserDAO userDAO, CourseDAO courseDAO, GradeDAO gradeDAO) {
+        this.storage = storage;
+        this.store = store;
+        this.userDAO = userDAO;
+        this.courseDAO = courseDAO;
+        this.gradeDAO = gradeDAO;
+    }
+
+    /**
+     * Creates the DAOs on the storage named by the system properties.
+     *
+     * @return The factory.
+     * @throws IOException if the embedded store cannot be opened.
+     * @throws IllegalArgumentException if the storage name is unknown.
+     */
+    public static DAOFactory fromSystemProperties() throws IOException {
+        String name = System.getProperty("educagestor360.storage", "mysql");
+        switch (Storage.valueOf(name.trim().toUpperCase(Locale.ROOT))) {
+            case EMBEDDED:
+                return embedded(Paths.get(System.getProperty("educagestor360.embedded.dir", DEFAULT_EMBEDDED_DIRECTORY)));
+            case MYSQL:
+            default:
+                return mysql();
+        }
+    }
+
+    /**
+     * Creates the JDBC DAOs on the MySQL database.
+     *
+     * @return The factory.
+     */
+    public static DAOFactory mysql() {
+        return new DAOFactory(Storage.MYSQL, null, new UserDAOImpl(), new CourseDAOImpl(), new GradeDAOImpl());
+    }
+
+    /**
+     * Opens, or creates, an embedded store and the DAOs on it. The store writes a
+     * snapshot every {@link #DEFAULT_SNAPSHOT_INTERVAL_MILLIS} until the factory is closed.
+     *
+     * @param directory The directory of the store.
+     * @return The factory.
+     * @throws IOException if the store cannot be opened.
+     */
+    public static DAOFactory embedded(Path directory) throws IOException {
+        EmbeddedStore store = new EmbeddedStore(directory);
+        store.start(DEFAULT_SNAPSHOT_INTERVAL_MILLIS);
+        return new DAOFactory(Storage.EMBEDDED, store, new EmbeddedUserDAO(store), new EmbeddedCourseDAO(store),
+                new EmbeddedGradeDAO(store));
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    public CourseDAO getCourseDAO() {
+        return courseDAO;
+    }
+
+    public GradeDAO getGradeDAO() {
+        return gradeDAO;
+    }
+
+    /**
+     * @return The embedded store, or null when running on MySQL.
+     */
+    public EmbeddedStore getEmbeddedStore() {
+        return store;
+    }
+
+    /**
+     * Closes the embedded store, if any, after a final snapshot.
+     */
+    @Override
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.educagestor360.dao;
 
 import com.educagestor360.model.Grade;
+import com.educagestor360.model.GradeBatch;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -45,6 +46,24 @@ public interface GradeDAO {
      */
     List<Grade> getGradesByCourseId(int courseId) throws SQLException;
 
+    /**
+     * Retrieves the ids and scores of all grades for a specific student, in columnar form.
+     *
+     * @param studentId The ID of the student.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    GradeBatch getGradeBatchByStudentId(int studentId) throws SQLException;
+
+    /**
+     * Retrieves the ids and scores of all grades for a specific course, in columnar form.
+     *
+     * @param courseId The ID of the course.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    GradeBatch getGradeBatchByCourseId(int courseId) throws SQLException;
+
     /**
      * Retrieves all grades for a specific student in a specific course.
      *
@@ -56,18 +75,52 @@ public interface GradeDAO {
     List<Grade> getGradesByStudentAndCourse(int studentId, int courseId) throws SQLException;
 
     /**
-     * Updates an existing grade in the database.
+     * Updates an existing grade in the database, provided it still has the
+     * version carried by the Grade object; the version is then incremented in
+     * both. Nothing happens if the grade no longer exists.
      *
      * @param grade The Grade object to update.
+     * @throws OptimisticLockException if the grade was changed since it was read.
      * @throws SQLException if a database access error occurs.
      */
     void updateGrade(Grade grade) throws SQLException;
 
+    /**
+     * Updates many grades, each on the condition that it still has the version
+     * carried by its Grade object. Grades in conflict or missing are reported
+     * and skipped; the others are updated and their versions incremented.
+     *
+     * This default implementation updates the grades one at a time.
+     *
+     * @param grades The Grade objects to update.
+     * @return The outcome for each grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    default BatchUpdateResult updateGrades(List<Grade> grades) throws SQLException {
+        BatchUpdateResult result = new BatchUpdateResult();
+        for (Grade grade : grades) {
+            int version = grade.getVersion();
+            try {
+                updateGrade(grade);
+            } catch (OptimisticLockException e) {
+                result.conflict(e);
+                continue;
+            }
+            if (grade.getVersion() != version) {
+                result.updated(grade.getGradeId());
+            } else {
+                result.missing(grade.getGradeId());
+            }
+        }
+        return result;
+    }
+
     /**
      * Deletes a grade from the database by its ID.
      *
      * @param gradeId The ID of the grade to delete.
+     * @return True if a row was deleted, false if there was no such grade.
      * @throws SQLException if a database access error occurs.
      */
-    void deleteGrade(int gradeId) throws SQLException;
+    boolean deleteGrade(int gradeId) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.educagestor360.dao;
+
+import com.educagestor360.event.EntityType;
+
+import java.sql.SQLTransactionRollbackException;
+
+/**
+ * Thrown by an update whose row was changed by someone else since it was read:
+ * the version carried by the entity no longer matches the row. Nothing was
+ * written; read the row again, reapply the change and retry, for instance with
+ * {@link OptimisticRetry}.
+ */
+public class OptimisticLockException extends SQLTransactionRollbackException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The SQLState of a serialization failure, which a stale version is. */
+    public static final String SQL_STATE = "40001";
+
+    private final EntityType entityType;
+    private final int entityId;
+    private final int expectedVersion;
+    private final int actualVersion;
+
+    /**
+     * @param entityType      The kind of entity updated.
+     * @param entityId        The ID of the entity.
+     * @param expectedVersion The version the update was based on.
+     * @param actualVersion   The version found in the row.
+     */
+    public OptimisticLockException(EntityType entityType, int entityId, int expectedVersion, int actualVersion) {
+        super(entityType + " " + entityId + " was changed concurrently: expected version " + expectedVersion
+                + ", found " + actualVersion, SQL_STATE);
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public int getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public int getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,196 @@
+package com.educagestor360.dao;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Read-modify-write loops around the conditional updates of the DAOs.
+ *
+ * Each attempt reads the current row, applies the change to it and writes it
+ * back with the version it read. When another writer got there first, the
+ * {@link OptimisticLockException} is absorbed, the loop waits a short random
+ * time, so that the writers that collided do not collide again, and starts
+ * over from a fresh read. Only the last attempt's change is written, so a
+ * change may build on the values read, such as adding a point to a score, but
+ * must have no effect beyond the entity it is given.
+ */
+public final class OptimisticRetry {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final long BASE_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    /**
+     * One read-modify-write attempt.
+     *
+     * @param <T> The result type.
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T run() throws SQLException;
+    }
+
+    private OptimisticRetry() {
+    }
+
+    /**
+     * Runs an attempt until it completes without a version conflict.
+     *
+     * @param maxAttempts The number of attempts before giving up.
+     * @param attempt     The work, which must read the rows it updates itself.
+     * @param <T>         The result type.
+     * @return The result of the successful attempt.
+     * @throws OptimisticLockException if every attempt hit a conflict; the last one is thrown.
+     * @throws SQLException if an attempt fails otherwise, or the thread is interrupted while waiting.
+     */
+    public static <T> T run(int maxAttempts, Attempt<T> attempt) throws SQLException {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.run();
+            } catch (OptimisticLockException e) {
+                if (i >= maxAttempts) {
+                    throw e;
+                }
+                backOff(i, e);
+            }
+        }
+    }
+
+    /**
+     * Applies a change to a grade, retrying on conflicts.
+     *
+     * @param gradeDAO The DAO to read and write through.
+     * @param gradeId  The ID of the grade.
+     * @param change   The change, applied to a fresh copy on every attempt.
+     * @return The updated grade, or null if it does not exist.
+     * @throws SQLException if the update still conflicts after {@link #DEFAULT_MAX_ATTEMPTS}, or fails.
+     */
+    public static Grade updateGrade(GradeDAO gradeDAO, int gradeId, Consumer<Grade> change) throws SQLException {
+        return run(DEFAULT_MAX_ATTEMPTS, () -> {
+            Grade grade = gradeDAO.getGradeById(gradeId);
+            if (grade != null) {
+                change.accept(grade);
+                gradeDAO.updateGrade(grade);
+            }
+            return grade;
+        });
+    }
+
+    /**
+     * Applies a change to a course, retrying on conflicts.
+     *
+     * @param courseDAO The DAO to read and write through.
+     * @param courseId  The ID of the course.
+     * @param change    The change, applied to a fresh copy on every attempt.
+     * @return The updated course, or null if it does not exist.
+     * @throws SQLException if the update still conflicts after {@link #DEFAULT_MAX_ATTEMPTS}, or fails.
+     */
+    public static Course updateCourse(CourseDAO courseDAO, int courseId, Consumer<Course> change) throws SQLException {
+        return run(DEFAULT_MAX_ATTEMPTS, () -> {
+            Course course = courseDAO.getCourseById(courseId);
+            if (course != null) {
+                change.accept(course);
+                courseDAO.updateCourse(course);
+            }
+            return course;
+        });
+    }
+
+    /**
+     * Applies a change to a user, retrying on conflicts.
+     *
+     * @param userDAO The DAO to read and write through.
+     * @param userId  The ID of the user.
+     * @param change  The change, applied to a fresh copy on every attempt.
+     * @return The updated user, or null if it does not exist.
+     * @throws SQLException if the update still conflicts after {@link #DEFAULT_MAX_ATTEMPTS}, or fails.
+     */
+    public static User updateUser(UserDAO userDAO, int userId, Consumer<User> change) throws SQLException {
+        return run(DEFAULT_MAX_ATTEMPTS, () -> {
+            User user = userDAO.getUserById(userId);
+            if (user != null) {
+                change.accept(user);
+                userDAO.updateUser(user);
+            }
+            return user;
+        });
+    }
+
+    /**
+     * Applies a change to many grades in batches. Each round reads the grades
+     * still pending, changes them and writes them with
+     * {@link GradeDAO#updateGrades(List)}; only the grades that conflicted are
+     * read and written again in the next round.
+     *
+     * @param gradeDAO    The DAO to read and write through.
+     * @param gradeIds    The IDs of the grades.
+     * @param change      The change, applied to a fresh copy of a grade on every round.
+     * @param maxAttempts The number of rounds before giving up on the remaining conflicts.
+     * @return The outcome per grade; conflicts are those left after the last round.
+     * @throws SQLException if a read or write fails, or the thread is interrupted while waiting.
+     */
+    public static BatchUpdateResult updateGrades(GradeDAO gradeDAO, Collection<Integer> gradeIds, Consumer<Grade> change,
+                                                 int maxAttempts) throws SQLException {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        BatchUpdateResult result = new BatchUpdateResult();
+        List<Integer> pending = new ArrayList<>(gradeIds);
+        for (int i = 1; ; i++) {
+            List<Grade> grades = new ArrayList<>(pending.size());
+            for (int gradeId : pending) {
+                Grade grade = gradeDAO.getGradeById(gradeId);
+                if (grade != null) {
+                    change.accept(grade);
+                    grades.add(grade);
+                } else {
+                    result.missing(gradeId);
+                }
+            }
+            BatchUpdateResult round = gradeDAO.updateGrades(grades);
+            round.getUpdatedIds().forEach(result::updated);
+            round.getMissingIds().forEach(result::missing);
+            if (round.getConflicts().isEmpty()) {
+                return result;
+            }
+            if (i >= maxAttempts) {
+                round.getConflicts().forEach(result::conflict);
+                return result;
+            }
+            pending.clear();
+            for (OptimisticLockException conflict : round.getConflicts()) {
+                pending.add(conflict.getEntityId());
+            }
+            backOff(i, round.getConflicts().get(0));
+        }
+    }
+
+    /**
+     * Helper method that sleeps for a random time up to an exponentially growing bound.
+     * @param attempt The number of the attempt that just failed, from 1.
+     * @param conflict The conflict, thrown with the interruption if the sleep is interrupted.
+     */
+    private static void backOff(int attempt, OptimisticLockException conflict) throws SQLException {
+        long bound = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            SQLException failure = new SQLException("Interrupted while retrying an optimistic update", e);
+            failure.addSuppressed(conflict);
+            throw failure;
+        }
+    }
+}
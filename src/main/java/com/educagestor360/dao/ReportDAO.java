@@ -0,0 +1,39 @@
+package com.educagestor360.dao;
+
+import com.educagestor360.model.TeacherWorkload;
+import com.educagestor360.model.TranscriptLine;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) interface for read-only reports spanning users, courses and grades.
+ * Every report is produced by a single query, whatever the number of courses involved.
+ */
+public interface ReportDAO {
+
+    /**
+     * Retrieves the transcript of a student: one line per course they have grades in.
+     *
+     * @param studentId The ID of the student.
+     * @return The transcript lines, ordered by course start date.
+     * @throws SQLException if a database access error occurs.
+     */
+    List<TranscriptLine> getTranscript(int studentId) throws SQLException;
+
+    /**
+     * Retrieves the workload of one teacher.
+     *
+     * @param teacherId The ID of the teacher.
+     * @return The workload, or null if the user teaches no course.
+     * @throws SQLException if a database access error occurs.
+     */
+    TeacherWorkload getTeacherWorkload(int teacherId) throws SQLException;
+
+    /**
+     * Retrieves the workload of every teacher with at least one course.
+     *
+     * @return The workloads, ordered by teacher name.
+     * @throws SQLException if a database access error occurs.
+     */
+    List<TeacherWorkload> getAllTeacherWorkloads() throws SQLException;
+}
@@ -1,6 +1,8 @@
 package com.educagestor360.dao;
 
 import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+import com.educagestor360.model.UserSummary;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -36,6 +38,15 @@ public interface UserDAO {
      */
     User getUserByEmail(String email) throws SQLException;
 
+    /**
+     * Retrieves only the ID, password hash and role of a user by their email address.
+     *
+     * @param email The email address of the user.
+     * @return The UserCredentials if found, null otherwise.
+     * @throws SQLException If a database access error occurs.
+     */
+    UserCredentials getCredentialsByEmail(String email) throws SQLException;
+
     /**
      * Retrieves all users from the database.
      *
@@ -45,18 +56,57 @@ public interface UserDAO {
     List<User> getAllUsers() throws SQLException;
 
     /**
-     * Updates an existing user's information in the database.
+     * Retrieves a summary (ID, names, email and role) of every user.
+     *
+     * @return A list of UserSummary objects.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<UserSummary> getAllUserSummaries() throws SQLException;
+
+    /**
+     * Updates an existing user's information in the database, provided the user
+     * still has the version carried by the User object; the version is then
+     * incremented in both. Nothing happens if the user no longer exists.
      *
      * @param user The User object with updated information.
+     * @throws OptimisticLockException If the user was changed since it was read.
      * @throws SQLException If a database access error occurs.
      */
     void updateUser(User user) throws SQLException;
 
+    /**
+     * Replaces a user's stored password, provided it is still the one given.
+     * Only the password is written, along with a new version, so a concurrent
+     * change of the other fields is never overwritten; a concurrent change of
+     * the password wins over this one.
+     *
+     * @param userId           The ID of the user.
+     * @param expectedPassword The stored password (hash) the change is based on.
+     * @param newPassword      The password (hash) to store.
+     * @return True if the password was replaced, false if it had changed or the user no longer exists.
+     * @throws SQLException If a database access error occurs.
+     */
+    boolean updatePassword(int userId, String expectedPassword, String newPassword) throws SQLException;
+
     /**
      * Deletes a user from the database by their ID.
      *
      * @param userId The ID of the user to delete.
+     * @return True if a row was deleted, false if there was no such user.
+     * @throws SQLException If a database access error occurs.
+     */
+    boolean deleteUser(int userId) throws SQLException;
+
+    /**
+     * Deletes a user together with all of their grades.
+     * Grades are removed in bounded chunks, each in its own short transaction,
+     * courses taught by the user are detached from them, and the user row itself
+     * is removed last.
+     *
+     * @param userId   The ID of the user to delete.
+     * @param progress The callback notified after every committed chunk.
+     * @return The total number of rows deleted.
      * @throws SQLException If a database access error occurs.
      */
-    void deleteUser(int userId) throws SQLException;
+    long deleteUserCascade(int userId, CascadeDeleteProgress progress) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.educagestor360.dao.criteria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A typed column of the table behind entity {@code E}. Conditions and
+ * orderings are built from columns, so a query can only refer to columns of
+ * its own entity and only compare them with values of the right type.
+ *
+ * @param <E> The entity the column belongs to.
+ * @param <V> The Java type of the column's values.
+ */
+public final class Column<E, V> {
+
+    private final String name;
+    private final boolean nullable;
+
+    Column(String name, boolean nullable) {
+        this.name = name;
+        this.nullable = nullable;
+    }
+
+    /**
+     * @return The column name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Whether the column may hold NULL.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * Matches values equal to the given value.
+     *
+     * @param value The value to compare with; must not be null.
+     * @return The condition.
+     */
+    public Condition<E> eq(V value) {
+        return compare(" = ", value);
+    }
+
+    /**
+     * Matches values different from the given value.
+     *
+     * @param value The value to compare with; must not be null.
+     * @return The condition.
+     */
+    public Condition<E> ne(V value) {
+        return compare(" <> ", value);
+    }
+
+    /**
+     * Matches values greater than the given value.
+     *
+     * @param value The value to compare with; must not be null.
+     * @return The condition.
+     */
+    public Condition<E> gt(V value) {
+        return compare(" > ", value);
+    }
+
+    /**
+     * Matches values greater than or equal to the given value.
+     *
+     * @param value The value to compare with; must not be null.
+     * @return The condition.
+     */
+    public Condition<E> ge(V value) {
+        return compare(" >= ", value);
+    }
+
+    /**
+     * Matches values less than the given value.
+     *
+     * @param value The value to compare with; must not be null.
+     * @return The condition.
+     */
+    public Condition<E> lt(V value) {
+        return compare(" < ", value);
+    }
+
+    /**
+     * Matches values less than or equal to the given value.
+     *
+     * @param value The value to compare with; must not be null.
+     * @return The condition.
+     */
+    public Condition<E> le(V value) {
+        return compare(" <= ", value);
+    }
+
+    /**
+     * Matches values in an inclusive range.
+     *
+     * @param low  The lowest matching value.
+     * @param high The highest matching value.
+     * @return The condition.
+     */
+    public Condition<E> between(V low, V high) {
+        List<Object> parameters = new ArrayList<>(2);
+        parameters.add(requireValue(low));
+        parameters.add(requireValue(high));
+        return new Condition<>(name + " BETWEEN ? AND ?", parameters);
+    }
+
+    /**
+     * Matches any of the given values. The list of placeholders is padded to the
+     * next power of two by repeating the last value, so lists of similar length
+     * share a statement shape instead of creating one shape per length.
+     *
+     * @param values The values to match; must not be empty.
+     * @return The condition.
+     */
+    public Condition<E> in(Collection<? extends V> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("IN list must not be empty for column " + name);
+        }
+        int padded = Integer.highestOneBit(values.size() - 1) << 1;
+        padded = Math.max(1, Math.max(padded, values.size()));
+        List<Object> parameters = new ArrayList<>(padded);
+        Object last = null;
+        for (V value : values) {
+            last = requireValue(value);
+            parameters.add(last);
+        }
+        while (parameters.size() < padded) {
+            parameters.add(last);
+        }
+        StringBuilder sql = new StringBuilder(name.length() + 6 + padded * 3).append(name).append(" IN (");
+        for (int i = 0; i < padded; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return new Condition<>(sql.append(')').toString(), parameters);
+    }
+
+    /**
+     * @return A condition matching NULL values.
+     */
+    public Condition<E> isNull() {
+        return new Condition<>(name + " IS NULL", new ArrayList<>(0));
+    }
+
+    /**
+     * @return A condition matching non-NULL values.
+     */
+    public Condition<E> isNotNull() {
+        return new Condition<>(name + " IS NOT NULL", new ArrayList<>(0));
+    }
+
+    /**
+     * @return An ascending ordering on this column.
+     */
+    public Ordering<E> asc() {
+        return new Ordering<>(this, true);
+    }
+
+    /**
+     * @return A descending ordering on this column.
+     */
+    public Ordering<E> desc() {
+        return new Ordering<>(this, false);
+    }
+
+    private Condition<E> compare(String operator, V value) {
+        List<Object> parameters = new ArrayList<>(1);
+        parameters.add(requireValue(value));
+        return new Condition<>(name + operator + "?", parameters);
+    }
+
+    private Object requireValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Use isNull() or isNotNull() to compare column " + name + " with NULL");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,76 @@
+package com.educagestor360.dao.criteria;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parameterized WHERE fragment over entities of type {@code E}. Values never
+ * appear in the SQL text, only as {@code ?} placeholders, so conditions that
+ * differ only in their values share one statement shape.
+ *
+ * @param <E> The entity the condition applies to.
+ */
+public final class Condition<E> {
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    Condition(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Combines this condition with another, both of which must hold.
+     *
+     * @param other The other condition.
+     * @return The combined condition.
+     */
+    public Condition<E> and(Condition<E> other) {
+        return combine(" AND ", other);
+    }
+
+    /**
+     * Combines this condition with another, either of which must hold.
+     *
+     * @param other The other condition.
+     * @return The combined condition.
+     */
+    public Condition<E> or(Condition<E> other) {
+        return combine(" OR ", other);
+    }
+
+    /**
+     * @return The negation of this condition.
+     */
+    public Condition<E> not() {
+        return new Condition<>("NOT (" + sql + ")", new ArrayList<>(parameters));
+    }
+
+    /**
+     * @return The SQL fragment, with one {@code ?} per parameter.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return The values bound to the placeholders, in order.
+     */
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    private Condition<E> combine(String operator, Condition<E> other) {
+        List<Object> combined = new ArrayList<>(parameters.size() + other.parameters.size());
+        combined.addAll(parameters);
+        combined.addAll(other.parameters);
+        return new Condition<>("(" + sql + operator + other.sql + ")", combined);
+    }
+
+    @Override
+    public String toString() {
+        return sql + " " + parameters;
+    }
+}
@@ -0,0 +1,53 @@
+package com.educagestor360.dao.criteria;
+
+import com.educagestor360.dao.mapper.CourseMapper;
+import com.educagestor360.model.Course;
+
+import java.time.LocalDate;
+
+/**
+ * The queryable columns of courses, and conditions on their date window.
+ */
+public final class CourseCriteria {
+
+    public static final Column<Course, Integer> COURSE_ID = new Column<>("course_id", false);
+    public static final Column<Course, String> COURSE_NAME = new Column<>("course_name", false);
+    public static final Column<Course, Integer> TEACHER_ID = new Column<>("teacher_id", true);
+    public static final Column<Course, LocalDate> START_DATE = new Column<>("start_date", true);
+    public static final Column<Course, LocalDate> END_DATE = new Column<>("end_date", true);
+
+    public static final EntityTable<Course> TABLE = new EntityTable<>("courses", COURSE_ID, CourseMapper.COLUMNS, CourseMapper.INSTANCE);
+
+    private CourseCriteria() {
+    }
+
+    /**
+     * @return A query over all courses, ordered by ID.
+     */
+    public static CriteriaQuery<Course> query() {
+        return CriteriaQuery.from(TABLE);
+    }
+
+    /**
+     * Matches courses running on at least one day of an inclusive date window.
+     * A missing start or end date is treated as open-ended.
+     *
+     * @param from The first day of the window.
+     * @param to   The last day of the window.
+     * @return The condition.
+     */
+    public static Condition<Course> runningBetween(LocalDate from, LocalDate to) {
+        return START_DATE.isNull().or(START_DATE.le(to))
+                .and(END_DATE.isNull().or(END_DATE.ge(from)));
+    }
+
+    /**
+     * Matches courses running on a given day.
+     *
+     * @param day The day.
+     * @return The condition.
+     */
+    public static Condition<Course> runningOn(LocalDate day) {
+        return runningBetween(day, day);
+    }
+}
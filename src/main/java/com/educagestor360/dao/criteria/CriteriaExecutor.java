@@ -0,0 +1,159 @@
+package com.educagestor360.dao.criteria;
+
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs {@link CriteriaQuery} instances against the database. Filtering, sorting
+ * and limiting all happen in SQL; only the requested rows are transferred and mapped.
+ */
+public class CriteriaExecutor {
+
+    private final ConnectionProvider connections;
+
+    /**
+     * Creates an executor on the main database of {@link DatabaseConnector}.
+     */
+    public CriteriaExecutor() {
+        this(DatabaseConnector::getConnection);
+    }
+
+    /**
+     * Creates an executor on another database.
+     *
+     * @param connections Where connections come from.
+     */
+    public CriteriaExecutor(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Returns every row matched by a query.
+     *
+     * @param query The query.
+     * @param <E>   The entity type.
+     * @return The matched entities, in query order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public <E> List<E> list(CriteriaQuery<E> query) throws SQLException {
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query.getSql())) {
+            bindAll(preparedStatement, query.getParameters());
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return query.getTable().getMapper().mapAll(rs);
+            }
+        }
+    }
+
+    /**
+     * Returns the first row matched by a query.
+     *
+     * @param query The query.
+     * @param <E>   The entity type.
+     * @return The first entity in query order, or null if none matches.
+     * @throws SQLException if a database access error occurs.
+     */
+    public <E> E first(CriteriaQuery<E> query) throws SQLException {
+        List<E> rows = list(query.limit(1));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Returns one page of a query. The page size is the query's limit; one extra
+     * row is fetched to tell whether another page follows.
+     *
+     * @param query The query, positioned with {@link CriteriaQuery#after(Cursor)} for pages after the first.
+     * @param <E>   The entity type.
+     * @return The page, with the cursor of the next one.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if the query has no limit.
+     */
+    public <E> Page<E> page(CriteriaQuery<E> query) throws SQLException {
+        int pageSize = query.getLimit();
+        if (pageSize == 0) {
+            throw new IllegalArgumentException("A paged query needs a limit");
+        }
+        CriteriaQuery<E> probe = query.limit(pageSize + 1);
+        List<Ordering<E>> orderings = query.getOrderings();
+        List<E> items = new ArrayList<>(pageSize);
+        Object[] lastKey = null;
+        boolean more = false;
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(probe.getSql())) {
+            bindAll(preparedStatement, probe.getParameters());
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        more = true;
+                        break;
+                    }
+                    items.add(query.getTable().getMapper().map(rs));
+                    if (items.size() == pageSize) {
+                        lastKey = new Object[orderings.size()];
+                        for (int i = 0; i < lastKey.length; i++) {
+                            lastKey[i] = rs.getObject(orderings.get(i).getColumn().getName());
+                        }
+                    }
+                }
+            }
+        }
+        return new Page<>(items, more ? new Cursor(query.getOrderColumnNames(), lastKey) : null);
+    }
+
+    /**
+     * Counts the rows matched by a query's conditions.
+     *
+     * @param query The query; its ordering, limit and cursor are ignored.
+     * @param <E>   The entity type.
+     * @return The number of matching rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public <E> long count(CriteriaQuery<E> query) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = query.buildCountSql(parameters);
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            bindAll(preparedStatement, parameters);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Helper method that binds values by their Java type.
+     */
+    private static void bindAll(PreparedStatement preparedStatement, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Object value = parameters.get(i);
+            int index = i + 1;
+            if (value instanceof Integer) {
+                preparedStatement.setInt(index, (Integer) value);
+            } else if (value instanceof Long) {
+                preparedStatement.setLong(index, (Long) value);
+            } else if (value instanceof Double) {
+                preparedStatement.setDouble(index, (Double) value);
+            } else if (value instanceof BigDecimal) {
+                preparedStatement.setBigDecimal(index, (BigDecimal) value);
+            } else if (value instanceof String) {
+                preparedStatement.setString(index, (String) value);
+            } else if (value instanceof LocalDate) {
+                preparedStatement.setDate(index, Date.valueOf((LocalDate) value));
+            } else if (value instanceof Date) {
+                preparedStatement.setDate(index, (Date) value);
+            } else {
+                preparedStatement.setObject(index, value);
+            }
+        }
+    }
+}
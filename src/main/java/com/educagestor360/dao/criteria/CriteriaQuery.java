@@ -0,0 +1,252 @@
+package com.educagestor360.dao.criteria;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable query over one entity: conditions, ordering, a row limit and an
+ * optional keyset cursor. Every method returns a new query, so a base query can
+ * be shared and refined freely.
+ *
+ * The primary key is always appended to the ordering, which makes it total and
+ * keyset paging exact. The generated SQL binds every value, including the
+ * limit, as a parameter.
+ *
+ * @param <E> The entity type.
+ */
+public final class CriteriaQuery<E> {
+
+    private final EntityTable<E> table;
+    private final List<Condition<E>> conditions;
+    private final List<Ordering<E>> orderings;
+    private final int limit;
+    private final Cursor after;
+
+    private volatile String sql;
+    private List<Object> parameters;
+
+    private CriteriaQuery(EntityTable<E> table, List<Condition<E>> conditions, List<Ordering<E>> orderings,
+                          int limit, Cursor after) {
+        this.table = table;
+        this.conditions = conditions;
+        this.orderings = orderings;
+        this.limit = limit;
+        this.after = after;
+    }
+
+    /**
+     * Creates a query returning every row of a table, ordered by primary key.
+     *
+     * @param table The table, such as {@link GradeCriteria#TABLE}.
+     * @param <E>   The entity type.
+     * @return The query.
+     */
+    public static <E> CriteriaQuery<E> from(EntityTable<E> table) {
+        return new CriteriaQuery<>(table, Collections.emptyList(), List.of(table.getIdColumn().asc()), 0, null);
+    }
+
+    /**
+     * Adds a condition; all conditions must hold. Any cursor is cleared.
+     *
+     * @param condition The condition.
+     * @return The refined query.
+     */
+    public CriteriaQuery<E> where(Condition<E> condition) {
+        List<Condition<E>> combined = new ArrayList<>(conditions.size() + 1);
+        combined.addAll(conditions);
+        combined.add(condition);
+        return new CriteriaQuery<>(table, Collections.unmodifiableList(combined), orderings, limit, null);
+    }
+
+    /**
+     * Replaces the ordering. The primary key is appended as the final tie-breaker
+     * unless it is already part of it. Any cursor is cleared.
+     *
+     * @param terms The sort terms, most significant first.
+     * @return The reordered query.
+     */
+    @SafeVarargs
+    public final CriteriaQuery<E> orderBy(Ordering<E>... terms) {
+        List<Ordering<E>> ordering = new ArrayList<>(terms.length + 1);
+        boolean hasId = false;
+        for (Ordering<E> term : terms) {
+            ordering.add(term);
+            hasId |= term.getColumn() == table.getIdColumn();
+        }
+        if (!hasId) {
+            ordering.add(table.getIdColumn().asc());
+        }
+        return new CriteriaQuery<>(table, conditions, Collections.unmodifiableList(ordering), limit, null);
+    }
+
+    /**
+     * Limits the number of rows returned.
+     *
+     * @param maxRows The maximum number of rows, or 0 for no limit.
+     * @return The limited query.
+     */
+    public CriteriaQuery<E> limit(int maxRows) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("maxRows must not be negative: " + maxRows);
+        }
+        return new CriteriaQuery<>(table, conditions, orderings, maxRows, after);
+    }
+
+    /**
+     * Restricts the query to rows after a cursor, in the query's ordering.
+     *
+     * @param cursor A cursor returned for a page of this query, or null to start at the beginning.
+     * @return The positioned query.
+     * @throws IllegalArgumentException if the cursor was taken on a different ordering.
+     */
+    public CriteriaQuery<E> after(Cursor cursor) {
+        if (cursor != null && !cursor.getColumns().equals(getOrderColumnNames())) {
+            throw new IllegalArgumentException("Cursor " + cursor.getColumns() + " does not match ordering " + orderings);
+        }
+        return new CriteriaQuery<>(table, conditions, orderings, limit, cursor);
+    }
+
+    /**
+     * @return The table queried.
+     */
+    public EntityTable<E> getTable() {
+        return table;
+    }
+
+    /**
+     * @return The effective ordering, ending with the primary key.
+     */
+    public List<Ordering<E>> getOrderings() {
+        return orderings;
+    }
+
+    /**
+     * @return The row limit, 0 if unlimited.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The generated SELECT statement.
+     */
+    public String getSql() {
+        if (sql == null) {
+            build();
+        }
+        return sql;
+    }
+
+    /**
+     * @return The values to bind to the statement returned by {@link #getSql()}, in order.
+     */
+    public List<Object> getParameters() {
+        if (sql == null) {
+            build();
+        }
+        return parameters;
+    }
+
+    /**
+     * @return The names of the ordering columns, the signature of this query's cursors.
+     */
+    List<String> getOrderColumnNames() {
+        List<String> names = new ArrayList<>(orderings.size());
+        for (Ordering<E> ordering : orderings) {
+            names.add(ordering.getColumn().getName());
+        }
+        return names;
+    }
+
+    /**
+     * Generates a COUNT(*) statement over the rows matched by the conditions,
+     * ignoring the ordering, limit and cursor.
+     *
+     * @param countParameters Receives the values to bind.
+     * @return The statement.
+     */
+    String buildCountSql(List<Object> countParameters) {
+        StringBuilder builder = new StringBuilder(128).append("SELECT COUNT(*) FROM ").append(table.getName());
+        appendWhere(builder, countParameters, false);
+        return StatementShapes.register(builder.toString());
+    }
+
+    private void build() {
+        List<Object> values = new ArrayList<>();
+        StringBuilder builder = new StringBuilder(256)
+                .append("SELECT ").append(table.getSelectColumns()).append(" FROM ").append(table.getName());
+        appendWhere(builder, values, true);
+        builder.append(" ORDER BY ");
+        for (int i = 0; i < orderings.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(orderings.get(i));
+        }
+        if (limit > 0) {
+            builder.append(" LIMIT ?");
+            values.add(limit);
+        }
+        parameters = Collections.unmodifiableList(values);
+        sql = StatementShapes.register(builder.toString());
+    }
+
+    /**
+     * Helper method that appends the conditions, and optionally the keyset predicate, as a WHERE clause.
+     */
+    private void appendWhere(StringBuilder builder, List<Object> values, boolean withCursor) {
+        boolean first = true;
+        for (Condition<E> condition : conditions) {
+            builder.append(first ? " WHERE " : " AND ").append('(').append(condition.getSql()).append(')');
+            values.addAll(condition.getParameters());
+            first = false;
+        }
+        if (withCursor && after != null) {
+            builder.append(first ? " WHERE " : " AND ").append('(').append(keysetPredicate(values)).append(')');
+        }
+    }
+
+    /**
+     * Helper method that builds the predicate for rows strictly after the cursor:
+     * {@code (k1 after v1) OR (k1 = v1 AND k2 after v2) OR ...}. A NULL sort value
+     * compares with IS NULL and follows MySQL's rule that NULL sorts lowest.
+     */
+    private String keysetPredicate(List<Object> values) {
+        StringBuilder predicate = new StringBuilder();
+        for (int k = 0; k < orderings.size(); k++) {
+            Ordering<E> ordering = orderings.get(k);
+            Column<E, ?> column = ordering.getColumn();
+            Object value = after.getValue(k);
+            String greater;
+            if (value == null) {
+                greater = ordering.isAscending() ? column.getName() + " IS NOT NULL" : null;
+            } else if (ordering.isAscending()) {
+                greater = column.getName() + " > ?";
+            } else {
+                greater = column.isNullable()
+                        ? "(" + column.getName() + " < ? OR " + column.getName() + " IS NULL)"
+                        : column.getName() + " < ?";
+            }
+            if (greater == null) {
+                continue;
+            }
+            predicate.append(predicate.length() == 0 ? "(" : " OR (");
+            for (int i = 0; i < k; i++) {
+                Object previous = after.getValue(i);
+                String name = orderings.get(i).getColumn().getName();
+                if (previous == null) {
+                    predicate.append(name).append(" IS NULL AND ");
+                } else {
+                    predicate.append(name).append(" = ? AND ");
+                    values.add(previous);
+                }
+            }
+            predicate.append(greater).append(')');
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return predicate.length() == 0 ? "1 = 0" : predicate.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.educagestor360.dao.criteria;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A keyset position: the sort-key values of the last row of a page. The next
+ * page is fetched with {@code WHERE (sort key) > (these values)}, which uses
+ * the index behind the ordering instead of skipping rows with OFFSET, so every
+ * page costs the same however deep into the result it is.
+ */
+public final class Cursor {
+
+    private final List<String> columns;
+    private final Object[] values;
+
+    Cursor(List<String> columns, Object[] values) {
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * @return The names of the sort columns the cursor was taken on, in order.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    Object getValue(int index) {
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+        return "Cursor" + columns + Arrays.toString(values);
+    }
+}
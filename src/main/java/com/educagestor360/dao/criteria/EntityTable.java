@@ -0,0 +1,52 @@
+package com.educagestor360.dao.criteria;
+
+import com.educagestor360.dao.mapper.RowMapper;
+
+/**
+ * Describes the table behind an entity: its name, primary key, the columns to
+ * select and the mapper that turns a row into an entity.
+ *
+ * @param <E> The entity type.
+ */
+public final class EntityTable<E> {
+
+    private final String name;
+    private final Column<E, Integer> idColumn;
+    private final String selectColumns;
+    private final RowMapper<E> mapper;
+
+    EntityTable(String name, Column<E, Integer> idColumn, String selectColumns, RowMapper<E> mapper) {
+        this.name = name;
+        this.idColumn = idColumn;
+        this.selectColumns = selectColumns;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return The table name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The primary key, appended to every ordering so that it is total.
+     */
+    public Column<E, Integer> getIdColumn() {
+        return idColumn;
+    }
+
+    /**
+     * @return The columns selected for the mapper, in its order.
+     */
+    public String getSelectColumns() {
+        return selectColumns;
+    }
+
+    /**
+     * @return The mapper for selected rows.
+     */
+    public RowMapper<E> getMapper() {
+        return mapper;
+    }
+}
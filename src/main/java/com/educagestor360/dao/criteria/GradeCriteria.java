@@ -0,0 +1,34 @@
+package com.educagestor360.dao.criteria;
+
+import com.educagestor360.dao.mapper.GradeMapper;
+import com.educagestor360.model.Grade;
+
+/**
+ * The queryable columns of grades.
+ *
+ * A query reads the grades table of the one database its
+ * {@link CriteriaExecutor} connects to, by default the main one. Grades kept
+ * on shards by {@link com.educagestor360.dao.shard.ShardedGradeDAO} are only
+ * seen by running the query with an executor on each shard pool, or on the
+ * shard owning the course it filters on; ordering and limits then apply per
+ * shard, and the caller merges the results.
+ */
+public final class GradeCriteria {
+
+    public static final Column<Grade, Integer> GRADE_ID = new Column<>("grade_id", false);
+    public static final Column<Grade, Integer> STUDENT_ID = new Column<>("student_id", false);
+    public static final Column<Grade, Integer> COURSE_ID = new Column<>("course_id", false);
+    public static final Column<Grade, Double> SCORE = new Column<>("score", true);
+
+    public static final EntityTable<Grade> TABLE = new EntityTable<>("grades", GRADE_ID, GradeMapper.COLUMNS, GradeMapper.INSTANCE);
+
+    private GradeCriteria() {
+    }
+
+    /**
+     * @return A query over all grades, ordered by ID.
+     */
+    public static CriteriaQuery<Grade> query() {
+        return CriteriaQuery.from(TABLE);
+    }
+}
@@ -0,0 +1,37 @@
+package com.educagestor360.dao.criteria;
+
+/**
+ * One ORDER BY term: a column and a direction. MySQL sorts NULL before every
+ * value, so NULLs come first in ascending order and last in descending order.
+ *
+ * @param <E> The entity the column belongs to.
+ */
+public final class Ordering<E> {
+
+    private final Column<E, ?> column;
+    private final boolean ascending;
+
+    Ordering(Column<E, ?> column, boolean ascending) {
+        this.column = column;
+        this.ascending = ascending;
+    }
+
+    /**
+     * @return The column sorted on.
+     */
+    public Column<E, ?> getColumn() {
+        return column;
+    }
+
+    /**
+     * @return Whether the column is sorted in ascending order.
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    @Override
+    public String toString() {
+        return column.getName() + (ascending ? " ASC" : " DESC");
+    }
+}
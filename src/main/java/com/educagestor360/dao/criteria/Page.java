@@ -0,0 +1,41 @@
+package com.educagestor360.dao.criteria;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paged query.
+ *
+ * @param <E> The entity type.
+ */
+public final class Page<E> {
+
+    private final List<E> items;
+    private final Cursor nextCursor;
+
+    Page(List<E> items, Cursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return The rows of this page, in query order.
+     */
+    public List<E> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor to pass to {@link CriteriaQuery#after(Cursor)} for the next page,
+     *         or null if this is the last page.
+     */
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return Whether more rows follow this page.
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.educagestor360.dao.criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the distinct SQL statements generated by criteria queries. Values
+ * are always bound as parameters, so a shape is the same text each time a
+ * query pattern repeats, and the driver's prepared statement cache, which
+ * compares SQL text by equality, already reuses its statement without help.
+ * The registry serves two other purposes: its shapes can be prepared on every
+ * pooled connection at startup, like the DAOs' hot statements, and its hit
+ * and miss counts show whether callers keep producing new shapes.
+ *
+ * The registry is bounded: once full, new shapes are still used but not kept,
+ * so a caller generating unbounded shapes cannot grow it without limit.
+ */
+public final class StatementShapes {
+
+    public static final int MAX_SHAPES = 1024;
+
+    private static final ConcurrentHashMap<String, Boolean> SHAPES = new ConcurrentHashMap<>();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private StatementShapes() {
+    }
+
+    /**
+     * Counts a generated statement, registering its shape if it is new and there is room.
+     *
+     * @param sql The generated SQL.
+     * @return The same SQL, for use inline.
+     */
+    public static String register(String sql) {
+        if (SHAPES.containsKey(sql)) {
+            HITS.increment();
+            return sql;
+        }
+        MISSES.increment();
+        if (SHAPES.size() < MAX_SHAPES) {
+            SHAPES.putIfAbsent(sql, Boolean.TRUE);
+        }
+        return sql;
+    }
+
+    /**
+     * @return The registered shapes.
+     */
+    public static List<String> getShapes() {
+        return new ArrayList<>(SHAPES.keySet());
+    }
+
+    /**
+     * @return The number of registered shapes.
+     */
+    public static int getShapeCount() {
+        return SHAPES.size();
+    }
+
+    /**
+     * @return The number of queries whose shape was already registered.
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return The number of queries that generated a new shape.
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Forgets every registered shape.
+     */
+    public static void clear() {
+        SHAPES.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package com.educagestor360.dao.criteria;
+
+import com.educagestor360.dao.mapper.UserMapper;
+import com.educagestor360.model.User;
+
+/**
+ * The queryable columns of users.
+ */
+public final class UserCriteria {
+
+    public static final Column<User, Integer> USER_ID = new Column<>("user_id", false);
+    public static final Column<User, String> FIRST_NAME = new Column<>("first_name", false);
+    public static final Column<User, String> LAST_NAME = new Column<>("last_name", false);
+    public static final Column<User, String> EMAIL = new Column<>("email", false);
+    public static final Column<User, String> ROLE = new Column<>("role", false);
+
+    public static final EntityTable<User> TABLE = new EntityTable<>("users", USER_ID, UserMapper.COLUMNS, UserMapper.INSTANCE);
+
+    private UserCriteria() {
+    }
+
+    /**
+     * @return A query over all users, ordered by ID.
+     */
+    public static CriteriaQuery<User> query() {
+        return CriteriaQuery.from(TABLE);
+    }
+}
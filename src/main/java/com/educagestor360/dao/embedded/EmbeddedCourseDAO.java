@@ -0,0 +1,137 @@
+package com.educagestor360.dao.embedded;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.CourseDAO;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Course;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Implementation of the CourseDAO interface on an {@link EmbeddedStore}.
+ */
+public class EmbeddedCourseDAO implements CourseDAO {
+
+    private final EmbeddedStore store;
+
+    /**
+     * Creates a DAO on a store.
+     *
+     * @param store The store holding the courses.
+     */
+    public EmbeddedCourseDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Adds a new course to the store and sets the generated course_id in the Course object.
+     *
+     * @param course The Course object to add.
+     * @throws SQLException if the name is null, the teacher does not exist, or the write cannot be made durable.
+     */
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        course.setCourseId(store.insertCourse(course));
+        DaoMutations.courseChanged(MutationKind.INSERT, course.getCourseId(), course);
+    }
+
+    /**
+     * Retrieves a course by its ID.
+     *
+     * @param courseId The ID of the course to retrieve.
+     * @return The Course object if found, null otherwise.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public Course getCourseById(int courseId) throws SQLException {
+        return store.getCourse(courseId);
+    }
+
+    /**
+     * Retrieves all courses, ordered by ID.
+     *
+     * @return A list of all Course objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        return store.getAllCourses();
+    }
+
+    /**
+     * Retrieves all courses taught by a specific teacher, ordered by ID.
+     *
+     * @param teacherId The ID of the teacher.
+     * @return A list of Course objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<Course> getCoursesByTeacherId(int teacherId) throws SQLException {
+        return store.getCoursesByTeacher(teacherId);
+    }
+
+    /**
+     * Updates an existing course if it still has the course's version.
+     *
+     * @param course The Course object to update.
+     * @throws OptimisticLockException if the course was changed since it was read.
+     * @throws SQLException if the name is null, the teacher does not exist, or the write cannot be made durable.
+     */
+    @Override
+    public void updateCourse(Course course) throws SQLException {
+        if (store.updateCourse(course)) {
+            DaoMutations.courseChanged(MutationKind.UPDATE, course.getCourseId(), course);
+        }
+    }
+
+    /**
+     * Deletes a course by its ID.
+     *
+     * @param courseId The ID of the course to delete.
+     * @return True if a row was deleted.
+     * @throws SQLException if grades still reference the course, or the write cannot be made durable.
+     */
+    @Override
+    public boolean deleteCourse(int courseId) throws SQLException {
+        if (store.deleteCourse(courseId)) {
+            DaoMutations.courseChanged(MutationKind.DELETE, courseId, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a course together with its grades. The store does it in a single
+     * step, reported to the progress callback as one chunk.
+     *
+     * @param courseId The ID of the course to delete.
+     * @param progress The callback notified of the deleted rows.
+     * @return The total number of rows deleted, including the course itself.
+     * @throws SQLException if the writes cannot be made durable.
+     */
+    @Override
+    public long deleteCourseCascade(int courseId, CascadeDeleteProgress progress) throws SQLException {
+        boolean[] courseDeleted = new boolean[1];
+        long deleted = store.deleteCourseCascade(courseId, new CascadeDeleteProgress() {
+            @Override
+            public void onChunkDeleted(String table, int parentId, int chunkRows, long totalRows) {
+                if ("courses".equals(table) && chunkRows > 0) {
+                    courseDeleted[0] = true;
+                }
+                progress.onChunkDeleted(table, parentId, chunkRows, totalRows);
+            }
+
+            @Override
+            public void onGradesDeleted(int parentId, int[] gradeIds) {
+                progress.onGradesDeleted(parentId, gradeIds);
+            }
+        });
+        if (courseDeleted[0]) {
+            DaoMutations.courseChanged(MutationKind.DELETE, courseId, null);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,143 @@
+package com.educagestor360.dao.embedded;
+
+import com.educagestor360.dao.GradeDAO;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.GradeBatch;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Implementation of the GradeDAO interface on an {@link EmbeddedStore}.
+ */
+public class EmbeddedGradeDAO implements GradeDAO {
+
+    private final EmbeddedStore store;
+
+    /**
+     * Creates a DAO on a store.
+     *
+     * @param store The store holding the grades.
+     */
+    public EmbeddedGradeDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Adds a new grade to the store and sets the generated grade_id in the Grade object.
+     *
+     * @param grade The Grade object to add.
+     * @throws SQLException if the student or course does not exist, or the write cannot be made durable.
+     */
+    @Override
+    public void addGrade(Grade grade) throws SQLException {
+        grade.setGradeId(store.insertGrade(grade));
+        DaoMutations.gradeChanged(MutationKind.INSERT, grade.getGradeId(), grade);
+    }
+
+    /**
+     * Retrieves a grade by its ID.
+     *
+     * @param gradeId The ID of the grade to retrieve.
+     * @return The Grade object if found, null otherwise.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public Grade getGradeById(int gradeId) throws SQLException {
+        return store.getGrade(gradeId);
+    }
+
+    /**
+     * Retrieves all grades for a specific student, ordered by ID.
+     *
+     * @param studentId The ID of the student.
+     * @return A list of Grade objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<Grade> getGradesByStudentId(int studentId) throws SQLException {
+        return store.getGradesByStudent(studentId);
+    }
+
+    /**
+     * Retrieves all grades for a specific course, ordered by ID.
+     *
+     * @param courseId The ID of the course.
+     * @return A list of Grade objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<Grade> getGradesByCourseId(int courseId) throws SQLException {
+        return store.getGradesByCourse(courseId);
+    }
+
+    /**
+     * Retrieves the ids and scores of all grades for a specific student, in columnar form.
+     *
+     * @param studentId The ID of the student.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public GradeBatch getGradeBatchByStudentId(int studentId) throws SQLException {
+        return store.getGradeBatchByStudent(studentId);
+    }
+
+    /**
+     * Retrieves the ids and scores of all grades for a specific course, in columnar form.
+     *
+     * @param courseId The ID of the course.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public GradeBatch getGradeBatchByCourseId(int courseId) throws SQLException {
+        return store.getGradeBatchByCourse(courseId);
+    }
+
+    /**
+     * Retrieves all grades for a specific student in a specific course.
+     *
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     * @return A list of Grade objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<Grade> getGradesByStudentAndCourse(int studentId, int courseId) throws SQLException {
+        return store.getGradesByStudentAndCourse(studentId, courseId);
+    }
+
+    /**
+     * Updates an existing grade if it still has the grade's version.
+     *
+     * @param grade The Grade object to update.
+     * @throws OptimisticLockException if the grade was changed since it was read.
+     * @throws SQLException if the student or course does not exist, or the write cannot be made durable.
+     */
+    @Override
+    public void updateGrade(Grade grade) throws SQLException {
+        if (store.updateGrade(grade)) {
+            DaoMutations.gradeChanged(MutationKind.UPDATE, grade.getGradeId(), grade);
+        }
+    }
+
+    /**
+     * Deletes a grade by its ID.
+     *
+     * @param gradeId The ID of the grade to delete.
+     * @return True if a row was deleted.
+     * @throws SQLException if the write cannot be made durable.
+     */
+    @Override
+    public boolean deleteGrade(int gradeId) throws SQLException {
+        if (store.deleteGrade(gradeId)) {
+            DaoMutations.gradeChanged(MutationKind.DELETE, gradeId, null);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,984 @@
+package com.educagestor360.dao.embedded;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.GradeBatch;
+import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+import com.educagestor360.model.UserSummary;
+import com.educagestor360.search.TextNormalizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * An in-process replacement for the MySQL database behind the user, course
+ * and grade DAOs, for deployments too small to justify a database server.
+ *
+ * The three tables live in memory, keyed by ID, with secondary indexes on
+ * users.email, courses.teacher_id, grades.student_id and grades.course_id. The
+ * constraints of the schema are enforced the same way: a duplicate email, a
+ * missing NOT NULL column or a dangling or still-referenced foreign key throws
+ * a {@link SQLIntegrityConstraintViolationException}.
+ *
+ * Every write is appended to a {@link WriteAheadLog} and applied while holding
+ * the write lock, and returns once its log record is on disk; concurrent
+ * writers share each disk force. A write is visible before it is durable, so
+ * once a record cannot be appended or forced the store fails: every later read
+ * and write throws, rather than serve changes that were never acknowledged,
+ * and reopening the store recovers what the log holds. Snapshots of the whole store are written
+ * periodically, after which the log segments they cover are deleted, so that
+ * recovery only replays the log written since the last snapshot.
+ *
+ * Rows are never handed out: reads return copies and writes store copies, so
+ * a stored row is never modified once published.
+ */
+public final class EmbeddedStore implements Closeable {
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private static final int SNAPSHOT_MAGIC = 0x45475332; // "EGS2"
+    // Snapshots written before rows had versions.
+    private static final int UNVERSIONED_SNAPSHOT_MAGIC = 0x45475331; // "EGS1"
+
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object snapshotLock = new Object();
+    private final ScheduledExecutorService snapshotter;
+
+    private final TreeMap<Integer, User> users = new TreeMap<>();
+    private final Map<String, Integer> usersByEmail = new HashMap<>();
+    private final TreeMap<Integer, Course> courses = new TreeMap<>();
+    private final Map<Integer, TreeSet<Integer>> coursesByTeacher = new HashMap<>();
+    private final TreeMap<Integer, Grade> grades = new TreeMap<>();
+    private final Map<Integer, TreeSet<Integer>> gradesByStudent = new HashMap<>();
+    private final Map<Integer, TreeSet<Integer>> gradesByCourse = new HashMap<>();
+    private int nextUserId = 1;
+    private int nextCourseId = 1;
+    private int nextGradeId = 1;
+
+    private final WriteAheadLog log;
+    private long appendedAtSnapshot;
+    private volatile IOException failure;
+
+    /**
+     * Opens a store, recovering its contents from the latest snapshot and the log
+     * written since. The directory is created if missing.
+     *
+     * @param directory The directory holding the snapshots and log segments.
+     * @throws IOException if the store cannot be read or the log cannot be opened.
+     */
+    public EmbeddedStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        long snapshotSegment = loadLatestSnapshot();
+        long highestSegment = WriteAheadLog.replay(directory, snapshotSegment, this::applyRecord);
+        this.log = new WriteAheadLog(directory, Math.max(highestSegment, snapshotSegment) + 1);
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "embedded-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Writes a snapshot at a fixed interval until the store is closed.
+     *
+     * @param intervalMillis The time between two snapshots.
+     */
+    public void start(long intervalMillis) {
+        snapshotter.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.err.println("Error writing embedded store snapshot: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes a snapshot of the whole store and deletes the log segments and older
+     * snapshots it replaces. Writes are only blocked while the log switches to a
+     * new segment and the tables are copied; the file is written afterwards.
+     * Does nothing if nothing was written since the last snapshot.
+     *
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long segment;
+            List<User> userRows;
+            List<Course> courseRows;
+            List<Grade> gradeRows;
+            int[] nextIds;
+            lock.writeLock().lock();
+            try {
+                if (failure != null) {
+                    throw new IOException("Embedded store failed; reopen it to recover", failure);
+                }
+                long appended = log.getAppendedCount();
+                if (appended == appendedAtSnapshot) {
+                    return;
+                }
+                segment = log.roll();
+                userRows = new ArrayList<>(users.values());
+                courseRows = new ArrayList<>(courses.values());
+                gradeRows = new ArrayList<>(grades.values());
+                nextIds = new int[] {nextUserId, nextCourseId, nextGradeId};
+                appendedAtSnapshot = appended;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            writeSnapshot(segment, userRows, courseRows, gradeRows, nextIds);
+            log.deleteSegmentsBefore(segment);
+            for (Path path : listSnapshots()) {
+                if (snapshotNumber(path) < segment) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a last snapshot, so the next open has no log to replay, and closes the log.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdownNow();
+        try {
+            snapshot();
+        } finally {
+            log.close();
+        }
+    }
+
+    public int getUserCount() throws SQLException {
+        return read(users::size);
+    }
+
+    public int getCourseCount() throws SQLException {
+        return read(courses::size);
+    }
+
+    public int getGradeCount() throws SQLException {
+        return read(grades::size);
+    }
+
+    int insertUser(User user) throws SQLException {
+        User row = copy(user);
+        long lsn;
+        lockForWrite();
+        try {
+            checkUser(row, 0);
+            row.setUserId(nextUserId);
+            row.setVersion(0);
+            lsn = append(RecordCodec.put(row));
+            putUser(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return row.getUserId();
+    }
+
+    User getUser(int userId) throws SQLException {
+        return read(() -> copy(users.get(userId)));
+    }
+
+    User getUserByEmail(String email) throws SQLException {
+        if (email == null) {
+            return null;
+        }
+        String key = TextNormalizer.collationKey(email);
+        return read(() -> {
+            Integer userId = usersByEmail.get(key);
+            return userId != null ? copy(users.get(userId)) : null;
+        });
+    }
+
+    UserCredentials getCredentialsByEmail(String email) throws SQLException {
+        if (email == null) {
+            return null;
+        }
+        String key = TextNormalizer.collationKey(email);
+        return read(() -> {
+            Integer userId = usersByEmail.get(key);
+            User user = userId != null ? users.get(userId) : null;
+            return user != null ? new UserCredentials(user.getUserId(), user.getPassword(), user.getRole()) : null;
+        });
+    }
+
+    List<User> getAllUsers() throws SQLException {
+        return read(() -> {
+            List<User> result = new ArrayList<>(users.size());
+            for (User user : users.values()) {
+                result.add(copy(user));
+            }
+            return result;
+        });
+    }
+
+    List<UserSummary> getAllUserSummaries() throws SQLException {
+        return read(() -> {
+            List<UserSummary> result = new ArrayList<>(users.size());
+            for (User user : users.values()) {
+                result.add(UserSummary.of(user));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Replaces a user row if it still has the version of the given user, and
+     * increments the version of both.
+     *
+     * @return False if the user does not exist.
+     * @throws OptimisticLockException if the row has another version.
+     */
+    boolean updateUser(User user) throws SQLException {
+        User row = copy(user);
+        long lsn;
+        lockForWrite();
+        try {
+            User current = users.get(row.getUserId());
+            if (current == null) {
+                return false;
+            }
+            if (current.getVersion() != row.getVersion()) {
+                throw new OptimisticLockException(EntityType.USER, row.getUserId(), row.getVersion(), current.getVersion());
+            }
+            checkUser(row, row.getUserId());
+            row.setVersion(row.getVersion() + 1);
+            lsn = append(RecordCodec.put(row));
+            putUser(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        user.setVersion(row.getVersion());
+        return true;
+    }
+
+    /**
+     * Replaces the password of a user if it is still the expected one, bumping the version.
+     * @return A copy of the updated user, or null if the password had changed or the user is gone.
+     */
+    User updatePassword(int userId, String expectedPassword, String newPassword) throws SQLException {
+        User row;
+        long lsn;
+        lockForWrite();
+        try {
+            User current = users.get(userId);
+            if (current == null || !Objects.equals(current.getPassword(), expectedPassword)) {
+                return null;
+            }
+            row = copy(current);
+            row.setPassword(newPassword);
+            row.setVersion(row.getVersion() + 1);
+            lsn = append(RecordCodec.put(row));
+            putUser(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return copy(row);
+    }
+
+    boolean deleteUser(int userId) throws SQLException {
+        long lsn;
+        lockForWrite();
+        try {
+            if (!users.containsKey(userId)) {
+                return false;
+            }
+            if (!isEmpty(gradesByStudent.get(userId))) {
+                throw referenced("grades", "student_id", "users", userId);
+            }
+            if (!isEmpty(coursesByTeacher.get(userId))) {
+                throw referenced("courses", "teacher_id", "users", userId);
+            }
+            lsn = append(RecordCodec.delete(RecordCodec.DELETE_USER, userId));
+            removeUser(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    /**
+     * Deletes a user with their grades, detaching the courses they teach, in one step.
+     * Progress is reported as by the chunked JDBC cascade, with a single chunk.
+     */
+    long deleteUserCascade(int userId, CascadeDeleteProgress progress) throws SQLException {
+        long lsn = 0;
+        int[] gradeIds;
+        int parentRows = 0;
+        List<Course> detachedCourses = new ArrayList<>();
+        lockForWrite();
+        try {
+            gradeIds = idsOf(gradesByStudent.get(userId)).stream().mapToInt(Integer::intValue).toArray();
+            for (int gradeId : gradeIds) {
+                lsn = append(RecordCodec.delete(RecordCodec.DELETE_GRADE, gradeId));
+                removeGrade(gradeId);
+            }
+            for (int courseId : idsOf(coursesByTeacher.get(userId))) {
+                Course detached = copy(courses.get(courseId));
+                detached.setTeacherId(0);
+                detached.setVersion(detached.getVersion() + 1);
+                lsn = append(RecordCodec.put(detached));
+                putCourse(detached);
+                detachedCourses.add(copy(detached));
+            }
+            if (users.containsKey(userId)) {
+                lsn = append(RecordCodec.delete(RecordCodec.DELETE_USER, userId));
+                removeUser(userId);
+                parentRows = 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        if (gradeIds.length > 0) {
+            progress.onGradesDeleted(userId, gradeIds);
+            progress.onChunkDeleted("grades", userId, gradeIds.length, gradeIds.length);
+        }
+        if (!detachedCourses.isEmpty()) {
+            progress.onCoursesDetached(userId, detachedCourses);
+        }
+        progress.onChunkDeleted("users", userId, parentRows, parentRows);
+        return gradeIds.length + parentRows;
+    }
+
+    int insertCourse(Course course) throws SQLException {
+        Course row = copy(course);
+        long lsn;
+        lockForWrite();
+        try {
+            checkCourse(row);
+            row.setCourseId(nextCourseId);
+            row.setVersion(0);
+            lsn = append(RecordCodec.put(row));
+            putCourse(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return row.getCourseId();
+    }
+
+    Course getCourse(int courseId) throws SQLException {
+        return read(() -> copy(courses.get(courseId)));
+    }
+
+    List<Course> getAllCourses() throws SQLException {
+        return read(() -> {
+            List<Course> result = new ArrayList<>(courses.size());
+            for (Course course : courses.values()) {
+                result.add(copy(course));
+            }
+            return result;
+        });
+    }
+
+    List<Course> getCoursesByTeacher(int teacherId) throws SQLException {
+        return read(() -> {
+            List<Course> result = new ArrayList<>();
+            for (int courseId : idsOf(coursesByTeacher.get(teacherId))) {
+                result.add(copy(courses.get(courseId)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Replaces a course row if it still has the version of the given course, and
+     * increments the version of both.
+     *
+     * @return False if the course does not exist.
+     * @throws OptimisticLockException if the row has another version.
+     */
+    boolean updateCourse(Course course) throws SQLException {
+        Course row = copy(course);
+        long lsn;
+        lockForWrite();
+        try {
+            Course current = courses.get(row.getCourseId());
+            if (current == null) {
+                return false;
+            }
+            if (current.getVersion() != row.getVersion()) {
+                throw new OptimisticLockException(EntityType.COURSE, row.getCourseId(), row.getVersion(), current.getVersion());
+            }
+            checkCourse(row);
+            row.setVersion(row.getVersion() + 1);
+            lsn = append(RecordCodec.put(row));
+            putCourse(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        course.setVersion(row.getVersion());
+        return true;
+    }
+
+    boolean deleteCourse(int courseId) throws SQLException {
+        long lsn;
+        lockForWrite();
+        try {
+            if (!courses.containsKey(courseId)) {
+                return false;
+            }
+            if (!isEmpty(gradesByCourse.get(courseId))) {
+                throw referenced("grades", "course_id", "courses", courseId);
+            }
+            lsn = append(RecordCodec.delete(RecordCodec.DELETE_COURSE, courseId));
+            removeCourse(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    /**
+     * Deletes a course with its grades in one step.
+     * Progress is reported as by the chunked JDBC cascade, with a single chunk.
+     */
+    long deleteCourseCascade(int courseId, CascadeDeleteProgress progress) throws SQLException {
+        long lsn = 0;
+        int[] gradeIds;
+        int parentRows = 0;
+        lockForWrite();
+        try {
+            gradeIds = idsOf(gradesByCourse.get(courseId)).stream().mapToInt(Integer::intValue).toArray();
+            for (int gradeId : gradeIds) {
+                lsn = append(RecordCodec.delete(RecordCodec.DELETE_GRADE, gradeId));
+                removeGrade(gradeId);
+            }
+            if (courses.containsKey(courseId)) {
+                lsn = append(RecordCodec.delete(RecordCodec.DELETE_COURSE, courseId));
+                removeCourse(courseId);
+                parentRows = 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        if (gradeIds.length > 0) {
+            progress.onGradesDeleted(courseId, gradeIds);
+            progress.onChunkDeleted("grades", courseId, gradeIds.length, gradeIds.length);
+        }
+        progress.onChunkDeleted("courses", courseId, parentRows, parentRows);
+        return gradeIds.length + parentRows;
+    }
+
+    int insertGrade(Grade grade) throws SQLException {
+        Grade row = copy(grade);
+        long lsn;
+        lockForWrite();
+        try {
+            checkGrade(row);
+            row.setGradeId(nextGradeId);
+            row.setVersion(0);
+            lsn = append(RecordCodec.put(row));
+            putGrade(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return row.getGradeId();
+    }
+
+    Grade getGrade(int gradeId) throws SQLException {
+        return read(() -> copy(grades.get(gradeId)));
+    }
+
+    List<Grade> getGradesByStudent(int studentId) throws SQLException {
+        return read(() -> gradesOf(idsOf(gradesByStudent.get(studentId))));
+    }
+
+    List<Grade> getGradesByCourse(int courseId) throws SQLException {
+        return read(() -> gradesOf(idsOf(gradesByCourse.get(courseId))));
+    }
+
+    List<Grade> getGradesByStudentAndCourse(int studentId, int courseId) throws SQLException {
+        return read(() -> {
+            List<Grade> result = new ArrayList<>();
+            for (int gradeId : idsOf(gradesByStudent.get(studentId))) {
+                Grade grade = grades.get(gradeId);
+                if (grade.getCourseId() == courseId) {
+                    result.add(copy(grade));
+                }
+            }
+            return result;
+        });
+    }
+
+    GradeBatch getGradeBatchByStudent(int studentId) throws SQLException {
+        return read(() -> batchOf(gradesByStudent.get(studentId)));
+    }
+
+    GradeBatch getGradeBatchByCourse(int courseId) throws SQLException {
+        return read(() -> batchOf(gradesByCourse.get(courseId)));
+    }
+
+    /**
+     * Replaces a grade row if it still has the version of the given grade, and
+     * increments the version of both.
+     *
+     * @return False if the grade does not exist.
+     * @throws OptimisticLockException if the row has another version.
+     */
+    boolean updateGrade(Grade grade) throws SQLException {
+        Grade row = copy(grade);
+        long lsn;
+        lockForWrite();
+        try {
+            Grade current = grades.get(row.getGradeId());
+            if (current == null) {
+                return false;
+            }
+            if (current.getVersion() != row.getVersion()) {
+                throw new OptimisticLockException(EntityType.GRADE, row.getGradeId(), row.getVersion(), current.getVersion());
+            }
+            checkGrade(row);
+            row.setVersion(row.getVersion() + 1);
+            lsn = append(RecordCodec.put(row));
+            putGrade(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        grade.setVersion(row.getVersion());
+        return true;
+    }
+
+    boolean deleteGrade(int gradeId) throws SQLException {
+        long lsn;
+        lockForWrite();
+        try {
+            if (!grades.containsKey(gradeId)) {
+                return false;
+            }
+            lsn = append(RecordCodec.delete(RecordCodec.DELETE_GRADE, gradeId));
+            removeGrade(gradeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    private void checkUser(User user, int userId) throws SQLException {
+        requireColumn(user.getFirstName(), "first_name");
+        requireColumn(user.getLastName(), "last_name");
+        requireColumn(user.getEmail(), "email");
+        requireColumn(user.getPassword(), "password");
+        requireColumn(user.getRoleType(), "role");
+        Integer owner = usersByEmail.get(TextNormalizer.collationKey(user.getEmail()));
+        if (owner != null && owner != userId) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Duplicate entry '" + user.getEmail() + "' for key 'users.email'", "23000", 1062);
+        }
+    }
+
+    private void checkCourse(Course course) throws SQLException {
+        requireColumn(course.getCourseName(), "course_name");
+        if (course.getTeacherId() != 0 && !users.containsKey(course.getTeacherId())) {
+            throw dangling("courses", "teacher_id", "users", course.getTeacherId());
+        }
+    }
+
+    private void checkGrade(Grade grade) throws SQLException {
+        if (!users.containsKey(grade.getStudentId())) {
+            throw dangling("grades", "student_id", "users", grade.getStudentId());
+        }
+        if (!courses.containsKey(grade.getCourseId())) {
+            throw dangling("grades", "course_id", "courses", grade.getCourseId());
+        }
+        // Stored with the two decimals of the DECIMAL(5,2) column.
+        grade.setScore(Math.round(grade.getScore() * 100) / 100.0);
+    }
+
+    private static void requireColumn(Object value, String column) throws SQLException {
+        if (value == null) {
+            throw new SQLIntegrityConstraintViolationException("Column '" + column + "' cannot be null", "23000", 1048);
+        }
+    }
+
+    private static SQLException dangling(String table, String column, String parent, int id) {
+        return new SQLIntegrityConstraintViolationException("Cannot add or update a child row: a foreign key constraint fails ("
+                + table + "." + column + " references " + parent + ", id " + id + ")", "23000", 1452);
+    }
+
+    private static SQLException referenced(String table, String column, String parent, int id) {
+        return new SQLIntegrityConstraintViolationException("Cannot delete or update a parent row: a foreign key constraint fails ("
+                + table + "." + column + " references " + parent + ", id " + id + ")", "23000", 1451);
+    }
+
+    private void putUser(User user) {
+        User previous = users.put(user.getUserId(), user);
+        if (previous != null) {
+            usersByEmail.remove(TextNormalizer.collationKey(previous.getEmail()));
+        }
+        usersByEmail.put(TextNormalizer.collationKey(user.getEmail()), user.getUserId());
+        nextUserId = Math.max(nextUserId, user.getUserId() + 1);
+    }
+
+    private void removeUser(int userId) {
+        User previous = users.remove(userId);
+        if (previous != null) {
+            usersByEmail.remove(TextNormalizer.collationKey(previous.getEmail()));
+        }
+    }
+
+    private void putCourse(Course course) {
+        Course previous = courses.put(course.getCourseId(), course);
+        if (previous != null) {
+            unindex(coursesByTeacher, previous.getTeacherId(), previous.getCourseId());
+        }
+        index(coursesByTeacher, course.getTeacherId(), course.getCourseId());
+        nextCourseId = Math.max(nextCourseId, course.getCourseId() + 1);
+    }
+
+    private void removeCourse(int courseId) {
+        Course previous = courses.remove(courseId);
+        if (previous != null) {
+            unindex(coursesByTeacher, previous.getTeacherId(), courseId);
+        }
+    }
+
+    private void putGrade(Grade grade) {
+        Grade previous = grades.put(grade.getGradeId(), grade);
+        if (previous != null) {
+            unindex(gradesByStudent, previous.getStudentId(), previous.getGradeId());
+            unindex(gradesByCourse, previous.getCourseId(), previous.getGradeId());
+        }
+        index(gradesByStudent, grade.getStudentId(), grade.getGradeId());
+        index(gradesByCourse, grade.getCourseId(), grade.getGradeId());
+        nextGradeId = Math.max(nextGradeId, grade.getGradeId() + 1);
+    }
+
+    private void removeGrade(int gradeId) {
+        Grade previous = grades.remove(gradeId);
+        if (previous != null) {
+            unindex(gradesByStudent, previous.getStudentId(), gradeId);
+            unindex(gradesByCourse, previous.getCourseId(), gradeId);
+        }
+    }
+
+    /**
+     * Helper method that adds a row to a secondary index; a key of 0 stands for NULL and is not indexed.
+     */
+    private static void index(Map<Integer, TreeSet<Integer>> index, int key, int id) {
+        if (key != 0) {
+            index.computeIfAbsent(key, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private static void unindex(Map<Integer, TreeSet<Integer>> index, int key, int id) {
+        TreeSet<Integer> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static boolean isEmpty(NavigableSet<Integer> ids) {
+        return ids == null || ids.isEmpty();
+    }
+
+    private static List<Integer> idsOf(NavigableSet<Integer> ids) {
+        return ids == null ? Collections.<Integer>emptyList() : new ArrayList<>(ids);
+    }
+
+    private List<Grade> gradesOf(List<Integer> gradeIds) {
+        List<Grade> result = new ArrayList<>(gradeIds.size());
+        for (int gradeId : gradeIds) {
+            result.add(copy(grades.get(gradeId)));
+        }
+        return result;
+    }
+
+    private GradeBatch batchOf(NavigableSet<Integer> gradeIds) {
+        GradeBatch batch = new GradeBatch(gradeIds == null ? 1 : Math.max(1, gradeIds.size()));
+        if (gradeIds != null) {
+            for (int gradeId : gradeIds) {
+                Grade grade = grades.get(gradeId);
+                batch.add(grade.getGradeId(), grade.getStudentId(), grade.getCourseId(), grade.getScore());
+            }
+        }
+        return batch;
+    }
+
+    private interface Read<T> {
+        T get();
+    }
+
+    private <T> T read(Read<T> reader) throws SQLException {
+        lock.readLock().lock();
+        try {
+            checkNotFailed();
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method that takes the write lock, unless the store has failed.
+     */
+    private void lockForWrite() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            checkNotFailed();
+        } catch (SQLException e) {
+            lock.writeLock().unlock();
+            throw e;
+        }
+    }
+
+    private void checkNotFailed() throws SQLException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new SQLException("Embedded store failed; reopen it to recover: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Helper method that appends a record, failing the store if it cannot: the
+     * changes of the same write applied before it would otherwise stay visible.
+     */
+    private long append(byte[] record) throws SQLException {
+        try {
+            return log.append(record);
+        } catch (IOException e) {
+            failure = e;
+            throw new SQLException("Embedded store cannot accept writes: " + e.getMessage(), e);
+        }
+    }
+
+    private void awaitDurable(long lsn) throws SQLException {
+        if (lsn == 0) {
+            return;
+        }
+        try {
+            log.awaitDurable(lsn);
+        } catch (IOException e) {
+            // The change is already applied in memory; it must not be served.
+            failure = e;
+            throw new SQLException("Embedded store write could not be made durable: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Helper method that applies one log record during recovery, without checking constraints.
+     */
+    private void applyRecord(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte operation = in.readByte();
+        switch (operation) {
+            case RecordCodec.PUT_USER:
+            case RecordCodec.PUT_USER_VERSIONED:
+                putUser(RecordCodec.readUser(in, operation == RecordCodec.PUT_USER_VERSIONED));
+                break;
+            case RecordCodec.DELETE_USER:
+                removeUser(in.readInt());
+                break;
+            case RecordCodec.PUT_COURSE:
+            case RecordCodec.PUT_COURSE_VERSIONED:
+                putCourse(RecordCodec.readCourse(in, operation == RecordCodec.PUT_COURSE_VERSIONED));
+                break;
+            case RecordCodec.DELETE_COURSE:
+                removeCourse(in.readInt());
+                break;
+            case RecordCodec.PUT_GRADE:
+            case RecordCodec.PUT_GRADE_VERSIONED:
+                putGrade(RecordCodec.readGrade(in, operation == RecordCodec.PUT_GRADE_VERSIONED));
+                break;
+            case RecordCodec.DELETE_GRADE:
+                removeGrade(in.readInt());
+                break;
+            default:
+                throw new IOException("Unknown embedded log operation: " + operation);
+        }
+    }
+
+    private void writeSnapshot(long segment, List<User> userRows, List<Course> courseRows, List<Grade> gradeRows,
+                               int[] nextIds) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(partial), 256 * 1024), new CRC32());
+        try (DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            for (int nextId : nextIds) {
+                out.writeInt(nextId);
+            }
+            out.writeInt(userRows.size());
+            for (User user : userRows) {
+                RecordCodec.writeUser(out, user);
+            }
+            out.writeInt(courseRows.size());
+            for (Course course : courseRows) {
+                RecordCodec.writeCourse(out, course);
+            }
+            out.writeInt(gradeRows.size());
+            for (Grade grade : gradeRows) {
+                RecordCodec.writeGrade(out, grade);
+            }
+            out.writeLong(checked.getChecksum().getValue());
+        }
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(directory);
+    }
+
+    /**
+     * Helper method that loads the newest snapshot, if any, and removes unfinished ones.
+     * @return The first log segment the snapshot does not cover, or 0 without a snapshot.
+     */
+    private long loadLatestSnapshot() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX + ".part")) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        List<Path> snapshots = listSnapshots();
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path latest = snapshots.get(snapshots.size() - 1);
+        // The checksum sits above the buffer so that it covers exactly the bytes read.
+        CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(latest), 256 * 1024), new CRC32());
+        try (DataInputStream in = new DataInputStream(checked)) {
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != UNVERSIONED_SNAPSHOT_MAGIC) {
+                throw new IOException("Not an embedded store snapshot: " + latest);
+            }
+            boolean versioned = magic == SNAPSHOT_MAGIC;
+            int savedUserId = in.readInt();
+            int savedCourseId = in.readInt();
+            int savedGradeId = in.readInt();
+            for (int n = in.readInt(); n > 0; n--) {
+                putUser(RecordCodec.readUser(in, versioned));
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                putCourse(RecordCodec.readCourse(in, versioned));
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                putGrade(RecordCodec.readGrade(in, versioned));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Corrupt embedded store snapshot: " + latest);
+            }
+            // IDs are never reused, even those of rows deleted before the snapshot.
+            nextUserId = Math.max(nextUserId, savedUserId);
+            nextCourseId = Math.max(nextCourseId, savedCourseId);
+            nextGradeId = Math.max(nextGradeId, savedGradeId);
+        }
+        return snapshotNumber(latest);
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private static long snapshotNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    /**
+     * Forces a directory, so that files just created or renamed in it survive a crash.
+     * Not every platform can open a directory; there the rename is trusted as is.
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened for syncing on this platform.
+        }
+    }
+
+    private static User copy(User user) {
+        if (user == null) {
+            return null;
+        }
+        User copy = new User();
+        copy.setUserId(user.getUserId());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        copy.setRoleType(user.getRoleType());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+
+    private static Course copy(Course course) {
+        if (course == null) {
+            return null;
+        }
+        Course copy = new Course(course.getCourseId(), course.getCourseName(), course.getDescription(),
+                course.getTeacherId(), course.getStartDate(), course.getEndDate());
+        copy.setVersion(course.getVersion());
+        return copy;
+    }
+
+    private static Grade copy(Grade grade) {
+        if (grade == null) {
+            return null;
+        }
+        Grade copy = new Grade(grade.getGradeId(), grade.getStudentId(), grade.getCourseId(), grade.getScore(),
+                grade.getComments());
+        copy.setVersion(grade.getVersion());
+        return copy;
+    }
+}
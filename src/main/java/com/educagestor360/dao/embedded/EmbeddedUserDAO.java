@@ -0,0 +1,194 @@
+package com.educagestor360.dao.embedded;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.dao.UserDAO;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+import com.educagestor360.model.UserSummary;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of the UserDAO interface on an {@link EmbeddedStore}.
+ */
+public class EmbeddedUserDAO implements UserDAO {
+
+    private final EmbeddedStore store;
+
+    /**
+     * Creates a DAO on a store.
+     *
+     * @param store The store holding the users.
+     */
+    public EmbeddedUserDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Adds a new user to the store and sets the generated user_id in the User object.
+     *
+     * @param user The User object to add.
+     * @throws SQLException if the email is taken, a required field is null, or the write cannot be made durable.
+     */
+    @Override
+    public void addUser(User user) throws SQLException {
+        user.setUserId(store.insertUser(user));
+        DaoMutations.userChanged(MutationKind.INSERT, user.getUserId(), user);
+    }
+
+    /**
+     * Retrieves a user by their ID.
+     *
+     * @param userId The ID of the user to retrieve.
+     * @return The User object if found, null otherwise.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public User getUserById(int userId) throws SQLException {
+        return store.getUser(userId);
+    }
+
+    /**
+     * Retrieves a user by their email, compared ignoring case and accents like the MySQL column.
+     *
+     * @param email The email of the user to retrieve.
+     * @return The User object if found, null otherwise.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public User getUserByEmail(String email) throws SQLException {
+        return store.getUserByEmail(email);
+    }
+
+    /**
+     * Retrieves only the ID, password hash and role of a user by their email.
+     *
+     * @param email The email of the user.
+     * @return The credentials if found, null otherwise.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public UserCredentials getCredentialsByEmail(String email) throws SQLException {
+        return store.getCredentialsByEmail(email);
+    }
+
+    /**
+     * Retrieves all users, ordered by ID.
+     *
+     * @return A list of all User objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<User> getAllUsers() throws SQLException {
+        return store.getAllUsers();
+    }
+
+    /**
+     * Retrieves all users without their passwords, ordered by ID.
+     *
+     * @return A list of UserSummary objects.
+     * @throws SQLException if the store has failed.
+     */
+    @Override
+    public List<UserSummary> getAllUserSummaries() throws SQLException {
+        return store.getAllUserSummaries();
+    }
+
+    /**
+     * Updates an existing user if it still has the user's version.
+     *
+     * @param user The User object to update.
+     * @throws OptimisticLockException if the user was changed since it was read.
+     * @throws SQLException if the email is taken, a required field is null, or the write cannot be made durable.
+     */
+    @Override
+    public void updateUser(User user) throws SQLException {
+        if (store.updateUser(user)) {
+            DaoMutations.userChanged(MutationKind.UPDATE, user.getUserId(), user);
+        }
+    }
+
+    /**
+     * Replaces a user's stored password if it is still the expected one.
+     *
+     * @param userId           The ID of the user.
+     * @param expectedPassword The stored password (hash) the change is based on.
+     * @param newPassword      The password (hash) to store.
+     * @return True if the password was replaced.
+     * @throws SQLException if the write cannot be made durable.
+     */
+    @Override
+    public boolean updatePassword(int userId, String expectedPassword, String newPassword) throws SQLException {
+        User updated = store.updatePassword(userId, expectedPassword, newPassword);
+        if (updated == null) {
+            return false;
+        }
+        DaoMutations.userChanged(MutationKind.UPDATE, userId, updated);
+        return true;
+    }
+
+    /**
+     * Deletes a user by their ID.
+     *
+     * @param userId The ID of the user to delete.
+     * @return True if a row was deleted.
+     * @throws SQLException if grades or courses still reference the user, or the write cannot be made durable.
+     */
+    @Override
+    public boolean deleteUser(int userId) throws SQLException {
+        if (store.deleteUser(userId)) {
+            DaoMutations.userChanged(MutationKind.DELETE, userId, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a user together with their grades, detaching the courses they teach
+     * and publishing them as course updates.
+     * The store does it in a single step, reported to the progress callback as one chunk.
+     *
+     * @param userId   The ID of the user to delete.
+     * @param progress The callback notified of the deleted rows.
+     * @return The total number of rows deleted, including the user itself.
+     * @throws SQLException if the writes cannot be made durable.
+     */
+    @Override
+    public long deleteUserCascade(int userId, CascadeDeleteProgress progress) throws SQLException {
+        List<Course> detached = new ArrayList<>();
+        boolean[] userDeleted = new boolean[1];
+        long deleted = store.deleteUserCascade(userId, new CascadeDeleteProgress() {
+            @Override
+            public void onChunkDeleted(String table, int parentId, int chunkRows, long totalRows) {
+                if ("users".equals(table) && chunkRows > 0) {
+                    userDeleted[0] = true;
+                }
+                progress.onChunkDeleted(table, parentId, chunkRows, totalRows);
+            }
+
+            @Override
+            public void onGradesDeleted(int parentId, int[] gradeIds) {
+                progress.onGradesDeleted(parentId, gradeIds);
+            }
+
+            @Override
+            public void onCoursesDetached(int teacherId, List<Course> courses) {
+                detached.addAll(courses);
+                progress.onCoursesDetached(teacherId, courses);
+            }
+        });
+        for (Course course : detached) {
+            DaoMutations.courseChanged(MutationKind.UPDATE, course.getCourseId(), course);
+        }
+        if (userDeleted[0]) {
+            DaoMutations.userChanged(MutationKind.DELETE, userId, null);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,180 @@
+package com.educagestor360.dao.embedded;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.Role;
+import com.educagestor360.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Binary encoding of rows, shared by write-ahead log records and snapshots.
+ * A log record is an operation byte followed by the row, or by the ID for a delete.
+ *
+ * Rows are written with their version at the end. Rows written before versions
+ * existed have none: their log records carry the original put operations and
+ * their snapshots the original magic, and they are read with version 0.
+ */
+final class RecordCodec {
+
+    static final byte PUT_USER = 1;
+    static final byte DELETE_USER = 2;
+    static final byte PUT_COURSE = 3;
+    static final byte DELETE_COURSE = 4;
+    static final byte PUT_GRADE = 5;
+    static final byte DELETE_GRADE = 6;
+    static final byte PUT_USER_VERSIONED = 7;
+    static final byte PUT_COURSE_VERSIONED = 8;
+    static final byte PUT_GRADE_VERSIONED = 9;
+
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private RecordCodec() {
+    }
+
+    static byte[] put(User user) {
+        return encode(out -> {
+            out.writeByte(PUT_USER_VERSIONED);
+            writeUser(out, user);
+        });
+    }
+
+    static byte[] put(Course course) {
+        return encode(out -> {
+            out.writeByte(PUT_COURSE_VERSIONED);
+            writeCourse(out, course);
+        });
+    }
+
+    static byte[] put(Grade grade) {
+        return encode(out -> {
+            out.writeByte(PUT_GRADE_VERSIONED);
+            writeGrade(out, grade);
+        });
+    }
+
+    static byte[] delete(byte operation, int id) {
+        return encode(out -> {
+            out.writeByte(operation);
+            out.writeInt(id);
+        });
+    }
+
+    static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeInt(user.getUserId());
+        writeString(out, user.getFirstName());
+        writeString(out, user.getLastName());
+        writeString(out, user.getEmail());
+        writeString(out, user.getPassword());
+        out.writeByte(user.getRoleType() != null ? user.getRoleType().getCode() : 0);
+        out.writeInt(user.getVersion());
+    }
+
+    static User readUser(DataInput in, boolean versioned) throws IOException {
+        User user = new User();
+        user.setUserId(in.readInt());
+        user.setFirstName(readString(in));
+        user.setLastName(readString(in));
+        user.setEmail(readString(in));
+        user.setPassword(readString(in));
+        int role = in.readByte();
+        user.setRoleType(role != 0 ? Role.fromCode(role) : null);
+        if (versioned) {
+            user.setVersion(in.readInt());
+        }
+        return user;
+    }
+
+    static void writeCourse(DataOutput out, Course course) throws IOException {
+        out.writeInt(course.getCourseId());
+        writeString(out, course.getCourseName());
+        writeString(out, course.getDescription());
+        out.writeInt(course.getTeacherId());
+        out.writeLong(course.getStartDate() != null ? course.getStartDate().toEpochDay() : NULL_DATE);
+        out.writeLong(course.getEndDate() != null ? course.getEndDate().toEpochDay() : NULL_DATE);
+        out.writeInt(course.getVersion());
+    }
+
+    static Course readCourse(DataInput in, boolean versioned) throws IOException {
+        Course course = new Course();
+        course.setCourseId(in.readInt());
+        course.setCourseName(readString(in));
+        course.setDescription(readString(in));
+        course.setTeacherId(in.readInt());
+        long startDay = in.readLong();
+        long endDay = in.readLong();
+        course.setStartDate(startDay != NULL_DATE ? LocalDate.ofEpochDay(startDay) : null);
+        course.setEndDate(endDay != NULL_DATE ? LocalDate.ofEpochDay(endDay) : null);
+        if (versioned) {
+            course.setVersion(in.readInt());
+        }
+        return course;
+    }
+
+    static void writeGrade(DataOutput out, Grade grade) throws IOException {
+        out.writeInt(grade.getGradeId());
+        out.writeInt(grade.getStudentId());
+        out.writeInt(grade.getCourseId());
+        out.writeDouble(grade.getScore());
+        writeString(out, grade.getComments());
+        out.writeInt(grade.getVersion());
+    }
+
+    static Grade readGrade(DataInput in, boolean versioned) throws IOException {
+        Grade grade = new Grade();
+        grade.setGradeId(in.readInt());
+        grade.setStudentId(in.readInt());
+        grade.setCourseId(in.readInt());
+        grade.setScore(in.readDouble());
+        grade.setComments(readString(in));
+        if (versioned) {
+            grade.setVersion(in.readInt());
+        }
+        return grade;
+    }
+
+    /**
+     * Helper method that writes a possibly null string as a length and its UTF-8
+     * bytes; unlike {@link DataOutput#writeUTF(String)} it has no 64 KB limit.
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            // A ByteArrayOutputStream never fails.
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
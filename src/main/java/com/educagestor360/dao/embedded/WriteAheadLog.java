@@ -0,0 +1,351 @@
+package com.educagestor360.dao.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * The append-only write-ahead log of an {@link EmbeddedStore}.
+ *
+ * Records are appended to an in-memory buffer and numbered; a single writer
+ * thread drains the buffer to the current segment file and forces it to disk,
+ * so every record appended while one force is in progress is made durable by
+ * the next one. Callers wait for their record with {@link #awaitDurable(long)}.
+ *
+ * Each record is framed as its length, the CRC32 of its bytes, and the bytes.
+ * Segments are named {@code wal-<number>.log}; a new one is started on every
+ * open and every snapshot, and a segment is deleted once a snapshot covers it.
+ * A record cut short by a crash fails its length or checksum test and ends the
+ * replay of its segment; it was never acknowledged to its writer.
+ *
+ * Once a write to disk fails, the log refuses every further record.
+ */
+final class WriteAheadLog implements Closeable {
+
+    static final String SEGMENT_PREFIX = "wal-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    /**
+     * Receives the records found while replaying the log.
+     */
+    interface RecordHandler {
+        void apply(byte[] record) throws IOException;
+    }
+
+    private final Path directory;
+    private final Object io = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingWork = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread writer;
+    private final CRC32 crc = new CRC32();
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private long appendedLsn;
+    private long durableLsn;
+    private IOException failure;
+    private boolean closed;
+
+    private FileChannel channel;
+    private long segment;
+
+    /**
+     * Opens the log on a new segment.
+     *
+     * @param directory The directory holding the segments.
+     * @param segment   The number of the first segment to write; greater than every existing one.
+     * @throws IOException if the segment cannot be created.
+     */
+    WriteAheadLog(Path directory, long segment) throws IOException {
+        this.directory = directory;
+        this.segment = segment;
+        this.channel = openSegment(directory, segment);
+        this.writer = new Thread(this::runWriter, "embedded-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Appends a record. It is not durable until {@link #awaitDurable(long)} returns for it.
+     *
+     * @param record The encoded record.
+     * @return The number of the record, to wait for.
+     * @throws IOException if the log is closed or an earlier write failed.
+     */
+    long append(byte[] record) throws IOException {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Write-ahead log failed earlier", failure);
+            }
+            if (closed) {
+                throw new IOException("Write-ahead log is closed");
+            }
+            crc.reset();
+            crc.update(record, 0, record.length);
+            writeInt(pending, record.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.write(record, 0, record.length);
+            appendedLsn++;
+            pendingWork.signal();
+            return appendedLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a record and every record before it are on disk.
+     *
+     * @param lsn The number returned by {@link #append(byte[])}.
+     * @throws IOException if the log could not be written.
+     */
+    void awaitDurable(long lsn) throws IOException {
+        lock.lock();
+        try {
+            while (durableLsn < lsn && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (durableLsn < lsn) {
+                throw new IOException("Write-ahead log failed", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes everything appended so far durable in the current segment and starts
+     * the next one. The caller must prevent appends while this runs, so that the
+     * new segment holds exactly the records appended afterwards.
+     *
+     * @return The number of the new segment.
+     * @throws IOException if the log cannot be written.
+     */
+    long roll() throws IOException {
+        synchronized (io) {
+            flushPending();
+            FileChannel next = openSegment(directory, segment + 1);
+            channel.close();
+            channel = next;
+            segment++;
+            return segment;
+        }
+    }
+
+    /**
+     * Deletes the segments older than a given one.
+     *
+     * @param segment The oldest segment to keep.
+     * @throws IOException if the directory cannot be listed or a file cannot be deleted.
+     */
+    void deleteSegmentsBefore(long segment) throws IOException {
+        for (Path path : listSegments(directory)) {
+            if (segmentNumber(path) < segment) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * @return The number of records appended since the log was opened.
+     */
+    long getAppendedCount() {
+        lock.lock();
+        try {
+            return appendedLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes every appended record durable, then stops the writer and closes the segment.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            pendingWork.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (io) {
+            try {
+                flushPending();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Replays the records of the segments from a given one onwards, oldest first.
+     *
+     * @param directory   The directory holding the segments.
+     * @param fromSegment The first segment to replay.
+     * @param handler     Receives every intact record.
+     * @return The highest segment number found, or 0 if there is none.
+     * @throws IOException if a segment cannot be read or a record cannot be applied.
+     */
+    static long replay(Path directory, long fromSegment, RecordHandler handler) throws IOException {
+        long highest = 0;
+        CRC32 checksum = new CRC32();
+        for (Path path : listSegments(directory)) {
+            long number = segmentNumber(path);
+            highest = Math.max(highest, number);
+            if (number < fromSegment) {
+                continue;
+            }
+            byte[] bytes = Files.readAllBytes(path);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int expected = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+                checksum.reset();
+                checksum.update(bytes, buffer.position(), length);
+                if ((int) checksum.getValue() != expected) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                buffer.get(record);
+                handler.apply(record);
+            }
+            if (buffer.hasRemaining()) {
+                System.err.println("Ignoring " + buffer.remaining() + " torn bytes at the end of " + path.getFileName());
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Lists the segment files of a directory in order.
+     *
+     * @param directory The directory holding the segments.
+     * @return The segment files, oldest first.
+     * @throws IOException if the directory cannot be listed.
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void runWriter() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed) {
+                    pendingWork.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            synchronized (io) {
+                try {
+                    flushPending();
+                } catch (IOException e) {
+                    System.err.println("Error writing the write-ahead log: " + e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method that writes and forces the buffered records; callers hold {@code io}.
+     * On failure the log is marked failed and every waiter is released.
+     */
+    private void flushPending() throws IOException {
+        byte[] bytes;
+        long target;
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            if (pending.size() == 0) {
+                return;
+            }
+            bytes = pending.toByteArray();
+            target = appendedLsn;
+            pending = new ByteArrayOutputStream(Math.max(64 * 1024, bytes.length));
+        } finally {
+            lock.unlock();
+        }
+        IOException error = null;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+        lock.lock();
+        try {
+            if (error != null) {
+                failure = error;
+            } else {
+                durableLsn = target;
+            }
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static FileChannel openSegment(Path directory, long segment) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        EmbeddedStore.syncDirectory(directory);
+        return channel;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
@@ -0,0 +1,270 @@
+package com.educagestor360.dao.impl;
+
+import com.educagestor360.dao.CascadeDeleteProgress;
+import com.educagestor360.dao.mapper.CourseMapper;
+import com.educagestor360.event.ChangeOutbox;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Course;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Removes a course or a user together with the grades that reference it.
+ * Dependent grades are deleted in bounded chunks, each chunk in its own short
+ * transaction, with an optional pause between chunks so that concurrent grading
+ * traffic is never blocked behind a long-running delete. The parent row is only
+ * removed at the end, in a final small transaction.
+ */
+public class ChunkedCascadeDeleter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final long DEFAULT_PAUSE_MILLIS = 50;
+
+    private static final String SELECT_GRADE_IDS_BY_COURSE_SQL = "SELECT grade_id FROM grades WHERE course_id = ? ORDER BY grade_id LIMIT ? FOR UPDATE";
+    private static final String SELECT_GRADE_IDS_BY_STUDENT_SQL = "SELECT grade_id FROM grades WHERE student_id = ? ORDER BY grade_id LIMIT ? FOR UPDATE";
+    private static final String SELECT_COURSES_OF_TEACHER_SQL = "SELECT " + CourseMapper.COLUMNS + " FROM courses WHERE teacher_id = ? FOR UPDATE";
+    private static final String DETACH_COURSES_FROM_TEACHER_SQL = "UPDATE courses SET teacher_id = NULL, version = version + 1 WHERE teacher_id = ?";
+    private static final String DELETE_GRADES_BY_ID_SQL_PREFIX = "DELETE FROM grades WHERE grade_id IN (";
+    private static final String DELETE_COURSE_SQL = "DELETE FROM courses WHERE course_id = ?";
+    private static final String DELETE_USER_SQL = "DELETE FROM users WHERE user_id = ?";
+
+    /** The most grade IDs bound to one DELETE statement. */
+    private static final int DELETE_BY_ID_BATCH = 1000;
+
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    /**
+     * Creates a deleter with the default chunk size and pause.
+     */
+    public ChunkedCascadeDeleter() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_PAUSE_MILLIS);
+    }
+
+    /**
+     * Creates a deleter with the given chunk size and pause.
+     *
+     * @param chunkSize   The maximum number of grades removed per transaction.
+     * @param pauseMillis The time to sleep between two chunks, 0 to disable throttling.
+     */
+    public ChunkedCascadeDeleter(int chunkSize, long pauseMillis) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (pauseMillis < 0) {
+            throw new IllegalArgumentException("pauseMillis must not be negative: " + pauseMillis);
+        }
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Deletes a course after removing all of its grades in chunks.
+     *
+     * @param courseId The ID of the course to delete.
+     * @param progress The callback notified after every committed chunk.
+     * @return The total number of rows deleted, including the course itself.
+     * @throws SQLException if a database access error occurs or the thread is interrupted.
+     */
+    public long deleteCourse(int courseId, CascadeDeleteProgress progress) throws SQLException {
+        try (Connection connection = DatabaseConnector.getConnection()) {
+            long deleted = deleteInChunks(connection, SELECT_GRADE_IDS_BY_COURSE_SQL, courseId, progress);
+            return deleted + deleteParent(connection, courseId, deleted, progress, EntityType.COURSE, "courses",
+                    SELECT_GRADE_IDS_BY_COURSE_SQL, null, DELETE_COURSE_SQL);
+        }
+    }
+
+    /**
+     * Deletes a user after removing all of their grades in chunks.
+     * Courses taught by the user are kept and detached from them (teacher_id is set to NULL);
+     * they are passed to {@link CascadeDeleteProgress#onCoursesDetached} once committed.
+     *
+     * @param userId   The ID of the user to delete.
+     * @param progress The callback notified after every committed chunk.
+     * @return The total number of rows deleted, including the user itself.
+     * @throws SQLException if a database access error occurs or the thread is interrupted.
+     */
+    public long deleteUser(int userId, CascadeDeleteProgress progress) throws SQLException {
+        try (Connection connection = DatabaseConnector.getConnection()) {
+            long deleted = deleteInChunks(connection, SELECT_GRADE_IDS_BY_STUDENT_SQL, userId, progress);
+            return deleted + deleteParent(connection, userId, deleted, progress, EntityType.USER, "users",
+                    SELECT_GRADE_IDS_BY_STUDENT_SQL, SELECT_COURSES_OF_TEACHER_SQL, DETACH_COURSES_FROM_TEACHER_SQL,
+                    DELETE_USER_SQL);
+        }
+    }
+
+    /**
+     * Helper method that repeatedly deletes one chunk of dependent grades per transaction
+     * until a chunk comes back smaller than the chunk size. Each chunk's grades are locked
+     * and read first, so that their IDs can be reported once it is committed.
+     */
+    private long deleteInChunks(Connection connection, String selectIdsSql, int parentId,
+                                CascadeDeleteProgress progress) throws SQLException {
+        long total = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            while (true) {
+                int[] gradeIds;
+                try {
+                    gradeIds = deleteGrades(connection, selectIdsSql, parentId, chunkSize);
+                    connection.commit();
+                } catch (SQLException e) {
+                    rollbackQuietly(connection);
+                    throw e;
+                }
+                total += gradeIds.length;
+                if (gradeIds.length > 0) {
+                    progress.onGradesDeleted(parentId, gradeIds);
+                    progress.onChunkDeleted("grades", parentId, gradeIds.length, total);
+                }
+                if (gradeIds.length < chunkSize) {
+                    return total;
+                }
+                pause();
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Helper method that runs the final statements in a single transaction. It first
+     * sweeps the dependent grades inserted while the chunks were running, then runs the
+     * statements, the last of which removes the parent row. The parent delete and the
+     * detached courses are recorded in the change outbox within the same transaction. When {@code detachedCoursesSql} is
+     * given, it locks and reads the courses the statements detach, which are reported
+     * after the commit.
+     */
+    private long deleteParent(Connection connection, int parentId, long dependentsDeleted, CascadeDeleteProgress progress,
+                              EntityType parentType, String parentTable, String selectGradeIdsSql,
+                              String detachedCoursesSql, String... statements) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            int parentRows = 0;
+            int[] stragglers = deleteGrades(connection, selectGradeIdsSql, parentId, Integer.MAX_VALUE);
+            List<Course> detached = detachedCoursesSql != null
+                    ? selectCourses(connection, detachedCoursesSql, parentId) : List.of();
+            for (int i = 0; i < statements.length; i++) {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(statements[i])) {
+                    preparedStatement.setInt(1, parentId);
+                    int rows = preparedStatement.executeUpdate();
+                    if (i == statements.length - 1) {
+                        parentRows = rows;
+                    }
+                }
+            }
+            int[] detachedIds = new int[detached.size()];
+            for (int i = 0; i < detachedIds.length; i++) {
+                detachedIds[i] = detached.get(i).getCourseId();
+            }
+            ChangeOutbox.appendAll(connection, EntityType.COURSE, MutationKind.UPDATE, detachedIds);
+            if (parentRows > 0) {
+                ChangeOutbox.append(connection, parentType, MutationKind.DELETE, parentId);
+            }
+            connection.commit();
+            if (stragglers.length > 0) {
+                progress.onGradesDeleted(parentId, stragglers);
+                progress.onChunkDeleted("grades", parentId, stragglers.length, dependentsDeleted + stragglers.length);
+            }
+            if (!detached.isEmpty()) {
+                progress.onCoursesDetached(parentId, detached);
+            }
+            progress.onChunkDeleted(parentTable, parentId, parentRows, parentRows);
+            return stragglers.length + parentRows;
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Helper method that locks and reads the IDs of at most {@code limit} grades of a
+     * parent row, then deletes them and records each delete in the change outbox, in the
+     * transaction open on the connection.
+     * @return The IDs of the deleted grades.
+     */
+    private static int[] deleteGrades(Connection connection, String selectIdsSql, int parentId, int limit)
+            throws SQLException {
+        int[] ids = new int[Math.min(limit, 64)];
+        int count = 0;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(selectIdsSql)) {
+            preparedStatement.setInt(1, parentId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = rs.getInt(1);
+                }
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        for (int from = 0; from < count; from += DELETE_BY_ID_BATCH) {
+            int to = Math.min(count, from + DELETE_BY_ID_BATCH);
+            StringBuilder sql = new StringBuilder(DELETE_GRADES_BY_ID_SQL_PREFIX.length() + (to - from) * 3)
+                    .append(DELETE_GRADES_BY_ID_SQL_PREFIX);
+            for (int i = from; i < to; i++) {
+                sql.append(i == from ? "?" : ", ?");
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql.append(')').toString())) {
+                for (int i = from; i < to; i++) {
+                    preparedStatement.setInt(i - from + 1, ids[i]);
+                }
+                preparedStatement.executeUpdate();
+            }
+        }
+        ChangeOutbox.appendAll(connection, EntityType.GRADE, MutationKind.DELETE, ids);
+        return ids;
+    }
+
+    /**
+     * Helper method that locks the courses of a teacher and returns them as they
+     * will be once detached: without a teacher and one version further.
+     */
+    private static List<Course> selectCourses(Connection connection, String sql, int teacherId) throws SQLException {
+        List<Course> courses;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, teacherId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                courses = CourseMapper.INSTANCE.mapAll(rs);
+            }
+        }
+        for (Course course : courses) {
+            course.setTeacherId(0);
+            course.setVersion(course.getVersion() + 1);
+        }
+        return courses;
+    }
+
+    private void pause() throws SQLException {
+        if (pauseMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Cascade delete interrupted", e);
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back cascade delete: " + e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package com.educagestor360.dao.impl;
 
+import com.educagestor360.dao.CascadeDeleteProgress;
 import com.educagestor360.dao.CourseDAO;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.dao.mapper.CourseMapper;
+import com.educagestor360.event.ChangeOutbox;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
 import com.educagestor360.model.Course;
 import com.educagestor360.util.DatabaseConnector;
 
@@ -14,13 +21,19 @@ import java.util.List;
  */
 public class CourseDAOImpl implements CourseDAO {
 
-    private static final String INSERT_COURSE_SQL = "INSERT INTO courses (course_name, description, teacher_id, start_date, end_date) VALUES (?, ?, ?, ?, ?)";
-    private static final String SELECT_COURSE_BY_ID_SQL = "SELECT course_id, course_name, description, teacher_id, start_date, end_date FROM courses WHERE course_id = ?";
-    private static final String SELECT_ALL_COURSES_SQL = "SELECT course_id, course_name, description, teacher_id, start_date, end_date FROM courses";
-    private static final String SELECT_COURSES_BY_TEACHER_ID_SQL = "SELECT course_id, course_name, description, teacher_id, start_date, end_date FROM courses WHERE teacher_id = ?";
-    private static final String UPDATE_COURSE_SQL = "UPDATE courses SET course_name = ?, description = ?, teacher_id = ?, start_date = ?, end_date = ? WHERE course_id = ?";
+    private static final String INSERT_COURSE_SQL = "INSERT INTO courses (" + CourseMapper.WRITE_COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_COURSE_BY_ID_SQL = "SELECT " + CourseMapper.COLUMNS + " FROM courses WHERE course_id = ?";
+    private static final String SELECT_ALL_COURSES_SQL = "SELECT " + CourseMapper.COLUMNS + " FROM courses";
+    private static final String SELECT_COURSES_BY_TEACHER_ID_SQL = "SELECT " + CourseMapper.COLUMNS + " FROM courses WHERE teacher_id = ?";
+    private static final String UPDATE_COURSE_SQL = "UPDATE courses SET course_name = ?, description = ?, teacher_id = ?, start_date = ?, end_date = ?, "
+            + "version = version + 1 WHERE course_id = ? AND version = ?";
     private static final String DELETE_COURSE_SQL = "DELETE FROM courses WHERE course_id = ?";
 
+    /** Statements on the interactive path, worth preparing on every pooled connection at startup. */
+    public static final List<String> HOT_STATEMENTS = List.of(SELECT_COURSE_BY_ID_SQL, SELECT_COURSES_BY_TEACHER_ID_SQL);
+
+    private final ChunkedCascadeDeleter cascadeDeleter = new ChunkedCascadeDeleter();
+
     /**
      * Adds a new course to the database.
      * Retrieves the generated course_id and sets it in the Course object.
@@ -31,27 +44,13 @@ public class CourseDAOImpl implements CourseDAO {
     @Override
     public void addCourse(Course course) throws SQLException {
         Connection connection = null;
-        PreparedStatement preparedStatement = null;
-        ResultSet generatedKeys = null;
         try {
             connection = DatabaseConnector.getConnection();
-            preparedStatement = connection.prepareStatement(INSERT_COURSE_SQL, Statement.RETURN_GENERATED_KEYS);
-            preparedStatement.setString(1, course.getCourseName());
-            preparedStatement.setString(2, course.getDescription());
-            preparedStatement.setInt(3, course.getTeacherId());
-            preparedStatement.setDate(4, course.getStartDate() != null ? new java.sql.Date(course.getStartDate().getTime()) : null);
-            preparedStatement.setDate(5, course.getEndDate() != null ? new java.sql.Date(course.getEndDate().getTime()) : null);
-            preparedStatement.executeUpdate();
-
-            generatedKeys = preparedStatement.getGeneratedKeys();
-            if (generatedKeys.next()) {
-                course.setCourseId(generatedKeys.getInt(1));
-            }
+            ChangeOutbox.write(connection, EntityType.COURSE, MutationKind.INSERT, c -> insertCourse(c, course));
         } finally {
-            if (generatedKeys != null) try { generatedKeys.close(); } catch (SQLException e) { /* ignored */ }
-            if (preparedStatement != null) try { preparedStatement.close(); } catch (SQLException e) { /* ignored */ }
             if (connection != null) try { connection.close(); } catch (SQLException e) { /* ignored */ }
         }
+        DaoMutations.courseChanged(MutationKind.INSERT, course.getCourseId(), course);
     }
 
     /**
@@ -73,7 +72,7 @@ public class CourseDAOImpl implements CourseDAO {
             preparedStatement.setInt(1, courseId);
             resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
-                course = mapResultSetToCourse(resultSet);
+                course = CourseMapper.INSTANCE.map(resultSet);
             }
         } finally {
             if (resultSet != null) try { resultSet.close(); } catch (SQLException e) { /* ignored */ }
@@ -100,7 +99,7 @@ public class CourseDAOImpl implements CourseDAO {
             preparedStatement = connection.prepareStatement(SELECT_ALL_COURSES_SQL);
             resultSet = preparedStatement.executeQuery();
             while (resultSet.next()) {
-                courses.add(mapResultSetToCourse(resultSet));
+                courses.add(CourseMapper.INSTANCE.map(resultSet));
             }
         } finally {
             if (resultSet != null) try { resultSet.close(); } catch (SQLException e) { /* ignored */ }
@@ -129,7 +128,7 @@ public class CourseDAOImpl implements CourseDAO {
             preparedStatement.setInt(1, teacherId);
             resultSet = preparedStatement.executeQuery();
             while (resultSet.next()) {
-                courses.add(mapResultSetToCourse(resultSet));
+                courses.add(CourseMapper.INSTANCE.map(resultSet));
             }
         } finally {
             if (resultSet != null) try { resultSet.close(); } catch (SQLException e) { /* ignored */ }
@@ -147,59 +146,141 @@ public class CourseDAOImpl implements CourseDAO {
      */
     @Override
     public void updateCourse(Course course) throws SQLException {
+        int updatedId;
         Connection connection = null;
-        PreparedStatement preparedStatement = null;
         try {
             connection = DatabaseConnector.getConnection();
-            preparedStatement = connection.prepareStatement(UPDATE_COURSE_SQL);
-            preparedStatement.setString(1, course.getCourseName());
-            preparedStatement.setString(2, course.getDescription());
-            preparedStatement.setInt(3, course.getTeacherId());
-            preparedStatement.setDate(4, course.getStartDate() != null ? new java.sql.Date(course.getStartDate().getTime()) : null);
-            preparedStatement.setDate(5, course.getEndDate() != null ? new java.sql.Date(course.getEndDate().getTime()) : null);
-            preparedStatement.setInt(6, course.getCourseId());
-            preparedStatement.executeUpdate();
+            updatedId = ChangeOutbox.write(connection, EntityType.COURSE, MutationKind.UPDATE, c -> updateCourseRow(c, course));
         } finally {
-            if (preparedStatement != null) try { preparedStatement.close(); } catch (SQLException e) { /* ignored */ }
             if (connection != null) try { connection.close(); } catch (SQLException e) { /* ignored */ }
         }
+        if (updatedId != 0) {
+            course.setVersion(course.getVersion() + 1);
+            DaoMutations.courseChanged(MutationKind.UPDATE, course.getCourseId(), course);
+        }
     }
 
     /**
      * Deletes a course from the database by its ID.
      *
      * @param courseId The ID of the course to delete.
+     * @return True if a row was deleted.
      * @throws SQLException if a database access error occurs.
      */
     @Override
-    public void deleteCourse(int courseId) throws SQLException {
+    public boolean deleteCourse(int courseId) throws SQLException {
+        int deletedId;
         Connection connection = null;
-        PreparedStatement preparedStatement = null;
         try {
             connection = DatabaseConnector.getConnection();
-            preparedStatement = connection.prepareStatement(DELETE_COURSE_SQL);
-            preparedStatement.setInt(1, courseId);
+            deletedId = ChangeOutbox.write(connection, EntityType.COURSE, MutationKind.DELETE, c -> deleteCourseRow(c, courseId));
+        } finally {
+            if (connection != null) try { connection.close(); } catch (SQLException e) { /* ignored */ }
+        }
+        if (deletedId != 0) {
+            DaoMutations.courseChanged(MutationKind.DELETE, courseId, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a course together with all of its grades, in chunks.
+     *
+     * @param courseId The ID of the course to delete.
+     * @param progress The callback notified after every committed chunk.
+     * @return The total number of rows deleted.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public long deleteCourseCascade(int courseId, CascadeDeleteProgress progress) throws SQLException {
+        boolean[] courseDeleted = new boolean[1];
+        long deleted = cascadeDeleter.deleteCourse(courseId, new CascadeDeleteProgress() {
+            @Override
+            public void onChunkDeleted(String table, int parentId, int chunkRows, long totalRows) {
+                if ("courses".equals(table) && chunkRows > 0) {
+                    courseDeleted[0] = true;
+                }
+                progress.onChunkDeleted(table, parentId, chunkRows, totalRows);
+            }
+
+            @Override
+            public void onGradesDeleted(int parentId, int[] gradeIds) {
+                progress.onGradesDeleted(parentId, gradeIds);
+            }
+        });
+        if (courseDeleted[0]) {
+            DaoMutations.courseChanged(MutationKind.DELETE, courseId, null);
+        }
+        return deleted;
+    }
+
+    /**
+     * Helper method that inserts a course row and stores its generated ID in the Course object.
+     * @param connection The connection to write on.
+     * @param course The course to insert.
+     * @return The generated course ID.
+     * @throws SQLException if a database access error occurs.
+     */
+    private int insertCourse(Connection connection, Course course) throws SQLException {
+        PreparedStatement preparedStatement = null;
+        ResultSet generatedKeys = null;
+        try {
+            preparedStatement = connection.prepareStatement(INSERT_COURSE_SQL, Statement.RETURN_GENERATED_KEYS);
+            CourseMapper.INSTANCE.bind(preparedStatement, course);
             preparedStatement.executeUpdate();
+
+            generatedKeys = preparedStatement.getGeneratedKeys();
+            if (generatedKeys.next()) {
+                course.setCourseId(generatedKeys.getInt(1));
+            }
         } finally {
+            if (generatedKeys != null) try { generatedKeys.close(); } catch (SQLException e) { /* ignored */ }
             if (preparedStatement != null) try { preparedStatement.close(); } catch (SQLException e) { /* ignored */ }
-            if (connection != null) try { connection.close(); } catch (SQLException e) { /* ignored */ }
         }
+        return course.getCourseId();
     }
 
     /**
-     * Helper method to map a ResultSet row to a Course object.
-     * @param resultSet The ResultSet to map.
-     * @return A Course object.
+     * Helper method that updates a course row if it still has the course's version.
+     * @param connection The connection to write on.
+     * @param course The course with updated information.
+     * @return The course ID if a row was updated, 0 if the course no longer exists.
+     * @throws OptimisticLockException if the row has another version.
      * @throws SQLException if a database access error occurs.
      */
-    private Course mapResultSetToCourse(ResultSet resultSet) throws SQLException {
-        Course course = new Course();
-        course.setCourseId(resultSet.getInt("course_id"));
-        course.setCourseName(resultSet.getString("course_name"));
-        course.setDescription(resultSet.getString("description"));
-        course.setTeacherId(resultSet.getInt("teacher_id"));
-        course.setStartDate(resultSet.getDate("start_date"));
-        course.setEndDate(resultSet.getDate("end_date"));
-        return course;
+    private int updateCourseRow(Connection connection, Course course) throws SQLException {
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = connection.prepareStatement(UPDATE_COURSE_SQL);
+            int next = CourseMapper.INSTANCE.bind(preparedStatement, course);
+            preparedStatement.setInt(next, course.getCourseId());
+            preparedStatement.setInt(next + 1, course.getVersion());
+            if (preparedStatement.executeUpdate() > 0) {
+                return course.getCourseId();
+            }
+        } finally {
+            if (preparedStatement != null) try { preparedStatement.close(); } catch (SQLException e) { /* ignored */ }
+        }
+        RowVersions.failIfChanged(connection, EntityType.COURSE, course.getCourseId(), course.getVersion());
+        return 0;
+    }
+
+    /**
+     * Helper method that deletes a course row.
+     * @param connection The connection to write on.
+     * @param courseId The ID of the course to delete.
+     * @return The course ID if a row was deleted, 0 otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    private int deleteCourseRow(Connection connection, int courseId) throws SQLException {
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = connection.prepareStatement(DELETE_COURSE_SQL);
+            preparedStatement.setInt(1, courseId);
+            return preparedStatement.executeUpdate() > 0 ? courseId : 0;
+        } finally {
+            if (preparedStatement != null) try { preparedStatement.close(); } catch (SQLException e) { /* ignored */ }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,17 @@
 package com.educagestor360.dao.impl;
 
+import com.educagestor360.dao.BatchUpdateResult;
 import com.educagestor360.dao.GradeDAO;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.dao.mapper.GradeMapper;
+import com.educagestor360.event.ChangeOutbox;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.OutboxWork;
 import com.educagestor360.model.Grade;
+import com.educagestor360.model.GradeBatch;
+import com.educagestor360.util.ConnectionProvider;
 import com.educagestor360.util.DatabaseConnector;
 
 import java.sql.Connection;
@@ -11,6 +21,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the GradeDAO interface.
@@ -18,14 +29,47 @@ import java.util.List;
  */
 public class GradeDAOImpl implements GradeDAO {
 
-    private static final String INSERT_GRADE_SQL = "INSERT INTO grades (student_id, course_id, score, comments) VALUES (?, ?, ?, ?)";
-    private static final String SELECT_GRADE_BY_ID_SQL = "SELECT grade_id, student_id, course_id, score, comments FROM grades WHERE grade_id = ?";
-    private static final String SELECT_GRADES_BY_STUDENT_ID_SQL = "SELECT grade_id, student_id, course_id, score, comments FROM grades WHERE student_id = ?";
-    private static final String SELECT_GRADES_BY_COURSE_ID_SQL = "SELECT grade_id, student_id, course_id, score, comments FROM grades WHERE course_id = ?";
-    private static final String SELECT_GRADES_BY_STUDENT_AND_COURSE_SQL = "SELECT grade_id, student_id, course_id, score, comments FROM grades WHERE student_id = ? AND course_id = ?";
-    private static final String UPDATE_GRADE_SQL = "UPDATE grades SET student_id = ?, course_id = ?, score = ?, comments = ? WHERE grade_id = ?";
+    private static final String INSERT_GRADE_SQL = "INSERT INTO grades (" + GradeMapper.WRITE_COLUMNS + ") VALUES (?, ?, ?, ?)";
+    private static final String SELECT_GRADE_BY_ID_SQL = "SELECT " + GradeMapper.COLUMNS + " FROM grades WHERE grade_id = ?";
+    private static final String SELECT_GRADES_BY_STUDENT_ID_SQL = "SELECT " + GradeMapper.COLUMNS + " FROM grades WHERE student_id = ?";
+    private static final String SELECT_GRADES_BY_COURSE_ID_SQL = "SELECT " + GradeMapper.COLUMNS + " FROM grades WHERE course_id = ?";
+    private static final String SELECT_GRADE_BATCH_BY_STUDENT_ID_SQL = "SELECT grade_id, student_id, course_id, score FROM grades WHERE student_id = ?";
+    private static final String SELECT_GRADE_BATCH_BY_COURSE_ID_SQL = "SELECT grade_id, student_id, course_id, score FROM grades WHERE course_id = ?";
+    private static final String SELECT_GRADES_BY_STUDENT_AND_COURSE_SQL = "SELECT " + GradeMapper.COLUMNS + " FROM grades WHERE student_id = ? AND course_id = ?";
+    private static final String UPDATE_GRADE_SQL = "UPDATE grades SET student_id = ?, course_id = ?, score = ?, comments = ?, version = version + 1 "
+            + "WHERE grade_id = ? AND version = ?";
     private static final String DELETE_GRADE_SQL = "DELETE FROM grades WHERE grade_id = ?";
 
+    /** Statements on the interactive path, worth preparing on every pooled connection at startup. */
+    public static final List<String> HOT_STATEMENTS = List.of(SELECT_GRADE_BY_ID_SQL, SELECT_GRADES_BY_STUDENT_ID_SQL,
+            SELECT_GRADES_BY_COURSE_ID_SQL, SELECT_GRADES_BY_STUDENT_AND_COURSE_SQL, UPDATE_GRADE_SQL);
+
+    private final ConnectionProvider connections;
+    private final boolean recordsOutbox;
+
+    /**
+     * Creates a DAO on the main database of {@link DatabaseConnector}.
+     * Its writes are recorded in the change outbox when that is enabled.
+     */
+    public GradeDAOImpl() {
+        this(DatabaseConnector::getConnection, true);
+    }
+
+    /**
+     * Creates a DAO on another database, such as one grade shard.
+     * The change outbox lives on the main database, so these writes are not recorded in it.
+     *
+     * @param connections Where connections come from.
+     */
+    public GradeDAOImpl(ConnectionProvider connections) {
+        this(connections, false);
+    }
+
+    private GradeDAOImpl(ConnectionProvider connections, boolean recordsOutbox) {
+        this.connections = connections;
+        this.recordsOutbox = recordsOutbox;
+    }
+
     /**
      * Adds a new grade to the database.
      * Retrieves the generated grade_id and sets it in the Grade object.
@@ -35,20 +79,22 @@ public class GradeDAOImpl implements GradeDAO {
      */
     @Override
     public void addGrade(Grade grade) throws SQLException {
-        try (Connection connection = DatabaseConnector.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(INSERT_GRADE_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            preparedStatement.setInt(1, grade.getStudentId());
-            preparedStatement.setInt(2, grade.getCourseId());
-            preparedStatement.setDouble(3, grade.getScore());
-            preparedStatement.setString(4, grade.getComments());
-            preparedStatement.executeUpdate();
-
-            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    grade.setGradeId(generatedKeys.getInt(1));
+        try (Connection connection = connections.getConnection()) {
+            record(connection, MutationKind.INSERT, c -> {
+                try (PreparedStatement preparedStatement = c.prepareStatement(INSERT_GRADE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    GradeMapper.INSTANCE.bind(preparedStatement, grade);
+                    preparedStatement.executeUpdate();
+
+                    try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            grade.setGradeId(generatedKeys.getInt(1));
+                        }
+                    }
                 }
-            }
+                return grade.getGradeId();
+            });
         }
+        DaoMutations.gradeChanged(MutationKind.INSERT, grade.getGradeId(), grade);
     }
 
     /**
@@ -61,17 +107,12 @@ public class GradeDAOImpl implements GradeDAO {
     @Override
     public Grade getGradeById(int gradeId) throws SQLException {
         Grade grade = null;
-        try (Connection connection = DatabaseConnector.getConnection();
+        try (Connection connection = connections.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(SELECT_GRADE_BY_ID_SQL)) {
             preparedStatement.setInt(1, gradeId);
             try (ResultSet rs = preparedStatement.executeQuery()) {
                 if (rs.next()) {
-                    grade = new Grade();
-                    grade.setGradeId(rs.getInt("grade_id"));
-                    grade.setStudentId(rs.getInt("student_id"));
-                    grade.setCourseId(rs.getInt("course_id"));
-                    grade.setScore(rs.getDouble("score"));
-                    grade.setComments(rs.getString("comments"));
+                    grade = GradeMapper.INSTANCE.map(rs);
                 }
             }
         }
@@ -87,20 +128,12 @@ public class GradeDAOImpl implements GradeDAO {
      */
     @Override
     public List<Grade> getGradesByStudentId(int studentId) throws SQLException {
-        List<Grade> grades = new ArrayList<>();
-        try (Connection connection = DatabaseConnector.getConnection();
+        List<Grade> grades;
+        try (Connection connection = connections.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(SELECT_GRADES_BY_STUDENT_ID_SQL)) {
             preparedStatement.setInt(1, studentId);
             try (ResultSet rs = preparedStatement.executeQuery()) {
-                while (rs.next()) {
-                    Grade grade = new Grade();
-                    grade.setGradeId(rs.getInt("grade_id"));
-                    grade.setStudentId(rs.getInt("student_id"));
-                    grade.setCourseId(rs.getInt("course_id"));
-                    grade.setScore(rs.getDouble("score"));
-                    grade.setComments(rs.getString("comments"));
-                    grades.add(grade);
-                }
+                grades = GradeMapper.INSTANCE.mapAll(rs);
             }
         }
         return grades;
@@ -115,25 +148,41 @@ public class GradeDAOImpl implements GradeDAO {
      */
     @Override
     public List<Grade> getGradesByCourseId(int courseId) throws SQLException {
-        List<Grade> grades = new ArrayList<>();
-        try (Connection connection = DatabaseConnector.getConnection();
+        List<Grade> grades;
+        try (Connection connection = connections.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(SELECT_GRADES_BY_COURSE_ID_SQL)) {
             preparedStatement.setInt(1, courseId);
             try (ResultSet rs = preparedStatement.executeQuery()) {
-                while (rs.next()) {
-                    Grade grade = new Grade();
-                    grade.setGradeId(rs.getInt("grade_id"));
-                    grade.setStudentId(rs.getInt("student_id"));
-                    grade.setCourseId(rs.getInt("course_id"));
-                    grade.setScore(rs.getDouble("score"));
-                    grade.setComments(rs.getString("comments"));
-                    grades.add(grade);
-                }
+                grades = GradeMapper.INSTANCE.mapAll(rs);
             }
         }
         return grades;
     }
 
+    /**
+     * Retrieves the ids and scores of all grades for a specific student, in columnar form.
+     *
+     * @param studentId The ID of the student.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public GradeBatch getGradeBatchByStudentId(int studentId) throws SQLException {
+        return queryGradeBatch(SELECT_GRADE_BATCH_BY_STUDENT_ID_SQL, studentId);
+    }
+
+    /**
+     * Retrieves the ids and scores of all grades for a specific course, in columnar form.
+     *
+     * @param courseId The ID of the course.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public GradeBatch getGradeBatchByCourseId(int courseId) throws SQLException {
+        return queryGradeBatch(SELECT_GRADE_BATCH_BY_COURSE_ID_SQL, courseId);
+    }
+
     /**
      * Retrieves all grades for a specific student in a specific course.
      *
@@ -144,57 +193,189 @@ public class GradeDAOImpl implements GradeDAO {
      */
     @Override
     public List<Grade> getGradesByStudentAndCourse(int studentId, int courseId) throws SQLException {
-        List<Grade> grades = new ArrayList<>();
-        try (Connection connection = DatabaseConnector.getConnection();
+        List<Grade> grades;
+        try (Connection connection = connections.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(SELECT_GRADES_BY_STUDENT_AND_COURSE_SQL)) {
             preparedStatement.setInt(1, studentId);
             preparedStatement.setInt(2, courseId);
             try (ResultSet rs = preparedStatement.executeQuery()) {
-                while (rs.next()) {
-                    Grade grade = new Grade();
-                    grade.setGradeId(rs.getInt("grade_id"));
-                    grade.setStudentId(rs.getInt("student_id"));
-                    grade.setCourseId(rs.getInt("course_id"));
-                    grade.setScore(rs.getDouble("score"));
-                    grade.setComments(rs.getString("comments"));
-                    grades.add(grade);
-                }
+                grades = GradeMapper.INSTANCE.mapAll(rs);
             }
         }
         return grades;
     }
 
     /**
-     * Updates an existing grade in the database.
+     * Updates an existing grade in the database if it still has the grade's version.
      *
      * @param grade The Grade object to update.
+     * @throws OptimisticLockException if the grade was changed since it was read.
      * @throws SQLException if a database access error occurs.
      */
     @Override
     public void updateGrade(Grade grade) throws SQLException {
-        try (Connection connection = DatabaseConnector.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_GRADE_SQL)) {
-            preparedStatement.setInt(1, grade.getStudentId());
-            preparedStatement.setInt(2, grade.getCourseId());
-            preparedStatement.setDouble(3, grade.getScore());
-            preparedStatement.setString(4, grade.getComments());
-            preparedStatement.setInt(5, grade.getGradeId());
-            preparedStatement.executeUpdate();
+        int updatedId;
+        try (Connection connection = connections.getConnection()) {
+            updatedId = record(connection, MutationKind.UPDATE, c -> {
+                try (PreparedStatement preparedStatement = c.prepareStatement(UPDATE_GRADE_SQL)) {
+                    bindUpdate(preparedStatement, grade);
+                    if (preparedStatement.executeUpdate() > 0) {
+                        return grade.getGradeId();
+                    }
+                }
+                RowVersions.failIfChanged(c, EntityType.GRADE, grade.getGradeId(), grade.getVersion());
+                return 0;
+            });
+        }
+        if (updatedId != 0) {
+            grade.setVersion(grade.getVersion() + 1);
+            DaoMutations.gradeChanged(MutationKind.UPDATE, grade.getGradeId(), grade);
         }
     }
 
+    /**
+     * Updates many grades with one JDBC batch, each on the condition that it
+     * still has its version. The rows that matched are committed together, with
+     * their outbox rows, in one transaction; the others are reported as
+     * conflicts or missing.
+     *
+     * @param grades The Grade objects to update.
+     * @return The outcome for each grade.
+     * @throws SQLException if a database access error occurs; nothing is updated.
+     */
+    @Override
+    public BatchUpdateResult updateGrades(List<Grade> grades) throws SQLException {
+        BatchUpdateResult result = new BatchUpdateResult();
+        if (grades.isEmpty()) {
+            return result;
+        }
+        boolean[] updated = new boolean[grades.size()];
+        Map<Integer, Integer> actualVersions = Map.of();
+        try (Connection connection = connections.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int[] counts;
+                try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_GRADE_SQL)) {
+                    for (Grade grade : grades) {
+                        bindUpdate(preparedStatement, grade);
+                        preparedStatement.addBatch();
+                    }
+                    counts = preparedStatement.executeBatch();
+                }
+                List<Integer> unmatched = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    updated[i] = counts[i] > 0;
+                    if (updated[i]) {
+                        if (recordsOutbox) {
+                            ChangeOutbox.append(connection, EntityType.GRADE, MutationKind.UPDATE, grades.get(i).getGradeId());
+                        }
+                    } else {
+                        unmatched.add(grades.get(i).getGradeId());
+                    }
+                }
+                if (!unmatched.isEmpty()) {
+                    actualVersions = RowVersions.read(connection, EntityType.GRADE, unmatched);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        for (int i = 0; i < updated.length; i++) {
+            Grade grade = grades.get(i);
+            if (updated[i]) {
+                grade.setVersion(grade.getVersion() + 1);
+                result.updated(grade.getGradeId());
+                DaoMutations.gradeChanged(MutationKind.UPDATE, grade.getGradeId(), grade);
+            } else if (actualVersions.containsKey(grade.getGradeId())) {
+                result.conflict(new OptimisticLockException(EntityType.GRADE, grade.getGradeId(), grade.getVersion(),
+                        actualVersions.get(grade.getGradeId())));
+            } else {
+                result.missing(grade.getGradeId());
+            }
+        }
+        return result;
+    }
+
     /**
      * Deletes a grade from the database by its ID.
      *
      * @param gradeId The ID of the grade to delete.
+     * @return True if a row was deleted.
      * @throws SQLException if a database access error occurs.
      */
     @Override
-    public void deleteGrade(int gradeId) throws SQLException {
-        try (Connection connection = DatabaseConnector.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(DELETE_GRADE_SQL)) {
-            preparedStatement.setInt(1, gradeId);
-            preparedStatement.executeUpdate();
+    public boolean deleteGrade(int gradeId) throws SQLException {
+        int deletedId;
+        try (Connection connection = connections.getConnection()) {
+            deletedId = record(connection, MutationKind.DELETE, c -> {
+                try (PreparedStatement preparedStatement = c.prepareStatement(DELETE_GRADE_SQL)) {
+                    preparedStatement.setInt(1, gradeId);
+                    return preparedStatement.executeUpdate() > 0 ? gradeId : 0;
+                }
+            });
+        }
+        if (deletedId != 0) {
+            DaoMutations.gradeChanged(MutationKind.DELETE, gradeId, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Helper method that runs a write through the change outbox when this DAO records to it.
+     * @param connection The connection to write on.
+     * @param kind The kind of mutation.
+     * @param work The write, returning the ID of the changed grade or 0.
+     * @return The value returned by the write.
+     * @throws SQLException if a database access error occurs.
+     */
+    private int record(Connection connection, MutationKind kind, OutboxWork work) throws SQLException {
+        return recordsOutbox ? ChangeOutbox.write(connection, EntityType.GRADE, kind, work) : work.run(connection);
+    }
+
+    /**
+     * Helper method that binds the new values, the ID and the expected version of a grade to {@link #UPDATE_GRADE_SQL}.
+     * @param preparedStatement The update statement.
+     * @param grade The grade with updated information.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    private static void bindUpdate(PreparedStatement preparedStatement, Grade grade) throws SQLException {
+        int next = GradeMapper.INSTANCE.bind(preparedStatement, grade);
+        preparedStatement.setInt(next, grade.getGradeId());
+        preparedStatement.setInt(next + 1, grade.getVersion());
+    }
+
+    /**
+     * Helper method that fills a GradeBatch straight from the ResultSet, without
+     * creating a Grade per row.
+     * @param sql The query selecting grade_id, student_id, course_id and score.
+     * @param id The value bound to the single parameter.
+     * @return The filled GradeBatch.
+     * @throws SQLException if a database access error occurs.
+     */
+    private GradeBatch queryGradeBatch(String sql, int id) throws SQLException {
+        GradeBatch batch = new GradeBatch(64);
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, id);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    batch.add(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getDouble(4));
+                }
+            }
+        }
+        return batch;
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back grade batch update: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.educagestor360.dao.impl;
+
+import com.educagestor360.dao.ReportDAO;
+import com.educagestor360.model.TeacherWorkload;
+import com.educagestor360.model.TranscriptLine;
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of the ReportDAO interface.
+ * Each report is one JOIN/GROUP BY query; the grade side is read entirely from
+ * the covering indexes on grades, without touching the table rows.
+ */
+public class ReportDAOImpl implements ReportDAO {
+
+    private static final String SELECT_TRANSCRIPT_SQL = "SELECT c.course_id, c.course_name, c.start_date, c.end_date, c.teacher_id, "
+            + "t.first_name, t.last_name, COUNT(g.score), AVG(g.score) "
+            + "FROM grades g JOIN courses c ON c.course_id = g.course_id LEFT JOIN users t ON t.user_id = c.teacher_id "
+            + "WHERE g.student_id = ? "
+            + "GROUP BY c.course_id, c.course_name, c.start_date, c.end_date, c.teacher_id, t.first_name, t.last_name "
+            + "ORDER BY c.start_date, c.course_id";
+    private static final String SELECT_WORKLOAD_COLUMNS = "SELECT t.user_id, t.first_name, t.last_name, COUNT(DISTINCT c.course_id), "
+            + "COUNT(DISTINCT g.student_id), COUNT(g.grade_id), AVG(g.score) "
+            + "FROM users t JOIN courses c ON c.teacher_id = t.user_id LEFT JOIN grades g ON g.course_id = c.course_id ";
+    private static final String WORKLOAD_GROUPING = "GROUP BY t.user_id, t.first_name, t.last_name";
+    private static final String SELECT_TEACHER_WORKLOAD_SQL = SELECT_WORKLOAD_COLUMNS + "WHERE t.user_id = ? " + WORKLOAD_GROUPING;
+    private static final String SELECT_ALL_TEACHER_WORKLOADS_SQL = SELECT_WORKLOAD_COLUMNS + WORKLOAD_GROUPING
+            + " ORDER BY t.last_name, t.first_name, t.user_id";
+
+    /** Statements on the interactive path, worth preparing on every pooled connection at startup. */
+    public static final List<String> HOT_STATEMENTS = List.of(SELECT_TRANSCRIPT_SQL, SELECT_TEACHER_WORKLOAD_SQL);
+
+    private final ConnectionProvider connections;
+
+    /**
+     * Creates a DAO on the main database of {@link DatabaseConnector}.
+     */
+    public ReportDAOImpl() {
+        this(DatabaseConnector::getConnection);
+    }
+
+    /**
+     * Creates a DAO on another database, such as a read replica.
+     *
+     * @param connections Where connections come from.
+     */
+    public ReportDAOImpl(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Retrieves the transcript of a student: one line per course they have grades in.
+     *
+     * @param studentId The ID of the student.
+     * @return The transcript lines, ordered by course start date.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public List<TranscriptLine> getTranscript(int studentId) throws SQLException {
+        List<TranscriptLine> lines = new ArrayList<>();
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_TRANSCRIPT_SQL)) {
+            preparedStatement.setInt(1, studentId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    Date startDate = rs.getDate(3);
+                    Date endDate = rs.getDate(4);
+                    lines.add(new TranscriptLine(rs.getInt(1), rs.getString(2),
+                            startDate != null ? startDate.toLocalDate() : null,
+                            endDate != null ? endDate.toLocalDate() : null,
+                            rs.getInt(5), rs.getString(6), rs.getString(7), rs.getInt(8), rs.getDouble(9)));
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Retrieves the workload of one teacher.
+     *
+     * @param teacherId The ID of the teacher.
+     * @return The workload, or null if the user teaches no course.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public TeacherWorkload getTeacherWorkload(int teacherId) throws SQLException {
+        TeacherWorkload workload = null;
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_TEACHER_WORKLOAD_SQL)) {
+            preparedStatement.setInt(1, teacherId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                if (rs.next()) {
+                    workload = mapWorkload(rs);
+                }
+            }
+        }
+        return workload;
+    }
+
+    /**
+     * Retrieves the workload of every teacher with at least one course.
+     *
+     * @return The workloads, ordered by teacher name.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public List<TeacherWorkload> getAllTeacherWorkloads() throws SQLException {
+        List<TeacherWorkload> workloads = new ArrayList<>();
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_ALL_TEACHER_WORKLOADS_SQL);
+             ResultSet rs = preparedStatement.executeQuery()) {
+            while (rs.next()) {
+                workloads.add(mapWorkload(rs));
+            }
+        }
+        return workloads;
+    }
+
+    /**
+     * Helper method to map a row of the workload queries to a TeacherWorkload.
+     * @param rs The ResultSet positioned on a row.
+     * @return The mapped TeacherWorkload.
+     * @throws SQLException if a database access error occurs.
+     */
+    private TeacherWorkload mapWorkload(ResultSet rs) throws SQLException {
+        return new TeacherWorkload(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getInt(5),
+                rs.getInt(6), rs.getDouble(7));
+    }
+}
@@ -0,0 +1,101 @@
+package com.educagestor360.dao.impl;
+
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.event.EntityType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tells apart the two reasons a conditional update
+ * ({@code ... WHERE id = ? AND version = ?}) changes no row: the row was
+ * updated by someone else, or it no longer exists.
+ */
+public final class RowVersions {
+
+    private RowVersions() {
+    }
+
+    /**
+     * Called after a conditional update changed no row. Throws if the row still
+     * exists, with the version found; returns quietly if it is gone.
+     *
+     * @param connection      The connection the update ran on.
+     * @param type            The kind of entity updated.
+     * @param id              The ID of the entity.
+     * @param expectedVersion The version the update was conditional on.
+     * @throws OptimisticLockException if the row exists with another version.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void failIfChanged(Connection connection, EntityType type, int id, int expectedVersion) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT version FROM " + tableOf(type) + " WHERE " + idColumnOf(type) + " = ?")) {
+            preparedStatement.setInt(1, id);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                if (rs.next()) {
+                    throw new OptimisticLockException(type, id, expectedVersion, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the current versions of several rows with one query.
+     *
+     * @param connection The connection to read on.
+     * @param type       The kind of entity.
+     * @param ids        The IDs of the entities; must not be empty.
+     * @return The version of each row found, by ID; rows that do not exist are absent.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static Map<Integer, Integer> read(Connection connection, EntityType type, Collection<Integer> ids) throws SQLException {
+        StringBuilder sql = new StringBuilder(64 + ids.size() * 3).append("SELECT ").append(idColumnOf(type))
+                .append(", version FROM ").append(tableOf(type)).append(" WHERE ").append(idColumnOf(type)).append(" IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+        Map<Integer, Integer> versions = new HashMap<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int id : ids) {
+                preparedStatement.setInt(index++, id);
+            }
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    versions.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static String tableOf(EntityType type) {
+        switch (type) {
+            case USER:
+                return "users";
+            case COURSE:
+                return "courses";
+            case GRADE:
+            default:
+                return "grades";
+        }
+    }
+
+    private static String idColumnOf(EntityType type) {
+        switch (type) {
+            case USER:
+                return "user_id";
+            case COURSE:
+                return "course_id";
+            case GRADE:
+            default:
+                return "grade_id";
+        }
+    }
+}
@@ -1,7 +1,17 @@
 package com.educagestor360.dao.impl;
 
+import com.educagestor360.dao.CascadeDeleteProgress;
 import com.educagestor360.dao.UserDAO;
+import com.educagestor360.dao.mapper.UserMapper;
+import com.educagestor360.event.ChangeOutbox;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Role;
 import com.educagestor360.model.User;
+import com.educagestor360.model.UserCredentials;
+import com.educagestor360.model.UserSummary;
 import com.educagestor360.util.DatabaseConnector;
 
 import java.sql.Connection;
@@ -18,6 +28,16 @@ import java.util.List;
  */
 public class UserDAOImpl implements UserDAO {
 
+    private static final String SELECT_USER_BY_ID_SQL = "SELECT " + UserMapper.COLUMNS + " FROM users WHERE user_id = ?";
+    private static final String SELECT_USER_BY_EMAIL_SQL = "SELECT " + UserMapper.COLUMNS + " FROM users WHERE email = ?";
+    private static final String SELECT_CREDENTIALS_BY_EMAIL_SQL = "SELECT user_id, password, role FROM users WHERE email = ?";
+
+    /** Statements on the interactive path, worth preparing on every pooled connection at startup. */
+    public static final List<String> HOT_STATEMENTS = List.of(SELECT_USER_BY_ID_SQL, SELECT_USER_BY_EMAIL_SQL,
+            SELECT_CREDENTIALS_BY_EMAIL_SQL);
+
+    private final ChunkedCascadeDeleter cascadeDeleter = new ChunkedCascadeDeleter();
+
     /**
      * Adds a new user to the database.
      * Retrieves the generated user_id and sets it in the User object.
@@ -27,22 +47,23 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public void addUser(User user) throws SQLException {
-        String sql = "INSERT INTO users (first_name, last_name, email, password, role) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, user.getFirstName());
-            pstmt.setString(2, user.getLastName());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setString(4, user.getPassword());
-            pstmt.setString(5, user.getRole());
-            pstmt.executeUpdate();
-
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    user.setUserId(generatedKeys.getInt(1));
+        String sql = "INSERT INTO users (" + UserMapper.WRITE_COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            ChangeOutbox.write(conn, EntityType.USER, MutationKind.INSERT, c -> {
+                try (PreparedStatement pstmt = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    UserMapper.INSTANCE.bind(pstmt, user);
+                    pstmt.executeUpdate();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            user.setUserId(generatedKeys.getInt(1));
+                        }
+                    }
                 }
-            }
+                return user.getUserId();
+            });
         }
+        DaoMutations.userChanged(MutationKind.INSERT, user.getUserId(), user);
     }
 
     /**
@@ -54,20 +75,14 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public User getUserById(int userId) throws SQLException {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
+        String sql = SELECT_USER_BY_ID_SQL;
         User user = null;
         try (Connection conn = DatabaseConnector.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    user = new User();
-                    user.setUserId(rs.getInt("user_id"));
-                    user.setFirstName(rs.getString("first_name"));
-                    user.setLastName(rs.getString("last_name"));
-                    user.setEmail(rs.getString("email"));
-                    user.setPassword(rs.getString("password"));
-                    user.setRole(rs.getString("role"));
+                    user = UserMapper.INSTANCE.map(rs);
                 }
             }
         }
@@ -83,26 +98,44 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public User getUserByEmail(String email) throws SQLException {
-        String sql = "SELECT * FROM users WHERE email = ?";
+        String sql = SELECT_USER_BY_EMAIL_SQL;
         User user = null;
         try (Connection conn = DatabaseConnector.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    user = new User();
-                    user.setUserId(rs.getInt("user_id"));
-                    user.setFirstName(rs.getString("first_name"));
-                    user.setLastName(rs.getString("last_name"));
-                    user.setEmail(rs.getString("email"));
-                    user.setPassword(rs.getString("password"));
-                    user.setRole(rs.getString("role"));
+                    user = UserMapper.INSTANCE.map(rs);
                 }
             }
         }
         return user;
     }
 
+    /**
+     * Retrieves only the ID, password hash and role of a user by their email address.
+     * Avoids transferring and mapping the full row on the login path.
+     *
+     * @param email The email address of the user.
+     * @return The UserCredentials if found, null otherwise.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public UserCredentials getCredentialsByEmail(String email) throws SQLException {
+        String sql = SELECT_CREDENTIALS_BY_EMAIL_SQL;
+        UserCredentials credentials = null;
+        try (Connection conn = DatabaseConnector.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, email);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    credentials = new UserCredentials(rs.getInt(1), rs.getString(2), Role.canonicalName(rs.getString(3)));
+                }
+            }
+        }
+        return credentials;
+    }
+
     /**
      * Retrieves all users from the database.
      *
@@ -111,25 +144,38 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public List<User> getAllUsers() throws SQLException {
-        String sql = "SELECT * FROM users";
+        String sql = "SELECT " + UserMapper.COLUMNS + " FROM users";
         List<User> users = new ArrayList<>();
         try (Connection conn = DatabaseConnector.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                User user = new User();
-                user.setUserId(rs.getInt("user_id"));
-                user.setFirstName(rs.getString("first_name"));
-                user.setLastName(rs.getString("last_name"));
-                user.setEmail(rs.getString("email"));
-                user.setPassword(rs.getString("password"));
-                user.setRole(rs.getString("role"));
-                users.add(user);
+                users.add(UserMapper.INSTANCE.map(rs));
             }
         }
         return users;
     }
 
+    /**
+     * Retrieves a summary of every user, without the password column.
+     *
+     * @return A list of UserSummary objects.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public List<UserSummary> getAllUserSummaries() throws SQLException {
+        String sql = "SELECT user_id, first_name, last_name, email, role FROM users";
+        List<UserSummary> summaries = new ArrayList<>();
+        try (Connection conn = DatabaseConnector.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                summaries.add(new UserSummary(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), Role.canonicalName(rs.getString(5))));
+            }
+        }
+        return summaries;
+    }
+
     /**
      * Updates an existing user's information in the database.
      *
@@ -138,32 +184,126 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public void updateUser(User user) throws SQLException {
-        String sql = "UPDATE users SET first_name = ?, last_name = ?, email = ?, password = ?, role = ? WHERE user_id = ?";
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, user.getFirstName());
-            pstmt.setString(2, user.getLastName());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setString(4, user.getPassword());
-            pstmt.setString(5, user.getRole());
-            pstmt.setInt(6, user.getUserId());
-            pstmt.executeUpdate();
+        String sql = "UPDATE users SET first_name = ?, last_name = ?, email = ?, password = ?, role = ?, version = version + 1 "
+                + "WHERE user_id = ? AND version = ?";
+        int updatedId;
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            updatedId = ChangeOutbox.write(conn, EntityType.USER, MutationKind.UPDATE, c -> {
+                try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                    int next = UserMapper.INSTANCE.bind(pstmt, user);
+                    pstmt.setInt(next, user.getUserId());
+                    pstmt.setInt(next + 1, user.getVersion());
+                    if (pstmt.executeUpdate() > 0) {
+                        return user.getUserId();
+                    }
+                }
+                RowVersions.failIfChanged(c, EntityType.USER, user.getUserId(), user.getVersion());
+                return 0;
+            });
+        }
+        if (updatedId != 0) {
+            user.setVersion(user.getVersion() + 1);
+            DaoMutations.userChanged(MutationKind.UPDATE, user.getUserId(), user);
         }
     }
 
+    /**
+     * Replaces a user's stored password with a single conditional update.
+     * Listeners are notified without the user, which was not read.
+     *
+     * @param userId           The ID of the user.
+     * @param expectedPassword The stored password (hash) the change is based on.
+     * @param newPassword      The password (hash) to store.
+     * @return True if the password was replaced.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public boolean updatePassword(int userId, String expectedPassword, String newPassword) throws SQLException {
+        String sql = "UPDATE users SET password = ?, version = version + 1 WHERE user_id = ? AND password = ?";
+        int updatedId;
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            updatedId = ChangeOutbox.write(conn, EntityType.USER, MutationKind.UPDATE, c -> {
+                try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                    pstmt.setString(1, newPassword);
+                    pstmt.setInt(2, userId);
+                    pstmt.setString(3, expectedPassword);
+                    return pstmt.executeUpdate() > 0 ? userId : 0;
+                }
+            });
+        }
+        if (updatedId == 0) {
+            return false;
+        }
+        DaoMutations.userChanged(MutationKind.UPDATE, userId, null);
+        return true;
+    }
+
     /**
      * Deletes a user from the database by their ID.
      *
      * @param userId The ID of the user to delete.
+     * @return True if a row was deleted.
      * @throws SQLException If a database access error occurs.
      */
     @Override
-    public void deleteUser(int userId) throws SQLException {
+    public boolean deleteUser(int userId) throws SQLException {
         String sql = "DELETE FROM users WHERE user_id = ?";
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.executeUpdate();
+        int deletedId;
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            deletedId = ChangeOutbox.write(conn, EntityType.USER, MutationKind.DELETE, c -> {
+                try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                    pstmt.setInt(1, userId);
+                    return pstmt.executeUpdate() > 0 ? userId : 0;
+                }
+            });
+        }
+        if (deletedId != 0) {
+            DaoMutations.userChanged(MutationKind.DELETE, userId, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a user together with all of their grades, in chunks. The courses
+     * they taught are detached and published as course updates, so that course
+     * caches drop the old teacher.
+     *
+     * @param userId   The ID of the user to delete.
+     * @param progress The callback notified after every committed chunk.
+     * @return The total number of rows deleted.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public long deleteUserCascade(int userId, CascadeDeleteProgress progress) throws SQLException {
+        List<Course> detached = new ArrayList<>();
+        boolean[] userDeleted = new boolean[1];
+        long deleted = cascadeDeleter.deleteUser(userId, new CascadeDeleteProgress() {
+            @Override
+            public void onChunkDeleted(String table, int parentId, int chunkRows, long totalRows) {
+                if ("users".equals(table) && chunkRows > 0) {
+                    userDeleted[0] = true;
+                }
+                progress.onChunkDeleted(table, parentId, chunkRows, totalRows);
+            }
+
+            @Override
+            public void onGradesDeleted(int parentId, int[] gradeIds) {
+                progress.onGradesDeleted(parentId, gradeIds);
+            }
+
+            @Override
+            public void onCoursesDetached(int teacherId, List<Course> courses) {
+                detached.addAll(courses);
+                progress.onCoursesDetached(teacherId, courses);
+            }
+        });
+        for (Course course : detached) {
+            DaoMutations.courseChanged(MutationKind.UPDATE, course.getCourseId(), course);
+        }
+        if (userDeleted[0]) {
+            DaoMutations.userChanged(MutationKind.DELETE, userId, null);
         }
+        return deleted;
     }
 }
\ No newline at end of file
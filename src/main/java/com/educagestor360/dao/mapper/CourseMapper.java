@@ -0,0 +1,78 @@
+package com.educagestor360.dao.mapper;
+
+import com.educagestor360.model.Course;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * Maps rows of the courses table by column index, and binds Course fields to
+ * statement parameters. Queries must select {@link #COLUMNS} in that order.
+ */
+public final class CourseMapper implements RowMapper<Course> {
+
+    public static final CourseMapper INSTANCE = new CourseMapper();
+
+    /** The columns read by {@link #map(ResultSet)}, in order. */
+    public static final String COLUMNS = "course_id, course_name, description, teacher_id, start_date, end_date, version";
+    /** The columns written by {@link #bind(PreparedStatement, Course)}, in order. */
+    public static final String WRITE_COLUMNS = "course_name, description, teacher_id, start_date, end_date";
+
+    private static final int COURSE_ID = 1;
+    private static final int COURSE_NAME = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int TEACHER_ID = 4;
+    private static final int START_DATE = 5;
+    private static final int END_DATE = 6;
+    private static final int VERSION = 7;
+
+    private CourseMapper() {
+    }
+
+    @Override
+    public Course map(ResultSet rs) throws SQLException {
+        Course course = new Course();
+        course.setCourseId(rs.getInt(COURSE_ID));
+        course.setCourseName(rs.getString(COURSE_NAME));
+        course.setDescription(rs.getString(DESCRIPTION));
+        course.setTeacherId(rs.getInt(TEACHER_ID));
+        course.setStartDate(toLocalDate(rs.getDate(START_DATE)));
+        course.setEndDate(toLocalDate(rs.getDate(END_DATE)));
+        course.setVersion(rs.getInt(VERSION));
+        return course;
+    }
+
+    /**
+     * Binds the {@link #WRITE_COLUMNS} of a course to parameters 1 to 5.
+     * A teacher ID of 0 is written as NULL.
+     *
+     * @param ps     The statement to bind.
+     * @param course The course to read values from.
+     * @return The index of the next free parameter.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    public int bind(PreparedStatement ps, Course course) throws SQLException {
+        ps.setString(1, course.getCourseName());
+        ps.setString(2, course.getDescription());
+        if (course.getTeacherId() != 0) {
+            ps.setInt(3, course.getTeacherId());
+        } else {
+            ps.setNull(3, Types.INTEGER);
+        }
+        ps.setDate(4, toSqlDate(course.getStartDate()));
+        ps.setDate(5, toSqlDate(course.getEndDate()));
+        return 6;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static Date toSqlDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+}
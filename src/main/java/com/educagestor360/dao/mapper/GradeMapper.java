@@ -0,0 +1,70 @@
+package com.educagestor360.dao.mapper;
+
+import com.educagestor360.model.Grade;
+import com.educagestor360.util.StringDeduplicator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the grades table by column index, and binds Grade fields to
+ * statement parameters. Queries must select {@link #COLUMNS} in that order.
+ */
+public final class GradeMapper implements RowMapper<Grade> {
+
+    public static final GradeMapper INSTANCE = new GradeMapper();
+
+    /** The columns read by {@link #map(ResultSet)}, in order. */
+    public static final String COLUMNS = "grade_id, student_id, course_id, score, comments, version";
+    /** The columns written by {@link #bind(PreparedStatement, Grade)}, in order. */
+    public static final String WRITE_COLUMNS = "student_id, course_id, score, comments";
+
+    private static final int GRADE_ID = 1;
+    private static final int STUDENT_ID = 2;
+    private static final int COURSE_ID = 3;
+    private static final int SCORE = 4;
+    private static final int COMMENTS = 5;
+    private static final int VERSION = 6;
+
+    /** Shares the instances of comments, which are mostly a few stock phrases. */
+    private static final StringDeduplicator COMMENT_TABLE = new StringDeduplicator(4096, 64);
+
+    private GradeMapper() {
+    }
+
+    @Override
+    public Grade map(ResultSet rs) throws SQLException {
+        Grade grade = new Grade();
+        grade.setGradeId(rs.getInt(GRADE_ID));
+        grade.setStudentId(rs.getInt(STUDENT_ID));
+        grade.setCourseId(rs.getInt(COURSE_ID));
+        grade.setScore(rs.getDouble(SCORE));
+        grade.setComments(COMMENT_TABLE.dedup(rs.getString(COMMENTS)));
+        grade.setVersion(rs.getInt(VERSION));
+        return grade;
+    }
+
+    /**
+     * @return The table sharing comment strings, for statistics.
+     */
+    public static StringDeduplicator getCommentDeduplicator() {
+        return COMMENT_TABLE;
+    }
+
+    /**
+     * Binds the {@link #WRITE_COLUMNS} of a grade to parameters 1 to 4.
+     *
+     * @param ps    The statement to bind.
+     * @param grade The grade to read values from.
+     * @return The index of the next free parameter.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    public int bind(PreparedStatement ps, Grade grade) throws SQLException {
+        ps.setInt(1, grade.getStudentId());
+        ps.setInt(2, grade.getCourseId());
+        ps.setDouble(3, grade.getScore());
+        ps.setString(4, grade.getComments());
+        return 5;
+    }
+}
@@ -0,0 +1,41 @@
+package com.educagestor360.dao.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the current row of a ResultSet to an object.
+ * Implementations read columns by position, so the query must select the
+ * columns in the order declared by the mapper.
+ *
+ * @param <T> The type of the mapped object.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row.
+     *
+     * @param rs The ResultSet positioned on a row.
+     * @return The mapped object.
+     * @throws SQLException if a database access error occurs.
+     */
+    T map(ResultSet rs) throws SQLException;
+
+    /**
+     * Maps every remaining row.
+     *
+     * @param rs The ResultSet positioned before the first row to map.
+     * @return The mapped objects, in row order.
+     * @throws SQLException if a database access error occurs.
+     */
+    default List<T> mapAll(ResultSet rs) throws SQLException {
+        List<T> result = new ArrayList<>();
+        while (rs.next()) {
+            result.add(map(rs));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.educagestor360.dao.mapper;
+
+import com.educagestor360.model.Role;
+import com.educagestor360.model.User;
+import com.educagestor360.util.StringDeduplicator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the users table by column index, and binds User fields to
+ * statement parameters. Queries must select {@link #COLUMNS} in that order.
+ */
+public final class UserMapper implements RowMapper<User> {
+
+    public static final UserMapper INSTANCE = new UserMapper();
+
+    /** The columns read by {@link #map(ResultSet)}, in order. */
+    public static final String COLUMNS = "user_id, first_name, last_name, email, password, role, version";
+    /** The columns written by {@link #bind(PreparedStatement, User)}, in order. */
+    public static final String WRITE_COLUMNS = "first_name, last_name, email, password, role";
+
+    private static final int USER_ID = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 3;
+    private static final int EMAIL = 4;
+    private static final int PASSWORD = 5;
+    private static final int ROLE = 6;
+    private static final int VERSION = 7;
+
+    /** Shares the instances of first and last names, which repeat across many users. */
+    private static final StringDeduplicator NAMES = new StringDeduplicator(8192, 32);
+
+    private UserMapper() {
+    }
+
+    @Override
+    public User map(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setUserId(rs.getInt(USER_ID));
+        user.setFirstName(NAMES.dedup(rs.getString(FIRST_NAME)));
+        user.setLastName(NAMES.dedup(rs.getString(LAST_NAME)));
+        user.setEmail(rs.getString(EMAIL));
+        user.setPassword(rs.getString(PASSWORD));
+        user.setRoleType(readRole(rs, ROLE));
+        user.setVersion(rs.getInt(VERSION));
+        return user;
+    }
+
+    /**
+     * Reads a role column.
+     *
+     * @param rs     The ResultSet positioned on a row.
+     * @param column The index of the role column.
+     * @return The role, or null if the column is NULL.
+     * @throws SQLException if the column holds a value that is not a known role.
+     */
+    public static Role readRole(ResultSet rs, int column) throws SQLException {
+        String name = rs.getString(column);
+        try {
+            return Role.fromName(name);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Unknown role in users table: " + name, e);
+        }
+    }
+
+    /**
+     * @return The table sharing first and last names, for statistics.
+     */
+    public static StringDeduplicator getNameDeduplicator() {
+        return NAMES;
+    }
+
+    /**
+     * Binds the {@link #WRITE_COLUMNS} of a user to parameters 1 to 5.
+     *
+     * @param ps   The statement to bind.
+     * @param user The user to read values from.
+     * @return The index of the next free parameter.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    public int bind(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getFirstName());
+        ps.setString(2, user.getLastName());
+        ps.setString(3, user.getEmail());
+        ps.setString(4, user.getPassword());
+        ps.setString(5, user.getRole());
+        return 6;
+    }
+}
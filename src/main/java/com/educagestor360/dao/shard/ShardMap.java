@@ -0,0 +1,162 @@
+package com.educagestor360.dao.shard;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable assignment of course ID ranges to grade shards.
+ *
+ * The map is a sorted set of range starts; each range runs up to the next
+ * start and belongs to one shard. The first range always starts at
+ * {@link Integer#MIN_VALUE}, so every course ID has a shard. Rebalancing builds
+ * a new map with {@link #withRange(int, int, int)}; adjacent ranges on the same
+ * shard are merged.
+ */
+public final class ShardMap {
+
+    private final int shardCount;
+    private final NavigableMap<Integer, Integer> ranges;
+
+    private ShardMap(int shardCount, NavigableMap<Integer, Integer> ranges) {
+        this.shardCount = shardCount;
+        this.ranges = ranges;
+    }
+
+    /**
+     * Creates a map that sends every course to one shard.
+     *
+     * @param shardCount The number of shards.
+     * @param shard      The shard that owns every course.
+     * @return The map.
+     */
+    public static ShardMap single(int shardCount, int shard) {
+        checkShard(shardCount, shard);
+        TreeMap<Integer, Integer> ranges = new TreeMap<>();
+        ranges.put(Integer.MIN_VALUE, shard);
+        return new ShardMap(shardCount, ranges);
+    }
+
+    /**
+     * Creates a map that splits course IDs from 1 to {@code maxCourseId} into
+     * equal consecutive ranges, one per shard. Higher IDs go to the last shard.
+     *
+     * @param shardCount  The number of shards.
+     * @param maxCourseId The highest course ID expected when the map is created.
+     * @return The map.
+     */
+    public static ShardMap evenRanges(int shardCount, int maxCourseId) {
+        ShardMap map = single(shardCount, 0);
+        int width = Math.max(1, maxCourseId / shardCount);
+        for (int shard = 1; shard < shardCount; shard++) {
+            map = map.withRange(1 + shard * width, Integer.MAX_VALUE, shard);
+        }
+        return map;
+    }
+
+    /**
+     * Parses a map written by {@link #format()}, such as {@code "0,1000=1,5000=2"}:
+     * the shard of the first range, then {@code start=shard} for each later range.
+     *
+     * @param shardCount The number of shards.
+     * @param spec       The map specification.
+     * @return The map.
+     */
+    public static ShardMap parse(int shardCount, String spec) {
+        String[] parts = spec.split(",");
+        ShardMap map = single(shardCount, Integer.parseInt(parts[0].trim()));
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].trim();
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected start=shard but got: " + part);
+            }
+            map = map.withRange(Integer.parseInt(part.substring(0, eq).trim()), Integer.MAX_VALUE,
+                    Integer.parseInt(part.substring(eq + 1).trim()));
+        }
+        return map;
+    }
+
+    /**
+     * Returns the shard that owns a course.
+     *
+     * @param courseId The ID of the course.
+     * @return The shard index.
+     */
+    public int shardFor(int courseId) {
+        return ranges.floorEntry(courseId).getValue();
+    }
+
+    /**
+     * Returns a copy of this map in which a range of courses belongs to another shard.
+     *
+     * @param fromCourseId The first course ID of the range.
+     * @param toCourseId   The course ID after the range; {@link Integer#MAX_VALUE} means unbounded.
+     * @param shard        The new owner of the range.
+     * @return The new map.
+     */
+    public ShardMap withRange(int fromCourseId, int toCourseId, int shard) {
+        checkShard(shardCount, shard);
+        if (fromCourseId >= toCourseId) {
+            throw new IllegalArgumentException("Empty range: " + fromCourseId + " to " + toCourseId);
+        }
+        TreeMap<Integer, Integer> updated = new TreeMap<>(ranges);
+        if (toCourseId != Integer.MAX_VALUE) {
+            // Keep the owner of whatever follows the range.
+            updated.put(toCourseId, shardFor(toCourseId));
+        }
+        updated.subMap(fromCourseId, true, toCourseId, toCourseId == Integer.MAX_VALUE).clear();
+        updated.put(fromCourseId, shard);
+
+        // Merge neighbours that ended up on the same shard.
+        TreeMap<Integer, Integer> merged = new TreeMap<>();
+        Integer previous = null;
+        for (Map.Entry<Integer, Integer> entry : updated.entrySet()) {
+            if (!entry.getValue().equals(previous)) {
+                merged.put(entry.getKey(), entry.getValue());
+                previous = entry.getValue();
+            }
+        }
+        return new ShardMap(shardCount, merged);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return Range starts mapped to their shard, in order.
+     */
+    public NavigableMap<Integer, Integer> getRanges() {
+        return Collections.unmodifiableNavigableMap(ranges);
+    }
+
+    /**
+     * Writes the map in the form read by {@link #parse(int, String)}.
+     *
+     * @return The map specification.
+     */
+    public String format() {
+        StringBuilder spec = new StringBuilder();
+        for (Map.Entry<Integer, Integer> entry : ranges.entrySet()) {
+            if (entry.getKey() == Integer.MIN_VALUE) {
+                spec.append(entry.getValue());
+            } else {
+                spec.append(',').append(entry.getKey()).append('=').append(entry.getValue());
+            }
+        }
+        return spec.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ShardMap{" + format() + "}";
+    }
+
+    private static void checkShard(int shardCount, int shard) {
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("No such shard: " + shard + " of " + shardCount);
+        }
+    }
+}
@@ -0,0 +1,666 @@
+package com.educagestor360.dao.shard;
+
+import com.educagestor360.dao.GradeDAO;
+import com.educagestor360.dao.OptimisticLockException;
+import com.educagestor360.dao.impl.GradeDAOImpl;
+import com.educagestor360.dao.mapper.GradeMapper;
+import com.educagestor360.event.DaoMutations;
+import com.educagestor360.event.EntityType;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.GradeBatch;
+import com.educagestor360.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@link GradeDAO} that spreads the grades table over several databases,
+ * partitioned by course ID according to a {@link ShardMap}.
+ *
+ * Queries that name a course go straight to the shard owning it. Queries by
+ * student or by grade ID are sent to every shard in parallel and the results
+ * merged. Users and courses stay in the main database; shard databases hold
+ * only the grades table (see {@code grade_shard_schema.sql}).
+ *
+ * Grade IDs stay unique across shards because every shard connection sets
+ * {@code auto_increment_increment} to {@link #MAX_SHARDS} and
+ * {@code auto_increment_offset} to its shard number plus one. The shard a
+ * grade was created on can therefore be read from its ID, which lets lookups by
+ * grade ID try that shard first.
+ *
+ * {@link #moveCourses(int, int, int)} rebalances a course range onto another
+ * shard while the DAO stays online. Grade writes and reads by course pause
+ * only while one course is copied; reads by student or grade ID never wait,
+ * and keep the copy on the shard owning the course when a grade is found twice.
+ */
+public class ShardedGradeDAO implements GradeDAO, AutoCloseable {
+
+    /** The largest number of shards; fixed because it determines how grade IDs are allocated. */
+    public static final int MAX_SHARDS = 64;
+
+    private static final int COPY_BATCH_SIZE = 500;
+    private static final int DELETE_ATTEMPTS = 3;
+    private static final long DELETE_RETRY_MILLIS = 100;
+    private static final String SELECT_GRADE_BY_ID_SQL = "SELECT " + GradeMapper.COLUMNS + " FROM grades WHERE grade_id = ?";
+    private static final String UPDATE_GRADE_SQL = "UPDATE grades SET student_id = ?, course_id = ?, score = ?, comments = ?, version = version + 1 "
+            + "WHERE grade_id = ? AND version = ?";
+    private static final String DELETE_GRADE_SQL = "DELETE FROM grades WHERE grade_id = ?";
+    private static final String DELETE_GRADE_VERSION_SQL = "DELETE FROM grades WHERE grade_id = ? AND version = ?";
+    private static final String SELECT_COURSE_IDS_IN_RANGE_SQL = "SELECT DISTINCT course_id FROM grades WHERE course_id >= ? AND course_id < ? ORDER BY course_id";
+    private static final String SELECT_GRADES_IN_RANGE_SQL = "SELECT " + GradeMapper.COLUMNS + " FROM grades WHERE course_id >= ? AND course_id < ?";
+    private static final String DELETE_GRADES_IN_RANGE_SQL = "DELETE FROM grades WHERE course_id >= ? AND course_id < ?";
+    private static final String UPSERT_GRADE_SQL = "INSERT INTO grades (" + GradeMapper.WRITE_COLUMNS + ", grade_id, version) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE student_id = IF(VALUES(version) >= version, VALUES(student_id), student_id), "
+            + "course_id = IF(VALUES(version) >= version, VALUES(course_id), course_id), "
+            + "score = IF(VALUES(version) >= version, VALUES(score), score), "
+            + "comments = IF(VALUES(version) >= version, VALUES(comments), comments), "
+            + "version = GREATEST(version, VALUES(version))";
+
+    private final List<ConnectionPool> shards;
+    private final List<GradeDAOImpl> shardDAOs;
+    private final AtomicReference<ShardMap> shardMap;
+    // Writes and reads by course hold the read side; a course move holds the write side while it copies.
+    private final ReentrantReadWriteLock moveLock = new ReentrantReadWriteLock();
+    // Set when a move could not remove the rows it copied, until a move completes.
+    private volatile boolean leftoverRows;
+    private final ExecutorService scatterExecutor;
+
+    /**
+     * Creates a sharded DAO. The pools must not have opened any connection yet,
+     * since each one is configured here to allocate its own grade IDs.
+     *
+     * @param shards   One pool per shard, in shard order.
+     * @param shardMap The initial assignment of courses to shards.
+     */
+    public ShardedGradeDAO(List<ConnectionPool> shards, ShardMap shardMap) {
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported: " + shards.size());
+        }
+        if (shardMap.getShardCount() != shards.size()) {
+            throw new IllegalArgumentException("The shard map is for " + shardMap.getShardCount() + " shards, not " + shards.size());
+        }
+        this.shards = new ArrayList<>(shards);
+        this.shardDAOs = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            ConnectionPool pool = shards.get(i);
+            pool.setConnectionInitSql("SET SESSION auto_increment_increment = " + MAX_SHARDS
+                    + ", auto_increment_offset = " + (i + 1));
+            shardDAOs.add(new GradeDAOImpl(pool));
+        }
+        this.shardMap = new AtomicReference<>(shardMap);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(shards.size() * 4, r -> {
+            Thread thread = new Thread(r, "grade-shard-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates one pool per shard URL, all with the same credentials and sizes.
+     *
+     * @param urls     The JDBC URLs of the shards, in shard order.
+     * @param user     The database user.
+     * @param password The database password.
+     * @param minIdle  The minimum idle connections per shard.
+     * @param maxSize  The maximum connections per shard.
+     * @return The pools, ready to pass to the constructor.
+     */
+    public static List<ConnectionPool> createPools(List<String> urls, String user, String password, int minIdle, int maxSize) {
+        List<ConnectionPool> pools = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            pools.add(new ConnectionPool("grades-" + i, urls.get(i), user, password, minIdle, maxSize));
+        }
+        return pools;
+    }
+
+    /**
+     * Adds a new grade to the shard owning its course.
+     *
+     * @param grade The Grade object to add.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public void addGrade(Grade grade) throws SQLException {
+        moveLock.readLock().lock();
+        try {
+            shardDAOs.get(shardFor(grade.getCourseId())).addGrade(grade);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a grade by its ID, trying the shard that allocated the ID first.
+     *
+     * @param gradeId The ID of the grade to retrieve.
+     * @return The Grade object if found, null otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public Grade getGradeById(int gradeId) throws SQLException {
+        int home = homeShard(gradeId);
+        Grade found = null;
+        if (home >= 0) {
+            found = shardDAOs.get(home).getGradeById(gradeId);
+            if (found != null && shardFor(found.getCourseId()) == home) {
+                return found;
+            }
+        }
+        // The grade's course was moved to another shard since it was created.
+        List<Grade> copies = scatter(shard -> shard == home ? null : shardDAOs.get(shard).getGradeById(gradeId));
+        for (int shard = 0; shard < copies.size(); shard++) {
+            Grade grade = copies.get(shard);
+            if (grade != null) {
+                if (shardFor(grade.getCourseId()) == shard) {
+                    return grade;
+                }
+                if (found == null) {
+                    found = grade;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Retrieves all grades for a student from every shard, ordered by grade ID.
+     *
+     * @param studentId The ID of the student.
+     * @return A list of Grade objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public List<Grade> getGradesByStudentId(int studentId) throws SQLException {
+        List<List<Grade>> results = scatter(shard -> shardDAOs.get(shard).getGradesByStudentId(studentId));
+        Map<Integer, Grade> byId = new HashMap<>();
+        for (int shard = 0; shard < results.size(); shard++) {
+            for (Grade grade : results.get(shard)) {
+                // A course being moved, or whose copied rows could not be removed, is on two shards.
+                if (byId.putIfAbsent(grade.getGradeId(), grade) != null && shardFor(grade.getCourseId()) == shard) {
+                    byId.put(grade.getGradeId(), grade);
+                }
+            }
+        }
+        List<Grade> merged = new ArrayList<>(byId.values());
+        merged.sort(Comparator.comparingInt(Grade::getGradeId));
+        return merged;
+    }
+
+    /**
+     * Retrieves all grades for a course from the shard owning it.
+     *
+     * @param courseId The ID of the course.
+     * @return A list of Grade objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public List<Grade> getGradesByCourseId(int courseId) throws SQLException {
+        moveLock.readLock().lock();
+        try {
+            return shardDAOs.get(shardFor(courseId)).getGradesByCourseId(courseId);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the grades of a student from every shard, in columnar form.
+     *
+     * @param studentId The ID of the student.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public GradeBatch getGradeBatchByStudentId(int studentId) throws SQLException {
+        List<GradeBatch> batches = scatter(shard -> shardDAOs.get(shard).getGradeBatchByStudentId(studentId));
+        int total = 0;
+        for (GradeBatch batch : batches) {
+            total += batch.size();
+        }
+        // The shard and row of each grade, keeping the copy on the owning shard as in getGradesByStudentId.
+        Map<Integer, int[]> rows = new LinkedHashMap<>();
+        for (int shard = 0; shard < batches.size(); shard++) {
+            GradeBatch batch = batches.get(shard);
+            for (int row = 0; row < batch.size(); row++) {
+                if (rows.putIfAbsent(batch.getGradeId(row), new int[] {shard, row}) != null
+                        && shardFor(batch.getCourseId(row)) == shard) {
+                    rows.put(batch.getGradeId(row), new int[] {shard, row});
+                }
+            }
+        }
+        GradeBatch merged = new GradeBatch(Math.max(total, 1));
+        for (int[] position : rows.values()) {
+            GradeBatch batch = batches.get(position[0]);
+            int row = position[1];
+            merged.add(batch.getGradeId(row), batch.getStudentId(row), batch.getCourseId(row), batch.getScore(row));
+        }
+        return merged;
+    }
+
+    /**
+     * Retrieves the grades of a course from the shard owning it, in columnar form.
+     *
+     * @param courseId The ID of the course.
+     * @return A GradeBatch holding one row per grade.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public GradeBatch getGradeBatchByCourseId(int courseId) throws SQLException {
+        moveLock.readLock().lock();
+        try {
+            return shardDAOs.get(shardFor(courseId)).getGradeBatchByCourseId(courseId);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the grades of a student in a course from the shard owning the course.
+     *
+     * @param studentId The ID of the student.
+     * @param courseId  The ID of the course.
+     * @return A list of Grade objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public List<Grade> getGradesByStudentAndCourse(int studentId, int courseId) throws SQLException {
+        moveLock.readLock().lock();
+        try {
+            return shardDAOs.get(shardFor(courseId)).getGradesByStudentAndCourse(studentId, courseId);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Updates a grade on the shard owning its course, if it still has the
+     * grade's version. If the grade was moved to another course on a different
+     * shard, the row is moved along with it: it is copied to the new shard, then
+     * removed from the old one only if it still has the version read, and the
+     * copy is removed again otherwise.
+     *
+     * @param grade The Grade object to update.
+     * @throws OptimisticLockException if the grade was changed since it was read.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public void updateGrade(Grade grade) throws SQLException {
+        boolean updated;
+        moveLock.readLock().lock();
+        try {
+            int target = shardFor(grade.getCourseId());
+            updated = executeUpdate(target, grade) > 0;
+            if (updated) {
+                grade.setVersion(grade.getVersion() + 1);
+            }
+            for (int shard = 0; shard < shards.size() && !updated; shard++) {
+                Grade current = findGrade(shard, grade.getGradeId());
+                if (current == null) {
+                    continue;
+                }
+                if (shard == target || current.getVersion() != grade.getVersion()) {
+                    throw new OptimisticLockException(EntityType.GRADE, grade.getGradeId(), grade.getVersion(),
+                            current.getVersion());
+                }
+                grade.setVersion(grade.getVersion() + 1);
+                try {
+                    upsert(target, List.of(grade));
+                } catch (SQLException e) {
+                    grade.setVersion(grade.getVersion() - 1);
+                    throw e;
+                }
+                // The source row may have been updated since it was read; only that version moves.
+                if (deleteVersion(shard, grade.getGradeId(), current.getVersion()) == 0) {
+                    deleteVersion(target, grade.getGradeId(), grade.getVersion());
+                    grade.setVersion(current.getVersion());
+                    Grade changed = findGrade(shard, grade.getGradeId());
+                    throw new OptimisticLockException(EntityType.GRADE, grade.getGradeId(), current.getVersion(),
+                            changed != null ? changed.getVersion() : current.getVersion());
+                }
+                updated = true;
+            }
+        } finally {
+            moveLock.readLock().unlock();
+        }
+        if (updated) {
+            DaoMutations.gradeChanged(MutationKind.UPDATE, grade.getGradeId(), grade);
+        }
+    }
+
+    /**
+     * Deletes a grade, trying the shard that allocated its ID first.
+     *
+     * @param gradeId The ID of the grade to delete.
+     * @return True if a row was deleted.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public boolean deleteGrade(int gradeId) throws SQLException {
+        int rows = 0;
+        moveLock.readLock().lock();
+        try {
+            int home = homeShard(gradeId);
+            if (home >= 0) {
+                rows = deleteById(home, gradeId);
+            }
+            // Rows left behind by a failed move may hold a second copy of the grade.
+            boolean everyShard = leftoverRows;
+            for (int shard = 0; shard < shards.size() && (rows == 0 || everyShard); shard++) {
+                if (shard != home) {
+                    rows += deleteById(shard, gradeId);
+                }
+            }
+        } finally {
+            moveLock.readLock().unlock();
+        }
+        if (rows > 0) {
+            DaoMutations.gradeChanged(MutationKind.DELETE, gradeId, null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the grades of a course range onto another shard and updates the
+     * shard map. Courses are copied one at a time, pausing grade writes and
+     * reads by course only for the course being copied; a final pass under the
+     * same pause picks up courses that received their first grade during the
+     * move. The shard map points at the target as soon as a course is copied,
+     * before its rows are removed from the source. Running the move again after
+     * a failure is safe: a copied row only replaces an older version of itself.
+     *
+     * @param fromCourseId The first course ID of the range.
+     * @param toCourseId   The course ID after the range.
+     * @param targetShard  The shard that will own the range.
+     * @return The number of grades moved.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long moveCourses(int fromCourseId, int toCourseId, int targetShard) throws SQLException {
+        // Fail on a bad range or shard before anything is copied.
+        shardMap.get().withRange(fromCourseId, toCourseId, targetShard);
+        long moved = 0;
+        for (int source = 0; source < shards.size(); source++) {
+            if (source == targetShard) {
+                continue;
+            }
+            for (int courseId : courseIdsInRange(source, fromCourseId, toCourseId)) {
+                moveLock.writeLock().lock();
+                try {
+                    moved += transfer(source, targetShard, courseId, courseId + 1);
+                } finally {
+                    moveLock.writeLock().unlock();
+                }
+            }
+        }
+        moveLock.writeLock().lock();
+        try {
+            for (int source = 0; source < shards.size(); source++) {
+                if (source != targetShard) {
+                    moved += transfer(source, targetShard, fromCourseId, toCourseId);
+                }
+            }
+            shardMap.set(shardMap.get().withRange(fromCourseId, toCourseId, targetShard));
+            leftoverRows = false;
+        } finally {
+            moveLock.writeLock().unlock();
+        }
+        return moved;
+    }
+
+    /**
+     * @return The current shard map; persist its {@link ShardMap#format()} to restore it on restart.
+     */
+    public ShardMap getShardMap() {
+        return shardMap.get();
+    }
+
+    /**
+     * @return The shard pools, in shard order.
+     */
+    public List<ConnectionPool> getShards() {
+        return new ArrayList<>(shards);
+    }
+
+    /**
+     * Stops the scatter-gather threads and closes every shard pool.
+     */
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+        for (ConnectionPool pool : shards) {
+            pool.close();
+        }
+    }
+
+    private int shardFor(int courseId) {
+        return shardMap.get().shardFor(courseId);
+    }
+
+    /**
+     * Helper method that returns the shard whose auto-increment settings produce an ID, or -1 if none.
+     */
+    private int homeShard(int gradeId) {
+        int shard = Math.floorMod(gradeId - 1, MAX_SHARDS);
+        return shard < shards.size() ? shard : -1;
+    }
+
+    /**
+     * A query against one shard.
+     */
+    private interface ShardQuery<R> {
+        R run(int shard) throws SQLException;
+    }
+
+    /**
+     * Helper method that runs a query on every shard in parallel and returns the results in shard order.
+     */
+    private <R> List<R> scatter(ShardQuery<R> query) throws SQLException {
+        List<R> results = new ArrayList<>(shards.size());
+        if (shards.size() == 1) {
+            results.add(query.run(0));
+            return results;
+        }
+        List<Future<R>> futures = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int index = shard;
+            futures.add(scatterExecutor.submit(() -> query.run(index)));
+        }
+        SQLException failure = null;
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (failure == null) {
+                    failure = cause instanceof SQLException ? (SQLException) cause
+                            : new SQLException("Shard query failed", cause);
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<R> pending : futures) {
+                    pending.cancel(true);
+                }
+                throw new SQLException("Interrupted while querying grade shards", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Helper method that updates a grade on one shard.
+     */
+    private int executeUpdate(int shard, Grade grade) throws SQLException {
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_GRADE_SQL)) {
+            int next = GradeMapper.INSTANCE.bind(preparedStatement, grade);
+            preparedStatement.setInt(next, grade.getGradeId());
+            preparedStatement.setInt(next + 1, grade.getVersion());
+            return preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Helper method that reads a grade from one shard.
+     */
+    private Grade findGrade(int shard, int gradeId) throws SQLException {
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_GRADE_BY_ID_SQL)) {
+            preparedStatement.setInt(1, gradeId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? GradeMapper.INSTANCE.map(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Helper method that deletes a grade from one shard.
+     */
+    private int deleteById(int shard, int gradeId) throws SQLException {
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(DELETE_GRADE_SQL)) {
+            preparedStatement.setInt(1, gradeId);
+            return preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Helper method that deletes a grade from one shard if it still has the given version.
+     */
+    private int deleteVersion(int shard, int gradeId, int version) throws SQLException {
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(DELETE_GRADE_VERSION_SQL)) {
+            preparedStatement.setInt(1, gradeId);
+            preparedStatement.setInt(2, version);
+            return preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Helper method that lists the courses in a range that have grades on one shard.
+     */
+    private List<Integer> courseIdsInRange(int shard, int fromCourseId, int toCourseId) throws SQLException {
+        List<Integer> courseIds = new ArrayList<>();
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_COURSE_IDS_IN_RANGE_SQL)) {
+            preparedStatement.setInt(1, fromCourseId);
+            preparedStatement.setInt(2, toCourseId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    courseIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return courseIds;
+    }
+
+    /**
+     * Helper method that copies the grades of a course range to another shard, routes the range
+     * to it, then removes the grades from the source. Called with the move lock held.
+     */
+    private long transfer(int source, int target, int fromCourseId, int toCourseId) throws SQLException {
+        long moved = 0;
+        try (Connection connection = shards.get(source).getConnection()) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_GRADES_IN_RANGE_SQL)) {
+                preparedStatement.setInt(1, fromCourseId);
+                preparedStatement.setInt(2, toCourseId);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    List<Grade> batch = new ArrayList<>(COPY_BATCH_SIZE);
+                    while (rs.next()) {
+                        batch.add(GradeMapper.INSTANCE.map(rs));
+                        if (batch.size() == COPY_BATCH_SIZE) {
+                            moved += upsert(target, batch);
+                            batch.clear();
+                        }
+                    }
+                    moved += upsert(target, batch);
+                }
+            }
+        }
+        shardMap.set(shardMap.get().withRange(fromCourseId, toCourseId, target));
+        if (moved > 0) {
+            deleteRange(source, fromCourseId, toCourseId);
+        }
+        return moved;
+    }
+
+    /**
+     * Helper method that removes the grades of a course range from a shard, retrying a few times.
+     * If every attempt fails, the rows stay behind as stale copies until the move is run again.
+     */
+    private void deleteRange(int shard, int fromCourseId, int toCourseId) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try (Connection connection = shards.get(shard).getConnection();
+                 PreparedStatement preparedStatement = connection.prepareStatement(DELETE_GRADES_IN_RANGE_SQL)) {
+                preparedStatement.setInt(1, fromCourseId);
+                preparedStatement.setInt(2, toCourseId);
+                preparedStatement.executeUpdate();
+                return;
+            } catch (SQLException e) {
+                if (attempt >= DELETE_ATTEMPTS) {
+                    leftoverRows = true;
+                    throw e;
+                }
+                System.err.println("Error removing moved grades of courses " + fromCourseId + "-" + toCourseId
+                        + " from shard " + shard + ", retrying: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(DELETE_RETRY_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                leftoverRows = true;
+                throw new SQLException("Interrupted while removing moved grades from shard " + shard, e);
+            }
+        }
+    }
+
+    /**
+     * Helper method that writes grades to a shard with their IDs, replacing existing rows.
+     */
+    private int upsert(int shard, List<Grade> grades) throws SQLException {
+        if (grades.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(UPSERT_GRADE_SQL)) {
+            connection.setAutoCommit(false);
+            try {
+                for (Grade grade : grades) {
+                    int next = GradeMapper.INSTANCE.bind(preparedStatement, grade);
+                    preparedStatement.setInt(next, grade.getGradeId());
+                    preparedStatement.setInt(next + 1, grade.getVersion());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return grades.size();
+    }
+}
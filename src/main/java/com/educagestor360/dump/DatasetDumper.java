@@ -0,0 +1,480 @@
+package com.educagestor360.dump;
+
+import com.educagestor360.export.ExportSummary;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+/**
+ * Dumps the users, courses and grades tables to compact binary files and
+ * restores them, for bootstrapping staging and load-test environments.
+ *
+ * Each table goes to its own {@code <table>.dump} file: a header with a magic
+ * number, format version and table name, followed by blocks of rows in primary
+ * key order. Every block is prefixed with its row count and payload length and
+ * carries a CRC32C of its payload, and the file ends with a trailer holding the
+ * total row count, so truncated or corrupted files are rejected.
+ *
+ * All tables are dumped one after the other on a single connection, inside one
+ * transaction started {@code WITH CONSISTENT SNAPSHOT}, so a dump taken under
+ * live traffic never holds a grade whose user or course it lacks.
+ *
+ * A block covers a contiguous range of IDs and is the unit of parallelism on
+ * restore: all three tables are restored at the same time, and within a table
+ * blocks are spread over several workers, each with its own connection and
+ * with foreign key and unique checks disabled for its session. Each block is
+ * inserted with multi-row INSERT statements and committed on its own. Since
+ * the checks are off while inserting, the references are verified once every
+ * table is restored.
+ */
+public class DatasetDumper {
+
+    public static final int DEFAULT_BLOCK_BYTES = 1024 * 1024;
+    public static final int DEFAULT_ROWS_PER_INSERT = 500;
+
+    private static final long MAGIC = 0x4547333630444D50L; // "EG360DMP"
+    private static final int VERSION = 1;
+    private static final int END_OF_BLOCKS = -1;
+    private static final int BLOCK_HEADER_BYTES = 4 + 4 + 8;
+    private static final String[] DANGLING_REFERENCE_SQLS = {
+            "SELECT COUNT(*) FROM courses c LEFT JOIN users u ON u.user_id = c.teacher_id "
+                    + "WHERE c.teacher_id IS NOT NULL AND u.user_id IS NULL",
+            "SELECT COUNT(*) FROM grades g LEFT JOIN users u ON u.user_id = g.student_id WHERE u.user_id IS NULL",
+            "SELECT COUNT(*) FROM grades g LEFT JOIN courses c ON c.course_id = g.course_id WHERE c.course_id IS NULL"
+    };
+
+    private final int blockBytes;
+    private final int rowsPerInsert;
+    private final int workersPerTable;
+
+    /**
+     * Creates a dumper with the default block size and insert batch size.
+     *
+     * @param workersPerTable The number of concurrent restore workers per table.
+     */
+    public DatasetDumper(int workersPerTable) {
+        this(DEFAULT_BLOCK_BYTES, DEFAULT_ROWS_PER_INSERT, workersPerTable);
+    }
+
+    /**
+     * Creates a dumper.
+     *
+     * @param blockBytes      The target payload size of a block.
+     * @param rowsPerInsert   The number of rows per multi-row INSERT on restore.
+     * @param workersPerTable The number of concurrent restore workers per table.
+     */
+    public DatasetDumper(int blockBytes, int rowsPerInsert, int workersPerTable) {
+        if (blockBytes <= 0 || rowsPerInsert <= 0 || workersPerTable <= 0) {
+            throw new IllegalArgumentException("blockBytes, rowsPerInsert and workersPerTable must be positive");
+        }
+        this.blockBytes = blockBytes;
+        this.rowsPerInsert = rowsPerInsert;
+        this.workersPerTable = workersPerTable;
+    }
+
+    /**
+     * Dumps every table into the given directory from one consistent snapshot.
+     *
+     * @param directory The directory to write into; created if missing.
+     * @return The totals per table.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if a file cannot be written.
+     */
+    public Map<DumpTable, ExportSummary> dump(Path directory) throws SQLException, IOException {
+        Files.createDirectories(directory);
+        Map<DumpTable, ExportSummary> summaries = new EnumMap<>(DumpTable.class);
+        try (Connection connection = DatabaseConnector.getConnection()) {
+            int isolation = connection.getTransactionIsolation();
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+                }
+                for (DumpTable table : DumpTable.values()) {
+                    summaries.put(table, dumpTable(connection, table, directory.resolve(fileName(table))));
+                }
+            } finally {
+                // The snapshot only read, so ending it with a rollback loses nothing.
+                connection.rollback();
+                connection.setAutoCommit(true);
+                connection.setTransactionIsolation(isolation);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Restores every table from the given directory into empty tables.
+     * Tables and blocks are restored in parallel.
+     *
+     * @param directory The directory holding the dump files.
+     * @return The totals per table.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if a file cannot be read or is corrupted.
+     */
+    public Map<DumpTable, ExportSummary> restore(Path directory) throws SQLException, IOException {
+        Map<DumpTable, ExportSummary> summaries =
+                runPerTable("dataset-restore", table -> restoreTable(table, directory.resolve(fileName(table))));
+        checkReferences();
+        return summaries;
+    }
+
+    /**
+     * Helper method that fails if a restored row references a row that does not exist,
+     * which the foreign key checks disabled during the restore did not catch.
+     */
+    private static void checkReferences() throws SQLException {
+        try (Connection connection = DatabaseConnector.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : DANGLING_REFERENCE_SQLS) {
+                try (ResultSet rs = statement.executeQuery(sql)) {
+                    if (rs.next() && rs.getLong(1) > 0) {
+                        throw new SQLIntegrityConstraintViolationException("The restored data holds " + rs.getLong(1)
+                                + " rows with a dangling reference: " + sql);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method that writes one table to its dump file, reading it in the transaction open on the connection.
+     */
+    private ExportSummary dumpTable(Connection connection, DumpTable table, Path target) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_HEADER_BYTES + blockBytes);
+        ByteBuffer row = ByteBuffer.allocate(64 * 1024);
+        CRC32C crc = new CRC32C();
+        long totalRows = 0;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(table.selectSql(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole table.
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            writeHeader(channel, table);
+            int blockRows = 0;
+            block.position(BLOCK_HEADER_BYTES);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    row = encodeRow(table, rs, row);
+                    if (row.remaining() > block.remaining()) {
+                        if (blockRows > 0) {
+                            writeBlock(channel, block, blockRows, crc);
+                            blockRows = 0;
+                        }
+                        if (row.remaining() > block.remaining()) {
+                            block = ByteBuffer.allocateDirect(BLOCK_HEADER_BYTES + row.remaining());
+                            block.position(BLOCK_HEADER_BYTES);
+                        }
+                    }
+                    block.put(row);
+                    blockRows++;
+                    totalRows++;
+                }
+            }
+            if (blockRows > 0) {
+                writeBlock(channel, block, blockRows, crc);
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(12);
+            trailer.putInt(END_OF_BLOCKS).putLong(totalRows).flip();
+            writeFully(channel, trailer);
+            channel.force(false);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ExportSummary(1, totalRows, Files.size(target), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Helper method that reads one dump file and hands its blocks to a pool of
+     * insert workers through a bounded queue.
+     */
+    private ExportSummary restoreTable(DumpTable table, Path source) throws SQLException, IOException {
+        long start = System.nanoTime();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(workersPerTable * 2);
+        List<Connection> connections = new ArrayList<>();
+        // When the queue is full the reading thread inserts the block itself, which throttles reading.
+        ExecutorService workers = new ThreadPoolExecutor(workersPerTable, workersPerTable,
+                0L, TimeUnit.MILLISECONDS, queue, daemonThreads("restore-" + table.getTableName()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        ThreadLocal<Connection> workerConnection = new ThreadLocal<>();
+        List<Future<Integer>> blocks = new ArrayList<>();
+        long expectedRows;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            readHeader(channel, table);
+            ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+            CRC32C crc = new CRC32C();
+            while (true) {
+                blockHeader.clear().limit(4);
+                readFully(channel, blockHeader);
+                blockHeader.flip();
+                int rowCount = blockHeader.getInt();
+                if (rowCount == END_OF_BLOCKS) {
+                    ByteBuffer trailer = ByteBuffer.allocate(8);
+                    readFully(channel, trailer);
+                    expectedRows = trailer.flip().getLong();
+                    break;
+                }
+                blockHeader.clear().limit(BLOCK_HEADER_BYTES).position(4);
+                readFully(channel, blockHeader);
+                blockHeader.position(4);
+                int payloadLength = blockHeader.getInt();
+                long checksum = blockHeader.getLong();
+                ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+                readFully(channel, payload);
+                payload.flip();
+                crc.reset();
+                crc.update(payload.duplicate());
+                if (crc.getValue() != checksum) {
+                    throw new IOException("Checksum mismatch in " + source + " at block " + blocks.size());
+                }
+                blocks.add(workers.submit(() -> {
+                    Connection connection = workerConnection.get();
+                    if (connection == null) {
+                        connection = openRestoreConnection();
+                        synchronized (connections) {
+                            connections.add(connection);
+                        }
+                        workerConnection.set(connection);
+                    }
+                    insertBlock(connection, table, payload, rowCount);
+                    return rowCount;
+                }));
+            }
+            long restoredRows = 0;
+            for (Future<Integer> block : blocks) {
+                restoredRows += await(block);
+            }
+            if (restoredRows != expectedRows) {
+                throw new IOException("Restored " + restoredRows + " rows from " + source + " but the trailer declares " + expectedRows);
+            }
+            return new ExportSummary(1, restoredRows, Files.size(source), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            workers.shutdownNow();
+            awaitTermination(workers);
+            synchronized (connections) {
+                for (Connection connection : connections) {
+                    closeRestoreConnection(connection);
+                }
+            }
+        }
+    }
+
+    private void insertBlock(Connection connection, DumpTable table, ByteBuffer payload, int rowCount) throws SQLException {
+        int columns = table.getColumnCount();
+        try {
+            int done = 0;
+            while (done < rowCount) {
+                int batch = Math.min(rowsPerInsert, rowCount - done);
+                try (PreparedStatement preparedStatement = connection.prepareStatement(table.insertSql(batch))) {
+                    for (int i = 0; i < batch; i++) {
+                        table.bindRow(payload, preparedStatement, i * columns);
+                    }
+                    preparedStatement.executeUpdate();
+                }
+                done += batch;
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private static Connection openRestoreConnection() throws SQLException {
+        Connection connection = DatabaseConnector.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION foreign_key_checks = 0");
+            statement.execute("SET SESSION unique_checks = 0");
+        }
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static void closeRestoreConnection(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("SET SESSION unique_checks = 1");
+            statement.execute("SET SESSION foreign_key_checks = 1");
+        } catch (SQLException e) {
+            System.err.println("Error re-enabling constraint checks, discarding the connection: " + e.getMessage());
+            try {
+                // Closes the physical connection, so the pool drops it instead of lending it out unchecked.
+                connection.abort(Runnable::run);
+            } catch (SQLException abortFailure) {
+                System.err.println("Error discarding restore connection: " + abortFailure.getMessage());
+            }
+        }
+        DatabaseConnector.close(connection, null);
+    }
+
+    private static ByteBuffer encodeRow(DumpTable table, ResultSet rs, ByteBuffer row) throws SQLException {
+        while (true) {
+            row.clear();
+            try {
+                table.writeRow(rs, row);
+                row.flip();
+                return row;
+            } catch (BufferOverflowException e) {
+                row = ByteBuffer.allocate(row.capacity() * 2);
+            }
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, DumpTable table) throws IOException {
+        byte[] name = table.getTableName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(8 + 4 + 4 + name.length);
+        header.putLong(MAGIC).putInt(VERSION).putInt(name.length).put(name).flip();
+        writeFully(channel, header);
+    }
+
+    private static void readHeader(FileChannel channel, DumpTable table) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        readFully(channel, header);
+        header.flip();
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a dataset dump file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported dump format version " + version);
+        }
+        int nameLength = header.getInt();
+        if (nameLength < 0 || nameLength > 256) {
+            throw new IOException("Corrupted dump header");
+        }
+        ByteBuffer name = ByteBuffer.allocate(nameLength);
+        readFully(channel, name);
+        String tableName = new String(name.array(), StandardCharsets.UTF_8);
+        if (!tableName.equals(table.getTableName())) {
+            throw new IOException("Dump file holds table " + tableName + ", expected " + table.getTableName());
+        }
+    }
+
+    private static void writeBlock(FileChannel channel, ByteBuffer block, int rowCount, CRC32C crc) throws IOException {
+        int payloadLength = block.position() - BLOCK_HEADER_BYTES;
+        ByteBuffer payload = block.duplicate();
+        payload.position(BLOCK_HEADER_BYTES).limit(block.position());
+        crc.reset();
+        crc.update(payload);
+        block.putInt(0, rowCount);
+        block.putInt(4, payloadLength);
+        block.putLong(8, crc.getValue());
+        block.flip();
+        writeFully(channel, block);
+        block.clear();
+        block.position(BLOCK_HEADER_BYTES);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated dump file");
+            }
+        }
+    }
+
+    private static String fileName(DumpTable table) {
+        return table.getTableName() + ".dump";
+    }
+
+    /**
+     * A per-table step of a dump or restore.
+     */
+    private interface TableTask {
+        ExportSummary run(DumpTable table) throws SQLException, IOException;
+    }
+
+    private Map<DumpTable, ExportSummary> runPerTable(String threadName, TableTask task) throws SQLException, IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(DumpTable.values().length, daemonThreads(threadName));
+        try {
+            Map<DumpTable, Future<ExportSummary>> futures = new EnumMap<>(DumpTable.class);
+            for (DumpTable table : DumpTable.values()) {
+                futures.put(table, executor.submit(() -> task.run(table)));
+            }
+            Map<DumpTable, ExportSummary> summaries = new EnumMap<>(DumpTable.class);
+            for (Map.Entry<DumpTable, Future<ExportSummary>> entry : futures.entrySet()) {
+                summaries.put(entry.getKey(), await(entry.getValue()));
+            }
+            return summaries;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static <T> T await(Future<T> future) throws SQLException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a dump task", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Dump task failed", cause);
+        }
+    }
+}
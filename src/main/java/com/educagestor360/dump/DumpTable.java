@@ -0,0 +1,195 @@
+package com.educagestor360.dump;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * The tables covered by a dump, with the binary encoding of their rows.
+ *
+ * Every field is written in column order: integers as 4 bytes, nullable
+ * integers and dates with a leading presence byte, strings as a 4-byte UTF-8
+ * length (-1 for null) followed by the bytes, and scores as a nullable
+ * integer count of hundredths, matching the DECIMAL(5,2) column.
+ */
+public enum DumpTable {
+
+    USERS("users", "user_id, first_name, last_name, email, password, role", 6) {
+        @Override
+        void writeRow(ResultSet rs, ByteBuffer out) throws SQLException {
+            out.putInt(rs.getInt(1));
+            putString(out, rs.getString(2));
+            putString(out, rs.getString(3));
+            putString(out, rs.getString(4));
+            putString(out, rs.getString(5));
+            putString(out, rs.getString(6));
+        }
+
+        @Override
+        void bindRow(ByteBuffer in, PreparedStatement ps, int offset) throws SQLException {
+            ps.setInt(offset + 1, in.getInt());
+            ps.setString(offset + 2, getString(in));
+            ps.setString(offset + 3, getString(in));
+            ps.setString(offset + 4, getString(in));
+            ps.setString(offset + 5, getString(in));
+            ps.setString(offset + 6, getString(in));
+        }
+    },
+
+    COURSES("courses", "course_id, course_name, description, teacher_id, start_date, end_date", 6) {
+        @Override
+        void writeRow(ResultSet rs, ByteBuffer out) throws SQLException {
+            out.putInt(rs.getInt(1));
+            putString(out, rs.getString(2));
+            putString(out, rs.getString(3));
+            int teacherId = rs.getInt(4);
+            putNullableInt(out, rs.wasNull() ? null : teacherId);
+            putDate(out, rs.getDate(5));
+            putDate(out, rs.getDate(6));
+        }
+
+        @Override
+        void bindRow(ByteBuffer in, PreparedStatement ps, int offset) throws SQLException {
+            ps.setInt(offset + 1, in.getInt());
+            ps.setString(offset + 2, getString(in));
+            ps.setString(offset + 3, getString(in));
+            setNullableInt(ps, offset + 4, getNullableInt(in));
+            ps.setDate(offset + 5, getDate(in));
+            ps.setDate(offset + 6, getDate(in));
+        }
+    },
+
+    GRADES("grades", "grade_id, student_id, course_id, score, comments", 5) {
+        @Override
+        void writeRow(ResultSet rs, ByteBuffer out) throws SQLException {
+            out.putInt(rs.getInt(1));
+            out.putInt(rs.getInt(2));
+            out.putInt(rs.getInt(3));
+            BigDecimal score = rs.getBigDecimal(4);
+            putNullableInt(out, score == null ? null : score.movePointRight(2).intValueExact());
+            putString(out, rs.getString(5));
+        }
+
+        @Override
+        void bindRow(ByteBuffer in, PreparedStatement ps, int offset) throws SQLException {
+            ps.setInt(offset + 1, in.getInt());
+            ps.setInt(offset + 2, in.getInt());
+            ps.setInt(offset + 3, in.getInt());
+            Integer hundredths = getNullableInt(in);
+            ps.setBigDecimal(offset + 4, hundredths == null ? null : BigDecimal.valueOf(hundredths, 2));
+            ps.setString(offset + 5, getString(in));
+        }
+    };
+
+    private final String tableName;
+    private final String columns;
+    private final int columnCount;
+
+    DumpTable(String tableName, String columns, int columnCount) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.columnCount = columnCount;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return The query reading the whole table in primary key order.
+     */
+    String selectSql() {
+        return "SELECT " + columns + " FROM " + tableName + " ORDER BY " + columns.substring(0, columns.indexOf(','));
+    }
+
+    /**
+     * Builds a multi-row INSERT statement.
+     *
+     * @param rows The number of rows in the statement.
+     * @return The SQL text.
+     */
+    String insertSql(int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columnCount; i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName)
+                .append(" (").append(columns).append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Encodes the current row of the ResultSet.
+     */
+    abstract void writeRow(ResultSet rs, ByteBuffer out) throws SQLException;
+
+    /**
+     * Decodes one row and binds it to the statement, starting after the given parameter index.
+     */
+    abstract void bindRow(ByteBuffer in, PreparedStatement ps, int offset) throws SQLException;
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putNullableInt(ByteBuffer out, Integer value) {
+        out.put((byte) (value == null ? 0 : 1));
+        out.putInt(value == null ? 0 : value);
+    }
+
+    private static Integer getNullableInt(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        int value = in.getInt();
+        return present ? value : null;
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    private static void putDate(ByteBuffer out, Date value) {
+        putNullableInt(out, value == null ? null : (int) value.toLocalDate().toEpochDay());
+    }
+
+    private static Date getDate(ByteBuffer in) {
+        Integer epochDay = getNullableInt(in);
+        return epochDay == null ? null : Date.valueOf(LocalDate.ofEpochDay(epochDay));
+    }
+}
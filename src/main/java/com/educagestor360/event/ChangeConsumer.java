@@ -0,0 +1,23 @@
+package com.educagestor360.event;
+
+import java.util.List;
+
+/**
+ * Processes batches of {@link ChangeEvent}s on its own thread.
+ *
+ * A batch that throws is retried, with a growing pause, until it succeeds;
+ * meanwhile the consumer falls behind and, once the ring buffer is full,
+ * slows down its producer. Consumers must therefore tolerate seeing a batch
+ * more than once.
+ */
+@FunctionalInterface
+public interface ChangeConsumer {
+
+    /**
+     * Handles the next events, in stream order.
+     *
+     * @param events One or more events; the list must not be kept after returning.
+     * @throws Exception to have the same batch delivered again.
+     */
+    void onEvents(List<ChangeEvent> events) throws Exception;
+}
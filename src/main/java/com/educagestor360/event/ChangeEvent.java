@@ -0,0 +1,100 @@
+package com.educagestor360.event;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+/**
+ * One committed mutation, as delivered to a {@link ChangeConsumer}.
+ *
+ * Events published in-process carry a copy of the entity as written. Events
+ * read back from the outbox only carry the entity ID; consumers that need the
+ * data read the current row. Either way the entity is null for deletes.
+ */
+public final class ChangeEvent {
+
+    private final long sequence;
+    private final long outboxId;
+    private final EntityType entityType;
+    private final MutationKind kind;
+    private final int entityId;
+    private final long timestamp;
+    private final Object entity;
+
+    ChangeEvent(long sequence, long outboxId, EntityType entityType, MutationKind kind, int entityId,
+                long timestamp, Object entity) {
+        this.sequence = sequence;
+        this.outboxId = outboxId;
+        this.entityType = entityType;
+        this.kind = kind;
+        this.entityId = entityId;
+        this.timestamp = timestamp;
+        this.entity = entity;
+    }
+
+    /**
+     * @return The position of the event in the stream, increasing by one per event.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The ID of the outbox row, or 0 if the event was published in-process only.
+     */
+    public long getOutboxId() {
+        return outboxId;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public MutationKind getKind() {
+        return kind;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * @return When the mutation was published, in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The user as written, or null if this is not a user event or carries no data.
+     */
+    public User getUser() {
+        return entityType == EntityType.USER ? (User) entity : null;
+    }
+
+    /**
+     * @return The course as written, or null if this is not a course event or carries no data.
+     */
+    public Course getCourse() {
+        return entityType == EntityType.COURSE ? (Course) entity : null;
+    }
+
+    /**
+     * @return The grade as written, or null if this is not a grade event or carries no data.
+     */
+    public Grade getGrade() {
+        return entityType == EntityType.GRADE ? (Grade) entity : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "sequence=" + sequence +
+                ", outboxId=" + outboxId +
+                ", entityType=" + entityType +
+                ", kind=" + kind +
+                ", entityId=" + entityId +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,160 @@
+package com.educagestor360.event;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A preallocated ring of change event slots with a single writer and any
+ * number of independent readers.
+ *
+ * Writes are serialized by a lock, so exactly one thread writes at a time and
+ * the published cursor only moves forward. Readers never lock: each one owns a
+ * sequence that the writer reads to avoid overwriting unread slots. Every slot
+ * works like a seqlock: its sequence is cleared before the fields are written
+ * and set afterwards, so a reader that was lapped can tell that the slot it
+ * copied was overwritten. The sequence is volatile, which orders the field
+ * writes before its final store and the field reads after its first load; the
+ * two explicit fences order the other halves, which volatile alone does not:
+ * the clearing store before the field writes, and the field reads before the
+ * re-check.
+ */
+final class ChangeEventRing {
+
+    private static final long WAIT_PARK_NANOS = 50_000;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Reader> readers = new CopyOnWriteArrayList<>();
+    private volatile long cursor = -1;
+
+    ChangeEventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Writes the next event, waiting while the slowest reader is a full ring behind.
+     *
+     * @param maxWaitNanos How long to wait for room before overwriting unread slots.
+     * @return The sequence of the event.
+     */
+    long publish(EntityType type, MutationKind kind, int entityId, Object entity, long outboxId,
+                 long timestamp, long maxWaitNanos) {
+        writeLock.lock();
+        try {
+            long next = cursor + 1;
+            long wrapPoint = next - slots.length;
+            if (wrapPoint >= 0) {
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (minimumReaderSequence() < wrapPoint) {
+                    if (maxWaitNanos != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                    LockSupport.parkNanos(WAIT_PARK_NANOS);
+                }
+            }
+            Slot slot = slots[(int) next & mask];
+            slot.sequence = -1;
+            VarHandle.storeStoreFence();
+            slot.type = type;
+            slot.kind = kind;
+            slot.entityId = entityId;
+            slot.entity = entity;
+            slot.outboxId = outboxId;
+            slot.timestamp = timestamp;
+            slot.sequence = next;
+            cursor = next;
+            for (Reader reader : readers) {
+                LockSupport.unpark(reader.thread);
+            }
+            return next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Copies an event out of the ring.
+     *
+     * @param sequence The sequence to read; must not be beyond the cursor.
+     * @return The event, or null if its slot has already been overwritten.
+     */
+    ChangeEvent read(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        if (slot.sequence != sequence) {
+            return null;
+        }
+        ChangeEvent event = new ChangeEvent(sequence, slot.outboxId, slot.type, slot.kind, slot.entityId,
+                slot.timestamp, slot.entity);
+        VarHandle.loadLoadFence();
+        return slot.sequence == sequence ? event : null;
+    }
+
+    long getCursor() {
+        return cursor;
+    }
+
+    int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Registers a reader that has consumed everything published so far.
+     */
+    Reader addReader(Thread thread) {
+        writeLock.lock();
+        try {
+            Reader reader = new Reader(thread, cursor);
+            readers.add(reader);
+            return reader;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void removeReader(Reader reader) {
+        readers.remove(reader);
+    }
+
+    private long minimumReaderSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Reader reader : readers) {
+            minimum = Math.min(minimum, reader.sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * The position of one reader: the sequence of the last event it finished with.
+     */
+    static final class Reader {
+        final Thread thread;
+        final AtomicLong sequence;
+
+        Reader(Thread thread, long sequence) {
+            this.thread = thread;
+            this.sequence = new AtomicLong(sequence);
+        }
+    }
+
+    private static final class Slot {
+        volatile long sequence = -1;
+        EntityType type;
+        MutationKind kind;
+        int entityId;
+        Object entity;
+        long outboxId;
+        long timestamp;
+    }
+}
@@ -0,0 +1,154 @@
+package com.educagestor360.event;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process stream of committed DAO mutations, fanned out to independent
+ * {@link ChangeConsumer}s through a preallocated {@link ChangeEventRing}.
+ *
+ * The stream can be fed in two ways:
+ * <ul>
+ *   <li>In-process: register the stream itself with {@link DaoMutations}. Every
+ *   mutation is published on the DAO thread right after commit, with a copy of
+ *   the entity. If the slowest consumer is a full ring behind, the DAO thread
+ *   waits up to the publish timeout and then overwrites; the lapped consumer
+ *   skips ahead and counts the lost events.</li>
+ *   <li>Durable: enable {@link ChangeOutbox} and register an {@link OutboxRelay},
+ *   which reads the outbox table in order and publishes from its own thread.
+ *   The relay waits for slow consumers instead of overwriting, and each
+ *   consumer's position is saved to the {@link OffsetStore} after every batch,
+ *   so nothing is missed across restarts. The stream then ignores
+ *   {@link DaoMutations} callbacks, since the relay is its only writer.</li>
+ * </ul>
+ */
+public class ChangeEventStream implements MutationListener {
+
+    /** The default number of slots in the ring. */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final ChangeEventRing ring;
+    private final long publishTimeoutNanos;
+    private final OffsetStore offsetStore;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a stream fed in-process.
+     *
+     * @param capacity             The number of ring slots; a power of two.
+     * @param publishTimeoutMillis How long a DAO thread waits for the slowest consumer before overwriting.
+     */
+    public ChangeEventStream(int capacity, long publishTimeoutMillis) {
+        this.ring = new ChangeEventRing(capacity);
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(publishTimeoutMillis);
+        this.offsetStore = null;
+    }
+
+    /**
+     * Creates a stream fed by an {@link OutboxRelay}, with consumer positions kept in a store.
+     *
+     * @param capacity    The number of ring slots; a power of two.
+     * @param offsetStore Where consumer positions are saved.
+     */
+    public ChangeEventStream(int capacity, OffsetStore offsetStore) {
+        this.ring = new ChangeEventRing(capacity);
+        this.publishTimeoutNanos = Long.MAX_VALUE;
+        this.offsetStore = offsetStore;
+    }
+
+    /**
+     * Attaches a consumer. It receives events published from now on; with an
+     * offset store it also receives outbox events after its saved position that
+     * the relay replays on start.
+     *
+     * @param name         A unique, stable name; the key of the saved position.
+     * @param maxBatchSize The most events handed over in one call.
+     * @param consumer     The consumer.
+     * @return The running subscription.
+     * @throws SQLException if the saved position cannot be read.
+     */
+    public ChangeSubscription subscribe(String name, int maxBatchSize, ChangeConsumer consumer) throws SQLException {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        long lastOutboxId = offsetStore == null ? 0 : offsetStore.load(name);
+        ChangeSubscription subscription = new ChangeSubscription(name, ring, consumer, maxBatchSize, offsetStore, lastOutboxId);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Detaches and stops a consumer.
+     *
+     * @param subscription The subscription returned by {@link #subscribe(String, int, ChangeConsumer)}.
+     */
+    public void unsubscribe(ChangeSubscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.close();
+    }
+
+    /**
+     * @return The attached subscriptions.
+     */
+    public List<ChangeSubscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    /**
+     * @return The sequence of the last published event, or -1 if none.
+     */
+    public long getCursor() {
+        return ring.getCursor();
+    }
+
+    @Override
+    public void userChanged(MutationKind kind, int userId, User user) {
+        if (offsetStore != null) {
+            return;
+        }
+        User copy = user == null ? null : new User(user);
+        ring.publish(EntityType.USER, kind, userId, copy, 0, System.currentTimeMillis(), publishTimeoutNanos);
+    }
+
+    @Override
+    public void courseChanged(MutationKind kind, int courseId, Course course) {
+        if (offsetStore != null) {
+            return;
+        }
+        Course copy = course == null ? null : new Course(course);
+        ring.publish(EntityType.COURSE, kind, courseId, copy, 0, System.currentTimeMillis(), publishTimeoutNanos);
+    }
+
+    @Override
+    public void gradeChanged(MutationKind kind, int gradeId, Grade grade) {
+        if (offsetStore != null) {
+            return;
+        }
+        Grade copy = grade == null ? null : new Grade(grade);
+        ring.publish(EntityType.GRADE, kind, gradeId, copy, 0, System.currentTimeMillis(), publishTimeoutNanos);
+    }
+
+    /**
+     * Publishes an event read from the outbox, waiting for room as long as needed.
+     */
+    void publishFromOutbox(long outboxId, EntityType type, MutationKind kind, int entityId, long timestamp) {
+        ring.publish(type, kind, entityId, null, outboxId, timestamp, publishTimeoutNanos);
+    }
+
+    /**
+     * @return The lowest saved outbox position among the subscriptions, or 0 if there are none.
+     */
+    long getMinimumOutboxId() {
+        long minimum = Long.MAX_VALUE;
+        for (ChangeSubscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.getLastOutboxId());
+        }
+        return minimum == Long.MAX_VALUE ? 0 : minimum;
+    }
+}
@@ -0,0 +1,128 @@
+package com.educagestor360.event;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * The transactional outbox: while enabled, every DAO write appends a row to
+ * {@code change_outbox} in the same transaction as the write itself, so a
+ * change is recorded if and only if it commits. An {@link OutboxRelay} then
+ * reads the table in order and feeds a {@link ChangeEventStream}.
+ *
+ * Disabled by default, in which case writes run exactly as before.
+ */
+public final class ChangeOutbox {
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO change_outbox (entity_type, mutation_kind, entity_id) VALUES (?, ?, ?)";
+
+    private static volatile boolean enabled;
+
+    private ChangeOutbox() {
+    }
+
+    /**
+     * Turns the outbox on or off for all subsequent writes.
+     *
+     * @param enabled Whether writes append to {@code change_outbox}.
+     */
+    public static void setEnabled(boolean enabled) {
+        ChangeOutbox.enabled = enabled;
+    }
+
+    /**
+     * @return Whether writes append to {@code change_outbox}.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs a write and, when the outbox is enabled, appends its outbox row in the
+     * same transaction. If the connection is already inside a transaction the row
+     * is appended to it and committing is left to the caller; otherwise the write
+     * and the row are committed together here.
+     *
+     * @param connection The connection to write on.
+     * @param type       The kind of entity written.
+     * @param kind       The kind of mutation.
+     * @param work       The write; returns the ID of the changed entity, or 0 if nothing changed.
+     * @return The value returned by the write.
+     * @throws SQLException if a database access error occurs; nothing is committed.
+     */
+    public static int write(Connection connection, EntityType type, MutationKind kind, OutboxWork work) throws SQLException {
+        if (!enabled) {
+            return work.run(connection);
+        }
+        if (!connection.getAutoCommit()) {
+            int entityId = work.run(connection);
+            append(connection, type, kind, entityId);
+            return entityId;
+        }
+        connection.setAutoCommit(false);
+        try {
+            int entityId = work.run(connection);
+            append(connection, type, kind, entityId);
+            connection.commit();
+            return entityId;
+        } catch (SQLException | RuntimeException e) {
+            rollbackQuietly(connection);
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Appends an outbox row to the transaction open on the connection, when the outbox is enabled.
+     *
+     * @param connection The connection, inside the transaction of the write.
+     * @param type       The kind of entity written.
+     * @param kind       The kind of mutation.
+     * @param entityId   The ID of the changed entity; nothing is appended for 0.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void append(Connection connection, EntityType type, MutationKind kind, int entityId) throws SQLException {
+        if (!enabled || entityId == 0) {
+            return;
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_OUTBOX_SQL)) {
+            preparedStatement.setString(1, type.name());
+            preparedStatement.setString(2, kind.name());
+            preparedStatement.setInt(3, entityId);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Appends one outbox row per entity to the transaction open on the connection, in one batch.
+     *
+     * @param connection The connection, inside the transaction of the write.
+     * @param type       The kind of entity written.
+     * @param kind       The kind of mutation.
+     * @param entityIds  The IDs of the changed entities.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void appendAll(Connection connection, EntityType type, MutationKind kind, int[] entityIds) throws SQLException {
+        if (!enabled || entityIds.length == 0) {
+            return;
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_OUTBOX_SQL)) {
+            for (int entityId : entityIds) {
+                preparedStatement.setString(1, type.name());
+                preparedStatement.setString(2, kind.name());
+                preparedStatement.setInt(3, entityId);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back outbox write: " + e.getMessage());
+        }
+    }
+}
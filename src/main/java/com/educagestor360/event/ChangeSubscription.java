@@ -0,0 +1,162 @@
+package com.educagestor360.event;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A consumer attached to a {@link ChangeEventStream}, running on its own
+ * daemon thread. Closing the subscription stops the thread once its current
+ * batch is done.
+ */
+public final class ChangeSubscription implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_RETRY_PAUSE_MILLIS = 5_000;
+
+    private final String name;
+    private final ChangeEventRing ring;
+    private final ChangeConsumer consumer;
+    private final int maxBatchSize;
+    private final OffsetStore offsetStore;
+    private final Thread thread;
+    private final ChangeEventRing.Reader reader;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private volatile long lastOutboxId;
+    private volatile boolean running = true;
+
+    ChangeSubscription(String name, ChangeEventRing ring, ChangeConsumer consumer, int maxBatchSize,
+                       OffsetStore offsetStore, long lastOutboxId) {
+        this.name = name;
+        this.ring = ring;
+        this.consumer = consumer;
+        this.maxBatchSize = maxBatchSize;
+        this.offsetStore = offsetStore;
+        this.lastOutboxId = lastOutboxId;
+        this.thread = new Thread(this::run, "change-consumer-" + name);
+        thread.setDaemon(true);
+        this.reader = ring.addReader(thread);
+        thread.start();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The number of events published but not yet processed.
+     */
+    public long getLag() {
+        return ring.getCursor() - reader.sequence.get();
+    }
+
+    /**
+     * @return The number of events delivered successfully.
+     */
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /**
+     * @return The number of events overwritten before this consumer could read them.
+     */
+    public long getLostCount() {
+        return lost.get();
+    }
+
+    /**
+     * @return The last outbox ID processed, or 0 when the stream has no outbox.
+     */
+    public long getLastOutboxId() {
+        return lastOutboxId;
+    }
+
+    /**
+     * Stops the consumer thread and waits for it to finish its current batch.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ring.removeReader(reader);
+    }
+
+    private void run() {
+        List<ChangeEvent> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            long next = reader.sequence.get() + 1;
+            long available = ring.getCursor();
+            if (available < next) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            long end = Math.min(available, next + maxBatchSize - 1);
+            batch.clear();
+            long batchOutboxId = lastOutboxId;
+            boolean lapped = false;
+            for (long sequence = next; sequence <= end; sequence++) {
+                ChangeEvent event = ring.read(sequence);
+                if (event == null) {
+                    lapped = true;
+                    break;
+                }
+                // After a restart the relay replays from the slowest consumer; skip what this one has done.
+                if (event.getOutboxId() != 0 && event.getOutboxId() <= lastOutboxId) {
+                    continue;
+                }
+                batch.add(event);
+                batchOutboxId = Math.max(batchOutboxId, event.getOutboxId());
+            }
+            if (lapped) {
+                long resumeAt = ring.getCursor() - ring.getCapacity() + 1;
+                lost.addAndGet(resumeAt - next);
+                System.err.println("Change consumer " + name + " fell a full ring behind; skipped "
+                        + (resumeAt - next) + " events");
+                reader.sequence.set(resumeAt - 1);
+                continue;
+            }
+            if (!batch.isEmpty() && !deliver(batch)) {
+                return;
+            }
+            processed.addAndGet(batch.size());
+            if (offsetStore != null && batchOutboxId > lastOutboxId) {
+                try {
+                    offsetStore.save(name, batchOutboxId);
+                } catch (SQLException e) {
+                    System.err.println("Could not save offset of change consumer " + name + ": " + e.getMessage());
+                }
+            }
+            lastOutboxId = batchOutboxId;
+            reader.sequence.set(end);
+        }
+    }
+
+    /**
+     * Helper method that retries a batch until it succeeds or the subscription is closed.
+     *
+     * @return false if the subscription was closed first.
+     */
+    private boolean deliver(List<ChangeEvent> batch) {
+        long pause = 10;
+        while (running) {
+            try {
+                consumer.onEvents(batch);
+                return true;
+            } catch (Exception e) {
+                System.err.println("Change consumer " + name + " failed, retrying in " + pause + " ms: " + e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pause));
+                pause = Math.min(pause * 2, MAX_RETRY_PAUSE_MILLIS);
+            }
+        }
+        return false;
+    }
+}
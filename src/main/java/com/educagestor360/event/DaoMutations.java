@@ -0,0 +1,90 @@
+package com.educagestor360.event;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of {@link MutationListener}s notified by the DAO implementations.
+ * A failing listener is reported and skipped; it never fails the DAO call,
+ * since the change it is being told about has already been committed.
+ */
+public final class DaoMutations {
+
+    private static final List<MutationListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private DaoMutations() {
+    }
+
+    /**
+     * Registers a listener for all subsequent DAO mutations.
+     *
+     * @param listener The listener to add.
+     */
+    public static void addListener(MutationListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Unregisters a previously added listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public static void removeListener(MutationListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Notifies all listeners that a user has changed.
+     *
+     * @param kind   The kind of mutation.
+     * @param userId The ID of the affected user.
+     * @param user   The user as written, or null for a delete or an update of the password alone.
+     */
+    public static void userChanged(MutationKind kind, int userId, User user) {
+        for (MutationListener listener : LISTENERS) {
+            try {
+                listener.userChanged(kind, userId, user);
+            } catch (RuntimeException e) {
+                System.err.println("Mutation listener failed for user " + userId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notifies all listeners that a course has changed.
+     *
+     * @param kind     The kind of mutation.
+     * @param courseId The ID of the affected course.
+     * @param course   The course as written, or null for a delete.
+     */
+    public static void courseChanged(MutationKind kind, int courseId, Course course) {
+        for (MutationListener listener : LISTENERS) {
+            try {
+                listener.courseChanged(kind, courseId, course);
+            } catch (RuntimeException e) {
+                System.err.println("Mutation listener failed for course " + courseId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notifies all listeners that a grade has changed.
+     *
+     * @param kind    The kind of mutation.
+     * @param gradeId The ID of the affected grade.
+     * @param grade   The grade as written, or null for a delete.
+     */
+    public static void gradeChanged(MutationKind kind, int gradeId, Grade grade) {
+        for (MutationListener listener : LISTENERS) {
+            try {
+                listener.gradeChanged(kind, gradeId, grade);
+            } catch (RuntimeException e) {
+                System.err.println("Mutation listener failed for grade " + gradeId + ": " + e.getMessage());
+            }
+        }
+    }
+}
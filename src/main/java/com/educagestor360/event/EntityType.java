@@ -0,0 +1,10 @@
+package com.educagestor360.event;
+
+/**
+ * The kinds of entity managed by the DAO layer.
+ */
+public enum EntityType {
+    USER,
+    COURSE,
+    GRADE
+}
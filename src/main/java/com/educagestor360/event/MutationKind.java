@@ -0,0 +1,10 @@
+package com.educagestor360.event;
+
+/**
+ * The kind of change applied to an entity by a DAO mutation.
+ */
+public enum MutationKind {
+    INSERT,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,49 @@
+package com.educagestor360.event;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+/**
+ * Receives a notification for every successful DAO mutation.
+ * Notifications are delivered synchronously on the calling thread, after the
+ * change has been committed, so implementations must be quick and must not
+ * call back into the DAOs.
+ *
+ * For {@link MutationKind#DELETE} the entity argument is null. Deleting a user
+ * or a course through a cascading delete only notifies the parent; listeners
+ * are expected to drop dependent grades themselves, and to treat courses taught
+ * by a deleted user as having no teacher.
+ */
+public interface MutationListener {
+
+    /**
+     * Called after a user has been inserted, updated or deleted.
+     *
+     * @param kind   The kind of mutation.
+     * @param userId The ID of the affected user.
+     * @param user   The user as written, or null for a delete.
+     */
+    default void userChanged(MutationKind kind, int userId, User user) {
+    }
+
+    /**
+     * Called after a course has been inserted, updated or deleted.
+     *
+     * @param kind     The kind of mutation.
+     * @param courseId The ID of the affected course.
+     * @param course   The course as written, or null for a delete.
+     */
+    default void courseChanged(MutationKind kind, int courseId, Course course) {
+    }
+
+    /**
+     * Called after a grade has been inserted, updated or deleted.
+     *
+     * @param kind    The kind of mutation.
+     * @param gradeId The ID of the affected grade.
+     * @param grade   The grade as written, or null for a delete.
+     */
+    default void gradeChanged(MutationKind kind, int gradeId, Grade grade) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.educagestor360.event;
+
+import java.sql.SQLException;
+
+/**
+ * Remembers, per consumer, the last outbox row it has processed, so it can
+ * resume where it stopped after a restart.
+ */
+public interface OffsetStore {
+
+    /**
+     * @param consumerName The name of the consumer.
+     * @return The last outbox ID the consumer processed, or 0 if it never ran.
+     * @throws SQLException if a database access error occurs.
+     */
+    long load(String consumerName) throws SQLException;
+
+    /**
+     * @param consumerName The name of the consumer.
+     * @param outboxId     The last outbox ID it has processed.
+     * @throws SQLException if a database access error occurs.
+     */
+    void save(String consumerName, long outboxId) throws SQLException;
+}
@@ -0,0 +1,58 @@
+package com.educagestor360.event;
+
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Keeps consumer positions in the {@code change_consumer_offsets} table, next to the outbox.
+ */
+public class OutboxOffsetStore implements OffsetStore {
+
+    private static final String SELECT_OFFSET_SQL = "SELECT last_outbox_id FROM change_consumer_offsets WHERE consumer_name = ?";
+    private static final String UPSERT_OFFSET_SQL = "INSERT INTO change_consumer_offsets (consumer_name, last_outbox_id) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE last_outbox_id = GREATEST(last_outbox_id, VALUES(last_outbox_id))";
+
+    private final ConnectionProvider connections;
+
+    /**
+     * Creates a store on the main database of {@link DatabaseConnector}.
+     */
+    public OutboxOffsetStore() {
+        this(DatabaseConnector::getConnection);
+    }
+
+    /**
+     * Creates a store on another database.
+     *
+     * @param connections Where connections come from.
+     */
+    public OutboxOffsetStore(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+
+    @Override
+    public long load(String consumer) throws SQLException {
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_OFFSET_SQL)) {
+            preparedStatement.setString(1, consumer);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public void save(String consumer, long outboxId) throws SQLException {
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(UPSERT_OFFSET_SQL)) {
+            preparedStatement.setString(1, consumer);
+            preparedStatement.setLong(2, outboxId);
+            preparedStatement.executeUpdate();
+        }
+    }
+}
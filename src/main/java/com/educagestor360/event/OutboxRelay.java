@@ -0,0 +1,216 @@
+package com.educagestor360.event;
+
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tails {@code change_outbox} in outbox_id order and publishes each row to a
+ * {@link ChangeEventStream}. The relay thread is the only writer of the stream's
+ * ring and waits for the slowest consumer rather than overwriting, so every
+ * committed change reaches every consumer.
+ *
+ * Register the relay with {@link DaoMutations} to be woken as soon as a write
+ * commits; otherwise it polls. It starts from the lowest saved consumer
+ * position, so consumers must be subscribed before {@link #start()}, and it
+ * periodically purges rows every consumer has processed.
+ *
+ * An outbox_id is allocated when a transaction inserts its row, not when it
+ * commits, so a later id can become visible first. The relay stops at such a
+ * gap and only skips it once it has stayed open for the grace period, which
+ * covers slow transactions as well as ids lost to rollbacks.
+ */
+public class OutboxRelay implements MutationListener, AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_POLL_MILLIS = 1_000;
+    public static final long DEFAULT_GAP_GRACE_MILLIS = 5_000;
+
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+    private static final String SELECT_OUTBOX_SQL = "SELECT outbox_id, entity_type, mutation_kind, entity_id, created_at "
+            + "FROM change_outbox WHERE outbox_id > ? ORDER BY outbox_id LIMIT ?";
+    private static final String PURGE_OUTBOX_SQL = "DELETE FROM change_outbox WHERE outbox_id <= ? LIMIT 10000";
+
+    private final ChangeEventStream stream;
+    private final ConnectionProvider connections;
+    private final int batchSize;
+    private final long pollNanos;
+    private final long gapGraceMillis;
+
+    private volatile Thread thread;
+    private volatile boolean running;
+    private volatile long position;
+    private long gapSince;
+    private long lastPurge;
+
+    /**
+     * Creates a relay on the main database with the default settings.
+     *
+     * @param stream The stream to publish to; it must have been created with an offset store.
+     */
+    public OutboxRelay(ChangeEventStream stream) {
+        this(stream, DatabaseConnector::getConnection, DEFAULT_BATCH_SIZE, DEFAULT_POLL_MILLIS, DEFAULT_GAP_GRACE_MILLIS);
+    }
+
+    /**
+     * Creates a relay.
+     *
+     * @param stream         The stream to publish to.
+     * @param connections    Where connections to the outbox database come from.
+     * @param batchSize      The most rows read per query.
+     * @param pollMillis     How long to sleep when the outbox is idle and no wake-up arrives.
+     * @param gapGraceMillis How long a gap in outbox ids is waited on before it is skipped.
+     */
+    public OutboxRelay(ChangeEventStream stream, ConnectionProvider connections, int batchSize, long pollMillis, long gapGraceMillis) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.stream = stream;
+        this.connections = connections;
+        this.batchSize = batchSize;
+        this.pollNanos = TimeUnit.MILLISECONDS.toNanos(pollMillis);
+        this.gapGraceMillis = gapGraceMillis;
+    }
+
+    /**
+     * Starts relaying from the lowest position saved by the stream's consumers.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        position = stream.getMinimumOutboxId();
+        running = true;
+        lastPurge = System.currentTimeMillis();
+        Thread relayThread = new Thread(this::run, "outbox-relay");
+        relayThread.setDaemon(true);
+        thread = relayThread;
+        relayThread.start();
+    }
+
+    /**
+     * @return The outbox_id of the last row published.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void userChanged(MutationKind kind, int userId, User user) {
+        wake();
+    }
+
+    @Override
+    public void courseChanged(MutationKind kind, int courseId, Course course) {
+        wake();
+    }
+
+    @Override
+    public void gradeChanged(MutationKind kind, int gradeId, Grade grade) {
+        wake();
+    }
+
+    /**
+     * Stops the relay thread.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        Thread relayThread = thread;
+        if (relayThread != null) {
+            relayThread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void wake() {
+        Thread relayThread = thread;
+        if (relayThread != null) {
+            LockSupport.unpark(relayThread);
+        }
+    }
+
+    private void run() {
+        long pause = 10;
+        while (running) {
+            try {
+                int published = relayBatch();
+                purgeIfDue();
+                pause = 10;
+                if (published < batchSize) {
+                    LockSupport.parkNanos(this, published == 0 ? pollNanos : TimeUnit.MILLISECONDS.toNanos(10));
+                }
+            } catch (SQLException e) {
+                System.err.println("Error reading change outbox: " + e.getMessage());
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(pause));
+                pause = Math.min(pause * 2, 5_000);
+            }
+        }
+    }
+
+    /**
+     * Helper method that publishes the next rows in order, stopping at a gap still within its grace period.
+     * @return The number of rows published.
+     */
+    private int relayBatch() throws SQLException {
+        int published = 0;
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_OUTBOX_SQL)) {
+            preparedStatement.setLong(1, position);
+            preparedStatement.setInt(2, batchSize);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next() && running) {
+                    long outboxId = rs.getLong(1);
+                    if (outboxId != position + 1 && position != 0 && !gapExpired()) {
+                        break;
+                    }
+                    gapSince = 0;
+                    Timestamp createdAt = rs.getTimestamp(5);
+                    stream.publishFromOutbox(outboxId, EntityType.valueOf(rs.getString(2)), MutationKind.valueOf(rs.getString(3)),
+                            rs.getInt(4), createdAt == null ? System.currentTimeMillis() : createdAt.getTime());
+                    position = outboxId;
+                    published++;
+                }
+            }
+        }
+        return published;
+    }
+
+    private boolean gapExpired() {
+        long now = System.currentTimeMillis();
+        if (gapSince == 0) {
+            gapSince = now;
+        }
+        return now - gapSince >= gapGraceMillis;
+    }
+
+    /**
+     * Helper method that deletes rows every consumer has processed, at most once per purge interval.
+     */
+    private void purgeIfDue() throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < PURGE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPurge = now;
+        long processed = Math.min(stream.getMinimumOutboxId(), position);
+        if (processed <= 0) {
+            return;
+        }
+        try (Connection connection = connections.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(PURGE_OUTBOX_SQL)) {
+            preparedStatement.setLong(1, processed);
+            preparedStatement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.educagestor360.event;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A DAO write run by {@link ChangeOutbox#write(Connection, EntityType, MutationKind, OutboxWork)}.
+ */
+@FunctionalInterface
+public interface OutboxWork {
+
+    /**
+     * Performs the write on the given connection.
+     *
+     * @param connection The connection, inside the outbox transaction when the outbox is enabled.
+     * @return The ID of the changed entity, or 0 if nothing changed.
+     * @throws SQLException if a database access error occurs.
+     */
+    int run(Connection connection) throws SQLException;
+}
@@ -0,0 +1,49 @@
+package com.educagestor360.export;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A fixed set of reusable direct buffers. Direct buffers are expensive to
+ * allocate and are only released by the garbage collector, so exports borrow
+ * one from the pool instead of allocating their own.
+ */
+public class ByteBufferPool {
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * Creates a pool and allocates all of its buffers.
+     *
+     * @param count      The number of buffers.
+     * @param bufferSize The capacity of each buffer in bytes.
+     */
+    public ByteBufferPool(int count, int bufferSize) {
+        buffers = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            buffers.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, waiting for one to be released if necessary.
+     *
+     * @return The buffer.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = buffers.take();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool.
+     *
+     * @param buffer The buffer obtained from {@link #acquire()}.
+     */
+    public void release(ByteBuffer buffer) {
+        buffers.offer(buffer);
+    }
+}
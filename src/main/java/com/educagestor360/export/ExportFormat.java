@@ -0,0 +1,189 @@
+package com.educagestor360.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * The file formats supported by the export subsystem. Each format writes the
+ * current row of a ResultSet as text, reading every column with getString so
+ * that numeric values are copied in their database representation without
+ * being parsed.
+ */
+public enum ExportFormat {
+
+    /** Comma-separated values with a header line, quoted as in RFC 4180. */
+    CSV("csv") {
+        @Override
+        void writeHeader(StreamingEncoder encoder, ResultSetMetaData metaData) throws IOException, SQLException {
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (i > 1) {
+                    encoder.writeAscii(',');
+                }
+                writeCsvValue(encoder, metaData.getColumnLabel(i));
+            }
+            encoder.writeAscii('\n');
+        }
+
+        @Override
+        void writeRow(StreamingEncoder encoder, ResultSet resultSet, boolean[] numeric, String[] labels, boolean first)
+                throws IOException, SQLException {
+            for (int i = 1; i <= numeric.length; i++) {
+                if (i > 1) {
+                    encoder.writeAscii(',');
+                }
+                String value = resultSet.getString(i);
+                if (value != null) {
+                    writeCsvValue(encoder, value);
+                }
+            }
+            encoder.writeAscii('\n');
+        }
+
+        @Override
+        void writeFooter(StreamingEncoder encoder) {
+        }
+    },
+
+    /** A JSON array with one object per row, keyed by column label. */
+    JSON("json") {
+        @Override
+        void writeHeader(StreamingEncoder encoder, ResultSetMetaData metaData) throws IOException {
+            encoder.writeAscii('[');
+        }
+
+        @Override
+        void writeRow(StreamingEncoder encoder, ResultSet resultSet, boolean[] numeric, String[] labels, boolean first)
+                throws IOException, SQLException {
+            encoder.write(first ? "\n{" : ",\n{");
+            for (int i = 1; i <= numeric.length; i++) {
+                if (i > 1) {
+                    encoder.writeAscii(',');
+                }
+                writeJsonString(encoder, labels[i - 1]);
+                encoder.writeAscii(':');
+                String value = resultSet.getString(i);
+                if (value == null) {
+                    encoder.write("null");
+                } else if (numeric[i - 1]) {
+                    encoder.write(value);
+                } else {
+                    writeJsonString(encoder, value);
+                }
+            }
+            encoder.writeAscii('}');
+        }
+
+        @Override
+        void writeFooter(StreamingEncoder encoder) throws IOException {
+            encoder.write("\n]\n");
+        }
+    };
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return The file extension for this format, without the dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract void writeHeader(StreamingEncoder encoder, ResultSetMetaData metaData) throws IOException, SQLException;
+
+    abstract void writeRow(StreamingEncoder encoder, ResultSet resultSet, boolean[] numeric, String[] labels, boolean first)
+            throws IOException, SQLException;
+
+    abstract void writeFooter(StreamingEncoder encoder) throws IOException;
+
+    /**
+     * Tells whether a JDBC column type is written as a bare JSON number.
+     *
+     * @param sqlType A constant from {@link Types}.
+     * @return true for numeric column types.
+     */
+    static boolean isNumeric(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void writeCsvValue(StreamingEncoder encoder, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            encoder.write(value);
+            return;
+        }
+        encoder.writeAscii('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                encoder.writeAscii('"');
+                encoder.writeAscii('"');
+            } else if (c < 0x80) {
+                encoder.writeAscii(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+                encoder.writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+            } else {
+                encoder.writeCodePoint(c);
+            }
+        }
+        encoder.writeAscii('"');
+    }
+
+    private static void writeJsonString(StreamingEncoder encoder, String value) throws IOException {
+        encoder.writeAscii('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    encoder.write("\\\"");
+                    break;
+                case '\\':
+                    encoder.write("\\\\");
+                    break;
+                case '\n':
+                    encoder.write("\\n");
+                    break;
+                case '\r':
+                    encoder.write("\\r");
+                    break;
+                case '\t':
+                    encoder.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        encoder.write(String.format("\\u%04x", (int) c));
+                    } else if (c < 0x80) {
+                        encoder.writeAscii(c);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+                        encoder.writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+                    } else {
+                        encoder.writeCodePoint(c);
+                    }
+            }
+        }
+        encoder.writeAscii('"');
+    }
+}
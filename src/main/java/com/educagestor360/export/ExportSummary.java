@@ -0,0 +1,60 @@
+package com.educagestor360.export;
+
+/**
+ * Totals for a completed export run.
+ */
+public final class ExportSummary {
+
+    private final int files;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+
+    /**
+     * Creates a summary.
+     *
+     * @param files         The number of files written.
+     * @param rows          The number of rows written across all files.
+     * @param bytes         The size of all files on disk.
+     * @param elapsedMillis The wall-clock duration of the run.
+     */
+    public ExportSummary(int files, long rows, long bytes, long elapsedMillis) {
+        this.files = files;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The number of rows written per second, or 0 for an instantaneous run.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportSummary{" +
+               "files=" + files +
+               ", rows=" + rows +
+               ", bytes=" + bytes +
+               ", elapsedMillis=" + elapsedMillis +
+               '}';
+    }
+}
@@ -0,0 +1,260 @@
+package com.educagestor360.export;
+
+import com.educagestor360.resilience.DatabaseGuard;
+import com.educagestor360.resilience.GuardedCall;
+import com.educagestor360.resilience.TrafficClass;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports course gradebooks and student transcripts to CSV or JSON files.
+ *
+ * Rows are streamed from a forward-only cursor and encoded directly into a
+ * pooled direct buffer that is drained to a {@link FileChannel}, optionally
+ * through gzip. Nothing is materialized per row beyond what the driver hands
+ * out, so memory use is constant whatever the size of the export. Files are
+ * written under a temporary name and moved into place once complete.
+ *
+ * Exporting every course runs in parallel on a fixed number of threads, each
+ * holding at most one database connection at a time.
+ */
+public class GradebookExporter {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final String SELECT_COURSE_IDS_SQL = "SELECT course_id FROM courses ORDER BY course_id";
+    private static final String SELECT_GRADEBOOK_SQL = "SELECT g.grade_id, g.student_id, u.first_name, u.last_name, u.email, g.score, g.comments "
+            + "FROM grades g JOIN users u ON u.user_id = g.student_id WHERE g.course_id = ? ORDER BY g.grade_id";
+    private static final String SELECT_TRANSCRIPTS_SQL = "SELECT g.student_id, u.first_name, u.last_name, u.email, g.course_id, c.course_name, g.score, g.comments "
+            + "FROM grades g JOIN users u ON u.user_id = g.student_id JOIN courses c ON c.course_id = g.course_id "
+            + "ORDER BY g.student_id, g.course_id";
+
+    private final int maxConnections;
+    private final ByteBufferPool bufferPool;
+    private final DatabaseGuard guard;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param maxConnections The maximum number of courses exported concurrently,
+     *                       and therefore of database connections in use.
+     */
+    public GradebookExporter(int maxConnections) {
+        this(maxConnections, null);
+    }
+
+    /**
+     * Creates an exporter whose database work runs as report traffic through a guard,
+     * so exports cannot take the connections interactive requests need.
+     *
+     * @param maxConnections The maximum number of courses exported concurrently.
+     * @param guard          The guard to run each export through, or null.
+     */
+    public GradebookExporter(int maxConnections, DatabaseGuard guard) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+        }
+        this.maxConnections = maxConnections;
+        this.bufferPool = new ByteBufferPool(maxConnections, DEFAULT_BUFFER_SIZE);
+        this.guard = guard;
+    }
+
+    /**
+     * Exports the gradebook of one course.
+     *
+     * @param courseId The ID of the course.
+     * @param target   The file to write.
+     * @param format   The output format.
+     * @param gzip     Whether to gzip the output.
+     * @return The number of rows written.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if the file cannot be written.
+     */
+    public long exportCourse(int courseId, Path target, ExportFormat format, boolean gzip) throws SQLException, IOException {
+        return guarded("GradebookExporter.exportCourse", () -> {
+            try (Connection connection = DatabaseConnector.getConnection()) {
+                return stream(connection, SELECT_GRADEBOOK_SQL, courseId, target, format, gzip);
+            }
+        });
+    }
+
+    /**
+     * Exports the transcript of every student into a single file, ordered by student.
+     *
+     * @param target The file to write.
+     * @param format The output format.
+     * @param gzip   Whether to gzip the output.
+     * @return The number of rows written.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if the file cannot be written.
+     */
+    public long exportTranscripts(Path target, ExportFormat format, boolean gzip) throws SQLException, IOException {
+        return guarded("GradebookExporter.exportTranscripts", () -> {
+            try (Connection connection = DatabaseConnector.getConnection()) {
+                return stream(connection, SELECT_TRANSCRIPTS_SQL, null, target, format, gzip);
+            }
+        });
+    }
+
+    /**
+     * Exports the gradebook of every course into its own file, in parallel.
+     * Files are named {@code course-<id>.<ext>}, with {@code .gz} appended when gzipped.
+     *
+     * @param directory The directory to write into; created if missing.
+     * @param format    The output format.
+     * @param gzip      Whether to gzip the output.
+     * @return The totals for the run.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if a file cannot be written.
+     */
+    public ExportSummary exportAllCourses(Path directory, ExportFormat format, boolean gzip) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        List<Integer> courseIds = new ArrayList<>();
+        try (Connection connection = DatabaseConnector.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_COURSE_IDS_SQL);
+             ResultSet rs = preparedStatement.executeQuery()) {
+            while (rs.next()) {
+                courseIds.add(rs.getInt(1));
+            }
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(maxConnections, r -> {
+            Thread thread = new Thread(r, "gradebook-export-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> rowCounts = new ArrayList<>(courseIds.size());
+            List<Path> files = new ArrayList<>(courseIds.size());
+            for (int courseId : courseIds) {
+                Path target = directory.resolve("course-" + courseId + "." + format.getExtension() + (gzip ? ".gz" : ""));
+                files.add(target);
+                rowCounts.add(executor.submit(() -> exportCourse(courseId, target, format, gzip)));
+            }
+            long rows = 0;
+            long bytes = 0;
+            for (int i = 0; i < rowCounts.size(); i++) {
+                rows += await(rowCounts.get(i));
+                bytes += Files.size(files.get(i));
+            }
+            return new ExportSummary(files.size(), rows, bytes, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Helper method that runs an export as report traffic when a guard is configured.
+     */
+    private long guarded(String operation, GuardedCall<Long, IOException> export) throws SQLException, IOException {
+        if (guard == null) {
+            return export.call();
+        }
+        return guard.call(TrafficClass.REPORT, operation, export);
+    }
+
+    /**
+     * Helper method that runs a query as a streaming cursor and writes its rows to a file.
+     */
+    private long stream(Connection connection, String sql, Integer parameter, Path target, ExportFormat format, boolean gzip)
+            throws SQLException, IOException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Tells MySQL Connector/J to stream rows one at a time instead of buffering the whole result.
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            if (parameter != null) {
+                preparedStatement.setInt(1, parameter);
+            }
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return write(rs, target, format, gzip);
+            }
+        }
+    }
+
+    private long write(ResultSet rs, Path target, ExportFormat format, boolean gzip) throws SQLException, IOException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        boolean[] numeric = new boolean[columnCount];
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            numeric[i] = ExportFormat.isNumeric(metaData.getColumnType(i + 1));
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        ByteBuffer buffer = acquireBuffer();
+        long rows = 0;
+        try (FileChannel fileChannel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             WritableByteChannel out = gzip
+                     ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fileChannel), GZIP_BUFFER_SIZE))
+                     : fileChannel) {
+            StreamingEncoder encoder = new StreamingEncoder(out, buffer);
+            format.writeHeader(encoder, metaData);
+            while (rs.next()) {
+                format.writeRow(encoder, rs, numeric, labels, rows == 0);
+                rows++;
+            }
+            format.writeFooter(encoder);
+            encoder.flush();
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        } finally {
+            bufferPool.release(buffer);
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    private ByteBuffer acquireBuffer() throws IOException {
+        try {
+            return bufferPool.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an export buffer", e);
+        }
+    }
+
+    private static long await(Future<Long> future) throws SQLException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for course exports", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Course export failed", cause);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.educagestor360.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes text as UTF-8 straight into a byte buffer and drains the buffer to a
+ * channel whenever it fills up. No intermediate String or byte[] is created
+ * per value, so the cost of an export is independent of the number of rows.
+ */
+public class StreamingEncoder {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long bytesWritten;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param channel The channel to write to.
+     * @param buffer  The buffer to encode into; must have room for at least 4 bytes.
+     */
+    public StreamingEncoder(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Writes a single ASCII character.
+     *
+     * @param c The character, which must be below 0x80.
+     * @throws IOException if the channel cannot be written.
+     */
+    public void writeAscii(char c) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) c);
+    }
+
+    /**
+     * Writes a string as UTF-8 without any escaping.
+     *
+     * @param text The text to write.
+     * @throws IOException if the channel cannot be written.
+     */
+    public void write(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ensureRemaining(1);
+                buffer.put((byte) c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()) {
+                writeCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+            } else {
+                writeCodePoint(c);
+            }
+        }
+    }
+
+    /**
+     * Writes a single Unicode code point as UTF-8.
+     *
+     * @param codePoint The code point.
+     * @throws IOException if the channel cannot be written.
+     */
+    public void writeCodePoint(int codePoint) throws IOException {
+        ensureRemaining(4);
+        if (codePoint < 0x80) {
+            buffer.put((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | (codePoint >> 6)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xE0 | (codePoint >> 12)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    /**
+     * Drains everything encoded so far to the channel.
+     *
+     * @throws IOException if the channel cannot be written.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return The number of bytes handed to the channel so far.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
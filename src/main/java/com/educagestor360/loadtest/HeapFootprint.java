@@ -0,0 +1,180 @@
+package com.educagestor360.loadtest;
+
+import com.educagestor360.dao.mapper.GradeMapper;
+import com.educagestor360.dao.mapper.UserMapper;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the heap held by mapped users and grades on a synthetic dataset
+ * shaped like a school's: a few hundred common first and last names, mostly
+ * students, and grade comments that are overwhelmingly stock phrases.
+ *
+ * Rows are fed to the real mappers through a ResultSet that returns a fresh
+ * String for every text column, as the driver does. The result is compared
+ * with the same rows kept in the previous layout, a role String per user and
+ * no shared comments or names.
+ *
+ * Usage: {@code HeapFootprint [users] [grades]}. Run with a fixed heap
+ * (for example {@code -Xms2g -Xmx2g}) for stable numbers.
+ */
+public class HeapFootprint {
+
+    private static final String[] COMMENTS = {
+        "Excelente", "Aprobado", "Muy bien", "Bien", "Sobresaliente", "Notable", "Suficiente",
+        "Necesita mejorar", "Reprobado", "Buen trabajo", "Entrega tardia", "Sin comentarios"
+    };
+    private static final String[] ROLES = {"STUDENT", "TEACHER", "ADMIN"};
+
+    /**
+     * A user in the layout used before roles became an enum and names were shared.
+     */
+    private static final class PlainUser {
+        final int userId;
+        final String firstName;
+        final String lastName;
+        final String email;
+        final String password;
+        final String role;
+
+        PlainUser(int userId, String firstName, String lastName, String email, String password, String role) {
+            this.userId = userId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.password = password;
+            this.role = role;
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int gradeCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        long before = usedHeap();
+        List<Object> plain = new ArrayList<>(userCount + gradeCount);
+        fill(userCount, gradeCount, false, plain);
+        long plainBytes = usedHeap() - before;
+        plain.clear();
+        plain = null;
+
+        before = usedHeap();
+        List<Object> compact = new ArrayList<>(userCount + gradeCount);
+        fill(userCount, gradeCount, true, compact);
+        long compactBytes = usedHeap() - before;
+
+        System.out.printf("users=%d grades=%d%n", userCount, gradeCount);
+        System.out.printf("plain   %,d bytes (%.1f bytes/row)%n", plainBytes, (double) plainBytes / (userCount + gradeCount));
+        System.out.printf("compact %,d bytes (%.1f bytes/row)%n", compactBytes, (double) compactBytes / (userCount + gradeCount));
+        System.out.printf("saved   %,d bytes (%.1f%%)%n", plainBytes - compactBytes, 100.0 * (plainBytes - compactBytes) / plainBytes);
+        System.out.printf("comment table hits=%d misses=%d, name table hits=%d misses=%d%n",
+                GradeMapper.getCommentDeduplicator().getHitCount(), GradeMapper.getCommentDeduplicator().getMissCount(),
+                UserMapper.getNameDeduplicator().getHitCount(), UserMapper.getNameDeduplicator().getMissCount());
+        if (compact.size() != userCount + gradeCount) {
+            throw new IllegalStateException("Lost rows");
+        }
+    }
+
+    /**
+     * Helper method that generates the dataset with a fixed seed and maps it either
+     * through the mappers or into the plain layout.
+     */
+    private static void fill(int userCount, int gradeCount, boolean compact, List<Object> into) throws SQLException {
+        Random random = new Random(42);
+        Object[] row = new Object[7];
+        ResultSet rs = rowBackedResultSet(row);
+        for (int i = 1; i <= userCount; i++) {
+            row[0] = i;
+            row[1] = "Nombre" + zipf(random, 400);
+            row[2] = "Apellido" + zipf(random, 1500);
+            row[3] = "user" + i + "@educagestor360.example";
+            row[4] = "pbkdf2$" + Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+            int draw = random.nextInt(100);
+            row[5] = ROLES[draw < 92 ? 0 : draw < 99 ? 1 : 2];
+            row[6] = 0;
+            if (compact) {
+                into.add(UserMapper.INSTANCE.map(rs));
+            } else {
+                into.add(new PlainUser(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6)));
+            }
+        }
+        for (int i = 1; i <= gradeCount; i++) {
+            row[0] = i;
+            row[1] = 1 + random.nextInt(userCount);
+            row[2] = 1 + random.nextInt(2_000);
+            row[3] = Math.round(random.nextDouble() * 1000) / 100.0;
+            int draw = random.nextInt(100);
+            row[4] = draw < 10 ? null : draw < 95 ? COMMENTS[zipf(random, COMMENTS.length) - 1]
+                    : "Revisar el ejercicio " + random.nextInt(1_000_000);
+            row[5] = 0;
+            if (compact) {
+                into.add(GradeMapper.INSTANCE.map(rs));
+            } else {
+                Grade grade = new Grade();
+                grade.setGradeId(rs.getInt(1));
+                grade.setStudentId(rs.getInt(2));
+                grade.setCourseId(rs.getInt(3));
+                grade.setScore(rs.getDouble(4));
+                grade.setComments(rs.getString(5));
+                into.add(grade);
+            }
+        }
+    }
+
+    /**
+     * Helper method that exposes an array as the current row of a ResultSet. Text
+     * columns are returned as new String instances on every call, like a driver decoding a row.
+     */
+    private static ResultSet rowBackedResultSet(Object[] row) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    Object value = row[(Integer) args[0] - 1];
+                    switch (method.getName()) {
+                        case "getInt":
+                            return ((Number) value).intValue();
+                        case "getDouble":
+                            return ((Number) value).doubleValue();
+                        case "getString":
+                            return value == null ? null : new String(((String) value).toCharArray());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Draws a rank between 1 and n with probability proportional to 1 / rank.
+     */
+    private static int zipf(Random random, int n) {
+        double harmonic = Math.log(n) + 0.5772;
+        double target = random.nextDouble() * harmonic;
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / rank;
+            if (sum >= target) {
+                return rank;
+            }
+        }
+        return n;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,41 @@
+package com.educagestor360.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free, bounded set of ids that clients can add to and sample from.
+ * Once full, new ids overwrite random slots, which keeps sampling uniform
+ * enough for load generation without unbounded growth.
+ */
+class IdPool {
+
+    private final AtomicIntegerArray ids;
+    private final AtomicInteger size = new AtomicInteger();
+
+    IdPool(int capacity) {
+        this.ids = new AtomicIntegerArray(capacity);
+    }
+
+    void add(int id, Random random) {
+        int slot = size.getAndIncrement();
+        if (slot >= ids.length()) {
+            size.set(ids.length());
+            slot = random.nextInt(ids.length());
+        }
+        ids.set(slot, id);
+    }
+
+    /**
+     * @return A random id, or 0 if the pool is empty.
+     */
+    int sample(Random random) {
+        int n = Math.min(size.get(), ids.length());
+        return n == 0 ? 0 : ids.get(random.nextInt(n));
+    }
+
+    int size() {
+        return Math.min(size.get(), ids.length());
+    }
+}
@@ -0,0 +1,90 @@
+package com.educagestor360.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One stage of a simulated term: how many clients run concurrently, for how
+ * long, which operations they perform and how long they pause between them.
+ */
+public class LoadPhase {
+
+    private final String name;
+    private final WorkloadMix mix;
+    private final int clients;
+    private final Duration duration;
+    private final Duration meanThinkTime;
+
+    /**
+     * Creates a phase.
+     *
+     * @param name          The name shown in the report.
+     * @param mix           The operations clients draw from.
+     * @param clients       The number of concurrent clients.
+     * @param duration      How long the phase runs.
+     * @param meanThinkTime The mean of the exponentially distributed pause between operations.
+     */
+    public LoadPhase(String name, WorkloadMix mix, int clients, Duration duration, Duration meanThinkTime) {
+        if (clients <= 0) {
+            throw new IllegalArgumentException("clients must be positive");
+        }
+        this.name = name;
+        this.mix = mix;
+        this.clients = clients;
+        this.duration = duration;
+        this.meanThinkTime = meanThinkTime;
+    }
+
+    /**
+     * Builds the four phases of a typical term with the given load.
+     *
+     * @param clients       The number of concurrent clients in each phase.
+     * @param duration      How long each phase runs.
+     * @param meanThinkTime The mean pause between operations.
+     * @return Registration, browsing, grading and term-end phases, in order.
+     */
+    public static List<LoadPhase> term(int clients, Duration duration, Duration meanThinkTime) {
+        List<LoadPhase> phases = new ArrayList<>();
+        phases.add(new LoadPhase("registration", new WorkloadMix()
+                .with(Operation.REGISTER_STUDENT, 6)
+                .with(Operation.LOOKUP_ACCOUNT, 3)
+                .with(Operation.BROWSE_CATALOG, 1), clients, duration, meanThinkTime));
+        phases.add(new LoadPhase("browsing", new WorkloadMix()
+                .with(Operation.BROWSE_CATALOG, 3)
+                .with(Operation.VIEW_COURSE, 5)
+                .with(Operation.LOOKUP_ACCOUNT, 1)
+                .with(Operation.REGISTER_STUDENT, 1), clients, duration, meanThinkTime));
+        phases.add(new LoadPhase("grading", new WorkloadMix()
+                .with(Operation.ENTER_GRADE, 6)
+                .with(Operation.CORRECT_GRADE, 1)
+                .with(Operation.VIEW_GRADEBOOK, 2)
+                .with(Operation.VIEW_TRANSCRIPT, 1), clients, duration, meanThinkTime));
+        phases.add(new LoadPhase("term-end", new WorkloadMix()
+                .with(Operation.VIEW_TRANSCRIPT, 6)
+                .with(Operation.EXPORT_GRADEBOOK, 1)
+                .with(Operation.VIEW_GRADEBOOK, 2)
+                .with(Operation.CORRECT_GRADE, 1), clients, duration, meanThinkTime));
+        return phases;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WorkloadMix getMix() {
+        return mix;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getMeanThinkTime() {
+        return meanThinkTime;
+    }
+}
@@ -0,0 +1,318 @@
+package com.educagestor360.loadtest;
+
+import com.educagestor360.dao.CourseDAO;
+import com.educagestor360.dao.GradeDAO;
+import com.educagestor360.dao.OptimisticRetry;
+import com.educagestor360.dao.UserDAO;
+import com.educagestor360.dao.impl.CourseDAOImpl;
+import com.educagestor360.dao.impl.GradeDAOImpl;
+import com.educagestor360.dao.impl.UserDAOImpl;
+import com.educagestor360.export.ExportFormat;
+import com.educagestor360.export.GradebookExporter;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates a school term against the real DAOs to support capacity planning.
+ *
+ * Each {@link LoadPhase} starts its number of clients on virtual threads, so
+ * thousands of concurrent clients cost little more than the connections they
+ * hold. Every client loops until the phase ends: it draws an operation from the
+ * phase's {@link WorkloadMix}, runs it, records its latency and then pauses for
+ * an exponentially distributed think time. Ids created along the way (students,
+ * courses, grades) feed later operations, so the grading phase works on the
+ * students registered earlier.
+ *
+ * The database is whatever {@link DatabaseConnector} points at; use the
+ * {@code educagestor360.db.*} system properties to aim it at a scratch schema,
+ * never at production data.
+ */
+public class LoadSimulator {
+
+    private static final int ID_POOL_CAPACITY = 1 << 20;
+
+    private final UserDAO userDAO;
+    private final CourseDAO courseDAO;
+    private final GradeDAO gradeDAO;
+    private final GradebookExporter exporter;
+    private final Path exportDirectory;
+    private final String runTag = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private final IdPool students = new IdPool(ID_POOL_CAPACITY);
+    private final IdPool courses = new IdPool(ID_POOL_CAPACITY);
+    private final IdPool grades = new IdPool(ID_POOL_CAPACITY);
+    private final IdPool emails = new IdPool(ID_POOL_CAPACITY);
+
+    /**
+     * Creates a simulator.
+     *
+     * @param userDAO         The user DAO under test.
+     * @param courseDAO       The course DAO under test.
+     * @param gradeDAO        The grade DAO under test.
+     * @param exporter        The exporter used for gradebook exports.
+     * @param exportDirectory Where export files are written; each is deleted after it is timed.
+     */
+    public LoadSimulator(UserDAO userDAO, CourseDAO courseDAO, GradeDAO gradeDAO,
+                         GradebookExporter exporter, Path exportDirectory) {
+        this.userDAO = userDAO;
+        this.courseDAO = courseDAO;
+        this.gradeDAO = gradeDAO;
+        this.exporter = exporter;
+        this.exportDirectory = exportDirectory;
+    }
+
+    /**
+     * Creates the teachers, courses and students the phases start from.
+     *
+     * @param teachers          The number of teachers to create.
+     * @param coursesPerTeacher The number of courses each teacher gets.
+     * @param studentCount      The number of students to create.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void seed(int teachers, int coursesPerTeacher, int studentCount) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().withDayOfMonth(1);
+        for (int t = 0; t < teachers; t++) {
+            User teacher = newUser("TEACHER");
+            userDAO.addUser(teacher);
+            for (int c = 0; c < coursesPerTeacher; c++) {
+                Course course = new Course(0, "Load course " + runTag + "-" + t + "-" + c,
+                        "Course created by the load simulator", teacher.getUserId(), start, start.plusMonths(4));
+                courseDAO.addCourse(course);
+                courses.add(course.getCourseId(), random);
+            }
+        }
+        for (int s = 0; s < studentCount; s++) {
+            User student = newUser("STUDENT");
+            userDAO.addUser(student);
+            students.add(student.getUserId(), random);
+            emails.add((int) emailSequence.get(), random);
+        }
+    }
+
+    /**
+     * Runs the phases one after the other.
+     *
+     * @param phases The phases to run.
+     * @return One report per phase, in order.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public List<PhaseReport> run(List<LoadPhase> phases) throws InterruptedException {
+        List<PhaseReport> reports = new ArrayList<>();
+        for (LoadPhase phase : phases) {
+            reports.add(runPhase(phase));
+        }
+        return reports;
+    }
+
+    /**
+     * Runs one phase to completion.
+     *
+     * @param phase The phase to run.
+     * @return Its report.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public PhaseReport runPhase(LoadPhase phase) throws InterruptedException {
+        PhaseReport report = new PhaseReport(phase.getName(), phase.getClients());
+        DatabaseConnector.getAcquireLatency().reset();
+        long start = System.nanoTime();
+        long deadline = start + phase.getDuration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < phase.getClients(); i++) {
+                clients.execute(() -> runClient(phase, report, deadline));
+            }
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Load phase " + phase.getName() + " interrupted");
+        }
+        report.finish(System.nanoTime() - start, DatabaseConnector.getAcquireLatency());
+        return report;
+    }
+
+    /**
+     * Helper method with the loop of one simulated client.
+     */
+    private void runClient(LoadPhase phase, PhaseReport report, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long meanThinkNanos = phase.getMeanThinkTime().toNanos();
+        // Stagger the first request so clients do not all hit the pool at once.
+        if (!pause(random.nextLong(meanThinkNanos + 1), deadline)) {
+            return;
+        }
+        while (System.nanoTime() < deadline) {
+            Operation operation = phase.getMix().next(random);
+            long begin = System.nanoTime();
+            try {
+                execute(operation, random);
+                report.recordSuccess(operation, System.nanoTime() - begin);
+            } catch (SQLException | IOException | RuntimeException e) {
+                report.recordError(operation);
+            }
+            long think = (long) (-Math.log(1.0 - random.nextDouble()) * meanThinkNanos);
+            if (!pause(think, deadline)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Helper method to sleep for a think time without overrunning the phase.
+     *
+     * @return false if the client should stop.
+     */
+    private boolean pause(long nanos, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (nanos <= 0) {
+            return remaining > 0;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(Math.min(nanos, Math.max(remaining, 0))));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return System.nanoTime() < deadline;
+    }
+
+    /**
+     * Helper method that performs one operation against the DAOs.
+     */
+    private void execute(Operation operation, ThreadLocalRandom random) throws SQLException, IOException {
+        switch (operation) {
+            case REGISTER_STUDENT: {
+                User student = newUser("STUDENT");
+                userDAO.addUser(student);
+                students.add(student.getUserId(), random);
+                emails.add(extractSequence(student.getEmail()), random);
+                break;
+            }
+            case BROWSE_CATALOG:
+                courseDAO.getAllCourses();
+                break;
+            case VIEW_COURSE: {
+                Course course = courseDAO.getCourseById(courses.sample(random));
+                if (course != null && course.getTeacherId() > 0) {
+                    courseDAO.getCoursesByTeacherId(course.getTeacherId());
+                }
+                break;
+            }
+            case LOOKUP_ACCOUNT:
+                userDAO.getUserByEmail(email(emails.sample(random)));
+                break;
+            case ENTER_GRADE: {
+                int studentId = students.sample(random);
+                int courseId = courses.sample(random);
+                if (studentId == 0 || courseId == 0) {
+                    throw new IllegalStateException("No students or courses to grade; seed first");
+                }
+                Grade grade = new Grade(0, studentId, courseId, Math.round(random.nextDouble(40, 100) * 100) / 100.0, null);
+                gradeDAO.addGrade(grade);
+                grades.add(grade.getGradeId(), random);
+                break;
+            }
+            case CORRECT_GRADE:
+                OptimisticRetry.updateGrade(gradeDAO, grades.sample(random), grade -> {
+                    grade.setScore(Math.min(100.0, grade.getScore() + 1.0));
+                    grade.setComments("Corrected");
+                });
+                break;
+            case VIEW_GRADEBOOK:
+                gradeDAO.getGradeBatchByCourseId(courses.sample(random));
+                break;
+            case VIEW_TRANSCRIPT: {
+                Set<Integer> seen = new HashSet<>();
+                for (Grade grade : gradeDAO.getGradesByStudentId(students.sample(random))) {
+                    if (seen.add(grade.getCourseId())) {
+                        courseDAO.getCourseById(grade.getCourseId());
+                    }
+                }
+                break;
+            }
+            case EXPORT_GRADEBOOK: {
+                Path target = Files.createTempFile(exportDirectory, "gradebook-", ".csv");
+                try {
+                    exporter.exportCourse(courses.sample(random), target, ExportFormat.CSV, false);
+                } finally {
+                    Files.deleteIfExists(target);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * Helper method to build a user with a unique, reproducible email.
+     */
+    private User newUser(String role) {
+        long sequence = emailSequence.incrementAndGet();
+        return new User(0, "Load", role.charAt(0) + Long.toString(sequence), email(sequence), "load-test", role);
+    }
+
+    private String email(long sequence) {
+        return "load-" + runTag + "-" + sequence + "@example.edu";
+    }
+
+    private static int extractSequence(String email) {
+        int dash = email.lastIndexOf('-');
+        return Integer.parseInt(email.substring(dash + 1, email.indexOf('@')));
+    }
+
+    /**
+     * Runs a simulated term and prints the report.
+     *
+     * Usage: {@code LoadSimulator [clients] [secondsPerPhase] [meanThinkMillis]}.
+     * Setting the system property {@code educagestor360.loadtest.mix} (for example
+     * {@code BROWSE_CATALOG=5,VIEW_COURSE=3}) runs a single phase with that mix
+     * instead of the default term.
+     *
+     * @param args The optional arguments described above.
+     * @throws Exception if seeding fails or the run is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Duration phaseLength = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        Duration thinkTime = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 250);
+
+        List<LoadPhase> phases;
+        String mix = System.getProperty("educagestor360.loadtest.mix");
+        if (mix != null) {
+            phases = List.of(new LoadPhase("custom", WorkloadMix.parse(mix), clients, phaseLength, thinkTime));
+        } else {
+            phases = LoadPhase.term(clients, phaseLength, thinkTime);
+        }
+
+        Path exportDirectory = Files.createTempDirectory("educagestor-load");
+        // The exporter's buffer pool also caps concurrent exports at four.
+        GradebookExporter exporter = new GradebookExporter(4);
+        LoadSimulator simulator = new LoadSimulator(new UserDAOImpl(), new CourseDAOImpl(), new GradeDAOImpl(),
+                exporter, exportDirectory);
+        try {
+            simulator.seed(20, 5, 200);
+            for (PhaseReport report : simulator.run(phases)) {
+                report.print(System.out);
+            }
+        } finally {
+            Files.deleteIfExists(exportDirectory);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.educagestor360.loadtest;
+
+/**
+ * The user-facing operations a simulated client can perform during a term.
+ */
+public enum Operation {
+    /** A new student signs up (UserDAO.addUser). */
+    REGISTER_STUDENT,
+    /** A visitor lists the whole course catalog (CourseDAO.getAllCourses). */
+    BROWSE_CATALOG,
+    /** A visitor opens one course and its teacher's other courses. */
+    VIEW_COURSE,
+    /** A student looks up their account by email (UserDAO.getUserByEmail). */
+    LOOKUP_ACCOUNT,
+    /** A teacher records a new grade (GradeDAO.addGrade). */
+    ENTER_GRADE,
+    /** A teacher corrects an existing grade (GradeDAO.updateGrade, retried on version conflicts). */
+    CORRECT_GRADE,
+    /** A teacher reviews a course gradebook (GradeDAO.getGradeBatchByCourseId). */
+    VIEW_GRADEBOOK,
+    /** A student reads their transcript: grades plus the course of each. */
+    VIEW_TRANSCRIPT,
+    /** A teacher exports a course gradebook to CSV. */
+    EXPORT_GRADEBOOK
+}
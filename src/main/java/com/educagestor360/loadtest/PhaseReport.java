@@ -0,0 +1,126 @@
+package com.educagestor360.loadtest;
+
+import com.educagestor360.util.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one {@link LoadPhase}: latency per operation, error counts and
+ * the time spent waiting for database connections.
+ */
+public class PhaseReport {
+
+    private final String phaseName;
+    private final int clients;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private LatencyHistogram connectionWait = new LatencyHistogram();
+    private long elapsedNanos;
+
+    PhaseReport(String phaseName, int clients) {
+        this.phaseName = phaseName;
+        this.clients = clients;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void recordSuccess(Operation operation, long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    void finish(long elapsedNanos, LatencyHistogram acquireLatency) {
+        this.elapsedNanos = elapsedNanos;
+        // The connector histogram is reset by the next phase, so keep a copy.
+        this.connectionWait = acquireLatency.copy();
+    }
+
+    public String getPhaseName() {
+        return phaseName;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+
+    /**
+     * @param operation The operation.
+     * @return The latency histogram of its successful executions.
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * @param operation The operation.
+     * @return The number of executions that threw.
+     */
+    public long getErrors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    /**
+     * @return The histogram of time spent acquiring connections during the phase.
+     */
+    public LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    /**
+     * @return Successful operations per second across all operations.
+     */
+    public double getThroughput() {
+        long total = 0;
+        for (LatencyHistogram histogram : latencies.values()) {
+            total += histogram.getCount();
+        }
+        return elapsedNanos == 0 ? 0.0 : total * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Prints the report as a table, one line per operation that ran.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.printf("== %s: %d clients, %.1f s, %.1f ops/s%n", phaseName, clients, getElapsedSeconds(), getThroughput());
+        out.printf("%-18s %9s %9s %7s %9s %9s %9s %9s%n",
+                "operation", "count", "ops/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long errorCount = getErrors(operation);
+            if (histogram.getCount() == 0 && errorCount == 0) {
+                continue;
+            }
+            printLine(out, operation.name(), histogram, errorCount);
+        }
+        printLine(out, "connection wait", connectionWait, 0);
+    }
+
+    /**
+     * Helper method to print one row of the report.
+     */
+    private void printLine(PrintStream out, String label, LatencyHistogram histogram, long errorCount) {
+        double seconds = Math.max(getElapsedSeconds(), 1e-9);
+        out.printf("%-18s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n",
+                label, histogram.getCount(), histogram.getCount() / seconds, errorCount,
+                millis(histogram.getPercentile(50)), millis(histogram.getPercentile(95)),
+                millis(histogram.getPercentile(99)), millis(histogram.getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
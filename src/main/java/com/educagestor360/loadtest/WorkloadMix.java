@@ -0,0 +1,88 @@
+package com.educagestor360.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A weighted choice of {@link Operation}s. Each simulated client draws its
+ * next operation from the mix of the phase it is running in.
+ */
+public class WorkloadMix {
+
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private Operation[] table = new Operation[0];
+
+    /**
+     * Sets the relative weight of an operation.
+     *
+     * @param operation The operation.
+     * @param weight    Its relative weight; 0 removes it from the mix.
+     * @return This mix, for chaining.
+     */
+    public WorkloadMix with(Operation operation, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+        if (weight == 0) {
+            weights.remove(operation);
+        } else {
+            weights.put(operation, weight);
+        }
+        int total = 0;
+        for (int w : weights.values()) {
+            total += w;
+        }
+        Operation[] newTable = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            for (int j = 0; j < entry.getValue(); j++) {
+                newTable[i++] = entry.getKey();
+            }
+        }
+        table = newTable;
+        return this;
+    }
+
+    /**
+     * Draws the next operation.
+     *
+     * @param random The client's random source.
+     * @return An operation chosen in proportion to the weights.
+     */
+    public Operation next(Random random) {
+        if (table.length == 0) {
+            throw new IllegalStateException("the workload mix is empty");
+        }
+        return table[random.nextInt(table.length)];
+    }
+
+    /**
+     * Parses a mix written as {@code OPERATION=weight} pairs separated by commas,
+     * for example {@code "BROWSE_CATALOG=5,VIEW_COURSE=3,REGISTER_STUDENT=1"}.
+     *
+     * @param spec The mix specification.
+     * @return The parsed mix.
+     */
+    public static WorkloadMix parse(String spec) {
+        WorkloadMix mix = new WorkloadMix();
+        for (String part : spec.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int eq = trimmed.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected OPERATION=weight but got: " + trimmed);
+            }
+            mix.with(Operation.valueOf(trimmed.substring(0, eq).trim()),
+                    Integer.parseInt(trimmed.substring(eq + 1).trim()));
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
@@ -0,0 +1,331 @@
+package com.educagestor360.metrics;
+
+import com.educagestor360.cache.NearCache;
+import com.educagestor360.util.ConnectionPool;
+import com.educagestor360.util.LatencyHistogram;
+import com.educagestor360.util.SlowQueryLog;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small embedded HTTP endpoint, built on the JDK's {@code com.sun.net.httpserver},
+ * that exposes pool, DAO, cache and slow-query metrics.
+ *
+ * <ul>
+ *   <li>{@code GET /metrics} returns the Prometheus text exposition format.</li>
+ *   <li>{@code GET /metrics.json} returns the same data, plus slow query samples, as JSON.</li>
+ * </ul>
+ *
+ * Requests are served on a dedicated pool of two daemon threads, so a scrape
+ * never takes a thread or a connection from DAO work. Rendering only reads
+ * atomic counters.
+ *
+ * The endpoint has no authentication, and the slow query samples contain SQL,
+ * so it listens on the loopback address unless given another one; bind it to
+ * an address the scraper can reach only on a trusted network.
+ */
+public class MetricsHttpServer implements AutoCloseable {
+
+    private static final int THREADS = 2;
+    // Fixed bucket bounds in seconds, so the pool wait histogram is stable across scrapes.
+    private static final double[] WAIT_BUCKETS_SECONDS = {0.0005, 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates and starts the endpoint on the loopback address.
+     *
+     * @param port The port to listen on; 0 picks a free one.
+     * @throws IOException if the port cannot be bound.
+     */
+    public MetricsHttpServer(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Creates and starts the endpoint.
+     *
+     * @param bindAddress The address to listen on; null listens on every interface.
+     * @param port        The port to listen on; 0 picks a free one.
+     * @throws IOException if the port cannot be bound.
+     */
+    public MetricsHttpServer(InetAddress bindAddress, int port) throws IOException {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread thread = new Thread(r, "metrics-http-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        server.createContext("/metrics", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/metrics")) {
+                respond(exchange, "text/plain; version=0.0.4; charset=utf-8", renderPrometheus());
+            } else if (path.equals("/metrics.json")) {
+                respond(exchange, "application/json; charset=utf-8", renderJson());
+            } else {
+                respond(exchange, 404, "text/plain; charset=utf-8", "Not found\n");
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return The port the endpoint listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the endpoint, letting in-flight requests finish for up to a second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format.
+     *
+     * @return The exposition text.
+     */
+    public static String renderPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "educagestor_pool_connections", "gauge", "Connections by state.");
+        for (ConnectionPool pool : MetricsRegistry.getPools()) {
+            sample(out, "educagestor_pool_connections", "pool", pool.getName(), "state", "active", pool.getActiveCount());
+            sample(out, "educagestor_pool_connections", "pool", pool.getName(), "state", "idle", pool.getIdleCount());
+            sample(out, "educagestor_pool_connections", "pool", pool.getName(), "state", "max", pool.getMaxSize());
+        }
+        header(out, "educagestor_pool_waiting_threads", "gauge", "Threads waiting for a connection.");
+        for (ConnectionPool pool : MetricsRegistry.getPools()) {
+            sample(out, "educagestor_pool_waiting_threads", "pool", pool.getName(), null, null, pool.getWaitingCount());
+        }
+        header(out, "educagestor_pool_acquire_timeouts_total", "counter", "Connection requests that timed out.");
+        for (ConnectionPool pool : MetricsRegistry.getPools()) {
+            sample(out, "educagestor_pool_acquire_timeouts_total", "pool", pool.getName(), null, null, pool.getTimeoutCount());
+        }
+        header(out, "educagestor_pool_wait_seconds", "histogram", "Time spent waiting for a connection.");
+        for (ConnectionPool pool : MetricsRegistry.getPools()) {
+            LatencyHistogram wait = pool.getWaitTime();
+            String labels = "pool=\"" + escapeLabel(pool.getName()) + "\"";
+            for (double bound : WAIT_BUCKETS_SECONDS) {
+                out.append("educagestor_pool_wait_seconds_bucket{").append(labels).append(",le=\"").append(format(bound)).append("\"} ")
+                        .append(wait.getCountAtOrBelow((long) (bound * 1e9))).append('\n');
+            }
+            out.append("educagestor_pool_wait_seconds_bucket{").append(labels).append(",le=\"+Inf\"} ").append(wait.getCount()).append('\n');
+            out.append("educagestor_pool_wait_seconds_sum{").append(labels).append("} ").append(format(wait.getSum() / 1e9)).append('\n');
+            out.append("educagestor_pool_wait_seconds_count{").append(labels).append("} ").append(wait.getCount()).append('\n');
+        }
+
+        header(out, "educagestor_dao_latency_seconds", "summary", "Latency of DAO methods.");
+        for (Map.Entry<String, LatencyHistogram> entry : MetricsRegistry.getDaoLatencies().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            String labels = "method=\"" + escapeLabel(entry.getKey()) + "\"";
+            for (double quantile : QUANTILES) {
+                out.append("educagestor_dao_latency_seconds{").append(labels).append(",quantile=\"").append(format(quantile)).append("\"} ")
+                        .append(format(histogram.getPercentile(quantile * 100) / 1e9)).append('\n');
+            }
+            out.append("educagestor_dao_latency_seconds_sum{").append(labels).append("} ").append(format(histogram.getSum() / 1e9)).append('\n');
+            out.append("educagestor_dao_latency_seconds_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+        }
+        header(out, "educagestor_dao_errors_total", "counter", "DAO calls that threw.");
+        for (String method : MetricsRegistry.getDaoLatencies().keySet()) {
+            sample(out, "educagestor_dao_errors_total", "method", method, null, null, MetricsRegistry.getDaoErrors(method));
+        }
+
+        header(out, "educagestor_cache_requests_total", "counter", "Cache lookups by result.");
+        for (NearCache<?> cache : MetricsRegistry.getCaches()) {
+            sample(out, "educagestor_cache_requests_total", "cache", cache.getName(), "result", "hit", cache.getHitCount());
+            sample(out, "educagestor_cache_requests_total", "cache", cache.getName(), "result", "miss", cache.getMissCount());
+        }
+        header(out, "educagestor_cache_hit_ratio", "gauge", "Fraction of lookups served from the cache.");
+        for (NearCache<?> cache : MetricsRegistry.getCaches()) {
+            sample(out, "educagestor_cache_hit_ratio", "cache", cache.getName(), null, null, cache.getHitRatio());
+        }
+        header(out, "educagestor_cache_entries", "gauge", "Entries currently cached.");
+        for (NearCache<?> cache : MetricsRegistry.getCaches()) {
+            sample(out, "educagestor_cache_entries", "cache", cache.getName(), null, null, cache.size());
+        }
+
+        header(out, "educagestor_slow_queries_total", "counter", "Statements slower than the slow query threshold.");
+        for (ConnectionPool pool : MetricsRegistry.getPools()) {
+            sample(out, "educagestor_slow_queries_total", "pool", pool.getName(), null, null, pool.getSlowQueryLog().getSlowCount());
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders every metric, and the slow query samples, as a JSON document.
+     *
+     * @return The JSON text.
+     */
+    public static String renderJson() {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("{\"pools\":[");
+        boolean first = true;
+        for (ConnectionPool pool : MetricsRegistry.getPools()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append("{\"name\":").append(quote(pool.getName()))
+                    .append(",\"active\":").append(pool.getActiveCount())
+                    .append(",\"idle\":").append(pool.getIdleCount())
+                    .append(",\"waiting\":").append(pool.getWaitingCount())
+                    .append(",\"max\":").append(pool.getMaxSize())
+                    .append(",\"acquireTimeouts\":").append(pool.getTimeoutCount())
+                    .append(",\"waitMillis\":");
+            appendLatency(out, pool.getWaitTime());
+            SlowQueryLog slowQueries = pool.getSlowQueryLog();
+            out.append(",\"slowQueryThresholdMillis\":").append(slowQueries.getThresholdMillis())
+                    .append(",\"slowQueryCount\":").append(slowQueries.getSlowCount())
+                    .append(",\"slowQueries\":[");
+            boolean firstSample = true;
+            for (SlowQueryLog.Sample sample : slowQueries.getSamples()) {
+                if (!firstSample) {
+                    out.append(',');
+                }
+                firstSample = false;
+                out.append("{\"sql\":").append(quote(sample.getSql()))
+                        .append(",\"durationMillis\":").append(sample.getDurationMillis())
+                        .append(",\"timestamp\":").append(sample.getTimestamp()).append('}');
+            }
+            out.append("]}");
+        }
+        out.append("],\"dao\":{");
+        first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : MetricsRegistry.getDaoLatencies().entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append(quote(entry.getKey())).append(":{\"errors\":").append(MetricsRegistry.getDaoErrors(entry.getKey()))
+                    .append(",\"latencyMillis\":");
+            appendLatency(out, entry.getValue());
+            out.append('}');
+        }
+        out.append("},\"caches\":[");
+        first = true;
+        for (NearCache<?> cache : MetricsRegistry.getCaches()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append("{\"name\":").append(quote(cache.getName()))
+                    .append(",\"entries\":").append(cache.size())
+                    .append(",\"hits\":").append(cache.getHitCount())
+                    .append(",\"misses\":").append(cache.getMissCount())
+                    .append(",\"hitRatio\":").append(format(cache.getHitRatio())).append('}');
+        }
+        out.append("]}");
+        return out.toString();
+    }
+
+    /**
+     * Helper method that writes count, mean and percentiles of a histogram in milliseconds.
+     */
+    private static void appendLatency(StringBuilder out, LatencyHistogram histogram) {
+        out.append("{\"count\":").append(histogram.getCount())
+                .append(",\"mean\":").append(format(histogram.getMean() / 1e6))
+                .append(",\"p50\":").append(format(histogram.getPercentile(50) / 1e6))
+                .append(",\"p95\":").append(format(histogram.getPercentile(95) / 1e6))
+                .append(",\"p99\":").append(format(histogram.getPercentile(99) / 1e6))
+                .append(",\"max\":").append(format(histogram.getMax() / 1e6)).append('}');
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label1, String value1,
+                               String label2, String value2, double value) {
+        out.append(name).append('{').append(label1).append("=\"").append(escapeLabel(value1)).append('"');
+        if (label2 != null) {
+            out.append(',').append(label2).append("=\"").append(escapeLabel(value2)).append('"');
+        }
+        out.append("} ").append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "text/plain; charset=utf-8", "Method not allowed\n");
+            return;
+        }
+        respond(exchange, 200, contentType, body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            if (!head) {
+                responseBody.write(bytes);
+            }
+        }
+    }
+}
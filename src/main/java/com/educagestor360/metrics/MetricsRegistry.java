@@ -0,0 +1,104 @@
+package com.educagestor360.metrics;
+
+import com.educagestor360.cache.NearCache;
+import com.educagestor360.util.ConnectionPool;
+import com.educagestor360.util.DatabaseConnector;
+import com.educagestor360.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of the metrics the operational endpoint exposes:
+ * latency per DAO method, the caches whose hit ratios are reported and the
+ * connection pools besides the one installed in {@link DatabaseConnector}.
+ */
+public final class MetricsRegistry {
+
+    private static final Map<String, LatencyHistogram> DAO_LATENCIES = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongAdder> DAO_ERRORS = new ConcurrentHashMap<>();
+    private static final List<NearCache<?>> CACHES = new CopyOnWriteArrayList<>();
+    private static final List<ConnectionPool> POOLS = new CopyOnWriteArrayList<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Returns the latency histogram of a DAO method, creating it on first use.
+     *
+     * @param method The method name, such as {@code UserDAO.getUserById}.
+     * @return The histogram to record into.
+     */
+    public static LatencyHistogram daoLatency(String method) {
+        return DAO_LATENCIES.computeIfAbsent(method, m -> new LatencyHistogram());
+    }
+
+    /**
+     * Counts a DAO call that threw.
+     *
+     * @param method The method name.
+     */
+    public static void daoError(String method) {
+        DAO_ERRORS.computeIfAbsent(method, m -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return Latency histograms by DAO method name, sorted by name.
+     */
+    public static Map<String, LatencyHistogram> getDaoLatencies() {
+        return Collections.unmodifiableMap(DAO_LATENCIES);
+    }
+
+    /**
+     * @param method The method name.
+     * @return The number of calls to the method that threw.
+     */
+    public static long getDaoErrors(String method) {
+        LongAdder errors = DAO_ERRORS.get(method);
+        return errors == null ? 0 : errors.sum();
+    }
+
+    /**
+     * Adds a cache to the reported ones.
+     *
+     * @param cache The cache.
+     */
+    public static void registerCache(NearCache<?> cache) {
+        CACHES.add(cache);
+    }
+
+    /**
+     * @return The registered caches.
+     */
+    public static List<NearCache<?>> getCaches() {
+        return Collections.unmodifiableList(CACHES);
+    }
+
+    /**
+     * Adds a connection pool to the reported ones. The pool installed in
+     * {@link DatabaseConnector} is always reported and need not be registered.
+     *
+     * @param pool The pool.
+     */
+    public static void registerPool(ConnectionPool pool) {
+        POOLS.add(pool);
+    }
+
+    /**
+     * @return The registered pools followed by the installed one, without duplicates.
+     */
+    public static List<ConnectionPool> getPools() {
+        List<ConnectionPool> pools = new ArrayList<>(POOLS);
+        ConnectionPool installed = DatabaseConnector.getPool();
+        if (installed != null && !pools.contains(installed)) {
+            pools.add(installed);
+        }
+        return pools;
+    }
+}
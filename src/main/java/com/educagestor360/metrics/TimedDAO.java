@@ -0,0 +1,55 @@
+package com.educagestor360.metrics;
+
+import com.educagestor360.util.LatencyHistogram;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps any DAO interface so every call is timed into {@link MetricsRegistry},
+ * without touching the implementation.
+ */
+public final class TimedDAO {
+
+    private TimedDAO() {
+    }
+
+    /**
+     * Wraps a DAO.
+     *
+     * @param type     The DAO interface, such as {@code UserDAO.class}.
+     * @param delegate The implementation to time.
+     * @param <T>      The DAO interface type.
+     * @return A proxy implementing {@code type} that records the latency of each method.
+     */
+    public static <T> T wrap(Class<T> type, T delegate) {
+        Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return p == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    default:
+                        return "Timed" + delegate;
+                }
+            }
+            LatencyHistogram histogram = histograms.computeIfAbsent(method,
+                    m -> MetricsRegistry.daoLatency(type.getSimpleName() + "." + m.getName()));
+            long start = System.nanoTime();
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                MetricsRegistry.daoError(type.getSimpleName() + "." + method.getName());
+                throw e.getCause();
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        });
+        return type.cast(proxy);
+    }
+}
@@ -13,6 +13,7 @@ public class Course {
     private int teacherId; // Foreign key to User (Teacher)
     private LocalDate startDate;
     private LocalDate endDate;
+    private int version; // Bumped by every update, for optimistic locking
 
     /**
      * Default constructor.
@@ -39,6 +40,16 @@ public class Course {
         this.endDate = endDate;
     }
 
+    /**
+     * Copy constructor, version included.
+     *
+     * @param course The Course to copy.
+     */
+    public Course(Course course) {
+        this(course.courseId, course.courseName, course.description, course.teacherId, course.startDate, course.endDate);
+        this.version = course.version;
+    }
+
     // Getters and Setters
 
     public int getCourseId() {
@@ -89,6 +100,17 @@ public class Course {
         this.endDate = endDate;
     }
 
+    /**
+     * @return The version of the row this object was read from, or last written as.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Course{" +
@@ -98,6 +120,7 @@ public class Course {
                ", teacherId=" + teacherId +
                ", startDate=" + startDate +
                ", endDate=" + endDate +
+               ", version=" + version +
                '}';
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ public class Grade {
     private int courseId;  // Foreign key to Course
     private double score;
     private String comments;
+    private int version; // Bumped by every update, for optimistic locking
 
     /**
      * Default constructor.
@@ -35,6 +36,16 @@ public class Grade {
         this.comments = comments;
     }
 
+    /**
+     * Copy constructor, version included.
+     *
+     * @param grade The Grade to copy.
+     */
+    public Grade(Grade grade) {
+        this(grade.gradeId, grade.studentId, grade.courseId, grade.score, grade.comments);
+        this.version = grade.version;
+    }
+
     // Getters and Setters
 
     public int getGradeId() {
@@ -77,6 +88,17 @@ public class Grade {
         this.comments = comments;
     }
 
+    /**
+     * @return The version of the row this object was read from, or last written as.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Grade{" +
@@ -85,6 +107,7 @@ public class Grade {
                ", courseId=" + courseId +
                ", score=" + score +
                ", comments='" + comments + '\'' +
+               ", version=" + version +
                '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.educagestor360.model;
+
+import com.educagestor360.util.IntObjectMap;
+
+import java.util.Arrays;
+
+/**
+ * A column-oriented set of grades: one primitive array per field instead of
+ * one Grade object per row. Intended for large queries whose callers only
+ * need ids and scores; comments are not included.
+ */
+public class GradeBatch {
+
+    private int[] gradeIds;
+    private int[] studentIds;
+    private int[] courseIds;
+    private double[] scores;
+    private int size;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param initialCapacity The number of rows to allocate room for.
+     */
+    public GradeBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        gradeIds = new int[capacity];
+        studentIds = new int[capacity];
+        courseIds = new int[capacity];
+        scores = new double[capacity];
+    }
+
+    /**
+     * Appends a row, growing the arrays if needed.
+     *
+     * @param gradeId   The ID of the grade.
+     * @param studentId The ID of the student.
+     * @param courseId  The ID of the course.
+     * @param score     The numerical score.
+     */
+    public void add(int gradeId, int studentId, int courseId, double score) {
+        if (size == gradeIds.length) {
+            int capacity = size * 2;
+            gradeIds = Arrays.copyOf(gradeIds, capacity);
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            courseIds = Arrays.copyOf(courseIds, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+        gradeIds[size] = gradeId;
+        studentIds[size] = studentId;
+        courseIds[size] = courseId;
+        scores[size] = score;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getGradeId(int row) {
+        return gradeIds[checkRow(row)];
+    }
+
+    public int getStudentId(int row) {
+        return studentIds[checkRow(row)];
+    }
+
+    public int getCourseId(int row) {
+        return courseIds[checkRow(row)];
+    }
+
+    public double getScore(int row) {
+        return scores[checkRow(row)];
+    }
+
+    /**
+     * @return The average score, or 0 for an empty batch.
+     */
+    public double averageScore() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += scores[i];
+        }
+        return size == 0 ? 0.0 : sum / size;
+    }
+
+    /**
+     * Splits the batch into one batch per student.
+     *
+     * @return The batches keyed by student ID.
+     */
+    public IntObjectMap<GradeBatch> groupByStudent() {
+        return groupBy(studentIds);
+    }
+
+    /**
+     * Splits the batch into one batch per course.
+     *
+     * @return The batches keyed by course ID.
+     */
+    public IntObjectMap<GradeBatch> groupByCourse() {
+        return groupBy(courseIds);
+    }
+
+    /**
+     * Helper method that counts the rows per key first so every group is allocated at its exact size.
+     */
+    private IntObjectMap<GradeBatch> groupBy(int[] keys) {
+        IntObjectMap<int[]> counts = new IntObjectMap<>(16);
+        for (int i = 0; i < size; i++) {
+            int[] count = counts.get(keys[i]);
+            if (count == null) {
+                counts.put(keys[i], new int[] {1});
+            } else {
+                count[0]++;
+            }
+        }
+        IntObjectMap<GradeBatch> groups = new IntObjectMap<>(counts.size());
+        for (int i = 0; i < size; i++) {
+            GradeBatch group = groups.get(keys[i]);
+            if (group == null) {
+                group = new GradeBatch(counts.get(keys[i])[0]);
+                groups.put(keys[i], group);
+            }
+            group.add(gradeIds[i], studentIds[i], courseIds[i], scores[i]);
+        }
+        return groups;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "GradeBatch{" +
+               "size=" + size +
+               '}';
+    }
+}
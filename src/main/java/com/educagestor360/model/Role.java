@@ -0,0 +1,85 @@
+package com.educagestor360.model;
+
+import java.util.Locale;
+
+/**
+ * The role of a {@link User}. The storage code is the value of the matching
+ * member of the {@code users.role} ENUM column, which MySQL stores in one byte;
+ * in memory every user shares the same three constants instead of holding its
+ * own copy of the role name.
+ */
+public enum Role {
+    STUDENT(1),
+    TEACHER(2),
+    ADMIN(3);
+
+    private static final Role[] BY_CODE = {null, STUDENT, TEACHER, ADMIN};
+
+    private final byte code;
+
+    Role(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * @return The compact storage code, the 1-based index in the {@code users.role} ENUM.
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the role with a storage code.
+     *
+     * @param code The storage code.
+     * @return The role.
+     * @throws IllegalArgumentException if no role has that code.
+     */
+    public static Role fromCode(int code) {
+        if (code <= 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown role code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Returns the role with a name, ignoring case and surrounding blanks.
+     *
+     * @param name The role name, possibly null.
+     * @return The role, or null if the name is null.
+     * @throws IllegalArgumentException if no role has that name.
+     */
+    public static Role fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name.trim().toUpperCase(Locale.ROOT)) {
+            case "STUDENT":
+                return STUDENT;
+            case "TEACHER":
+                return TEACHER;
+            case "ADMIN":
+                return ADMIN;
+            default:
+                throw new IllegalArgumentException("Unknown role: " + name);
+        }
+    }
+
+    /**
+     * Returns the shared constant spelling of a role name read from the database,
+     * so that lightweight views keeping the role as text do not each hold a copy.
+     *
+     * @param name The role name, possibly null.
+     * @return The name of the matching role, or the given name if it is not a known role.
+     */
+    public static String canonicalName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return fromName(name).name();
+        } catch (IllegalArgumentException e) {
+            return name;
+        }
+    }
+}
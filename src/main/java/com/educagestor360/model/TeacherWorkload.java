@@ -0,0 +1,81 @@
+package com.educagestor360.model;
+
+/**
+ * Read-only summary of a teacher's load: the courses they teach and the
+ * students and grades in them.
+ */
+public class TeacherWorkload {
+
+    private final int teacherId;
+    private final String firstName;
+    private final String lastName;
+    private final int courseCount;
+    private final int studentCount;
+    private final int gradeCount;
+    private final double averageScore;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param teacherId    The ID of the teacher.
+     * @param firstName    The first name of the teacher.
+     * @param lastName     The last name of the teacher.
+     * @param courseCount  The number of courses taught.
+     * @param studentCount The number of distinct students graded across those courses.
+     * @param gradeCount   The number of grades across those courses.
+     * @param averageScore The average score across those courses, 0 if none is scored.
+     */
+    public TeacherWorkload(int teacherId, String firstName, String lastName, int courseCount, int studentCount,
+                           int gradeCount, double averageScore) {
+        this.teacherId = teacherId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.courseCount = courseCount;
+        this.studentCount = studentCount;
+        this.gradeCount = gradeCount;
+        this.averageScore = averageScore;
+    }
+
+    // Getters
+
+    public int getTeacherId() {
+        return teacherId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getGradeCount() {
+        return gradeCount;
+    }
+
+    public double getAverageScore() {
+        return averageScore;
+    }
+
+    @Override
+    public String toString() {
+        return "TeacherWorkload{" +
+               "teacherId=" + teacherId +
+               ", firstName='" + firstName + '\'' +
+               ", lastName='" + lastName + '\'' +
+               ", courseCount=" + courseCount +
+               ", studentCount=" + studentCount +
+               ", gradeCount=" + gradeCount +
+               ", averageScore=" + averageScore +
+               '}';
+    }
+}
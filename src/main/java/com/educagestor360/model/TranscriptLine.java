@@ -0,0 +1,99 @@
+package com.educagestor360.model;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only row of a student transcript: one course the student has grades in,
+ * with its teacher and the student's grades in it aggregated.
+ */
+public class TranscriptLine {
+
+    private final int courseId;
+    private final String courseName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final int teacherId;
+    private final String teacherFirstName;
+    private final String teacherLastName;
+    private final int gradeCount;
+    private final double averageScore;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param courseId         The ID of the course.
+     * @param courseName       The name of the course.
+     * @param startDate        The start date of the course.
+     * @param endDate          The end date of the course.
+     * @param teacherId        The ID of the teacher, 0 if none.
+     * @param teacherFirstName The first name of the teacher, null if none.
+     * @param teacherLastName  The last name of the teacher, null if none.
+     * @param gradeCount       The number of scored grades the student has in the course.
+     * @param averageScore     The student's average score in the course, 0 if none is scored.
+     */
+    public TranscriptLine(int courseId, String courseName, LocalDate startDate, LocalDate endDate, int teacherId,
+                          String teacherFirstName, String teacherLastName, int gradeCount, double averageScore) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.teacherId = teacherId;
+        this.teacherFirstName = teacherFirstName;
+        this.teacherLastName = teacherLastName;
+        this.gradeCount = gradeCount;
+        this.averageScore = averageScore;
+    }
+
+    // Getters
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public int getTeacherId() {
+        return teacherId;
+    }
+
+    public String getTeacherFirstName() {
+        return teacherFirstName;
+    }
+
+    public String getTeacherLastName() {
+        return teacherLastName;
+    }
+
+    public int getGradeCount() {
+        return gradeCount;
+    }
+
+    public double getAverageScore() {
+        return averageScore;
+    }
+
+    @Override
+    public String toString() {
+        return "TranscriptLine{" +
+               "courseId=" + courseId +
+               ", courseName='" + courseName + '\'' +
+               ", startDate=" + startDate +
+               ", endDate=" + endDate +
+               ", teacherId=" + teacherId +
+               ", teacherFirstName='" + teacherFirstName + '\'' +
+               ", teacherLastName='" + teacherLastName + '\'' +
+               ", gradeCount=" + gradeCount +
+               ", averageScore=" + averageScore +
+               '}';
+    }
+}
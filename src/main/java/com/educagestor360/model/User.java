@@ -11,7 +11,8 @@ public class User {
     private String lastName;
     private String email;
     private String password; // In a real application, this should be securely hashed.
-    private String role; // e.g., "STUDENT", "TEACHER", "ADMIN"
+    private Role role;
+    private int version; // Bumped by every update, for optimistic locking
 
     /**
      * Default constructor.
@@ -27,7 +28,8 @@ public class User {
      * @param lastName  The last name of the user.
      * @param email     The email address of the user.
      * @param password  The password for the user account.
-     * @param role      The role assigned to the user.
+     * @param role      The role assigned to the user: "STUDENT", "TEACHER" or "ADMIN".
+     * @throws IllegalArgumentException if the role is not a known {@link Role}.
      */
     public User(int userId, String firstName, String lastName, String email, String password, String role) {
         this.userId = userId;
@@ -35,7 +37,22 @@ public class User {
         this.lastName = lastName;
         this.email = email;
         this.password = password;
-        this.role = role;
+        this.role = Role.fromName(role);
+    }
+
+    /**
+     * Copy constructor, version included.
+     *
+     * @param user The User to copy.
+     */
+    public User(User user) {
+        this.userId = user.userId;
+        this.firstName = user.firstName;
+        this.lastName = user.lastName;
+        this.email = user.email;
+        this.password = user.password;
+        this.role = user.role;
+        this.version = user.version;
     }
 
     // Getters and Setters
@@ -81,13 +98,38 @@ public class User {
     }
 
     public String getRole() {
-        return role;
+        return role != null ? role.name() : null;
     }
 
+    /**
+     * Sets the role by name, ignoring case.
+     *
+     * @param role "STUDENT", "TEACHER" or "ADMIN", or null.
+     * @throws IllegalArgumentException if the role is not a known {@link Role}.
+     */
     public void setRole(String role) {
+        this.role = Role.fromName(role);
+    }
+
+    public Role getRoleType() {
+        return role;
+    }
+
+    public void setRoleType(Role role) {
         this.role = role;
     }
 
+    /**
+     * @return The version of the row this object was read from, or last written as.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -96,6 +138,7 @@ public class User {
                ", lastName='" + lastName + '\'' +
                ", email='" + email + '\'' +
                ", role='" + role + '\'' +
+               ", version=" + version +
                '}';
     }
 }
\ No newline at end of file
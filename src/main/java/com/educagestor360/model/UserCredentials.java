@@ -0,0 +1,65 @@
+package com.educagestor360.model;
+
+/**
+ * Projection of a User holding only what the login path needs:
+ * the ID, the stored password hash and the role.
+ */
+public class UserCredentials {
+
+    private int userId;
+    private String passwordHash;
+    private String role;
+
+    /**
+     * Default constructor.
+     */
+    public UserCredentials() {
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param userId       The unique ID of the user.
+     * @param passwordHash The stored password hash.
+     * @param role         The role assigned to the user.
+     */
+    public UserCredentials(int userId, String passwordHash, String role) {
+        this.userId = userId;
+        this.passwordHash = passwordHash;
+        this.role = role;
+    }
+
+    // Getters and Setters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    @Override
+    public String toString() {
+        return "UserCredentials{" +
+               "userId=" + userId +
+               ", role='" + role + '\'' +
+               '}';
+    }
+}
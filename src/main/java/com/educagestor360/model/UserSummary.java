@@ -0,0 +1,74 @@
+package com.educagestor360.model;
+
+/**
+ * Lightweight, read-only view of a User for lists and type-ahead results.
+ * Never carries the password.
+ */
+public class UserSummary {
+
+    private final int userId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String role;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param userId    The unique ID of the user.
+     * @param firstName The first name of the user.
+     * @param lastName  The last name of the user.
+     * @param email     The email address of the user.
+     * @param role      The role assigned to the user.
+     */
+    public UserSummary(int userId, String firstName, String lastName, String email, String role) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.role = role;
+    }
+
+    /**
+     * Creates a summary of a full User.
+     *
+     * @param user The user to summarize.
+     * @return The summary.
+     */
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getUserId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole());
+    }
+
+    // Getters
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummary{" +
+               "userId=" + userId +
+               ", firstName='" + firstName + '\'' +
+               ", lastName='" + lastName + '\'' +
+               ", email='" + email + '\'' +
+               ", role='" + role + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,108 @@
+package com.educagestor360.ranking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ranking of the students of one course by their average score.
+ * A student with several grades in the course is ranked once, on the average
+ * of those grades. Students with equal averages share a rank.
+ */
+public class CourseLeaderboard {
+
+    private final ScoreTree tree = new ScoreTree();
+    // Per student: the sum of their scores in hundredths (scores are DECIMAL(5,2), so the sum
+    // stays exact across any number of updates) and the number of grades.
+    private final Map<Integer, long[]> totals = new HashMap<>();
+
+    /**
+     * Returns the best students.
+     *
+     * @param k The maximum number of students to return.
+     * @return Up to k students, best first.
+     */
+    public synchronized List<RankedStudent> top(int k) {
+        int n = Math.min(k, tree.size());
+        int[] ids = new int[n];
+        double[] scores = new double[n];
+        int filled = tree.top(ids, scores);
+        List<RankedStudent> result = new ArrayList<>(filled);
+        int rank = 0;
+        for (int i = 0; i < filled; i++) {
+            if (i == 0 || Double.compare(scores[i], scores[i - 1]) != 0) {
+                rank = i + 1;
+            }
+            result.add(new RankedStudent(rank, ids[i], scores[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a student's rank.
+     *
+     * @param studentId The ID of the student.
+     * @return The 1-based rank, or -1 if the student has no grade in the course.
+     */
+    public synchronized int rankOf(int studentId) {
+        long[] total = totals.get(studentId);
+        return total == null ? -1 : tree.countAbove(average(total)) + 1;
+    }
+
+    /**
+     * Counts the students whose average is strictly above a threshold.
+     *
+     * @param threshold The score threshold.
+     * @return The number of students above it.
+     */
+    public synchronized int countAbove(double threshold) {
+        return tree.countAbove(threshold);
+    }
+
+    /**
+     * @return The number of ranked students.
+     */
+    public synchronized int size() {
+        return tree.size();
+    }
+
+    /**
+     * Adds a grade to a student's average and re-ranks them.
+     */
+    synchronized void addScore(int studentId, double score) {
+        adjust(studentId, Math.round(score * 100), 1);
+    }
+
+    /**
+     * Removes a grade from a student's average and re-ranks them.
+     */
+    synchronized void removeScore(int studentId, double score) {
+        adjust(studentId, -Math.round(score * 100), -1);
+    }
+
+    synchronized boolean isEmpty() {
+        return totals.isEmpty();
+    }
+
+    private void adjust(int studentId, long hundredthsDelta, int countDelta) {
+        long[] total = totals.get(studentId);
+        if (total != null) {
+            tree.remove(average(total), studentId);
+        } else {
+            total = new long[2];
+            totals.put(studentId, total);
+        }
+        total[0] += hundredthsDelta;
+        total[1] += countDelta;
+        if (total[1] <= 0) {
+            totals.remove(studentId);
+        } else {
+            tree.insert(average(total), studentId);
+        }
+    }
+
+    private static double average(long[] total) {
+        return total[0] / 100.0 / total[1];
+    }
+}
@@ -0,0 +1,234 @@
+package com.educagestor360.ranking;
+
+import com.educagestor360.dao.shard.ShardedGradeDAO;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.MutationListener;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.Grade;
+import com.educagestor360.model.User;
+import com.educagestor360.util.ConnectionProvider;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains a {@link CourseLeaderboard} for every course.
+ *
+ * The leaderboards are bulk-built from a single streaming scan of the grades
+ * table at startup, or of every shard's with {@link #load(ShardedGradeDAO)},
+ * and then updated incrementally from addGrade, updateGrade and deleteGrade by
+ * registering the service as a {@link MutationListener}.
+ * Top-K, rank and threshold queries never touch the database.
+ */
+public class LeaderboardService implements MutationListener {
+
+    private static final String SELECT_ALL_SCORES_SQL = "SELECT grade_id, student_id, course_id, score FROM grades";
+
+    /**
+     * What the service remembers about a grade, to undo it on update or delete.
+     */
+    private static final class GradeEntry {
+        final int studentId;
+        final int courseId;
+        final double score;
+
+        GradeEntry(int studentId, int courseId, double score) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.score = score;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, CourseLeaderboard> boards = new ConcurrentHashMap<>();
+    private Map<Integer, GradeEntry> grades = new HashMap<>();
+    private List<Runnable> changedDuringLoad;
+
+    /**
+     * Rebuilds every leaderboard from the grades table of the main database.
+     * Changes notified while the scan runs are replayed on top of it.
+     *
+     * @throws SQLException if a database access error occurs.
+     */
+    public void load() throws SQLException {
+        load(List.of(DatabaseConnector::getConnection), null);
+    }
+
+    /**
+     * Rebuilds every leaderboard from the grades tables of all shards. A grade
+     * found on two shards, as while its course is being moved, is taken from the
+     * shard that owns its course. Changes notified while the scans run are
+     * replayed on top of them.
+     *
+     * @param gradeDAO The sharded grade DAO whose shards hold the grades.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void load(ShardedGradeDAO gradeDAO) throws SQLException {
+        load(gradeDAO.getShards(), gradeDAO);
+    }
+
+    /**
+     * Helper method that scans the grades table of each source and swaps the result in.
+     */
+    private void load(List<? extends ConnectionProvider> sources, ShardedGradeDAO sharded) throws SQLException {
+        synchronized (this) {
+            changedDuringLoad = new ArrayList<>();
+        }
+        Map<Integer, GradeEntry> loaded = new HashMap<>();
+        try {
+            for (int shard = 0; shard < sources.size(); shard++) {
+                scan(sources.get(shard), shard, sharded, loaded);
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+            throw e;
+        }
+        Map<Integer, CourseLeaderboard> built = new HashMap<>();
+        for (GradeEntry entry : loaded.values()) {
+            built.computeIfAbsent(entry.courseId, id -> new CourseLeaderboard()).addScore(entry.studentId, entry.score);
+        }
+        synchronized (this) {
+            grades = loaded;
+            boards.putAll(built);
+            boards.keySet().retainAll(built.keySet());
+            for (Runnable change : changedDuringLoad) {
+                change.run();
+            }
+            changedDuringLoad = null;
+        }
+    }
+
+    /**
+     * Returns the best students of a course.
+     *
+     * @param courseId The ID of the course.
+     * @param k        The maximum number of students.
+     * @return Up to k students, best first.
+     */
+    public List<RankedStudent> getTopK(int courseId, int k) {
+        CourseLeaderboard board = boards.get(courseId);
+        return board == null ? Collections.<RankedStudent>emptyList() : board.top(k);
+    }
+
+    /**
+     * Returns a student's rank in a course.
+     *
+     * @param courseId  The ID of the course.
+     * @param studentId The ID of the student.
+     * @return The 1-based rank, or -1 if the student has no grade in the course.
+     */
+    public int getRank(int courseId, int studentId) {
+        CourseLeaderboard board = boards.get(courseId);
+        return board == null ? -1 : board.rankOf(studentId);
+    }
+
+    /**
+     * Counts the students of a course whose average is strictly above a threshold.
+     *
+     * @param courseId  The ID of the course.
+     * @param threshold The score threshold.
+     * @return The number of students above it.
+     */
+    public int countAbove(int courseId, double threshold) {
+        CourseLeaderboard board = boards.get(courseId);
+        return board == null ? 0 : board.countAbove(threshold);
+    }
+
+    @Override
+    public synchronized void gradeChanged(MutationKind kind, int gradeId, Grade grade) {
+        Runnable change = () -> {
+            removeGrade(gradeId);
+            if (kind != MutationKind.DELETE && grade != null) {
+                GradeEntry entry = new GradeEntry(grade.getStudentId(), grade.getCourseId(), grade.getScore());
+                grades.put(gradeId, entry);
+                boards.computeIfAbsent(entry.courseId, id -> new CourseLeaderboard()).addScore(entry.studentId, entry.score);
+            }
+        };
+        apply(change);
+    }
+
+    @Override
+    public synchronized void courseChanged(MutationKind kind, int courseId, Course course) {
+        if (kind == MutationKind.DELETE) {
+            apply(() -> removeGradesWhere(courseId, true));
+        }
+    }
+
+    @Override
+    public synchronized void userChanged(MutationKind kind, int userId, User user) {
+        if (kind == MutationKind.DELETE) {
+            apply(() -> removeGradesWhere(userId, false));
+        }
+    }
+
+    /**
+     * Helper method that streams the grades of one database into the loaded entries.
+     */
+    private static void scan(ConnectionProvider source, int shard, ShardedGradeDAO sharded,
+                             Map<Integer, GradeEntry> loaded) throws SQLException {
+        try (Connection connection = source.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT_ALL_SCORES_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole table.
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    GradeEntry entry = new GradeEntry(rs.getInt(2), rs.getInt(3), rs.getDouble(4));
+                    if (sharded == null || sharded.getShardMap().shardFor(entry.courseId) == shard) {
+                        loaded.put(rs.getInt(1), entry);
+                    } else {
+                        loaded.putIfAbsent(rs.getInt(1), entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private void apply(Runnable change) {
+        change.run();
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(change);
+        }
+    }
+
+    private void removeGrade(int gradeId) {
+        GradeEntry previous = grades.remove(gradeId);
+        if (previous == null) {
+            return;
+        }
+        CourseLeaderboard board = boards.get(previous.courseId);
+        if (board != null) {
+            board.removeScore(previous.studentId, previous.score);
+            if (board.isEmpty()) {
+                boards.remove(previous.courseId, board);
+            }
+        }
+    }
+
+    /**
+     * Helper method that drops the grades of a deleted course or student.
+     * Deletes of parents are rare, so a scan of the grade map is acceptable.
+     */
+    private void removeGradesWhere(int id, boolean byCourse) {
+        List<Integer> matching = new ArrayList<>();
+        for (Map.Entry<Integer, GradeEntry> entry : grades.entrySet()) {
+            GradeEntry grade = entry.getValue();
+            if ((byCourse ? grade.courseId : grade.studentId) == id) {
+                matching.add(entry.getKey());
+            }
+        }
+        for (int gradeId : matching) {
+            removeGrade(gradeId);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.educagestor360.ranking;
+
+/**
+ * A student's position on a course leaderboard.
+ */
+public final class RankedStudent {
+
+    private final int rank;
+    private final int studentId;
+    private final double score;
+
+    /**
+     * Creates an entry.
+     *
+     * @param rank      The 1-based rank; students with equal scores share a rank.
+     * @param studentId The ID of the student.
+     * @param score     The student's average score in the course.
+     */
+    public RankedStudent(int rank, int studentId, double score) {
+        this.rank = rank;
+        this.studentId = studentId;
+        this.score = score;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "RankedStudent{" +
+               "rank=" + rank +
+               ", studentId=" + studentId +
+               ", score=" + score +
+               '}';
+    }
+}
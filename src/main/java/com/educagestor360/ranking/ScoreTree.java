@@ -0,0 +1,152 @@
+package com.educagestor360.ranking;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An order-statistic tree of (score, id) pairs, implemented as a treap whose
+ * nodes track the size of their subtree. Entries are ordered by descending
+ * score, then by ascending id, so the first entry is the best one.
+ * Insertion, removal, rank and threshold counts are O(log n) expected, and
+ * the first k entries are listed in O(log n + k). Not thread-safe.
+ */
+class ScoreTree {
+
+    private static final class Node {
+        final double score;
+        final int id;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(double score, int id) {
+            this.score = score;
+            this.id = id;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(double score, int id) {
+        Node node = new Node(score, id);
+        Node[] parts = split(root, score, id);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    boolean remove(double score, int id) {
+        int before = size(root);
+        root = remove(root, score, id);
+        return size(root) < before;
+    }
+
+    /**
+     * @return The number of entries with a score strictly greater than the threshold.
+     */
+    int countAbove(double threshold) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > threshold) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the ids and scores of the first entries into the given arrays.
+     *
+     * @return The number of entries copied, at most the length of the arrays.
+     */
+    int top(int[] ids, double[] scores) {
+        return top(root, ids, scores, 0);
+    }
+
+    private static int top(Node node, int[] ids, double[] scores, int filled) {
+        if (node == null || filled == ids.length) {
+            return filled;
+        }
+        filled = top(node.left, ids, scores, filled);
+        if (filled < ids.length) {
+            ids[filled] = node.id;
+            scores[filled] = node.score;
+            filled++;
+        }
+        return top(node.right, ids, scores, filled);
+    }
+
+    /**
+     * Splits a subtree into the entries ordered before (score, id) and the rest.
+     */
+    private static Node[] split(Node node, double score, int id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (before(node.score, node.id, score, id)) {
+            Node[] parts = split(node.right, score, id);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, score, id);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node remove(Node node, double score, int id) {
+        if (node == null) {
+            return null;
+        }
+        if (node.id == id && Double.compare(node.score, score) == 0) {
+            return merge(node.left, node.right);
+        }
+        if (before(score, id, node.score, node.id)) {
+            node.left = remove(node.left, score, id);
+        } else {
+            node.right = remove(node.right, score, id);
+        }
+        update(node);
+        return node;
+    }
+
+    private static boolean before(double scoreA, int idA, double scoreB, int idB) {
+        int byScore = Double.compare(scoreB, scoreA);
+        return byScore < 0 || (byScore == 0 && idA < idB);
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,80 @@
+package com.educagestor360.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many calls of one {@link TrafficClass} run at the same time.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param name          A name used in error messages.
+     * @param maxConcurrent The maximum number of concurrent calls.
+     */
+    public Bulkhead(String name, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Enters the bulkhead, waiting up to the given time for a free slot.
+     *
+     * @param timeoutMillis The longest wait.
+     * @throws BulkheadFullException if no slot became free in time or the thread was interrupted.
+     */
+    public void acquire(long timeoutMillis) throws BulkheadFullException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException("The " + name + " bulkhead is full (" + maxConcurrent + " calls in progress)");
+        }
+    }
+
+    /**
+     * Leaves the bulkhead after a successful {@link #acquire(long)}.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return The number of calls in progress.
+     */
+    public int getInUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * @return The number of calls rejected since creation.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.educagestor360.resilience;
+
+import java.sql.SQLTransientException;
+
+/**
+ * Thrown when a call could not enter its bulkhead in time. Nothing was sent to
+ * the database, so the call can safely be retried later.
+ */
+public class BulkheadFullException extends SQLTransientException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
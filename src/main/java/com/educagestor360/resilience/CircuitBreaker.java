@@ -0,0 +1,183 @@
+package com.educagestor360.resilience;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calling the database once it is clearly unhealthy, and probes for recovery.
+ *
+ * The breaker tracks the outcome of the last {@code windowSize} calls. When at
+ * least {@code minimumCalls} were recorded and the share of failures reaches
+ * {@code failureRateThreshold}, it opens and every call fails fast with a
+ * {@link CircuitOpenException}. After {@code openMillis} a single probe call is
+ * let through: if it succeeds the breaker closes, otherwise it opens again.
+ *
+ * Only failures that point at the database itself count: timeouts and
+ * connection errors. Constraint violations and other errors caused by the
+ * request are successes as far as the breaker is concerned.
+ */
+public class CircuitBreaker {
+
+    /** The states of the breaker. */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param name                 A name used in error messages.
+     * @param windowSize           The number of recent calls considered.
+     * @param minimumCalls         The number of calls needed before the breaker may open.
+     * @param failureRateThreshold The share of failed calls, between 0 and 1, that opens the breaker.
+     * @param openMillis           How long the breaker stays open before probing.
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold, long openMillis) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Invalid window: size " + windowSize + ", minimum " + minimumCalls);
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Asks permission for a call.
+     *
+     * @return true if the call is the recovery probe, false for a normal call.
+     * @throws CircuitOpenException if the breaker is open.
+     */
+    public boolean acquirePermission() throws CircuitOpenException {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.CLOSED) {
+                return false;
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return true;
+            }
+            throw new CircuitOpenException("Circuit breaker " + name + " is " + state + "; failing fast");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param probe   The value returned by {@link #acquirePermission()}.
+     * @param failure The exception the call threw, or null if it succeeded.
+     */
+    public void record(boolean probe, Throwable failure) {
+        boolean failed = isDatabaseFailure(failure);
+        lock.lock();
+        try {
+            if (probe) {
+                probeInFlight = false;
+                if (failed) {
+                    open();
+                } else {
+                    state = State.CLOSED;
+                    resetWindow();
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (windowCount == window.length) {
+                if (window[windowPosition]) {
+                    windowFailures--;
+                }
+            } else {
+                windowCount++;
+            }
+            window[windowPosition] = failed;
+            if (failed) {
+                windowFailures++;
+            }
+            windowPosition = (windowPosition + 1) % window.length;
+            if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The current state.
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tells whether an exception indicates that the database is unhealthy.
+     *
+     * @param failure The exception, or null.
+     * @return true for timeouts and connection failures.
+     */
+    public static boolean isDatabaseFailure(Throwable failure) {
+        if (!(failure instanceof SQLException) || failure instanceof BulkheadFullException
+                || failure instanceof CircuitOpenException) {
+            return false;
+        }
+        return failure instanceof SQLTimeoutException
+                || failure instanceof SQLTransientConnectionException
+                || failure instanceof SQLNonTransientConnectionException
+                || failure instanceof SQLRecoverableException;
+    }
+
+    private void open() {
+        if (state != State.OPEN) {
+            System.err.println("Circuit breaker " + name + " opened");
+        }
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowPosition = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
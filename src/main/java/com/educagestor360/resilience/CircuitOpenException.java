@@ -0,0 +1,15 @@
+package com.educagestor360.resilience;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown instead of calling the database while the circuit breaker is open.
+ */
+public class CircuitOpenException extends SQLTransientConnectionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
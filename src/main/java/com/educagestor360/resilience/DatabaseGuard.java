@@ -0,0 +1,140 @@
+package com.educagestor360.resilience;
+
+import com.educagestor360.util.DatabaseCallContext;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs database work inside a bulkhead for its {@link TrafficClass}, with a
+ * query timeout, a bounded wait for a connection, and a shared
+ * {@link CircuitBreaker}.
+ *
+ * Each traffic class has its own bulkhead. Keeping the report bulkhead smaller
+ * than the connection pool reserves connections for interactive reads and
+ * writes, so grading stays responsive while a large export runs. The timeouts
+ * reach the JDBC calls through {@link DatabaseCallContext} and therefore only
+ * apply when a connection pool is installed.
+ *
+ * Calls nested inside a guarded call on the same thread run directly, under the
+ * outer call's bulkhead slot and limits.
+ */
+public class DatabaseGuard {
+
+    private final Map<TrafficClass, Bulkhead> bulkheads = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Long> acquireTimeouts = new EnumMap<>(TrafficClass.class);
+    private final Map<String, Integer> queryTimeouts = new ConcurrentHashMap<>();
+    private final CircuitBreaker breaker;
+
+    /**
+     * Creates a guard with the default limits of each {@link TrafficClass} and a
+     * breaker that opens when half of the last 50 calls (at least 20) failed.
+     */
+    public DatabaseGuard() {
+        this(defaultLimits(), new CircuitBreaker("database", 50, 20, 0.5, 5_000));
+    }
+
+    /**
+     * Creates a guard.
+     *
+     * @param maxConcurrent The bulkhead size of each traffic class; missing classes use their default.
+     * @param breaker       The breaker shared by all traffic.
+     */
+    public DatabaseGuard(Map<TrafficClass, Integer> maxConcurrent, CircuitBreaker breaker) {
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            int size = maxConcurrent.getOrDefault(trafficClass, trafficClass.getDefaultMaxConcurrent());
+            bulkheads.put(trafficClass, new Bulkhead(trafficClass.name().toLowerCase(), size));
+            acquireTimeouts.put(trafficClass, trafficClass.getDefaultAcquireTimeoutMillis());
+        }
+        this.breaker = breaker;
+    }
+
+    /**
+     * Overrides the query timeout of one operation.
+     *
+     * @param operation The operation name, such as {@code GradeDAO.getGradesByStudentId}.
+     * @param seconds   The timeout; 0 disables it.
+     * @return This guard, for chaining.
+     */
+    public DatabaseGuard setQueryTimeout(String operation, int seconds) {
+        queryTimeouts.put(operation, seconds);
+        return this;
+    }
+
+    /**
+     * Overrides how long calls of a traffic class wait for a bulkhead slot and
+     * then again for a connection.
+     *
+     * @param trafficClass The traffic class.
+     * @param millis       The longest wait for each.
+     * @return This guard, for chaining.
+     */
+    public DatabaseGuard setAcquireTimeout(TrafficClass trafficClass, long millis) {
+        acquireTimeouts.put(trafficClass, millis);
+        return this;
+    }
+
+    /**
+     * Runs a piece of database work under the limits of its traffic class.
+     *
+     * @param trafficClass The traffic class of the work.
+     * @param operation    The operation name, used for timeout overrides and messages.
+     * @param work         The work to run.
+     * @param <T>          The result type.
+     * @param <X>          An additional checked exception the work may throw.
+     * @return The result of the work.
+     * @throws BulkheadFullException if the bulkhead stayed full for the acquire timeout.
+     * @throws CircuitOpenException  if the circuit breaker is open.
+     * @throws SQLException          if the work fails.
+     * @throws X                     if the work fails with its own exception.
+     */
+    public <T, X extends Exception> T call(TrafficClass trafficClass, String operation, GuardedCall<T, X> work)
+            throws SQLException, X {
+        if (DatabaseCallContext.current() != null) {
+            return work.call();
+        }
+        long acquireTimeout = acquireTimeouts.get(trafficClass);
+        int queryTimeout = queryTimeouts.getOrDefault(operation, trafficClass.getDefaultQueryTimeoutSeconds());
+
+        Bulkhead bulkhead = bulkheads.get(trafficClass);
+        bulkhead.acquire(acquireTimeout);
+        try {
+            boolean probe = breaker.acquirePermission();
+            Throwable failure = null;
+            DatabaseCallContext previous = DatabaseCallContext.enter(queryTimeout, acquireTimeout);
+            try {
+                return work.call();
+            } catch (SQLException | RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                DatabaseCallContext.restore(previous);
+                breaker.record(probe, failure);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * @param trafficClass The traffic class.
+     * @return Its bulkhead.
+     */
+    public Bulkhead getBulkhead(TrafficClass trafficClass) {
+        return bulkheads.get(trafficClass);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    private static Map<TrafficClass, Integer> defaultLimits() {
+        Map<TrafficClass, Integer> limits = new EnumMap<>(TrafficClass.class);
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            limits.put(trafficClass, trafficClass.getDefaultMaxConcurrent());
+        }
+        return limits;
+    }
+}
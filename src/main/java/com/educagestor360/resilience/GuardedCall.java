@@ -0,0 +1,15 @@
+package com.educagestor360.resilience;
+
+import java.sql.SQLException;
+
+/**
+ * A piece of database work run through a {@link DatabaseGuard}.
+ *
+ * @param <T> The result type.
+ * @param <X> An additional checked exception the work may throw, such as IOException.
+ */
+@FunctionalInterface
+public interface GuardedCall<T, X extends Exception> {
+
+    T call() throws SQLException, X;
+}
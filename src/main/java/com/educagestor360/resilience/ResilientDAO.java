@@ -0,0 +1,94 @@
+package com.educagestor360.resilience;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Wraps a DAO so every method runs through a {@link DatabaseGuard}.
+ *
+ * Methods are classified by name: {@code getAll*} scans and cascade deletes are
+ * {@link TrafficClass#REPORT} traffic, other {@code get*} methods are
+ * {@link TrafficClass#READ}, and everything else is {@link TrafficClass#WRITE}.
+ * Operations are named {@code Interface.method}, as in
+ * {@link DatabaseGuard#setQueryTimeout(String, int)}.
+ *
+ * Wrap the database implementation directly, inside any caching decorator, so
+ * cache hits never wait for a bulkhead slot.
+ */
+public final class ResilientDAO {
+
+    private ResilientDAO() {
+    }
+
+    /**
+     * Wraps a DAO using the default classification.
+     *
+     * @param type     The DAO interface, such as {@code GradeDAO.class}.
+     * @param delegate The implementation to guard.
+     * @param guard    The guard to run calls through.
+     * @param <T>      The DAO interface type.
+     * @return A guarded proxy implementing {@code type}.
+     */
+    public static <T> T wrap(Class<T> type, T delegate, DatabaseGuard guard) {
+        return wrap(type, delegate, guard, Map.of());
+    }
+
+    /**
+     * Wraps a DAO, overriding the traffic class of some methods.
+     *
+     * @param type      The DAO interface.
+     * @param delegate  The implementation to guard.
+     * @param guard     The guard to run calls through.
+     * @param overrides Traffic classes by method name, taking precedence over the naming rules.
+     * @param <T>       The DAO interface type.
+     * @return A guarded proxy implementing {@code type}.
+     */
+    public static <T> T wrap(Class<T> type, T delegate, DatabaseGuard guard, Map<String, TrafficClass> overrides) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return p == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    default:
+                        return "Resilient" + delegate;
+                }
+            }
+            TrafficClass trafficClass = overrides.getOrDefault(method.getName(), classify(method));
+            return guard.call(trafficClass, type.getSimpleName() + "." + method.getName(), () -> invoke(method, delegate, args));
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Helper method with the default classification by method name.
+     */
+    static TrafficClass classify(Method method) {
+        String name = method.getName();
+        if (name.startsWith("getAll") || name.endsWith("Cascade")) {
+            return TrafficClass.REPORT;
+        }
+        if (name.startsWith("get")) {
+            return TrafficClass.READ;
+        }
+        return TrafficClass.WRITE;
+    }
+
+    /**
+     * Helper method that invokes the delegate, rethrowing what it threw.
+     */
+    private static Object invoke(Method method, Object delegate, Object[] args) throws Exception {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.educagestor360.resilience;
+
+/**
+ * The kinds of database traffic that get separate bulkheads, so one kind
+ * cannot starve the others of connections.
+ */
+public enum TrafficClass {
+    /** Short interactive lookups. */
+    READ(5, 1_000, 32),
+    /** Inserts, updates and deletes, including grade entry. */
+    WRITE(10, 2_000, 16),
+    /** Full scans, exports and other long-running reads. */
+    REPORT(300, 30_000, 2);
+
+    private final int defaultQueryTimeoutSeconds;
+    private final long defaultAcquireTimeoutMillis;
+    private final int defaultMaxConcurrent;
+
+    TrafficClass(int defaultQueryTimeoutSeconds, long defaultAcquireTimeoutMillis, int defaultMaxConcurrent) {
+        this.defaultQueryTimeoutSeconds = defaultQueryTimeoutSeconds;
+        this.defaultAcquireTimeoutMillis = defaultAcquireTimeoutMillis;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+    }
+
+    public int getDefaultQueryTimeoutSeconds() {
+        return defaultQueryTimeoutSeconds;
+    }
+
+    public long getDefaultAcquireTimeoutMillis() {
+        return defaultAcquireTimeoutMillis;
+    }
+
+    public int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+}
@@ -0,0 +1,322 @@
+package com.educagestor360.schedule;
+
+import com.educagestor360.dao.CourseDAO;
+import com.educagestor360.dao.criteria.CourseCriteria;
+import com.educagestor360.dao.criteria.CriteriaExecutor;
+import com.educagestor360.dao.criteria.CriteriaQuery;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.MutationListener;
+import com.educagestor360.model.Course;
+import com.educagestor360.model.User;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of course date ranges for calendar and timetable pages.
+ *
+ * Courses are kept in one {@link IntervalTree} for the whole catalog and one per
+ * teacher, built from {@link CourseDAO#getAllCourses()} and then kept up to date
+ * by registering the schedule as a {@link MutationListener}. A missing start or
+ * end date is treated as open-ended, the same rule as
+ * {@link CourseCriteria#runningBetween(LocalDate, LocalDate)}.
+ *
+ * Until the first rebuild completes, queries go to the database through the
+ * criteria API, served by the date indexes on the courses table.
+ */
+public class CourseSchedule implements MutationListener {
+
+    // The range of the MySQL DATE type, used for open-ended ranges.
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CriteriaExecutor coldPath;
+    private IntervalTree catalog = new IntervalTree();
+    private Map<Integer, IntervalTree> byTeacher = new HashMap<>();
+    private Map<Integer, Course> courses = new HashMap<>();
+    // The changes notified while a rebuild reads the courses, to replay on top of it.
+    private List<Runnable> changedDuringRebuild;
+    private volatile boolean loaded;
+
+    /**
+     * Creates an empty schedule whose cold path reads the main database.
+     */
+    public CourseSchedule() {
+        this(new CriteriaExecutor());
+    }
+
+    /**
+     * Creates an empty schedule.
+     *
+     * @param coldPath The executor used until the schedule is loaded.
+     */
+    public CourseSchedule(CriteriaExecutor coldPath) {
+        this.coldPath = coldPath;
+    }
+
+    /**
+     * Replaces the whole schedule with the current contents of the courses table.
+     * Changes notified while the rebuild is running are replayed on top of it.
+     *
+     * @param courseDAO The DAO to read courses from.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void rebuild(CourseDAO courseDAO) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Course> all;
+        try {
+            all = courseDAO.getAllCourses();
+        } catch (SQLException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            catalog = new IntervalTree();
+            byTeacher = new HashMap<>();
+            courses = new HashMap<>();
+            for (Course course : all) {
+                add(course);
+            }
+            for (Runnable change : changedDuringRebuild) {
+                change.run();
+            }
+            changedDuringRebuild = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void courseChanged(MutationKind kind, int courseId, Course course) {
+        Course changed = course != null ? copy(course) : null;
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(() -> replace(kind, courseId, changed));
+            }
+            replace(kind, courseId, changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void userChanged(MutationKind kind, int userId, User user) {
+        if (kind != MutationKind.DELETE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                // The courses being read may still name the teacher.
+                changedDuringRebuild.add(() -> detachCourses(userId));
+            }
+            detachCourses(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method that applies a course change to the trees. The caller holds the write lock.
+     */
+    private void replace(MutationKind kind, int courseId, Course course) {
+        remove(courseId);
+        if (kind != MutationKind.DELETE && course != null) {
+            add(course);
+        }
+    }
+
+    /**
+     * Helper method that detaches the courses of a deleted teacher, whose teacher_id
+     * becomes NULL. The caller holds the write lock.
+     */
+    private void detachCourses(int teacherId) {
+        IntervalTree taught = byTeacher.get(teacherId);
+        if (taught == null) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(taught.size());
+        taught.overlapping(Long.MIN_VALUE, Long.MAX_VALUE, ids);
+        for (int courseId : ids) {
+            Course detached = copy(courses.get(courseId));
+            detached.setTeacherId(0);
+            remove(courseId);
+            add(detached);
+        }
+    }
+
+    /**
+     * Returns the courses running on a given day.
+     *
+     * @param day The day.
+     * @return The courses, by start date.
+     * @throws SQLException if the schedule is not loaded yet and the database cannot be read.
+     */
+    public List<Course> getCoursesActiveOn(LocalDate day) throws SQLException {
+        return getCoursesOverlapping(day, day);
+    }
+
+    /**
+     * Returns the courses running on at least one day of an inclusive window.
+     *
+     * @param from The first day of the window.
+     * @param to   The last day of the window.
+     * @return The courses, by start date.
+     * @throws SQLException if the schedule is not loaded yet and the database cannot be read.
+     */
+    public List<Course> getCoursesOverlapping(LocalDate from, LocalDate to) throws SQLException {
+        if (!loaded) {
+            return coldPath.list(activeQuery(from, to));
+        }
+        lock.readLock().lock();
+        try {
+            return lookup(catalog, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the courses of one teacher running on at least one day of an inclusive window.
+     *
+     * @param teacherId The ID of the teacher.
+     * @param from      The first day of the window.
+     * @param to        The last day of the window.
+     * @return The courses, by start date.
+     * @throws SQLException if the schedule is not loaded yet and the database cannot be read.
+     */
+    public List<Course> getTeacherCoursesOverlapping(int teacherId, LocalDate from, LocalDate to) throws SQLException {
+        if (!loaded) {
+            return coldPath.list(activeQuery(from, to).where(CourseCriteria.TEACHER_ID.eq(teacherId)));
+        }
+        lock.readLock().lock();
+        try {
+            IntervalTree taught = byTeacher.get(teacherId);
+            return taught == null ? new ArrayList<>() : lookup(taught, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the other courses of a course's teacher whose dates overlap it, for
+     * example to warn before saving a timetable change.
+     *
+     * @param course The course, as it is or as it is about to be saved.
+     * @return The conflicting courses, by start date; empty if the course has no teacher.
+     * @throws SQLException if the schedule is not loaded yet and the database cannot be read.
+     */
+    public List<Course> findTeacherConflicts(Course course) throws SQLException {
+        if (course.getTeacherId() == 0) {
+            return new ArrayList<>();
+        }
+        List<Course> overlapping = getTeacherCoursesOverlapping(course.getTeacherId(),
+                orMin(course.getStartDate()), orMax(course.getEndDate()));
+        overlapping.removeIf(other -> other.getCourseId() == course.getCourseId());
+        return overlapping;
+    }
+
+    /**
+     * @return Whether the schedule has been loaded and answers from memory.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return The number of courses in the schedule.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return courses.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method that collects copies of the courses of a tree overlapping a window.
+     */
+    private List<Course> lookup(IntervalTree tree, LocalDate from, LocalDate to) {
+        List<Integer> ids = new ArrayList<>();
+        tree.overlapping(startOf(from), endOf(to), ids);
+        List<Course> result = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            result.add(copy(courses.get(id)));
+        }
+        return result;
+    }
+
+    private void add(Course course) {
+        Course stored = copy(course);
+        long start = startOf(stored.getStartDate());
+        long end = endOf(stored.getEndDate());
+        courses.put(stored.getCourseId(), stored);
+        catalog.insert(start, end, stored.getCourseId());
+        if (stored.getTeacherId() != 0) {
+            byTeacher.computeIfAbsent(stored.getTeacherId(), id -> new IntervalTree()).insert(start, end, stored.getCourseId());
+        }
+    }
+
+    private void remove(int courseId) {
+        Course previous = courses.remove(courseId);
+        if (previous == null) {
+            return;
+        }
+        long start = startOf(previous.getStartDate());
+        catalog.remove(start, courseId);
+        IntervalTree taught = byTeacher.get(previous.getTeacherId());
+        if (taught != null) {
+            taught.remove(start, courseId);
+            if (taught.size() == 0) {
+                byTeacher.remove(previous.getTeacherId());
+            }
+        }
+    }
+
+    private static CriteriaQuery<Course> activeQuery(LocalDate from, LocalDate to) {
+        return CourseCriteria.query()
+                .where(CourseCriteria.runningBetween(from, to))
+                .orderBy(CourseCriteria.START_DATE.asc());
+    }
+
+    private static long startOf(LocalDate date) {
+        return date == null ? Long.MIN_VALUE : date.toEpochDay();
+    }
+
+    private static long endOf(LocalDate date) {
+        return date == null ? Long.MAX_VALUE : date.toEpochDay();
+    }
+
+    private static LocalDate orMin(LocalDate date) {
+        return date == null ? MIN_DATE : date;
+    }
+
+    private static LocalDate orMax(LocalDate date) {
+        return date == null ? MAX_DATE : date;
+    }
+
+    private static Course copy(Course course) {
+        return new Course(course);
+    }
+}
@@ -0,0 +1,147 @@
+package com.educagestor360.schedule;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An interval tree of closed [start, end] ranges of epoch days, each tagged
+ * with an id. It is a treap ordered by (start, id) whose nodes also track the
+ * largest end in their subtree, so an overlap query skips every subtree that
+ * ends before the query window or starts after it. Insertion and removal are
+ * O(log n) expected. An overlap query reports its k matches in start order in
+ * O((k + 1) log n) expected time, not O(log n + k): a subtree whose largest
+ * end reaches the window can still hold no match, so each match can cost a
+ * full descent. Not thread-safe.
+ */
+class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final int id;
+        final int priority;
+        long maxEnd;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node root;
+
+    int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    void insert(long start, long end, int id) {
+        Node node = new Node(start, end, id);
+        Node[] parts = split(root, start, id);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    boolean remove(long start, int id) {
+        int before = size();
+        root = remove(root, start, id);
+        return size() < before;
+    }
+
+    /**
+     * Adds the ids of every range overlapping [from, to] to the list, in start order.
+     */
+    void overlapping(long from, long to, List<Integer> ids) {
+        overlapping(root, from, to, ids);
+    }
+
+    private static void overlapping(Node node, long from, long to, List<Integer> ids) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        overlapping(node.left, from, to, ids);
+        if (node.start > to) {
+            // Everything to the right starts even later.
+            return;
+        }
+        if (node.end >= from) {
+            ids.add(node.id);
+        }
+        overlapping(node.right, from, to, ids);
+    }
+
+    /**
+     * Splits a subtree into the ranges ordered before (start, id) and the rest.
+     */
+    private static Node[] split(Node node, long start, int id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (before(node.start, node.id, start, id)) {
+            Node[] parts = split(node.right, start, id);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, start, id);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node remove(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        if (node.id == id && node.start == start) {
+            return merge(node.left, node.right);
+        }
+        if (before(start, id, node.start, node.id)) {
+            node.left = remove(node.left, start, id);
+        } else {
+            node.right = remove(node.right, start, id);
+        }
+        update(node);
+        return node;
+    }
+
+    private static boolean before(long startA, int idA, long startB, int idB) {
+        return startA < startB || (startA == startB && idA < idB);
+    }
+
+    private static void update(Node node) {
+        node.size = 1;
+        node.maxEnd = node.end;
+        if (node.left != null) {
+            node.size += node.left.size;
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            node.size += node.right.size;
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+        }
+    }
+}
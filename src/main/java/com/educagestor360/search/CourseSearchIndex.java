@@ -0,0 +1,287 @@
+package com.educagestor360.search;
+
+import com.educagestor360.dao.CourseDAO;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.MutationListener;
+import com.educagestor360.model.Course;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over course names and descriptions.
+ *
+ * The index is built once from {@link CourseDAO#getAllCourses()} and then kept
+ * up to date incrementally by registering it as a {@link MutationListener}.
+ * Queries are ranked with BM25, with terms from the course name weighted
+ * higher than terms from the description. Every query term must match; a term
+ * ending in {@code *} matches any indexed term starting with it.
+ *
+ * Reads take a shared lock and never touch the database, so searches stay
+ * well under a millisecond for catalogs of this size.
+ */
+public class CourseSearchIndex implements MutationListener {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * The indexed form of one course.
+     */
+    private static final class Document {
+        final String courseName;
+        final Map<String, Integer> termWeights;
+        final int length;
+
+        Document(String courseName, Map<String, Integer> termWeights, int length) {
+            this.courseName = courseName;
+            this.termWeights = termWeights;
+            this.length = length;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private Map<Integer, Document> documents = new HashMap<>();
+    private long totalLength;
+    private List<Course> changedDuringRebuild;
+
+    /**
+     * Replaces the whole index with the current contents of the courses table.
+     * Changes notified while the rebuild is running are replayed on top of it.
+     *
+     * @param courseDAO The DAO to read courses from.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void rebuild(CourseDAO courseDAO) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Course> courses;
+        try {
+            courses = courseDAO.getAllCourses();
+        } catch (SQLException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            postings = new TreeMap<>();
+            documents = new HashMap<>();
+            totalLength = 0;
+            for (Course course : courses) {
+                index(course);
+            }
+            for (Course course : changedDuringRebuild) {
+                remove(course.getCourseId());
+                if (course.getCourseName() != null) {
+                    index(course);
+                }
+            }
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void courseChanged(MutationKind kind, int courseId, Course course) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                // A deleted course is recorded as an empty course with the same ID.
+                changedDuringRebuild.add(course != null ? course : new Course(courseId, null, null, 0, null, null));
+            }
+            remove(courseId);
+            if (kind != MutationKind.DELETE && course != null) {
+                index(course);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the catalog.
+     *
+     * @param query The query: whitespace-separated terms, each optionally ending in {@code *}.
+     * @param limit The maximum number of hits to return.
+     * @return The matching courses, best first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        parseQuery(query, terms, prefixes);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (int i = 0; i < terms.size() && (scores == null || !scores.isEmpty()); i++) {
+                Map<Integer, Double> clause = scoreClause(terms.get(i), prefixes.get(i));
+                if (scores == null) {
+                    scores = clause;
+                } else {
+                    Map<Integer, Double> merged = new HashMap<>();
+                    for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                        Double other = clause.get(entry.getKey());
+                        if (other != null) {
+                            merged.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+            }
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed courses.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method that splits a query into normalized terms, remembering which
+     * ones were written as prefixes.
+     */
+    private static void parseQuery(String query, List<String> terms, List<Boolean> prefixes) {
+        if (query == null) {
+            return;
+        }
+        for (String raw : query.trim().split("\\s+")) {
+            boolean prefix = raw.endsWith("*");
+            List<String> tokens = TextNormalizer.tokenize(prefix ? raw.substring(0, raw.length() - 1) : raw);
+            for (int i = 0; i < tokens.size(); i++) {
+                terms.add(tokens.get(i));
+                prefixes.add(prefix && i == tokens.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Helper method that scores every document matching one query term. For a
+     * prefix term, a document scores as its best-matching expansion.
+     */
+    private Map<Integer, Double> scoreClause(String term, boolean prefix) {
+        Map<Integer, Double> scores = new HashMap<>();
+        if (!prefix) {
+            addTermScores(term, postings.get(term), scores);
+            return scores;
+        }
+        int expansions = 0;
+        for (Map.Entry<String, Map<Integer, Integer>> entry
+                : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+            addTermScores(entry.getKey(), entry.getValue(), scores);
+            if (++expansions == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void addTermScores(String term, Map<Integer, Integer> postingList, Map<Integer, Double> scores) {
+        if (postingList == null || postingList.isEmpty()) {
+            return;
+        }
+        int n = documents.size();
+        int df = postingList.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        double averageLength = n == 0 ? 1 : (double) totalLength / n;
+        for (Map.Entry<Integer, Integer> posting : postingList.entrySet()) {
+            int weight = posting.getValue();
+            int length = documents.get(posting.getKey()).length;
+            double score = idf * (weight * (K1 + 1)) / (weight + K1 * (1 - B + B * length / averageLength));
+            scores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    private List<SearchHit> topHits(Map<Integer, Double> scores, int limit) {
+        if (scores == null || scores.isEmpty()) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<Integer, Double> entry = heap.poll();
+            hits.add(new SearchHit(entry.getKey(), documents.get(entry.getKey()).courseName, entry.getValue()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    /**
+     * Helper method that adds a course to the index. Caller must hold the write lock.
+     */
+    private void index(Course course) {
+        Map<String, Integer> weights = new HashMap<>();
+        int length = 0;
+        for (String term : TextNormalizer.tokenize(course.getCourseName())) {
+            weights.merge(term, NAME_WEIGHT, Integer::sum);
+            length += NAME_WEIGHT;
+        }
+        for (String term : TextNormalizer.tokenize(course.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+            length += DESCRIPTION_WEIGHT;
+        }
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(course.getCourseId(), entry.getValue());
+        }
+        documents.put(course.getCourseId(), new Document(course.getCourseName(), weights, length));
+        totalLength += length;
+    }
+
+    /**
+     * Helper method that removes a course from the index. Caller must hold the write lock.
+     */
+    private void remove(int courseId) {
+        Document document = documents.remove(courseId);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        for (String term : document.termWeights.keySet()) {
+            Map<Integer, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(courseId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.educagestor360.search;
+
+/**
+ * A single ranked result of a course search.
+ */
+public final class SearchHit {
+
+    private final int courseId;
+    private final String courseName;
+    private final double score;
+
+    /**
+     * Creates a hit.
+     *
+     * @param courseId   The ID of the matching course.
+     * @param courseName The name of the matching course.
+     * @param score      The relevance score; higher is better.
+     */
+    public SearchHit(int courseId, String courseName, double score) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.score = score;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+               "courseId=" + courseId +
+               ", courseName='" + courseName + '\'' +
+               ", score=" + score +
+               '}';
+    }
+}
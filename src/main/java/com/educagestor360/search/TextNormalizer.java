@@ -0,0 +1,134 @@
+package com.educagestor360.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits free text into search terms. Terms are lower-cased and accent-folded
+ * (an accented vowel and its plain form produce the same term), and common
+ * Spanish and English stop words are dropped.
+ */
+public final class TextNormalizer {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "para", "por",
+            "que", "se", "su", "un", "una", "y", "o",
+            "an", "and", "for", "in", "of", "on", "or", "the", "to", "with"));
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Tokenizes and normalizes a piece of text.
+     *
+     * @param text The text to tokenize; may be null.
+     * @return The normalized terms, in order of appearance.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letterOrDigit = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                String term = folded.substring(start, i);
+                if (!STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-cases a string and strips diacritical marks from it.
+     *
+     * @param text The text to fold.
+     * @return The folded text.
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Maps a string to the form a case- and accent-insensitive collation compares:
+     * folded after compatibility decomposition (so that ligatures such as the "fi" one
+     * and full-width letters become plain ones), with the letters that the
+     * collation equates with ASCII letters replaced by them and trailing spaces
+     * removed. Two strings with the same key are equal to the email column of
+     * the users table. The non-ASCII characters a key keeps, such as those of
+     * other scripts, are not equal to any ASCII one.
+     *
+     * @param text The text to map.
+     * @return The comparison key.
+     */
+    public static String collationKey(String text) {
+        String folded = fold(Normalizer.normalize(text, Normalizer.Form.NFKD));
+        int end = folded.length();
+        while (end > 0 && folded.charAt(end - 1) == ' ') {
+            end--;
+        }
+        StringBuilder key = null;
+        for (int i = 0; i < end; i++) {
+            char c = folded.charAt(i);
+            String expansion = asciiEquivalent(c);
+            if (expansion != null && key == null) {
+                key = new StringBuilder(end + 4).append(folded, 0, i);
+            }
+            if (expansion != null) {
+                key.append(expansion);
+            } else if (key != null) {
+                key.append(c);
+            }
+        }
+        return key != null ? key.toString() : folded.substring(0, end);
+    }
+
+    /**
+     * Helper method that returns the ASCII letters the collation equates with a
+     * lower-case letter that has no decomposition, or null if there are none.
+     */
+    private static String asciiEquivalent(char c) {
+        switch (c) {
+            case '\u00df': // sharp s
+                return "ss";
+            case '\u00e6':
+                return "ae";
+            case '\u0153':
+                return "oe";
+            case '\u00f8': // o with stroke, and the other stroked letters below
+                return "o";
+            case '\u0111':
+                return "d";
+            case '\u0127':
+                return "h";
+            case '\u0142':
+                return "l";
+            case '\u0167':
+                return "t";
+            case '\u0180':
+                return "b";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.educagestor360.search;
+
+import com.educagestor360.dao.UserDAO;
+import com.educagestor360.event.MutationKind;
+import com.educagestor360.event.MutationListener;
+import com.educagestor360.model.User;
+import com.educagestor360.model.UserSummary;
+
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Type-ahead index over users' first name, last name and email.
+ *
+ * The bulk of the data lives in an immutable snapshot: one sorted array of
+ * normalized keys (one key per name token and one for the email), a parallel
+ * array pointing each key to its owner, and one {@link UserSummary} per user.
+ * A prefix lookup is two binary searches followed by a scan of the matching
+ * range. Changes notified by {@link MutationListener} go to a small overlay
+ * that takes precedence over the snapshot; the overlay is folded into a new
+ * snapshot in the background once it grows, and the whole index is reloaded
+ * from the database periodically.
+ */
+public class UserAutocompleteIndex implements MutationListener, Closeable {
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 512;
+
+    /** Overlay marker for a deleted user. */
+    private static final UserSummary DELETED = new UserSummary(0, null, null, null, null);
+
+    /**
+     * An immutable, sorted view of the indexed users.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new int[0], new UserSummary[0], new String[0][]);
+
+        final String[] keys;
+        final int[] owners;
+        final UserSummary[] users;
+        final String[][] userKeys;
+
+        Snapshot(String[] keys, int[] owners, UserSummary[] users, String[][] userKeys) {
+            this.keys = keys;
+            this.owners = owners;
+            this.users = users;
+            this.userKeys = userKeys;
+        }
+    }
+
+    private final int compactionThreshold;
+    private final ConcurrentHashMap<Integer, UserSummary> overlay = new ConcurrentHashMap<>();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private final ScheduledExecutorService rebuilder;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Creates an empty index with the default compaction threshold.
+     */
+    public UserAutocompleteIndex() {
+        this(DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param compactionThreshold The number of overlay entries that triggers a background compaction.
+     */
+    public UserAutocompleteIndex(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-autocomplete-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a full reload from the database at a fixed interval, starting immediately.
+     *
+     * @param userDAO         The DAO to load users from.
+     * @param intervalMinutes The time between two reloads.
+     */
+    public void scheduleRebuilds(UserDAO userDAO, long intervalMinutes) {
+        rebuilder.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild(userDAO);
+            } catch (SQLException e) {
+                System.err.println("Error rebuilding user autocomplete index: " + e.getMessage());
+            }
+        }, 0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Reloads every user from the database and replaces the snapshot.
+     * Overlay entries recorded before the load started are reflected in it and
+     * are dropped; later ones are kept.
+     *
+     * @param userDAO The DAO to load users from.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void rebuild(UserDAO userDAO) throws SQLException {
+        synchronized (rebuildLock) {
+            Map<Integer, UserSummary> applied = new HashMap<>(overlay);
+            List<UserSummary> users = userDAO.getAllUserSummaries();
+            snapshot = build(users);
+            for (Map.Entry<Integer, UserSummary> entry : applied.entrySet()) {
+                overlay.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void userChanged(MutationKind kind, int userId, User user) {
+        if (kind != MutationKind.DELETE && user == null) {
+            // Only the password changed, which is not indexed.
+            return;
+        }
+        overlay.put(userId, kind == MutationKind.DELETE ? DELETED : UserSummary.of(user));
+        if (overlay.size() >= compactionThreshold && compactionScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::compact);
+        }
+    }
+
+    /**
+     * Finds users whose names or email start with the given text.
+     * Every whitespace-separated word of the query must prefix-match one of
+     * the user's keys, so "ana gar" matches Ana Garcia.
+     *
+     * @param query The text typed so far.
+     * @param role  The role to restrict results to, or null for any role.
+     * @param limit The maximum number of results.
+     * @return Up to limit matching users, ordered by the key they matched.
+     */
+    public List<UserSummary> suggest(String query, String role, int limit) {
+        List<String> words = query == null ? Collections.<String>emptyList() : splitQuery(query);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String first = words.get(0);
+        Snapshot current = snapshot;
+        Set<Integer> seen = new HashSet<>();
+        List<UserSummary> results = new ArrayList<>(limit);
+
+        int from = lowerBound(current.keys, first);
+        for (int i = from; i < current.keys.length && results.size() < limit && current.keys[i].startsWith(first); i++) {
+            int owner = current.owners[i];
+            UserSummary user = current.users[owner];
+            if (overlay.containsKey(user.getUserId()) || !seen.add(user.getUserId())) {
+                continue;
+            }
+            if (accepts(user, current.userKeys[owner], words, role)) {
+                results.add(user);
+            }
+        }
+        for (UserSummary user : overlay.values()) {
+            if (results.size() >= limit) {
+                break;
+            }
+            if (user != DELETED && !seen.contains(user.getUserId()) && accepts(user, keysOf(user), words, role)) {
+                results.add(user);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return The number of users in the current snapshot, not counting pending changes.
+     */
+    public int snapshotSize() {
+        return snapshot.users.length;
+    }
+
+    /**
+     * Stops the background rebuilds.
+     */
+    @Override
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Helper method that folds the overlay into a new snapshot without touching the database.
+     */
+    private void compact() {
+        try {
+            synchronized (rebuildLock) {
+                Map<Integer, UserSummary> applied = new HashMap<>(overlay);
+                Snapshot current = snapshot;
+                List<UserSummary> users = new ArrayList<>(current.users.length + applied.size());
+                for (UserSummary user : current.users) {
+                    if (!applied.containsKey(user.getUserId())) {
+                        users.add(user);
+                    }
+                }
+                for (UserSummary user : applied.values()) {
+                    if (user != DELETED) {
+                        users.add(user);
+                    }
+                }
+                snapshot = build(users);
+                for (Map.Entry<Integer, UserSummary> entry : applied.entrySet()) {
+                    overlay.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            compactionScheduled.set(false);
+        }
+    }
+
+    private static Snapshot build(Collection<UserSummary> users) {
+        UserSummary[] userArray = users.toArray(new UserSummary[0]);
+        String[][] userKeys = new String[userArray.length][];
+        int keyCount = 0;
+        for (int i = 0; i < userArray.length; i++) {
+            userKeys[i] = keysOf(userArray[i]);
+            keyCount += userKeys[i].length;
+        }
+        // Sort (key, owner) pairs by key through an index permutation to avoid a pair object per key.
+        String[] flatKeys = new String[keyCount];
+        int[] flatOwners = new int[keyCount];
+        int k = 0;
+        for (int i = 0; i < userArray.length; i++) {
+            for (String key : userKeys[i]) {
+                flatKeys[k] = key;
+                flatOwners[k] = i;
+                k++;
+            }
+        }
+        Integer[] order = new Integer[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> flatKeys[a].compareTo(flatKeys[b]));
+        String[] keys = new String[keyCount];
+        int[] owners = new int[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = flatKeys[order[i]];
+            owners[i] = flatOwners[order[i]];
+        }
+        return new Snapshot(keys, owners, userArray, userKeys);
+    }
+
+    private static String[] keysOf(UserSummary user) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.addAll(splitQuery(user.getFirstName()));
+        keys.addAll(splitQuery(user.getLastName()));
+        if (user.getEmail() != null) {
+            keys.add(TextNormalizer.fold(user.getEmail()));
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static List<String> splitQuery(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : TextNormalizer.fold(text).trim().split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static boolean accepts(UserSummary user, String[] keys, List<String> words, String role) {
+        if (role != null && !role.equalsIgnoreCase(user.getRole())) {
+            return false;
+        }
+        for (String word : words) {
+            boolean matched = false;
+            for (String key : keys) {
+                if (key.startsWith(word)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,266 @@
+package com.educagestor360.startup;
+
+import com.educagestor360.cache.CachingCourseDAO;
+import com.educagestor360.cache.CachingUserDAO;
+import com.educagestor360.dao.impl.CourseDAOImpl;
+import com.educagestor360.dao.impl.GradeDAOImpl;
+import com.educagestor360.dao.impl.ReportDAOImpl;
+import com.educagestor360.dao.impl.UserDAOImpl;
+import com.educagestor360.util.ConnectionPool;
+import com.educagestor360.util.DatabaseConnector;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the explicit startup phase that takes cold-start costs off the first
+ * requests after a deploy: it loads the JDBC driver, opens the pool's minimum
+ * connections in parallel (paying the TCP, TLS and authentication handshakes up
+ * front), prepares the hot statements on every connection and primes the user
+ * and course caches with the IDs that were most recently requested before the
+ * last shutdown. Only then is the pool installed and the application reported
+ * ready.
+ *
+ * The recently requested IDs are kept in a small text file written by
+ * {@link #saveRecentIds()}, normally from a shutdown hook.
+ */
+public class StartupWarmer {
+
+    /** The maximum number of IDs remembered per cache. */
+    public static final int RECENT_IDS_LIMIT = 2000;
+
+    private static final int PRIME_CHUNK_SIZE = 64;
+    private static final String USERS_KEY = "users";
+    private static final String COURSES_KEY = "courses";
+
+    private final ConnectionPool pool;
+    private final CachingUserDAO userDAO;
+    private final CachingCourseDAO courseDAO;
+    private final Path recentIdsFile;
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private volatile WarmupReport report;
+
+    /**
+     * Creates a warmer.
+     *
+     * @param pool          The pool to fill and install.
+     * @param userDAO       The user cache to prime, or null.
+     * @param courseDAO     The course cache to prime, or null.
+     * @param recentIdsFile The file holding the IDs to prime from; it may not exist yet.
+     */
+    public StartupWarmer(ConnectionPool pool, CachingUserDAO userDAO, CachingCourseDAO courseDAO, Path recentIdsFile) {
+        this.pool = pool;
+        this.userDAO = userDAO;
+        this.courseDAO = courseDAO;
+        this.recentIdsFile = recentIdsFile;
+    }
+
+    /**
+     * Runs every warm-up step and then marks the application ready. Nothing is
+     * printed; the caller logs the returned report where its logs go.
+     *
+     * @return The timings of each step, including the time to ready.
+     * @throws SQLException if the driver cannot be loaded or the pool cannot be filled.
+     * @throws IOException  if the recent IDs file exists but cannot be read.
+     */
+    public WarmupReport warm() throws SQLException, IOException {
+        long start = System.nanoTime();
+
+        long stepStart = System.nanoTime();
+        DatabaseConnector.loadDriver();
+        long driverMillis = millisSince(stepStart);
+
+        stepStart = System.nanoTime();
+        int connectionsOpened = pool.fill(Math.max(1, pool.getMinIdle()));
+        long poolFillMillis = millisSince(stepStart);
+
+        stepStart = System.nanoTime();
+        List<String> hotStatements = new ArrayList<>();
+        hotStatements.addAll(UserDAOImpl.HOT_STATEMENTS);
+        hotStatements.addAll(CourseDAOImpl.HOT_STATEMENTS);
+        hotStatements.addAll(GradeDAOImpl.HOT_STATEMENTS);
+        hotStatements.addAll(ReportDAOImpl.HOT_STATEMENTS);
+        int statementsPrepared = pool.prepareOnAll(hotStatements);
+        long prepareMillis = millisSince(stepStart);
+
+        // Cache priming already runs through the pool, so install it first.
+        DatabaseConnector.usePool(pool);
+
+        stepStart = System.nanoTime();
+        Map<String, int[]> recentIds = readRecentIds(recentIdsFile);
+        int[] primed = primeCaches(recentIds.getOrDefault(USERS_KEY, new int[0]),
+                recentIds.getOrDefault(COURSES_KEY, new int[0]));
+        long cachePrimeMillis = millisSince(stepStart);
+
+        long timeToReady = ManagementFactory.getRuntimeMXBean().getUptime();
+        report = new WarmupReport(driverMillis, poolFillMillis, connectionsOpened, prepareMillis, statementsPrepared,
+                cachePrimeMillis, primed[0], primed[1], millisSince(start), timeToReady);
+        ready.countDown();
+        return report;
+    }
+
+    /**
+     * @return true once {@link #warm()} has completed.
+     */
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
+
+    /**
+     * Waits until the warm-up has completed.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return true if ready, false if the timeout elapsed first.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    /**
+     * @return The report of the completed warm-up, or null if not ready yet.
+     */
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    /**
+     * Writes the most recently requested user and course IDs for the next start.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void saveRecentIds() throws IOException {
+        Path temp = recentIdsFile.resolveSibling(recentIdsFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.US_ASCII)) {
+            if (userDAO != null) {
+                writeIds(writer, USERS_KEY, userDAO.getCache().getRecentIds(RECENT_IDS_LIMIT));
+            }
+            if (courseDAO != null) {
+                writeIds(writer, COURSES_KEY, courseDAO.getCache().getRecentIds(RECENT_IDS_LIMIT));
+            }
+        }
+        Files.move(temp, recentIdsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Helper method that loads both caches in parallel, in chunks, one connection per worker.
+     *
+     * @return The number of users and of courses loaded.
+     */
+    private int[] primeCaches(int[] userIds, int[] courseIds) throws SQLException {
+        AtomicInteger usersPrimed = new AtomicInteger();
+        AtomicInteger coursesPrimed = new AtomicInteger();
+        List<PrimeTask> tasks = new ArrayList<>();
+        if (userDAO != null) {
+            for (int i = 0; i < userIds.length; i += PRIME_CHUNK_SIZE) {
+                int[] chunk = Arrays.copyOfRange(userIds, i, Math.min(userIds.length, i + PRIME_CHUNK_SIZE));
+                tasks.add(() -> usersPrimed.addAndGet(userDAO.prime(chunk)));
+            }
+        }
+        if (courseDAO != null) {
+            for (int i = 0; i < courseIds.length; i += PRIME_CHUNK_SIZE) {
+                int[] chunk = Arrays.copyOfRange(courseIds, i, Math.min(courseIds.length, i + PRIME_CHUNK_SIZE));
+                tasks.add(() -> coursesPrimed.addAndGet(courseDAO.prime(chunk)));
+            }
+        }
+        if (tasks.isEmpty()) {
+            return new int[] {0, 0};
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(pool.getMinIdle(), tasks.size())), r -> {
+            Thread thread = new Thread(r, "cache-prime-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (PrimeTask task : tasks) {
+                futures.add(executor.submit(() -> {
+                    task.run();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // A cold cache is slower, not wrong; keep starting up.
+                    System.err.println("Error priming cache: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while priming caches", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new int[] {usersPrimed.get(), coursesPrimed.get()};
+    }
+
+    /**
+     * One chunk of IDs to load into a cache.
+     */
+    private interface PrimeTask {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Helper method that reads the recent IDs file: one line per cache, the name followed by IDs.
+     */
+    private static Map<String, int[]> readRecentIds(Path file) throws IOException {
+        Map<String, int[]> ids = new HashMap<>();
+        if (!Files.exists(file)) {
+            return ids;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length < 2) {
+                continue;
+            }
+            int[] values = new int[parts.length - 1];
+            int n = 0;
+            for (int i = 1; i < parts.length; i++) {
+                try {
+                    values[n++] = Integer.parseInt(parts[i]);
+                } catch (NumberFormatException e) {
+                    n--;
+                }
+            }
+            ids.put(parts[0], Arrays.copyOf(values, n));
+        }
+        return ids;
+    }
+
+    private static void writeIds(BufferedWriter writer, String key, int[] ids) throws IOException {
+        writer.write(key);
+        for (int id : ids) {
+            writer.write(' ');
+            writer.write(Integer.toString(id));
+        }
+        writer.newLine();
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,95 @@
+package com.educagestor360.startup;
+
+/**
+ * What a {@link StartupWarmer} did and how long each step took.
+ */
+public class WarmupReport {
+
+    private final long driverMillis;
+    private final long poolFillMillis;
+    private final int connectionsOpened;
+    private final long prepareMillis;
+    private final int statementsPrepared;
+    private final long cachePrimeMillis;
+    private final int usersPrimed;
+    private final int coursesPrimed;
+    private final long warmupMillis;
+    private final long timeToReadyMillis;
+
+    public WarmupReport(long driverMillis, long poolFillMillis, int connectionsOpened, long prepareMillis,
+                        int statementsPrepared, long cachePrimeMillis, int usersPrimed, int coursesPrimed,
+                        long warmupMillis, long timeToReadyMillis) {
+        this.driverMillis = driverMillis;
+        this.poolFillMillis = poolFillMillis;
+        this.connectionsOpened = connectionsOpened;
+        this.prepareMillis = prepareMillis;
+        this.statementsPrepared = statementsPrepared;
+        this.cachePrimeMillis = cachePrimeMillis;
+        this.usersPrimed = usersPrimed;
+        this.coursesPrimed = coursesPrimed;
+        this.warmupMillis = warmupMillis;
+        this.timeToReadyMillis = timeToReadyMillis;
+    }
+
+    public long getDriverMillis() {
+        return driverMillis;
+    }
+
+    public long getPoolFillMillis() {
+        return poolFillMillis;
+    }
+
+    public int getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    public long getPrepareMillis() {
+        return prepareMillis;
+    }
+
+    public int getStatementsPrepared() {
+        return statementsPrepared;
+    }
+
+    public long getCachePrimeMillis() {
+        return cachePrimeMillis;
+    }
+
+    public int getUsersPrimed() {
+        return usersPrimed;
+    }
+
+    public int getCoursesPrimed() {
+        return coursesPrimed;
+    }
+
+    /**
+     * @return The time spent in the warm-up itself.
+     */
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    /**
+     * @return The time from JVM start until the application was reported ready.
+     */
+    public long getTimeToReadyMillis() {
+        return timeToReadyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmupReport{" +
+                "driverMillis=" + driverMillis +
+                ", poolFillMillis=" + poolFillMillis +
+                ", connectionsOpened=" + connectionsOpened +
+                ", prepareMillis=" + prepareMillis +
+                ", statementsPrepared=" + statementsPrepared +
+                ", cachePrimeMillis=" + cachePrimeMillis +
+                ", usersPrimed=" + usersPrimed +
+                ", coursesPrimed=" + coursesPrimed +
+                ", warmupMillis=" + warmupMillis +
+                ", timeToReadyMillis=" + timeToReadyMillis +
+                '}';
+    }
+}
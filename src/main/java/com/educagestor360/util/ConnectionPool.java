@@ -0,0 +1,567 @@
+package com.educagestor360.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of physical JDBC connections to one database.
+ *
+ * Callers receive a wrapper whose {@code close()} hands the physical connection
+ * back to the pool instead of closing it, so DAO code keeps its usual
+ * try-with-resources shape. Connections are opened lazily up to the maximum
+ * size, or eagerly with {@link #fill(int)}. Prepared statement caching is
+ * switched on in the driver, so statements prepared once on a pooled connection
+ * (see {@link #prepareOnAll(Collection)}) are reused by later callers. Every
+ * statement gets the query timeout of the current {@link DatabaseCallContext}.
+ */
+public class ConnectionPool implements ConnectionProvider, AutoCloseable {
+
+    /** How long a caller waits for a free connection unless told otherwise. */
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 30_000;
+
+    // Idle connections older than this are checked with isValid before being handed out.
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long SLOW_QUERY_THRESHOLD_MILLIS =
+            Long.getLong("educagestor360.slowQueryMillis", 250);
+    private static final int SLOW_QUERY_SAMPLES = 64;
+
+    private final String name;
+    private final String url;
+    private final Properties properties;
+    private final int minIdle;
+    private final int maxSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private volatile String initSql;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(SLOW_QUERY_THRESHOLD_MILLIS, SLOW_QUERY_SAMPLES);
+    private final AtomicInteger timeouts = new AtomicInteger();
+
+    /**
+     * Creates an empty pool; no connection is opened until needed or {@link #fill(int)} is called.
+     *
+     * @param name     A name used for reporting and thread names.
+     * @param url      The JDBC URL.
+     * @param user     The database user.
+     * @param password The database password.
+     * @param minIdle  The number of connections {@link #fill(int)} opens.
+     * @param maxSize  The maximum number of open connections.
+     */
+    public ConnectionPool(String name, String url, String user, String password, int minIdle, int maxSize) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minIdle + ", max " + maxSize);
+        }
+        this.name = name;
+        this.url = url;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.properties = new Properties();
+        properties.setProperty("user", user);
+        properties.setProperty("password", password);
+        // Let Connector/J keep server-side prepared statements per connection.
+        properties.setProperty("useServerPrepStmts", "true");
+        properties.setProperty("cachePrepStmts", "true");
+        properties.setProperty("prepStmtCacheSize", "256");
+        properties.setProperty("prepStmtCacheSqlLimit", "2048");
+    }
+
+    /**
+     * Sets a statement run on every connection right after it is opened, for
+     * example to set session variables. Connections already open are unaffected.
+     *
+     * @param sql The statement, or null for none.
+     */
+    public void setConnectionInitSql(String sql) {
+        this.initSql = sql;
+    }
+
+    /**
+     * Borrows a connection, waiting up to {@link #DEFAULT_ACQUIRE_TIMEOUT_MILLIS}.
+     *
+     * @return A pooled connection; closing it returns it to the pool.
+     * @throws SQLException if no connection could be opened or the wait timed out.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DEFAULT_ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection.
+     *
+     * @param timeout How long to wait for a free connection.
+     * @param unit    The unit of the timeout.
+     * @return A pooled connection; closing it returns it to the pool.
+     * @throws SQLTimeoutException if no connection became free in time.
+     * @throws SQLException        if the pool is closed or a connection could not be opened.
+     */
+    public Connection getConnection(long timeout, TimeUnit unit) throws SQLException {
+        long start = System.nanoTime();
+        long remaining = unit.toNanos(timeout);
+        boolean open = false;
+        IdleConnection candidate = null;
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool " + name + " is closed");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++;
+                        open = true;
+                        break;
+                    }
+                    if (remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLTimeoutException("Timed out after " + unit.toMillis(timeout)
+                                + " ms waiting for a connection from pool " + name);
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } finally {
+                waiting--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool " + name, e);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Connection physical = open ? openPhysical() : validate(candidate);
+            return wrap(physical);
+        } finally {
+            waitTime.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Opens connections in parallel until the pool holds at least its minimum.
+     *
+     * @param parallelism The number of connections opened at once.
+     * @return The number of connections opened.
+     * @throws SQLException if a connection could not be opened.
+     */
+    public int fill(int parallelism) throws SQLException {
+        int toOpen;
+        lock.lock();
+        try {
+            toOpen = Math.max(0, minIdle - total);
+            total += toOpen;
+        } finally {
+            lock.unlock();
+        }
+        if (toOpen == 0) {
+            return 0;
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, toOpen)), r -> {
+            Thread thread = new Thread(r, name + "-fill-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Connection>> futures = new ArrayList<>(toOpen);
+            for (int i = 0; i < toOpen; i++) {
+                futures.add(executor.submit(this::openPhysical));
+            }
+            SQLException failure = null;
+            int opened = 0;
+            for (Future<Connection> future : futures) {
+                try {
+                    release(future.get());
+                    opened++;
+                } catch (ExecutionException e) {
+                    // openPhysical has already given back the slot.
+                    if (failure == null) {
+                        failure = e.getCause() instanceof SQLException
+                                ? (SQLException) e.getCause()
+                                : new SQLException("Could not open a connection for pool " + name, e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while filling pool " + name, e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return opened;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Prepares each statement once on every idle connection so the driver's
+     * statement cache is populated before traffic arrives.
+     *
+     * @param sqls The statements to prepare.
+     * @return The number of statements prepared.
+     * @throws SQLException if a statement cannot be prepared.
+     */
+    public int prepareOnAll(Collection<String> sqls) throws SQLException {
+        List<Connection> borrowed = new ArrayList<>();
+        int prepared = 0;
+        try {
+            // Borrow everything that is idle so each physical connection is visited once.
+            while (true) {
+                IdleConnection next;
+                lock.lock();
+                try {
+                    next = idle.pollFirst();
+                } finally {
+                    lock.unlock();
+                }
+                if (next == null) {
+                    break;
+                }
+                borrowed.add(next.connection);
+            }
+            for (Connection connection : borrowed) {
+                for (String sql : sqls) {
+                    // Closing returns the statement to the driver's cache rather than discarding it.
+                    connection.prepareStatement(sql).close();
+                    prepared++;
+                }
+            }
+            return prepared;
+        } finally {
+            for (Connection connection : borrowed) {
+                release(connection);
+            }
+        }
+    }
+
+    /**
+     * Closes every idle connection and refuses new borrowers. Connections that
+     * are still borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        List<IdleConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (IdleConnection connection : toClose) {
+            closeQuietly(connection.connection);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The number of connections currently borrowed or being opened.
+     */
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return total - idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of open connections waiting in the pool.
+     */
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of callers currently waiting for a connection.
+     */
+    public int getWaitingCount() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The histogram of time spent borrowing connections.
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * @return The statements that ran slower than {@code educagestor360.slowQueryMillis} (250 ms by default).
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * @return The number of borrow attempts that timed out.
+     */
+    public int getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Helper method that opens a new physical connection, giving back its slot on failure.
+     */
+    private Connection openPhysical() throws SQLException {
+        try {
+            DatabaseConnector.loadDriver();
+            Connection connection = DriverManager.getConnection(url, properties);
+            String sql = initSql;
+            if (sql != null) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(sql);
+                } catch (SQLException e) {
+                    closeQuietly(connection);
+                    throw e;
+                }
+            }
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            discardSlot();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper method that checks a connection that sat idle for a while, replacing it if broken.
+     */
+    private Connection validate(IdleConnection candidate) throws SQLException {
+        if (System.nanoTime() - candidate.idleSince < VALIDATE_AFTER_IDLE_NANOS) {
+            return candidate.connection;
+        }
+        boolean valid;
+        try {
+            valid = candidate.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            valid = false;
+        }
+        if (valid) {
+            return candidate.connection;
+        }
+        closeQuietly(candidate.connection);
+        // The slot stays reserved for the replacement.
+        return openPhysical();
+    }
+
+    /**
+     * Helper method that returns a physical connection to the idle list.
+     */
+    private void release(Connection physical) {
+        boolean reusable;
+        try {
+            reusable = !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                // A caller left a transaction open; never hand its work to the next borrower.
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            reusable = false;
+        }
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(physical);
+        discardSlot();
+    }
+
+    /**
+     * Helper method that frees the slot of a connection that is gone.
+     */
+    private void discardSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new PooledHandler(physical));
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled Connection: " + e.getMessage());
+        }
+    }
+
+    private static final class IdleConnection {
+        final Connection connection;
+        final long idleSince;
+
+        IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the borrower closes it.
+     */
+    private final class PooledHandler implements InvocationHandler {
+
+        private final Connection physical;
+        private boolean returned;
+
+        PooledHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + name + "] " + physical;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to pool " + name);
+            }
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                DatabaseCallContext context = DatabaseCallContext.current();
+                if (context != null && context.getQueryTimeoutSeconds() > 0) {
+                    ((Statement) result).setQueryTimeout(context.getQueryTimeoutSeconds());
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = method.getReturnType();
+                return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                        new TimedStatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times the execute methods of a statement and reports slow ones.
+     */
+    private final class TimedStatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String sql;
+
+        TimedStatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return method.invoke(statement, args);
+                }
+            }
+            boolean timed = method.getName().startsWith("execute");
+            long start = timed ? System.nanoTime() : 0;
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (timed) {
+                    String text = sql != null ? sql
+                            : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    slowQueryLog.record(text, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+}
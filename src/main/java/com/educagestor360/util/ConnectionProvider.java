@@ -0,0 +1,19 @@
+package com.educagestor360.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A source of JDBC connections, such as {@link DatabaseConnector} or a {@link ConnectionPool}.
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+
+    /**
+     * Returns a connection; closing it releases it.
+     *
+     * @return A {@link Connection}.
+     * @throws SQLException if no connection can be obtained.
+     */
+    Connection getConnection() throws SQLException;
+}
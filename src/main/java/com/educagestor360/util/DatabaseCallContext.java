@@ -0,0 +1,62 @@
+package com.educagestor360.util;
+
+/**
+ * Per-thread limits for the database call in progress. A caller that wants a
+ * query timeout or a bounded wait for a connection enters a context before
+ * calling a DAO. When a {@link ConnectionPool} is installed in
+ * {@link DatabaseConnector}, the context applies to every connection borrowed
+ * and every statement created on that thread.
+ */
+public final class DatabaseCallContext {
+
+    private static final ThreadLocal<DatabaseCallContext> CURRENT = new ThreadLocal<>();
+
+    private final int queryTimeoutSeconds;
+    private final long acquireTimeoutMillis;
+
+    private DatabaseCallContext(int queryTimeoutSeconds, long acquireTimeoutMillis) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Makes the given limits current for this thread.
+     *
+     * @param queryTimeoutSeconds  The timeout applied to each statement, or 0 for none.
+     * @param acquireTimeoutMillis The longest wait for a pooled connection.
+     * @return The previous context, to hand to {@link #restore(DatabaseCallContext)}.
+     */
+    public static DatabaseCallContext enter(int queryTimeoutSeconds, long acquireTimeoutMillis) {
+        DatabaseCallContext previous = CURRENT.get();
+        CURRENT.set(new DatabaseCallContext(queryTimeoutSeconds, acquireTimeoutMillis));
+        return previous;
+    }
+
+    /**
+     * Reinstates the context that was current before {@link #enter(int, long)}.
+     *
+     * @param previous The value returned by {@code enter}, possibly null.
+     */
+    public static void restore(DatabaseCallContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return The context of the current thread, or null if none was entered.
+     */
+    public static DatabaseCallContext current() {
+        return CURRENT.get();
+    }
+
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+}
@@ -5,35 +5,117 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for managing database connections.
  * Provides methods to get and close JDBC connections.
+ * The URL and credentials can be overridden with the system properties
+ * {@code educagestor360.db.url}, {@code educagestor360.db.user} and
+ * {@code educagestor360.db.password}.
  */
 public class DatabaseConnector {
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/educagestor360";
-    private static final String DB_USER = "your_db_user"; // Replace with your actual database username
-    private static final String DB_PASSWORD = "your_db_password"; // Replace with your actual database password
+    private static final String DB_URL =
+            System.getProperty("educagestor360.db.url", "jdbc:mysql://localhost:3306/educagestor360");
+    private static final String DB_USER =
+            System.getProperty("educagestor360.db.user", "your_db_user"); // Replace with your actual database username
+    private static final String DB_PASSWORD =
+            System.getProperty("educagestor360.db.password", "your_db_password"); // Replace with your actual database password
+
+    // Time spent waiting for getConnection, so load tests can tell connection starvation from slow SQL.
+    private static final LatencyHistogram ACQUIRE_LATENCY = new LatencyHistogram();
+
+    private static volatile boolean driverLoaded;
+    private static volatile ConnectionPool pool;
 
     /**
-     * Establishes and returns a connection to the database.
+     * Establishes and returns a connection to the database. When a pool has been
+     * installed with {@link #usePool(ConnectionPool)} the connection is borrowed
+     * from it, and closing it returns it to the pool; the wait is bounded by the
+     * current {@link DatabaseCallContext}, if any.
      *
      * @return A {@link Connection} object to the database.
      * @throws SQLException if a database access error occurs or the url is null.
      */
     public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
         try {
-            // Load the MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            // This exception should ideally be handled more gracefully,
-            // perhaps by logging and re-throwing as a runtime exception
-            // or a custom application-specific exception.
-            System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
-            throw new SQLException("MySQL JDBC Driver not found", e);
+            ConnectionPool current = pool;
+            if (current != null) {
+                DatabaseCallContext context = DatabaseCallContext.current();
+                return context == null
+                        ? current.getConnection()
+                        : current.getConnection(context.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+            }
+            loadDriver();
+            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        } finally {
+            ACQUIRE_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Loads the MySQL JDBC driver. Only the first call does any work, so it is
+     * cheap to call before every connection and can be called early at startup
+     * to take the class loading cost off the first request.
+     *
+     * @throws SQLException if the driver is not on the classpath.
+     */
+    public static void loadDriver() throws SQLException {
+        if (driverLoaded) {
+            return;
+        }
+        synchronized (DatabaseConnector.class) {
+            if (driverLoaded) {
+                return;
+            }
+            try {
+                // Load the MySQL JDBC driver
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
+                throw new SQLException("MySQL JDBC Driver not found", e);
+            }
+            driverLoaded = true;
         }
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+    }
+
+    /**
+     * Creates a pool for the configured database. The pool is not installed;
+     * pass it to {@link #usePool(ConnectionPool)} once it is ready.
+     *
+     * @param minIdle The number of connections to open when the pool is filled.
+     * @param maxSize The maximum number of open connections.
+     * @return A new, empty pool.
+     */
+    public static ConnectionPool createPool(int minIdle, int maxSize) {
+        return new ConnectionPool("main", DB_URL, DB_USER, DB_PASSWORD, minIdle, maxSize);
+    }
+
+    /**
+     * Makes {@link #getConnection()} borrow from the given pool.
+     *
+     * @param connectionPool The pool to use, or null to open a new connection per call again.
+     */
+    public static void usePool(ConnectionPool connectionPool) {
+        pool = connectionPool;
+    }
+
+    /**
+     * @return The installed pool, or null if connections are opened per call.
+     */
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the histogram of time spent in {@link #getConnection()}, successful or not.
+     *
+     * @return The live connection acquisition histogram.
+     */
+    public static LatencyHistogram getAcquireLatency() {
+        return ACQUIRE_LATENCY;
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.educagestor360.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive int keys to objects, using open addressing with
+ * linear probing. Keys are stored in an int[] and never boxed. Removal is not
+ * supported; the map is meant to be filled once and then read.
+ *
+ * @param <V> The type of the values.
+ */
+public class IntObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Creates a map sized for the given number of entries.
+     *
+     * @param expectedSize The number of entries expected.
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether a key is present.
+     *
+     * @param key The key.
+     * @return true if the key has a value.
+     */
+    public boolean containsKey(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Associates a value with a key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The previous value, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The keys currently in the map, in no particular order.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                @SuppressWarnings("unchecked")
+                V value = (V) oldValues[i];
+                put(oldKeys[i], value);
+            }
+        }
+        Arrays.fill(oldValues, null);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,185 @@
+package com.educagestor360.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds with log-linear buckets:
+ * every power of two is split into 16 equal sub-buckets, so any recorded value
+ * is reported with a relative error below 7%. Recording is a single atomic
+ * increment, which makes it cheap enough for every DAO call.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 42; // about 73 minutes in nanoseconds
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The mean of the recorded values in nanoseconds, or 0 if empty.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @return The largest recorded value in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an approximation of a percentile.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The value in nanoseconds at or below which the given share of values fall.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? max.get() : Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @return The sum of the recorded values in nanoseconds.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Counts the recorded values at or below a bound, to the precision of the buckets.
+     *
+     * @param nanos The bound in nanoseconds.
+     * @return The number of values in buckets whose upper edge is at or below the bound.
+     */
+    public long getCountAtOrBelow(long nanos) {
+        long result = 0;
+        for (int i = 0; i < BUCKETS && upperBoundOf(i) <= nanos; i++) {
+            result += counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cumulative count of values at or below each bucket boundary,
+     * skipping empty buckets. Used to export the histogram.
+     *
+     * @return Pairs of {upper bound in nanoseconds, cumulative count}.
+     */
+    public long[][] getCumulativeBuckets() {
+        long[][] result = new long[BUCKETS][];
+        int n = 0;
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c > 0) {
+                cumulative += c;
+                result[n++] = new long[] {upperBoundOf(i), cumulative};
+            }
+        }
+        long[][] trimmed = new long[n][];
+        System.arraycopy(result, 0, trimmed, 0, n);
+        return trimmed;
+    }
+
+    /**
+     * Returns an independent copy of the current contents. Values recorded
+     * concurrently with the copy may or may not be included.
+     *
+     * @return A new histogram holding the same counts.
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            copy.counts.set(i, c);
+            total += c;
+        }
+        copy.count.add(total);
+        copy.sum.add(sum.sum());
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,231 @@
+package com.educagestor360.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over strings that grows with its contents.
+ *
+ * The filter is a series of stages. Items go into the newest stage until it
+ * holds its planned number of items; then a stage twice as large with half the
+ * false-positive rate is added. A lookup checks every stage, so the overall
+ * false-positive rate stays below twice the rate of the first stage however
+ * many items are added. Items can never be removed: a filter that must forget
+ * items is rebuilt instead.
+ *
+ * Adding and looking up never lock; only adding a stage does.
+ */
+public final class ScalableBloomFilter {
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private static final class Stage {
+        final AtomicLongArray words;
+        final long bits;
+        final int hashes;
+        final long capacity;
+        final AtomicLong items = new AtomicLong();
+        final AtomicLong setBits = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            long wanted = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / LN2_SQUARED);
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (wanted + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean put(long h1, long h2) {
+            boolean changed = false;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        setBits.incrementAndGet();
+                        changed = true;
+                        break;
+                    }
+                    word = words.get(index);
+                }
+            }
+            if (changed) {
+                items.incrementAndGet();
+            }
+            return changed;
+        }
+
+        double falsePositiveRate() {
+            return Math.pow((double) setBits.get() / bits, hashes);
+        }
+    }
+
+    private final double falsePositiveRate;
+    private volatile Stage[] stages;
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param expectedItems     The number of items the first stage is sized for.
+     * @param falsePositiveRate The overall false-positive rate to stay below, between 0 and 1.
+     */
+    public ScalableBloomFilter(long expectedItems, double falsePositiveRate) {
+        if (expectedItems <= 0) {
+            throw new IllegalArgumentException("expectedItems must be positive: " + expectedItems);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // The stage rates form a geometric series, so halving the first one bounds their sum.
+        this.stages = new Stage[] {new Stage(expectedItems, falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    /**
+     * Adds an item.
+     *
+     * @param item The item to add.
+     * @return false if the item was possibly present already, true if it was certainly new.
+     */
+    public boolean put(String item) {
+        long h1 = hash(item);
+        long h2 = secondHash(h1);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(h1, h2)) {
+                return false;
+            }
+        }
+        Stage last = current[current.length - 1];
+        if (last.items.get() >= last.capacity) {
+            last = grow(last);
+        }
+        return last.put(h1, h2);
+    }
+
+    /**
+     * Tells whether an item may have been added.
+     *
+     * @param item The item to look up.
+     * @return false if the item was certainly never added, true if it possibly was.
+     */
+    public boolean mightContain(String item) {
+        long h1 = hash(item);
+        long h2 = secondHash(h1);
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The approximate number of distinct items added.
+     */
+    public long getApproximateCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.items.get();
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of stages, which grows by one each time the newest stage fills up.
+     */
+    public int getStageCount() {
+        return stages.length;
+    }
+
+    /**
+     * @return The memory held by the bit arrays, in bytes.
+     */
+    public long getSizeInBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += stage.bits / 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the current false-positive rate from how many bits each stage has set.
+     *
+     * @return The probability that a lookup of an item never added returns true.
+     */
+    public double getEstimatedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (Stage stage : stages) {
+            allNegative *= 1.0 - stage.falsePositiveRate();
+        }
+        return 1.0 - allNegative;
+    }
+
+    /**
+     * @return The false-positive rate the filter was created for.
+     */
+    public double getTargetFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    private synchronized Stage grow(Stage full) {
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        double previousRate = falsePositiveRate * (1 - TIGHTENING) * Math.pow(TIGHTENING, current.length - 1);
+        Stage next = new Stage(full.capacity * GROWTH, previousRate * TIGHTENING);
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = next;
+        stages = grown;
+        return next;
+    }
+
+    /**
+     * Helper method computing a 64-bit FNV-1a hash of a string, finished with the
+     * MurmurHash3 mixer so that every input bit affects every output bit.
+     */
+    private static long hash(String item) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            h ^= item.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Helper method deriving the step of the double-hashing sequence; it is kept
+     * odd so it is never zero, which would put every probe on the same bit.
+     */
+    private static long secondHash(long h1) {
+        return mix(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,101 @@
+package com.educagestor360.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent statements that ran longer than a threshold.
+ * Recording is lock-free; older samples are overwritten once the log is full.
+ */
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<Sample> samples;
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * Creates a log.
+     *
+     * @param thresholdMillis Statements at least this slow are kept.
+     * @param capacity        The number of samples kept.
+     */
+    public SlowQueryLog(long thresholdMillis, int capacity) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.samples = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Records a statement execution if it was slow.
+     *
+     * @param sql   The SQL text, or null if unknown.
+     * @param nanos How long the execution took.
+     */
+    public void record(String sql, long nanos) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        long slot = recorded.getAndIncrement();
+        samples.set((int) (slot % samples.length()), new Sample(sql, nanos / 1_000_000, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return The kept samples, newest first.
+     */
+    public List<Sample> getSamples() {
+        List<Sample> result = new ArrayList<>();
+        long end = recorded.get();
+        long start = Math.max(0, end - samples.length());
+        for (long i = end - 1; i >= start; i--) {
+            Sample sample = samples.get((int) (i % samples.length()));
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of slow statements seen since creation.
+     */
+    public long getSlowCount() {
+        return recorded.get();
+    }
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * One slow statement execution.
+     */
+    public static final class Sample {
+
+        private final String sql;
+        private final long durationMillis;
+        private final long timestamp;
+
+        Sample(String sql, long durationMillis, long timestamp) {
+            this.sql = sql;
+            this.durationMillis = durationMillis;
+            this.timestamp = timestamp;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * @return When the statement finished, in epoch milliseconds.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
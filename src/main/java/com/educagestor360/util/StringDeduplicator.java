@@ -0,0 +1,94 @@
+package com.educagestor360.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, lock-free table that hands out one shared instance for equal
+ * strings, for values that repeat across many rows such as grade comments or
+ * first names. Each string hashes to two adjacent slots; a hit returns the
+ * string already there and moves it to the first slot, a miss stores the new
+ * one in the second. The table therefore never grows past its slot count, and
+ * values that stop repeating are overwritten by ones that do. Races between
+ * threads can only cost a missed deduplication, never a wrong value.
+ *
+ * Unlike {@link String#intern()}, entries never outlive the table and lookups
+ * never contend on a lock. Strings longer than the length limit are returned
+ * as they are, since long text rarely repeats exactly.
+ */
+public final class StringDeduplicator {
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final int maxLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a table.
+     *
+     * @param slots     The number of slots, rounded up to a power of two.
+     * @param maxLength The longest string deduplicated.
+     */
+    public StringDeduplicator(int slots, int maxLength) {
+        if (slots <= 0 || maxLength <= 0) {
+            throw new IllegalArgumentException("slots and maxLength must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the shared instance of a string.
+     *
+     * @param value The string, possibly null.
+     * @return An equal string, the same instance as returned for earlier equal values when still in the table.
+     */
+    public String dedup(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int first = (hash ^ (hash >>> 16)) & mask;
+        int second = (first + 1) & mask;
+        String existing = slots.get(first);
+        if (existing != null && existing.equals(value)) {
+            hits.increment();
+            return existing;
+        }
+        String other = slots.get(second);
+        if (other != null && other.equals(value)) {
+            // Promote the value that was just hit, demoting the first slot's occupant.
+            slots.set(first, other);
+            slots.set(second, existing);
+            hits.increment();
+            return other;
+        }
+        misses.increment();
+        slots.set(existing == null ? first : second, value);
+        return value;
+    }
+
+    /**
+     * @return The number of lookups that returned a shared instance.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that stored a new instance.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of slots.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+}